@@ -12,6 +12,7 @@ package edu.uci.ics.jung.algorithms.scoring;
 
 import com.google.common.base.Preconditions;
 import com.google.common.graph.Network;
+import edu.uci.ics.jung.algorithms.util.CompressedSparseRowGraph;
 import edu.uci.ics.jung.algorithms.util.MapBinaryHeap;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -22,11 +23,20 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Function;
 
 /**
  * Computes betweenness centrality for each node and edge in the graph.
  *
+ * <p>The constructors that accept a {@code ForkJoinPool} split the source nodes into contiguous
+ * ranges that are run on the threads of that pool; each range accumulates the dependencies of its
+ * sources in its own index-based arrays, and the partial node and edge scores of the ranges are
+ * summed in range order once all sources have been processed. The ranges depend only on the number
+ * of nodes and the parallelism of the pool, so the scores are the same on every run; they differ
+ * from those of the serial constructors only by the order in which the dependencies are summed.
+ *
  * @see "Ulrik Brandes: A Faster Algorithm for Betweenness Centrality. Journal of Mathematical
  *     Sociology 25(2):163-177, 2001."
  */
@@ -57,12 +67,7 @@ public class BetweennessCentrality<N, E> implements NodeScorer<N, Double>, EdgeS
    */
   public BetweennessCentrality(
       Network<N, E> graph, Function<? super E, ? extends Number> edge_weights) {
-    // reject negative-weight edges up front
-    for (E e : graph.edges()) {
-      double e_weight = edge_weights.apply(e).doubleValue();
-      Preconditions.checkArgument(e_weight >= 0, "Weight for edge '%s' is < 0: %d", e, e_weight);
-    }
-
+    checkWeights(graph, edge_weights);
     initialize(graph);
     computeBetweenness(
         new MapBinaryHeap<N>(
@@ -70,6 +75,42 @@ public class BetweennessCentrality<N, E> implements NodeScorer<N, Double>, EdgeS
         edge_weights);
   }
 
+  /**
+   * Calculates betweenness scores based on the all-pairs unweighted shortest paths in the graph,
+   * distributing the single-source computations across the threads of {@code pool}.
+   *
+   * @param graph the graph for which the scores are to be calculated
+   * @param pool the pool on which the single-source computations are to be run
+   */
+  public BetweennessCentrality(Network<N, E> graph, ForkJoinPool pool) {
+    initialize(graph);
+    computeBetweenness(pool, null);
+  }
+
+  /**
+   * Calculates betweenness scores based on the all-pairs weighted shortest paths in the graph,
+   * distributing the single-source computations across the threads of {@code pool}.
+   *
+   * @param graph the graph for which the scores are to be calculated
+   * @param edge_weights the edge weights to be used in the path length calculations
+   * @param pool the pool on which the single-source computations are to be run
+   */
+  public BetweennessCentrality(
+      Network<N, E> graph, Function<? super E, ? extends Number> edge_weights, ForkJoinPool pool) {
+    checkWeights(graph, edge_weights);
+    initialize(graph);
+    computeBetweenness(pool, edge_weights);
+  }
+
+  // reject negative-weight edges up front
+  private static <N, E> void checkWeights(
+      Network<N, E> graph, Function<? super E, ? extends Number> edge_weights) {
+    for (E e : graph.edges()) {
+      double e_weight = edge_weights.apply(e).doubleValue();
+      Preconditions.checkArgument(e_weight >= 0, "Weight for edge '%s' is < 0: %d", e, e_weight);
+    }
+  }
+
   protected void initialize(Network<N, E> graph) {
     this.graph = graph;
     this.node_scores = new HashMap<N, Double>();
@@ -154,6 +195,7 @@ public class BetweennessCentrality<N, E> implements NodeScorer<N, Double>, EdgeS
             // invalidate previously identified incoming edges
             // (we have a new shortest path distance to x)
             x_data.incomingEdges.clear();
+            x_data.numSPs = 0;
             // update x's position in queue
             ((MapBinaryHeap<N>) queue).update(x);
           }
@@ -223,6 +265,40 @@ public class BetweennessCentrality<N, E> implements NodeScorer<N, Double>, EdgeS
     node_data.clear();
   }
 
+  /**
+   * Computes the betweenness scores using the threads of {@code pool}. The source nodes are split
+   * into contiguous ranges, which are processed against a {@code CompressedSparseRowGraph} snapshot
+   * of the graph; each range accumulates its sources into its own {@code BrandesAccumulator}, and
+   * the partial scores of the ranges are summed in range order once all ranges complete.
+   *
+   * @param pool the pool on which the single-source computations are to be run
+   * @param edge_weights the edge weights, or {@code null} if the shortest paths are unweighted
+   */
+  protected void computeBetweenness(
+      ForkJoinPool pool, Function<? super E, ? extends Number> edge_weights) {
+    CompressedSparseRowGraph<N, E> csr = CompressedSparseRowGraph.of(graph, edge_weights);
+    int nodeCount = csr.nodeCount();
+    if (nodeCount == 0) {
+      return;
+    }
+    int grain = Math.max(1, nodeCount / (pool.getParallelism() * 4));
+    BrandesAccumulator[] ranges = new BrandesAccumulator[(nodeCount + grain - 1) / grain];
+    pool.invoke(new SourceRangeTask(csr, grain, ranges, 0, ranges.length));
+
+    BrandesAccumulator scores = ranges[0];
+    for (int r = 1; r < ranges.length; r++) {
+      scores.add(ranges[r]);
+    }
+
+    double divisor = graph.isDirected() ? 1.0 : 2.0;
+    for (int i = 0; i < nodeCount; i++) {
+      node_scores.put(csr.node(i), scores.nodeScores[i] / divisor);
+    }
+    for (int i = 0; i < csr.edgeCount(); i++) {
+      edge_scores.put(csr.edge(i), scores.edgeScores[i] / divisor);
+    }
+  }
+
   //	protected void computeWeightedBetweenness(Function<E, ? extends Number> edge_weights)
   //	{
   //		for (N v : graph.nodes())
@@ -303,6 +379,50 @@ public class BetweennessCentrality<N, E> implements NodeScorer<N, Double>, EdgeS
     return Collections.unmodifiableMap(edge_scores);
   }
 
+  /**
+   * Accumulates the scores for the source ranges with indices in {@code [from, to)}, each into its
+   * own {@code BrandesAccumulator} in {@code ranges}, splitting the ranges in half until only one
+   * is left. The range with index {@code r} holds the source nodes with indices in {@code [r *
+   * grain, (r + 1) * grain)}.
+   */
+  private static class SourceRangeTask extends RecursiveAction {
+    private final CompressedSparseRowGraph<?, ?> csr;
+    private final int grain;
+    private final BrandesAccumulator[] ranges;
+    private final int from;
+    private final int to;
+
+    SourceRangeTask(
+        CompressedSparseRowGraph<?, ?> csr,
+        int grain,
+        BrandesAccumulator[] ranges,
+        int from,
+        int to) {
+      this.csr = csr;
+      this.grain = grain;
+      this.ranges = ranges;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        BrandesAccumulator accumulator = new BrandesAccumulator(csr);
+        int end = Math.min(csr.nodeCount(), (from + 1) * grain);
+        for (int s = from * grain; s < end; s++) {
+          accumulator.accumulate(s);
+        }
+        ranges[from] = accumulator;
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(
+          new SourceRangeTask(csr, grain, ranges, from, middle),
+          new SourceRangeTask(csr, grain, ranges, middle, to));
+    }
+  }
+
   private class BetweennessData {
     double distance;
     double numSPs;
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.scoring;
+
+import edu.uci.ics.jung.algorithms.util.CompressedSparseRowGraph;
+import java.util.Arrays;
+
+/**
+ * Runs Brandes' single-source dependency accumulation against a {@code CompressedSparseRowGraph}
+ * (self-loops are ignored), summing the dependencies of each source into {@code nodeScores} and
+ * {@code edgeScores}. The same working arrays are reused for every source that an instance is
+ * given.
+ *
+ * <p>Scores are not halved for undirected graphs; that is left to the caller.
+ *
+ * @see BetweennessCentrality
+ */
+final class BrandesAccumulator {
+  final double[] nodeScores;
+  final double[] edgeScores;
+
+  private final CompressedSparseRowGraph<?, ?> graph;
+  private final boolean weighted;
+  private final double[] distance;
+  private final double[] numSPs;
+  private final double[] dependency;
+  // visited nodes, in the order in which they are settled
+  private final int[] stack;
+  // FIFO queue (unweighted) or binary heap ordered by distance (weighted)
+  private final int[] queue;
+  // position of each node in the heap
+  private final int[] heapIndex;
+  // incoming shortest-path edges of each node, as linked lists in the pred* arrays
+  private final int[] predHead;
+  private final int[] predNext;
+  private final int[] predSource;
+  private final int[] predEdge;
+
+  BrandesAccumulator(CompressedSparseRowGraph<?, ?> graph) {
+    int nodeCount = graph.nodeCount();
+    int slotCount = nodeCount == 0 ? 0 : graph.outEnd(nodeCount - 1);
+    this.graph = graph;
+    this.weighted = graph.isWeighted();
+    this.nodeScores = new double[nodeCount];
+    this.edgeScores = new double[graph.edgeCount()];
+    this.distance = new double[nodeCount];
+    this.numSPs = new double[nodeCount];
+    this.dependency = new double[nodeCount];
+    this.stack = new int[nodeCount];
+    this.queue = new int[nodeCount];
+    this.heapIndex = weighted ? new int[nodeCount] : null;
+    this.predHead = new int[nodeCount];
+    this.predNext = new int[slotCount];
+    this.predSource = new int[slotCount];
+    this.predEdge = new int[slotCount];
+    Arrays.fill(distance, -1);
+    Arrays.fill(predHead, -1);
+  }
+
+  /**
+   * Adds the dependencies of every node and edge on the source with index {@code s} to the scores.
+   *
+   * @param s the index of the source node
+   */
+  void accumulate(int s) {
+    int stackSize = 0;
+    int predCount = 0;
+    int head = 0;
+    int tail = 0;
+
+    distance[s] = 0;
+    numSPs[s] = 1;
+    if (weighted) {
+      tail = heapOffer(s, tail);
+    } else {
+      queue[tail++] = s;
+    }
+
+    while (head < tail) {
+      int w;
+      if (weighted) {
+        w = queue[0];
+        tail = heapPoll(tail);
+      } else {
+        w = queue[head++];
+      }
+      stack[stackSize++] = w;
+
+      for (int k = graph.outStart(w); k < graph.outEnd(w); k++) {
+        int x = graph.outTarget(k);
+        if (x == w) {
+          continue;
+        }
+        double x_potential_dist = distance[w] + graph.outWeight(k);
+        if (distance[x] < 0) {
+          distance[x] = x_potential_dist;
+          if (weighted) {
+            tail = heapOffer(x, tail);
+          } else {
+            queue[tail++] = x;
+          }
+        }
+        // this can only happen with weighted edges
+        if (distance[x] > x_potential_dist) {
+          distance[x] = x_potential_dist;
+          predHead[x] = -1;
+          numSPs[x] = 0;
+          siftUp(heapIndex[x]);
+        }
+      }
+      for (int k = graph.outStart(w); k < graph.outEnd(w); k++) {
+        int x = graph.outTarget(k);
+        if (x == w) {
+          continue;
+        }
+        if (distance[x] == distance[w] + graph.outWeight(k)) {
+          numSPs[x] += numSPs[w];
+          predSource[predCount] = w;
+          predEdge[predCount] = graph.outEdge(k);
+          predNext[predCount] = predHead[x];
+          predHead[x] = predCount++;
+        }
+      }
+    }
+
+    for (int i = stackSize - 1; i >= 0; i--) {
+      int x = stack[i];
+      for (int p = predHead[x]; p >= 0; p = predNext[p]) {
+        int w = predSource[p];
+        double partialDependency = numSPs[w] / numSPs[x] * (1.0 + dependency[x]);
+        dependency[w] += partialDependency;
+        edgeScores[predEdge[p]] += partialDependency;
+      }
+      if (x != s) {
+        nodeScores[x] += dependency[x];
+      }
+    }
+
+    // only the visited nodes need to be reset for the next source
+    for (int i = 0; i < stackSize; i++) {
+      int x = stack[i];
+      distance[x] = -1;
+      numSPs[x] = 0;
+      dependency[x] = 0;
+      predHead[x] = -1;
+    }
+  }
+
+  /**
+   * Adds the scores accumulated by {@code other} to those of this instance.
+   *
+   * @param other an accumulator over the same graph
+   * @return this instance
+   */
+  BrandesAccumulator add(BrandesAccumulator other) {
+    for (int i = 0; i < nodeScores.length; i++) {
+      nodeScores[i] += other.nodeScores[i];
+    }
+    for (int i = 0; i < edgeScores.length; i++) {
+      edgeScores[i] += other.edgeScores[i];
+    }
+    return this;
+  }
+
+  private int heapOffer(int x, int size) {
+    queue[size] = x;
+    heapIndex[x] = size;
+    siftUp(size);
+    return size + 1;
+  }
+
+  private int heapPoll(int size) {
+    int last = queue[--size];
+    if (size > 0) {
+      queue[0] = last;
+      heapIndex[last] = 0;
+      siftDown(0, size);
+    }
+    return size;
+  }
+
+  private void siftUp(int i) {
+    int x = queue[i];
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      int p = queue[parent];
+      if (distance[p] <= distance[x]) {
+        break;
+      }
+      queue[i] = p;
+      heapIndex[p] = i;
+      i = parent;
+    }
+    queue[i] = x;
+    heapIndex[x] = i;
+  }
+
+  private void siftDown(int i, int size) {
+    int x = queue[i];
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= size) {
+        break;
+      }
+      if (child + 1 < size && distance[queue[child + 1]] < distance[queue[child]]) {
+        child++;
+      }
+      int c = queue[child];
+      if (distance[x] <= distance[c]) {
+        break;
+      }
+      queue[i] = c;
+      heapIndex[c] = i;
+      i = child;
+    }
+    queue[i] = x;
+    heapIndex[x] = i;
+  }
+}
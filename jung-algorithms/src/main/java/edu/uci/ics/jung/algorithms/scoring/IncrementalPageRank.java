@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.scoring;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.EndpointPair;
+import edu.uci.ics.jung.graph.ObservableNetwork;
+import edu.uci.ics.jung.graph.event.NetworkEvent;
+import edu.uci.ics.jung.graph.event.NetworkEventListener;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Maintains {@link PageRank} scores (with uniform edge weights) for an {@code ObservableNetwork}
+ * whose structure changes over time, without recomputing them from scratch after each change.
+ *
+ * <p>This instance registers itself as a listener on the network. Each node and edge addition or
+ * removal adjusts the <i>residual</i> of the nodes whose PageRank equations it affects (the
+ * difference between the right-hand and left-hand sides of the PageRank equation for that node,
+ * given the current scores); {@link #evaluate()} then repeatedly "pushes" the residual of any node
+ * whose residual exceeds the tolerance into its score and onto its successors, until every residual
+ * is within the tolerance again. The cost of bringing the scores up to date thus depends on how
+ * many nodes have scores that the change affects by more than the tolerance, rather than on the
+ * size of the network; in small or densely connected networks, or with a very small tolerance, that
+ * may be most of the nodes.
+ *
+ * <p>Two terms of the PageRank equations depend on the network as a whole: the random jump
+ * probability of each node (which is <code>1/n</code>) and the redistributed potential of nodes
+ * with no outgoing edges. Changes to these terms are accumulated in a single residual shared by all
+ * nodes, which is only folded into the residuals of the individual nodes (at a cost of O(n)) when
+ * it exceeds the tolerance.
+ *
+ * <p>Scores are only updated by {@code evaluate()}; callers that apply a batch of changes to the
+ * network should call it once the batch is complete.
+ *
+ * @see PageRank
+ * @see "Hongyang Zhang, Peter Lofgren and Ashish Goel: Approximate Personalized PageRank on Dynamic
+ *     Graphs. KDD 2016."
+ */
+public class IncrementalPageRank<N, E>
+    implements NodeScorer<N, Double>, NetworkEventListener<N, E> {
+  protected ObservableNetwork<N, E> graph;
+
+  /** The probability of making a 'jump' at each step. */
+  protected double alpha;
+
+  /**
+   * The largest residual permitted for any node once {@code evaluate()} returns. Defaults to
+   * 1.0e-9.
+   */
+  protected double tolerance = 1.0e-9;
+
+  private final Map<N, NodeState<N>> states = new HashMap<N, NodeState<N>>();
+  // endpoints of each edge, which are needed once the edge has been removed from the network
+  private final Map<E, EndpointPair<N>> endpoints = new HashMap<E, EndpointPair<N>>();
+  private final Queue<NodeState<N>> queue = new ArrayDeque<NodeState<N>>();
+  // residual shared by all nodes
+  private double uniformResidual;
+  // sum of the scores of the nodes with no outgoing edges
+  private double danglingScore;
+  private long pushCount;
+
+  /**
+   * Creates an instance for the specified network and random jump probability, and computes its
+   * initial scores.
+   *
+   * @param graph the network whose scores are to be maintained
+   * @param alpha the probability of taking a random jump to an arbitrary node
+   */
+  public IncrementalPageRank(ObservableNetwork<N, E> graph, double alpha) {
+    this(graph, alpha, Collections.<N, Double>emptyMap());
+  }
+
+  /**
+   * Creates an instance for the specified network and random jump probability, whose scores are
+   * initially those in {@code initialScores} (for example, the {@code nodeScores()} of a previous
+   * {@code PageRank} computation), and brings them up to date.
+   *
+   * @param graph the network whose scores are to be maintained
+   * @param alpha the probability of taking a random jump to an arbitrary node
+   * @param initialScores the initial score of each node; nodes that are not present have initial
+   *     score 0
+   */
+  public IncrementalPageRank(
+      ObservableNetwork<N, E> graph, double alpha, Map<N, ? extends Number> initialScores) {
+    Preconditions.checkArgument(alpha > 0 && alpha <= 1, "alpha must be in (0, 1]: %s", alpha);
+    this.graph = graph;
+    this.alpha = alpha;
+    initialize(initialScores);
+    graph.addGraphEventListener(this);
+    evaluate();
+  }
+
+  private void initialize(Map<N, ? extends Number> initialScores) {
+    for (N v : graph.nodes()) {
+      Number score = initialScores.get(v);
+      NodeState<N> state = new NodeState<N>(v, degree(v));
+      state.score = score == null ? 0 : score.doubleValue();
+      states.put(v, state);
+      if (state.degree == 0) {
+        danglingScore += state.score;
+      }
+    }
+    for (E e : graph.edges()) {
+      endpoints.put(e, graph.incidentNodes(e));
+    }
+
+    // residual = jump + (link-following + dangling potential) - score
+    int n = states.size();
+    double shared = (alpha + (1 - alpha) * danglingScore) / n;
+    for (NodeState<N> state : states.values()) {
+      state.residual += shared - state.score;
+      if (state.degree > 0) {
+        double share = (1 - alpha) * state.score / state.degree;
+        for (E e : graph.outEdges(state.node)) {
+          states.get(graph.incidentNodes(e).adjacentNode(state.node)).residual += share;
+        }
+      }
+    }
+    for (NodeState<N> state : states.values()) {
+      enqueueIfNeeded(state);
+    }
+  }
+
+  /**
+   * Pushes residuals until the residual of every node is within the tolerance.
+   *
+   * @return the number of pushes that were required
+   */
+  public synchronized long evaluate() {
+    long pushesBefore = pushCount;
+    while (true) {
+      while (!queue.isEmpty()) {
+        push(queue.poll());
+      }
+      if (Math.abs(uniformResidual) <= tolerance / 2) {
+        break;
+      }
+      // fold the shared residual into that of each node
+      for (NodeState<N> state : states.values()) {
+        state.residual += uniformResidual;
+        enqueueIfNeeded(state);
+      }
+      uniformResidual = 0;
+    }
+    return pushCount - pushesBefore;
+  }
+
+  private void push(NodeState<N> state) {
+    state.queued = false;
+    double rho = state.residual;
+    if (Math.abs(rho) <= tolerance / 2) {
+      return;
+    }
+    pushCount++;
+    state.score += rho;
+    state.residual = 0;
+    double mass = (1 - alpha) * rho;
+    if (state.degree == 0) {
+      danglingScore += rho;
+      uniformResidual += mass / states.size();
+    } else {
+      double share = mass / state.degree;
+      for (E e : graph.outEdges(state.node)) {
+        addResidual(graph.incidentNodes(e).adjacentNode(state.node), share);
+      }
+    }
+  }
+
+  private void addResidual(N v, double amount) {
+    NodeState<N> state = states.get(v);
+    state.residual += amount;
+    enqueueIfNeeded(state);
+  }
+
+  private void enqueueIfNeeded(NodeState<N> state) {
+    if (!state.queued && Math.abs(state.residual) > tolerance / 2) {
+      state.queued = true;
+      queue.add(state);
+    }
+  }
+
+  /**
+   * Returns the number of edges whose weights are used to distribute the score of {@code v}; this
+   * is the same as the divisor used by {@code UniformDegreeWeight}.
+   */
+  private int degree(N v) {
+    return graph.isDirected() ? graph.outDegree(v) : graph.degree(v);
+  }
+
+  @Override
+  public synchronized void handleGraphEvent(NetworkEvent<N, E> evt) {
+    switch (evt.getType()) {
+      case NODE_ADDED:
+        nodeAdded(((NetworkEvent.Node<N, E>) evt).getNode());
+        break;
+      case NODE_REMOVED:
+        nodeRemoved(((NetworkEvent.Node<N, E>) evt).getNode());
+        break;
+      case EDGE_ADDED:
+        edgeChanged(((NetworkEvent.Edge<N, E>) evt).getEdge(), true);
+        break;
+      case EDGE_REMOVED:
+        edgeChanged(((NetworkEvent.Edge<N, E>) evt).getEdge(), false);
+        break;
+      default:
+        throw new IllegalArgumentException("Unexpected event type: " + evt.getType());
+    }
+  }
+
+  private void nodeAdded(N v) {
+    if (states.containsKey(v)) {
+      return;
+    }
+    int oldCount = states.size();
+    int newCount = oldCount + 1;
+    // the new node has no edges yet, and (with a score of 0) no potential to redistribute
+    double sharedPerNode = alpha + (1 - alpha) * danglingScore;
+    uniformResidual =
+        oldCount == 0 ? 0 : uniformResidual + sharedPerNode * (1.0 / newCount - 1.0 / oldCount);
+    NodeState<N> state = new NodeState<N>(v, 0);
+    state.residual = sharedPerNode / newCount - uniformResidual;
+    states.put(v, state);
+    enqueueIfNeeded(state);
+  }
+
+  private void nodeRemoved(N v) {
+    NodeState<N> state = states.remove(v);
+    if (state == null) {
+      return;
+    }
+    // ObservableNetwork removes (and reports) the incident edges before the node itself
+    int oldCount = states.size() + 1;
+    int newCount = oldCount - 1;
+    if (newCount == 0) {
+      uniformResidual = 0;
+      danglingScore = 0;
+      queue.clear();
+      return;
+    }
+    danglingScore -= state.score;
+    uniformResidual -= (1 - alpha) * state.score / oldCount;
+    double sharedPerNode = alpha + (1 - alpha) * danglingScore;
+    uniformResidual += sharedPerNode * (1.0 / newCount - 1.0 / oldCount);
+    // if the node is still queued, this makes its push a no-op
+    state.residual = 0;
+  }
+
+  private void edgeChanged(E e, boolean added) {
+    EndpointPair<N> pair = added ? graph.incidentNodes(e) : endpoints.remove(e);
+    if (pair == null) {
+      return;
+    }
+    if (added) {
+      // an edge may implicitly add its endpoints to the network
+      nodeAdded(pair.nodeU());
+      nodeAdded(pair.nodeV());
+      endpoints.put(e, pair);
+    }
+    redistribute(pair.nodeU(), e, pair, added);
+    if (!graph.isDirected() && !pair.nodeU().equals(pair.nodeV())) {
+      redistribute(pair.nodeV(), e, pair, added);
+    }
+  }
+
+  /**
+   * Updates the residuals of the nodes to which {@code u} distributes its score, after {@code
+   * changed} has been added to, or removed from, the outgoing edges of {@code u}.
+   */
+  private void redistribute(N u, E changed, EndpointPair<N> changedPair, boolean added) {
+    NodeState<N> state = states.get(u);
+    int oldDegree = state.degree;
+    int newDegree = degree(u);
+    state.degree = newDegree;
+    double mass = (1 - alpha) * state.score;
+
+    // withdraw the score distributed according to the old edges...
+    if (oldDegree == 0) {
+      danglingScore -= state.score;
+      uniformResidual -= mass / states.size();
+    } else {
+      double share = mass / oldDegree;
+      for (E e : graph.outEdges(u)) {
+        if (!(added && e.equals(changed))) {
+          addResidual(graph.incidentNodes(e).adjacentNode(u), -share);
+        }
+      }
+      if (!added) {
+        addResidual(changedPair.adjacentNode(u), -share);
+      }
+    }
+    // ...and distribute it according to the new ones
+    if (newDegree == 0) {
+      danglingScore += state.score;
+      uniformResidual += mass / states.size();
+    } else {
+      double share = mass / newDegree;
+      for (E e : graph.outEdges(u)) {
+        addResidual(graph.incidentNodes(e).adjacentNode(u), share);
+      }
+    }
+  }
+
+  @Override
+  public synchronized Double getNodeScore(N v) {
+    NodeState<N> state = states.get(v);
+    Preconditions.checkArgument(state != null, "Node %s not an element of this graph", v);
+    return state.score;
+  }
+
+  /** @return a snapshot of the current score of each node */
+  @Override
+  public synchronized Map<N, Double> nodeScores() {
+    Map<N, Double> scores = new HashMap<N, Double>();
+    for (NodeState<N> state : states.values()) {
+      scores.put(state.node, state.score);
+    }
+    return Collections.unmodifiableMap(scores);
+  }
+
+  /**
+   * Returns the largest residual permitted for any node once {@code evaluate()} returns.
+   *
+   * @return the tolerance
+   */
+  public double getTolerance() {
+    return tolerance;
+  }
+
+  /**
+   * Sets the largest residual permitted for any node once {@code evaluate()} returns.
+   *
+   * @param tolerance the tolerance
+   */
+  public synchronized void setTolerance(double tolerance) {
+    this.tolerance = tolerance;
+    for (NodeState<N> state : states.values()) {
+      enqueueIfNeeded(state);
+    }
+  }
+
+  /**
+   * Returns the probability of making a 'jump' (non-link-following step).
+   *
+   * @return the probability of making a 'jump' (non-link-following step)
+   */
+  public double getAlpha() {
+    return alpha;
+  }
+
+  /** @return the total number of pushes performed by this instance */
+  public synchronized long getPushCount() {
+    return pushCount;
+  }
+
+  private static class NodeState<N> {
+    final N node;
+    int degree;
+    double score;
+    double residual;
+    boolean queued;
+
+    NodeState(N node, int degree) {
+      this.node = node;
+      this.degree = degree;
+    }
+  }
+}
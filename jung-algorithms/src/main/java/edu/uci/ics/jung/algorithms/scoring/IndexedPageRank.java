@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.scoring;
+
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.algorithms.scoring.util.ScoringUtils;
+import java.util.function.Function;
+
+/**
+ * A version of {@link PageRank} for large graphs, which computes its scores over index-based
+ * primitive arrays; see {@link IndexedPageRankWithPriors} for details.
+ *
+ * @see PageRank
+ */
+public class IndexedPageRank<N, E> extends IndexedPageRankWithPriors<N, E> {
+
+  /**
+   * Creates an instance for the specified graph, edge weights, and random jump probability.
+   *
+   * @param graph the input graph
+   * @param edge_weight the edge weights (transition probabilities)
+   * @param alpha the probability of taking a random jump to an arbitrary node
+   */
+  public IndexedPageRank(
+      Network<N, E> graph, Function<? super E, ? extends Number> edge_weight, double alpha) {
+    super(graph, edge_weight, ScoringUtils.getUniformRootPrior(graph.nodes()), alpha);
+  }
+
+  /**
+   * Creates an instance for the specified graph and random jump probability; the probability of
+   * following any outgoing edge from a given node is the same.
+   *
+   * @param graph the input graph
+   * @param alpha the probability of taking a random jump to an arbitrary node
+   */
+  public IndexedPageRank(Network<N, E> graph, double alpha) {
+    super(graph, ScoringUtils.getUniformRootPrior(graph.nodes()), alpha);
+  }
+}
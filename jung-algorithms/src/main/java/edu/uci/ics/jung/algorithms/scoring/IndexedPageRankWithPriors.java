@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.scoring;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.algorithms.scoring.util.DelegateToEdgeTransformer;
+import edu.uci.ics.jung.algorithms.scoring.util.UniformDegreeWeight;
+import edu.uci.ics.jung.algorithms.scoring.util.VEPair;
+import edu.uci.ics.jung.algorithms.util.CompressedSparseRowGraph;
+import edu.uci.ics.jung.algorithms.util.IterativeContext;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * A version of {@link PageRankWithPriors} for large graphs. The graph, edge weights, and node
+ * priors are converted once, on construction, into a {@link CompressedSparseRowGraph} and parallel
+ * <code>double</code> arrays; each step then reads the previous scores from one array and writes
+ * the new scores to another, without hash lookups or allocation. The potential of nodes with no
+ * outgoing edges is collected with a single pass over those nodes at the start of each step.
+ *
+ * <p>If a {@code ForkJoinPool} is supplied via {@link #setForkJoinPool(ForkJoinPool)}, the scores
+ * of each step are computed in parallel by the threads of that pool.
+ *
+ * <p>This class computes the same scores as {@code PageRankWithPriors} (up to floating-point
+ * rounding), and has the same termination conditions. Changes made to the graph, edge weights, or
+ * priors after construction are not reflected in the scores.
+ *
+ * @see PageRankWithPriors
+ * @see IndexedPageRank
+ */
+public class IndexedPageRankWithPriors<N, E> implements IterativeContext, NodeScorer<N, Double> {
+  /** The number of nodes below which a step is not split further among the pool's threads. */
+  private static final int MIN_NODES_PER_TASK = 1024;
+
+  /** Maximum number of iterations to use before terminating. Defaults to 100. */
+  protected int max_iterations = 100;
+
+  /**
+   * Minimum change from one step to the next; if all changes are &le; tolerance, no further updates
+   * will occur. Defaults to 0.001.
+   */
+  protected double tolerance = 0.001;
+
+  /** The probability of making a 'jump' at each step. */
+  protected double alpha;
+
+  /** The total number of iterations used so far. */
+  protected int total_iterations;
+
+  /** The largest change seen in the most recent step among all node scores. */
+  protected double max_delta;
+
+  private final CompressedSparseRowGraph<N, E> csr;
+  // transition probability for each incoming slot of the csr
+  private final double[] transitions;
+  private final double[] priors;
+  // indices of the nodes with no outgoing edges
+  private final int[] dangling;
+  private double[] current;
+  private double[] output;
+  private boolean accept_disconnected_graph = true;
+  private ForkJoinPool pool;
+
+  /**
+   * Creates an instance with the specified graph, edge weights, node priors, and 'random jump'
+   * probability (alpha).
+   *
+   * @param graph the input graph
+   * @param edge_weights the edge weights, denoting transition probabilities from source to
+   *     destination
+   * @param node_priors the prior probabilities for each node
+   * @param alpha the probability of executing a 'random jump' at each step
+   */
+  public IndexedPageRankWithPriors(
+      Network<N, E> graph,
+      Function<? super E, ? extends Number> edge_weights,
+      Function<? super N, Double> node_priors,
+      double alpha) {
+    this(graph, node_priors, alpha, new DelegateToEdgeTransformer<N, E>(edge_weights));
+  }
+
+  /**
+   * Creates an instance with the specified graph, node priors, and 'random jump' probability
+   * (alpha). The outgoing edge weights for each node will be equal and sum to 1.
+   *
+   * @param graph the input graph
+   * @param node_priors the prior probabilities for each node
+   * @param alpha the probability of executing a 'random jump' at each step
+   */
+  public IndexedPageRankWithPriors(
+      Network<N, E> graph, Function<? super N, Double> node_priors, double alpha) {
+    this(graph, node_priors, alpha, new UniformDegreeWeight<N, E>(graph));
+  }
+
+  private IndexedPageRankWithPriors(
+      Network<N, E> graph,
+      Function<? super N, Double> node_priors,
+      double alpha,
+      Function<VEPair<N, E>, ? extends Number> edge_weights) {
+    this.csr = CompressedSparseRowGraph.of(graph);
+    this.alpha = alpha;
+    int nodeCount = csr.nodeCount();
+
+    this.priors = new double[nodeCount];
+    int danglingCount = 0;
+    for (int v = 0; v < nodeCount; v++) {
+      priors[v] = node_priors.apply(csr.node(v));
+      if (csr.outDegree(v) == 0) {
+        danglingCount++;
+      }
+    }
+    this.dangling = new int[danglingCount];
+    danglingCount = 0;
+    for (int v = 0; v < nodeCount; v++) {
+      if (csr.outDegree(v) == 0) {
+        dangling[danglingCount++] = v;
+      }
+    }
+
+    // the weight of each edge, in the context of the node from which it is followed
+    int slotCount = nodeCount == 0 ? 0 : csr.inEnd(nodeCount - 1);
+    this.transitions = new double[slotCount];
+    for (int k = 0; k < slotCount; k++) {
+      N u = csr.node(csr.inSource(k));
+      E e = csr.edge(csr.inEdge(k));
+      transitions[k] = edge_weights.apply(new VEPair<N, E>(u, e)).doubleValue();
+    }
+
+    initialize();
+  }
+
+  /** Initializes the state of this instance; the scores are reset to the node priors. */
+  public void initialize() {
+    this.total_iterations = 0;
+    this.max_delta = Double.MIN_VALUE;
+    // output and current are swapped before each step(), so current will have the priors
+    this.output = priors.clone();
+    this.current = new double[priors.length];
+  }
+
+  /** Steps through this scoring algorithm until a termination condition is reached. */
+  public void evaluate() {
+    do {
+      step();
+    } while (!done());
+  }
+
+  /**
+   * Returns true if the total number of iterations is greater than or equal to <code>max_iterations
+   * </code> or if the maximum value change observed is less than <code>tolerance</code>.
+   */
+  @Override
+  public boolean done() {
+    return total_iterations >= max_iterations || max_delta < tolerance;
+  }
+
+  /** Performs one step of this algorithm; updates the score for each node. */
+  @Override
+  public void step() {
+    double[] tmp = output;
+    output = current;
+    current = tmp;
+
+    if (dangling.length > 0) {
+      Preconditions.checkState(
+          accept_disconnected_graph, "Outdegree of %s must be > 0", csr.node(dangling[0]));
+    }
+    double disappearing_potential = 0;
+    for (int v : dangling) {
+      disappearing_potential += current[v];
+    }
+    // distribute disappearing potential according to priors
+    double redistributed = (1 - alpha) * disappearing_potential;
+
+    int nodeCount = current.length;
+    if (pool == null || nodeCount < 2 * MIN_NODES_PER_TASK) {
+      max_delta = update(0, nodeCount, redistributed);
+    } else {
+      max_delta = pool.invoke(new UpdateTask(0, nodeCount, redistributed));
+    }
+    total_iterations++;
+  }
+
+  /**
+   * Computes the new scores of the nodes with indices in {@code [from, to)}.
+   *
+   * @return the largest change in any of these scores, not counting the redistributed potential of
+   *     nodes with no outgoing edges (as in {@code PageRankWithPriors})
+   */
+  private double update(int from, int to, double redistributed) {
+    double delta = 0;
+    for (int v = from; v < to; v++) {
+      double v_input = 0;
+      for (int k = csr.inStart(v); k < csr.inEnd(v); k++) {
+        v_input += current[csr.inSource(k)] * transitions[k];
+      }
+      // modify total_input according to alpha
+      double new_value = alpha > 0 ? v_input * (1 - alpha) + priors[v] * alpha : v_input;
+      delta = Math.max(delta, Math.abs(current[v] - new_value));
+      output[v] = redistributed > 0 ? new_value + redistributed * priors[v] : new_value;
+    }
+    return delta;
+  }
+
+  private class UpdateTask extends RecursiveTask<Double> {
+    private final int from;
+    private final int to;
+    private final double redistributed;
+
+    UpdateTask(int from, int to, double redistributed) {
+      this.from = from;
+      this.to = to;
+      this.redistributed = redistributed;
+    }
+
+    @Override
+    protected Double compute() {
+      if (to - from <= MIN_NODES_PER_TASK) {
+        return update(from, to, redistributed);
+      }
+      int middle = (from + to) >>> 1;
+      UpdateTask right = new UpdateTask(middle, to, redistributed);
+      right.fork();
+      double left = new UpdateTask(from, middle, redistributed).compute();
+      return Math.max(left, right.join());
+    }
+  }
+
+  @Override
+  public Double getNodeScore(N v) {
+    return output[csr.nodeIndex(v)];
+  }
+
+  /** @return a snapshot of the current score of each node */
+  @Override
+  public Map<N, Double> nodeScores() {
+    Map<N, Double> scores = new HashMap<N, Double>();
+    for (int v = 0; v < output.length; v++) {
+      scores.put(csr.node(v), output[v]);
+    }
+    return Collections.unmodifiableMap(scores);
+  }
+
+  /**
+   * Sets the pool whose threads are to be used to compute the scores of each step, or {@code null}
+   * if the scores should be computed on the calling thread (the default).
+   *
+   * @param pool the pool to use
+   */
+  public void setForkJoinPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Returns the maximum number of iterations that this instance will use.
+   *
+   * @return the maximum number of iterations that <code>evaluate</code> will use prior to
+   *     terminating
+   */
+  public int getMaxIterations() {
+    return max_iterations;
+  }
+
+  /**
+   * Returns the number of iterations that this instance has used so far.
+   *
+   * @return the number of iterations that this instance has used so far
+   */
+  public int getIterations() {
+    return total_iterations;
+  }
+
+  /**
+   * Sets the maximum number of times that <code>evaluate</code> will call <code>step</code>.
+   *
+   * @param max_iterations the maximum
+   */
+  public void setMaxIterations(int max_iterations) {
+    this.max_iterations = max_iterations;
+  }
+
+  /**
+   * Gets the size of the largest change (difference between the current and previous values) for
+   * any node that can be tolerated. Once all changes are less than this value, <code>evaluate
+   * </code> will terminate.
+   *
+   * @return the size of the largest change that evaluate() will permit
+   */
+  public double getTolerance() {
+    return tolerance;
+  }
+
+  /**
+   * Sets the size of the largest change (difference between the current and previous values) for
+   * any node that can be tolerated.
+   *
+   * @param tolerance the size of the largest change that evaluate() will permit
+   */
+  public void setTolerance(double tolerance) {
+    this.tolerance = tolerance;
+  }
+
+  /**
+   * Returns the probability of making a 'jump' (non-link-following step).
+   *
+   * @return the probability of making a 'jump' (non-link-following step)
+   */
+  public double getAlpha() {
+    return alpha;
+  }
+
+  /**
+   * Specifies whether this instance should accept nodes with no outgoing edges.
+   *
+   * @param accept true if this instance should accept nodes with no outgoing edges, false otherwise
+   */
+  public void acceptDisconnectedGraph(boolean accept) {
+    this.accept_disconnected_graph = accept;
+  }
+
+  /**
+   * Returns true if this instance accepts nodes with no outgoing edges, and false otherwise.
+   *
+   * @return true if this instance accepts nodes with no outgoing edges, otherwise false
+   */
+  public boolean isDisconnectedGraphOK() {
+    return this.accept_disconnected_graph;
+  }
+}
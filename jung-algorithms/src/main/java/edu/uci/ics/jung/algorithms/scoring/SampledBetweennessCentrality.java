@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.scoring;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.algorithms.util.CompressedSparseRowGraph;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Estimates betweenness centrality for each node and edge in the graph by accumulating the
+ * shortest-path dependencies of a random sample of source nodes ("pivots") and extrapolating them
+ * to the whole graph. With <code>k</code> pivots the running time is O(km) (unweighted) or O(km +
+ * kn log n) (weighted), rather than the O(nm) required by {@link BetweennessCentrality}.
+ *
+ * <p>Pivots are drawn uniformly at random, with replacement, from the nodes of the graph; each
+ * score is the sum of the pivots' dependencies scaled by <code>n/k</code>, which is an unbiased
+ * estimate of the exact score. If <code>k</code> is at least the number of nodes, every node is
+ * used as a source exactly once and the scores are exact.
+ *
+ * <p>{@link #pivotCount(Network, double, double)} gives a number of pivots that suffices for every
+ * estimate to be within a specified error of its exact value with a specified probability; the
+ * constructor that takes that error and probability samples that many pivots.
+ *
+ * @see BetweennessCentrality
+ * @see "Ulrik Brandes and Christian Pich: Centrality Estimation in Large Networks. International
+ *     Journal of Bifurcation and Chaos 17(7):2303-2318, 2007."
+ */
+public class SampledBetweennessCentrality<N, E>
+    implements NodeScorer<N, Double>, EdgeScorer<E, Double> {
+  protected Network<N, E> graph;
+  protected Map<N, Double> node_scores;
+  protected Map<E, Double> edge_scores;
+  protected int pivot_count;
+
+  /**
+   * Estimates betweenness scores based on the unweighted shortest paths from {@code pivotCount}
+   * randomly chosen source nodes.
+   *
+   * @param graph the graph for which the scores are to be calculated
+   * @param pivotCount the number of source nodes to sample
+   * @param random the source of randomness used to choose the pivots
+   */
+  public SampledBetweennessCentrality(Network<N, E> graph, int pivotCount, Random random) {
+    this(graph, null, pivotCount, random);
+  }
+
+  /**
+   * Estimates betweenness scores based on the weighted shortest paths from {@code pivotCount}
+   * randomly chosen source nodes.
+   *
+   * @param graph the graph for which the scores are to be calculated
+   * @param edge_weights the edge weights to be used in the path length calculations, or {@code
+   *     null} if the paths are unweighted
+   * @param pivotCount the number of source nodes to sample
+   * @param random the source of randomness used to choose the pivots
+   */
+  public SampledBetweennessCentrality(
+      Network<N, E> graph,
+      Function<? super E, ? extends Number> edge_weights,
+      int pivotCount,
+      Random random) {
+    Preconditions.checkArgument(pivotCount > 0, "pivotCount must be positive: %s", pivotCount);
+    Preconditions.checkNotNull(random, "random");
+    if (edge_weights != null) {
+      for (E e : graph.edges()) {
+        double e_weight = edge_weights.apply(e).doubleValue();
+        Preconditions.checkArgument(e_weight >= 0, "Weight for edge '%s' is < 0: %s", e, e_weight);
+      }
+    }
+    this.graph = graph;
+    this.node_scores = new HashMap<N, Double>();
+    this.edge_scores = new HashMap<E, Double>();
+    computeBetweenness(edge_weights, pivotCount, random);
+  }
+
+  /**
+   * Estimates betweenness scores based on the weighted shortest paths from enough randomly chosen
+   * source nodes that, with probability at least <code>1 - delta</code>, every estimate is within
+   * <code>epsilon * n * (n - 1)</code> of its exact value.
+   *
+   * @param graph the graph for which the scores are to be calculated
+   * @param edge_weights the edge weights to be used in the path length calculations, or {@code
+   *     null} if the paths are unweighted
+   * @param epsilon the maximum error, as a fraction of <code>n * (n - 1)</code>
+   * @param delta the maximum probability that any estimate exceeds the error bound
+   * @param random the source of randomness used to choose the pivots
+   * @see #pivotCount(Network, double, double)
+   */
+  public SampledBetweennessCentrality(
+      Network<N, E> graph,
+      Function<? super E, ? extends Number> edge_weights,
+      double epsilon,
+      double delta,
+      Random random) {
+    this(graph, edge_weights, pivotCount(graph, epsilon, delta), random);
+  }
+
+  /**
+   * Returns a number of pivots <code>k</code> such that, with probability at least <code>
+   * 1 - delta</code>, the estimate of every node and edge score differs from its exact value by at
+   * most <code>epsilon * n * (n - 1)</code>, where <code>n</code> is the number of nodes in {@code
+   * graph}. (For a directed graph, <code>n * (n - 1)</code> is the number of ordered pairs of
+   * distinct nodes, and thus an upper bound on any node or edge score.)
+   *
+   * <p>The bound is derived from Hoeffding's inequality and a union bound over all nodes and edges:
+   * <code>k = ceil(ln(2 * (n + m) / delta) / (2 * epsilon<sup>2</sup>))</code>.
+   *
+   * @param graph the graph for which the scores are to be estimated
+   * @param epsilon the maximum error, as a fraction of <code>n * (n - 1)</code>
+   * @param delta the maximum probability that any estimate exceeds the error bound
+   * @return the number of pivots to sample
+   */
+  public static int pivotCount(Network<?, ?> graph, double epsilon, double delta) {
+    Preconditions.checkArgument(epsilon > 0, "epsilon must be positive: %s", epsilon);
+    Preconditions.checkArgument(delta > 0 && delta < 1, "delta must be in (0, 1): %s", delta);
+    double elementCount = Math.max(1, graph.nodes().size() + graph.edges().size());
+    double k = Math.ceil(Math.log(2 * elementCount / delta) / (2 * epsilon * epsilon));
+    return (int) Math.min(Integer.MAX_VALUE, k);
+  }
+
+  protected void computeBetweenness(
+      Function<? super E, ? extends Number> edge_weights, int pivotCount, Random random) {
+    CompressedSparseRowGraph<N, E> csr = CompressedSparseRowGraph.of(graph, edge_weights);
+    BrandesAccumulator accumulator = new BrandesAccumulator(csr);
+    int nodeCount = csr.nodeCount();
+
+    double scale;
+    if (pivotCount >= nodeCount) {
+      this.pivot_count = nodeCount;
+      scale = 1.0;
+      for (int s = 0; s < nodeCount; s++) {
+        accumulator.accumulate(s);
+      }
+    } else {
+      this.pivot_count = pivotCount;
+      scale = (double) nodeCount / pivotCount;
+      for (int i = 0; i < pivotCount; i++) {
+        accumulator.accumulate(random.nextInt(nodeCount));
+      }
+    }
+    if (!graph.isDirected()) {
+      scale /= 2.0;
+    }
+
+    for (int i = 0; i < nodeCount; i++) {
+      node_scores.put(csr.node(i), accumulator.nodeScores[i] * scale);
+    }
+    for (int i = 0; i < csr.edgeCount(); i++) {
+      edge_scores.put(csr.edge(i), accumulator.edgeScores[i] * scale);
+    }
+  }
+
+  /**
+   * @return the number of source nodes whose dependencies were accumulated; this is the smaller of
+   *     the requested pivot count and the number of nodes in the graph
+   */
+  public int getPivotCount() {
+    return pivot_count;
+  }
+
+  @Override
+  public Double getNodeScore(N v) {
+    return node_scores.get(v);
+  }
+
+  @Override
+  public Double getEdgeScore(E e) {
+    return edge_scores.get(e);
+  }
+
+  @Override
+  public Map<N, Double> nodeScores() {
+    return Collections.unmodifiableMap(node_scores);
+  }
+
+  @Override
+  public Map<E, Double> edgeScores() {
+    return Collections.unmodifiableMap(edge_scores);
+  }
+}
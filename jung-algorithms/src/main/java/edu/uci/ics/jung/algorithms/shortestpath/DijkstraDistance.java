@@ -14,6 +14,9 @@ package edu.uci.ics.jung.algorithms.shortestpath;
 import static java.util.Comparator.comparingDouble;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import com.google.common.graph.Network;
 import edu.uci.ics.jung.algorithms.util.MapBinaryHeap;
 import java.util.AbstractMap.SimpleImmutableEntry;
@@ -22,6 +25,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.function.Function;
 
@@ -46,6 +50,11 @@ import java.util.function.Function;
  * <p>The elements in the maps returned by <code>getDistanceMap</code> are ordered (that is,
  * returned by the iterator) by nondecreasing distance from <code>source</code>.
  *
+ * <p>By default the cache holds the results for every source node queried. Its size may be bounded
+ * by number of source nodes ({@link #setMaxCachedSources(long)}) or by number of stored distances
+ * ({@link #setMaxCachedDistances(long)}), in which case the results for the least recently used
+ * sources are evicted as needed; {@link #getCacheStats()} reports how effective the cache has been.
+ *
  * <p>Users are cautioned that distances calculated should be assumed to be invalidated by changes
  * to the graph, and should invoke <code>reset()</code> when appropriate so that the distances can
  * be recalculated.
@@ -60,6 +69,8 @@ public class DijkstraDistance<N, E> implements Distance<N> {
   protected boolean cached;
   protected double maxDistance;
   protected int maxTargets;
+  // backs sourceMap
+  private Cache<N, SourceData> sourceCache;
 
   /**
    * Creates an instance of <code>DijkstraShortestPath</code> for the specified graph and the
@@ -74,7 +85,8 @@ public class DijkstraDistance<N, E> implements Distance<N> {
       Network<N, E> g, Function<? super E, ? extends Number> nev, boolean cached) {
     this.g = g;
     this.nev = nev;
-    this.sourceMap = new HashMap<>();
+    this.sourceCache = CacheBuilder.newBuilder().recordStats().build();
+    this.sourceMap = sourceCache.asMap();
     this.cached = cached;
     this.maxDistance = Double.POSITIVE_INFINITY;
     this.maxTargets = Integer.MAX_VALUE;
@@ -133,6 +145,21 @@ public class DijkstraDistance<N, E> implements Distance<N> {
    */
   protected LinkedHashMap<N, Number> singleSourceShortestPath(
       N source, Collection<N> targets, int numDistances) {
+    return singleSourceShortestPathData(source, targets, numDistances).distances;
+  }
+
+  /**
+   * Performs the same calculation as {@link #singleSourceShortestPath(Object, Collection, int)},
+   * but returns all of the data for {@code source}. The data is returned directly, rather than
+   * being retrieved from the cache, because it may already have been evicted from the cache.
+   *
+   * @param source the node from which distances are to be measured
+   * @param numDistances the number of distances to measure
+   * @param targets the set of nodes to which distances are to be measured
+   * @return the data for {@code source}
+   */
+  protected SourceData singleSourceShortestPathData(
+      N source, Collection<N> targets, int numDistances) {
     SourceData sd = getSourceData(source);
 
     Set<N> toGet = new HashSet<>();
@@ -152,7 +179,7 @@ public class DijkstraDistance<N, E> implements Distance<N> {
     if (sd.reachedMax
         || (targets != null && toGet.isEmpty())
         || (sd.distances.size() >= numDistances)) {
-      return sd.distances;
+      return sd;
     }
 
     while (!sd.unknownNodes.isEmpty() && (sd.distances.size() < numDistances || !toGet.isEmpty())) {
@@ -196,17 +223,29 @@ public class DijkstraDistance<N, E> implements Distance<N> {
         }
       }
     }
-    return sd.distances;
+    // re-insert the data so that the cache accounts for its new size
+    sourceMap.replace(source, sd, sd);
+    return sd;
   }
 
   protected SourceData getSourceData(N source) {
-    SourceData sd = sourceMap.get(source);
+    SourceData sd = sourceCache.getIfPresent(source);
     if (sd == null) {
-      sd = new SourceData(source);
+      sd = createSourceData(source);
     }
     return sd;
   }
 
+  /**
+   * Creates the data for a source node whose results are not in the cache.
+   *
+   * @param source the source node
+   * @return the new data for {@code source}
+   */
+  protected SourceData createSourceData(N source) {
+    return new SourceData(source);
+  }
+
   /**
    * Returns the length of a shortest path from the source to the target node, or null if the target
    * is not reachable from the source. If either node is not in the graph for which this instance
@@ -366,6 +405,62 @@ public class DijkstraDistance<N, E> implements Distance<N> {
     }
   }
 
+  /**
+   * Limits the cache to the results for at most <code>maxSources</code> source nodes; once this
+   * limit is reached, the results for the least recently used source are evicted to make room for
+   * those for a new source. Replaces any limit set by <code>setMaxCachedDistances</code>.
+   *
+   * @param maxSources the maximum number of source nodes whose results are to be cached
+   * @see #setMaxCachedDistances(long)
+   * @see #getCacheStats()
+   */
+  public void setMaxCachedSources(long maxSources) {
+    replaceCache(
+        CacheBuilder.newBuilder().maximumSize(maxSources).recordStats().<N, SourceData>build());
+  }
+
+  /**
+   * Limits the cache to at most (approximately) <code>maxDistances</code> stored distances, final
+   * and tentative, over all source nodes; once this limit is reached, the results for the least
+   * recently used sources are evicted to make room for new results. This bounds the memory used by
+   * the cache more closely than <code>setMaxCachedSources</code> when the number of distances
+   * calculated varies widely from one source to another. Replaces any limit set by <code>
+   * setMaxCachedSources</code>.
+   *
+   * @param maxDistances the maximum number of distances to be cached
+   * @see #setMaxCachedSources(long)
+   * @see #getCacheStats()
+   */
+  public void setMaxCachedDistances(long maxDistances) {
+    replaceCache(
+        CacheBuilder.newBuilder()
+            .maximumWeight(maxDistances)
+            .<N, SourceData>weigher(
+                (source, sd) -> sd.distances.size() + sd.estimatedDistances.size())
+            .recordStats()
+            .build());
+  }
+
+  // moves the existing results into the new cache, which evicts them as necessary
+  private void replaceCache(Cache<N, SourceData> newCache) {
+    for (Entry<N, SourceData> entry : sourceMap.entrySet()) {
+      newCache.put(entry.getKey(), entry.getValue());
+    }
+    this.sourceCache = newCache;
+    this.sourceMap = newCache.asMap();
+  }
+
+  /**
+   * Returns the statistics of the cache since it was created, or since its limit was last set: the
+   * number of queries whose source node's results were (hits) or were not (misses) in the cache,
+   * and the number of sources whose results were evicted because of the cache's limit.
+   *
+   * @return the statistics of the cache
+   */
+  public CacheStats getCacheStats() {
+    return sourceCache.stats();
+  }
+
   /**
    * Clears all stored distances for this instance. Should be called whenever the graph is modified
    * (edge weights changed or edges added/removed). If the user knows that some currently calculated
@@ -374,7 +469,7 @@ public class DijkstraDistance<N, E> implements Distance<N> {
    * @see #reset(Object)
    */
   public void reset() {
-    sourceMap = new HashMap<>();
+    sourceCache.invalidateAll();
   }
 
   /**
@@ -396,7 +491,7 @@ public class DijkstraDistance<N, E> implements Distance<N> {
    * @see #reset()
    */
   public void reset(N source) {
-    sourceMap.put(source, null);
+    sourceCache.invalidate(source);
   }
 
   /**
@@ -9,15 +9,21 @@
  */
 package edu.uci.ics.jung.algorithms.shortestpath;
 
+import static java.util.Comparator.comparingDouble;
+
 import com.google.common.base.Preconditions;
 import com.google.common.graph.Network;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 /**
@@ -28,6 +34,12 @@ import java.util.function.Function;
  * <p>The elements in the maps returned by <code>getIncomingEdgeMap</code> are ordered (that is,
  * returned by the iterator) by nondecreasing distance from <code>source</code>.
  *
+ * <p>For single queries between two nodes of a large graph, {@link #getPathBidirectional(Object,
+ * Object)} and {@link #getPath(Object, Object, BiFunction)} (A* search) usually visit far fewer
+ * nodes than {@link #getPath(Object, Object)}, which settles every node closer to the source than
+ * the target. These two methods neither use nor update the cached results of this instance, and
+ * ignore its maximum distance and maximum number of targets.
+ *
  * @author Joshua O'Madadhain
  * @author Tom Nelson converted to jung2
  * @see DijkstraDistance
@@ -82,12 +94,8 @@ public class DijkstraShortestPath<N, E> extends DijkstraDistance<N, E>
   }
 
   @Override
-  protected SourceData getSourceData(N source) {
-    SourceData sd = sourceMap.get(source);
-    if (sd == null) {
-      sd = new SourcePathData(source);
-    }
-    return sd;
+  protected SourceData createSourceData(N source) {
+    return new SourcePathData(source);
   }
 
   /**
@@ -110,9 +118,10 @@ public class DijkstraShortestPath<N, E> extends DijkstraDistance<N, E>
 
     Set<N> targets = new HashSet<N>();
     targets.add(target);
-    singleSourceShortestPath(source, targets, g.nodes().size());
     @SuppressWarnings("unchecked")
-    Map<N, E> incomingEdgeMap = ((SourcePathData) sourceMap.get(source)).incomingEdges;
+    Map<N, E> incomingEdgeMap =
+        ((SourcePathData) singleSourceShortestPathData(source, targets, g.nodes().size()))
+            .incomingEdges;
     E incomingEdge = incomingEdgeMap.get(target);
 
     if (!cached) {
@@ -160,9 +169,10 @@ public class DijkstraShortestPath<N, E> extends DijkstraDistance<N, E>
     // wipe out results if results are not cached
     Set<N> targets = new HashSet<N>();
     targets.add(target);
-    singleSourceShortestPath(source, targets, g.nodes().size());
     @SuppressWarnings("unchecked")
-    Map<N, E> incomingEdges = ((SourcePathData) sourceMap.get(source)).incomingEdges;
+    Map<N, E> incomingEdges =
+        ((SourcePathData) singleSourceShortestPathData(source, targets, g.nodes().size()))
+            .incomingEdges;
 
     if (incomingEdges.isEmpty() || incomingEdges.get(target) == null) {
       return path;
@@ -176,6 +186,145 @@ public class DijkstraShortestPath<N, E> extends DijkstraDistance<N, E>
     return path;
   }
 
+  /**
+   * Returns a <code>List</code> of the edges on a shortest path from <code>source</code> to <code>
+   * target</code>, in order of their occurrence on this path, or an empty list if there is no such
+   * path. The path is found by bidirectional Dijkstra search: one search proceeds forward from
+   * <code>source</code> and another backward from <code>target</code>, each time expanding
+   * whichever has the closer frontier, until no shorter path through the two frontiers is possible.
+   * If either node is not in the graph for which this instance was created, throws <code>
+   * IllegalArgumentException</code>.
+   *
+   * @param source the starting node for the path to generate
+   * @param target the ending node for the path to generate
+   * @return the edges on a shortest path from {@code source} to {@code target}, in order of their
+   *     occurrence
+   */
+  public List<E> getPathBidirectional(N source, N target) {
+    Preconditions.checkArgument(
+        g.nodes().contains(target), "Specified target node %s  is not part of graph %s", target, g);
+    Preconditions.checkArgument(
+        g.nodes().contains(source), "Specified source node %s  is not part of graph %s", source, g);
+
+    Frontier forward = new Frontier(source, true);
+    Frontier backward = new Frontier(target, false);
+    double shortest = source.equals(target) ? 0 : Double.POSITIVE_INFINITY;
+    N meeting = source;
+    while (true) {
+      double forwardMin = forward.minDistance();
+      double backwardMin = backward.minDistance();
+      if (forwardMin + backwardMin >= shortest) {
+        break;
+      }
+      Frontier current = forwardMin <= backwardMin ? forward : backward;
+      Frontier other = current == forward ? backward : forward;
+      N v = current.settleNext();
+      double vDist = current.distances.get(v);
+      for (E e : current.edgesFrom(v)) {
+        N w = g.incidentNodes(e).adjacentNode(v);
+        double wDist = vDist + edgeWeight(e);
+        if (current.relax(w, e, wDist)) {
+          Double otherDist = other.distances.get(w);
+          if (otherDist != null && wDist + otherDist < shortest) {
+            shortest = wDist + otherDist;
+            meeting = w;
+          }
+        }
+      }
+    }
+
+    List<E> path = new ArrayList<E>();
+    if (shortest == Double.POSITIVE_INFINITY) {
+      return path;
+    }
+    for (N current = meeting; !current.equals(source); ) {
+      E incoming = forward.incomingEdges.get(current);
+      path.add(incoming);
+      current = g.incidentNodes(incoming).adjacentNode(current);
+    }
+    Collections.reverse(path);
+    for (N current = meeting; !current.equals(target); ) {
+      E outgoing = backward.incomingEdges.get(current);
+      path.add(outgoing);
+      current = g.incidentNodes(outgoing).adjacentNode(current);
+    }
+    return path;
+  }
+
+  /**
+   * Returns a <code>List</code> of the edges on a shortest path from <code>source</code> to <code>
+   * target</code>, in order of their occurrence on this path, or an empty list if there is no such
+   * path. The path is found by A* search, which expands nodes in order of their distance from
+   * <code>source</code> plus <code>heuristic</code>'s estimate of their distance to <code>target
+   * </code>. If either node is not in the graph for which this instance was created, throws <code>
+   * IllegalArgumentException</code>.
+   *
+   * <p>The path is guaranteed to be a shortest path only if <code>heuristic</code> is
+   * <i>admissible</i>, that is, never overestimates the distance from a node to the target. For
+   * example, if each edge weight is at least the Euclidean distance between the locations of its
+   * endpoints in a <code>LayoutModel</code>, then <code>(v, t) -&gt;
+   * layoutModel.apply(v).distance(layoutModel.apply(t))</code> is admissible. A heuristic that
+   * always returns 0 makes this equivalent to Dijkstra's algorithm.
+   *
+   * @param source the starting node for the path to generate
+   * @param target the ending node for the path to generate
+   * @param heuristic a function which, given a node and the target, returns a lower bound on the
+   *     distance from that node to the target
+   * @return the edges on a shortest path from {@code source} to {@code target}, in order of their
+   *     occurrence
+   */
+  public List<E> getPath(
+      N source, N target, BiFunction<? super N, ? super N, ? extends Number> heuristic) {
+    Preconditions.checkArgument(
+        g.nodes().contains(target), "Specified target node %s  is not part of graph %s", target, g);
+    Preconditions.checkArgument(
+        g.nodes().contains(source), "Specified source node %s  is not part of graph %s", source, g);
+
+    Map<N, Double> distances = new HashMap<N, Double>();
+    Map<N, E> incomingEdges = new HashMap<N, E>();
+    PriorityQueue<QueueEntry<N>> queue =
+        new PriorityQueue<QueueEntry<N>>(comparingDouble(entry -> entry.priority));
+    distances.put(source, 0.0);
+    queue.add(new QueueEntry<N>(source, 0, heuristic.apply(source, target).doubleValue()));
+
+    List<E> path = new ArrayList<E>();
+    while (!queue.isEmpty()) {
+      QueueEntry<N> entry = queue.poll();
+      N v = entry.node;
+      if (entry.distance > distances.get(v)) {
+        continue; // superseded by an entry with a shorter distance
+      }
+      if (v.equals(target)) {
+        for (N current = target; !current.equals(source); ) {
+          E incoming = incomingEdges.get(current);
+          path.add(incoming);
+          current = g.incidentNodes(incoming).adjacentNode(current);
+        }
+        Collections.reverse(path);
+        return path;
+      }
+      // nodes may be expanded more than once if the heuristic is admissible but not consistent
+      for (E e : g.outEdges(v)) {
+        N w = g.incidentNodes(e).adjacentNode(v);
+        double wDist = entry.distance + edgeWeight(e);
+        Double oldDist = distances.get(w);
+        if (oldDist == null || wDist < oldDist) {
+          distances.put(w, wDist);
+          incomingEdges.put(w, e);
+          queue.add(new QueueEntry<N>(w, wDist, wDist + heuristic.apply(w, target).doubleValue()));
+        }
+      }
+    }
+    return path;
+  }
+
+  private double edgeWeight(E e) {
+    double edgeWeight = nev.apply(e).doubleValue();
+    Preconditions.checkArgument(
+        edgeWeight >= 0, "encountered negative edge weight %s for edge %s", nev.apply(e), e);
+    return edgeWeight;
+  }
+
   /**
    * Returns a <code>LinkedHashMap</code> which maps each of the closest <code>numDests</code> nodes
    * to the <code>source</code> node in the graph (including the <code>source</code> node) to the
@@ -198,10 +347,9 @@ public class DijkstraShortestPath<N, E> extends DijkstraDistance<N, E>
         "number of destinations must be in [1, %d]",
         g.nodes().size());
 
-    singleSourceShortestPath(source, null, numDests);
-
     @SuppressWarnings("unchecked")
-    LinkedHashMap<N, E> incomingEdgeMap = ((SourcePathData) sourceMap.get(source)).incomingEdges;
+    LinkedHashMap<N, E> incomingEdgeMap =
+        ((SourcePathData) singleSourceShortestPathData(source, null, numDests)).incomingEdges;
 
     if (!cached) {
       reset(source);
@@ -255,4 +403,70 @@ public class DijkstraShortestPath<N, E> extends DijkstraDistance<N, E>
       tentativeIncomingEdges.put(w, e);
     }
   }
+
+  /**
+   * One direction of a bidirectional search: the tentative distances from (or to) its starting
+   * node, the edge by which each node was reached, and a queue of the unsettled nodes.
+   */
+  private class Frontier {
+    private final boolean forward;
+    private final Map<N, Double> distances = new HashMap<N, Double>();
+    // for a backward search, the edge by which each node reaches the target
+    private final Map<N, E> incomingEdges = new HashMap<N, E>();
+    private final Set<N> settled = new HashSet<N>();
+    private final PriorityQueue<QueueEntry<N>> queue =
+        new PriorityQueue<QueueEntry<N>>(comparingDouble(entry -> entry.priority));
+
+    private Frontier(N start, boolean forward) {
+      this.forward = forward;
+      distances.put(start, 0.0);
+      queue.add(new QueueEntry<N>(start, 0, 0));
+    }
+
+    /** @return the smallest distance of any unsettled node, or infinity if there are none */
+    private double minDistance() {
+      while (!queue.isEmpty() && settled.contains(queue.peek().node)) {
+        queue.poll(); // superseded by an entry with a shorter distance
+      }
+      return queue.isEmpty() ? Double.POSITIVE_INFINITY : queue.peek().distance;
+    }
+
+    /** Settles and returns the closest unsettled node; requires that minDistance() be finite. */
+    private N settleNext() {
+      N v = queue.poll().node;
+      settled.add(v);
+      return v;
+    }
+
+    private Iterable<E> edgesFrom(N v) {
+      return forward ? g.outEdges(v) : g.inEdges(v);
+    }
+
+    /** @return true if {@code distance} is the shortest distance found so far for {@code w} */
+    private boolean relax(N w, E e, double distance) {
+      if (settled.contains(w)) {
+        return false;
+      }
+      Double oldDistance = distances.get(w);
+      if (oldDistance != null && oldDistance <= distance) {
+        return false;
+      }
+      distances.put(w, distance);
+      incomingEdges.put(w, e);
+      queue.add(new QueueEntry<N>(w, distance, distance));
+      return true;
+    }
+  }
+
+  private static class QueueEntry<N> {
+    private final N node;
+    private final double distance;
+    private final double priority;
+
+    private QueueEntry(N node, double distance, double priority) {
+      this.node = node;
+      this.distance = distance;
+      this.priority = priority;
+    }
+  }
 }
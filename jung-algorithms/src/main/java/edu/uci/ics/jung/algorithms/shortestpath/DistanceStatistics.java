@@ -51,8 +51,13 @@ public class DistanceStatistics {
    * where <code>nev</code> is an instance of <code>Transformer</code> that is used to fetch the
    * weight for each edge.
    *
+   * <p>If the distances from every node are needed, a {@link MultiSourceDijkstraDistance} whose
+   * distances have been computed in parallel by <code>computeDistances(graph.nodes())</code> is
+   * usually much faster than a <code>DijkstraShortestPath</code>.
+   *
    * @see edu.uci.ics.jung.algorithms.shortestpath.UnweightedShortestPath
    * @see edu.uci.ics.jung.algorithms.shortestpath.DijkstraDistance
+   * @see edu.uci.ics.jung.algorithms.shortestpath.MultiSourceDijkstraDistance
    * @param graph the graph for which distances are to be calculated
    * @param d the distance metric to use for the calculation
    * @param <N> the node type
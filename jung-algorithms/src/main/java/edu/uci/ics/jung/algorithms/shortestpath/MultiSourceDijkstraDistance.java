@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.shortestpath;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.algorithms.util.CompressedSparseRowGraph;
+import edu.uci.ics.jung.algorithms.util.IndexedDaryHeap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Calculates distances from many source nodes at once, using an independent run of Dijkstra's
+ * single-source-shortest-path algorithm for each source. The graph and its edge weights are
+ * converted once, on construction, into a {@link CompressedSparseRowGraph}; each run uses an {@link
+ * IndexedDaryHeap} over the node indices and stores its distances in a <code>double</code> array,
+ * so no hash lookups or boxing are needed while a search is under way.
+ *
+ * <p>{@link #computeDistances(Collection)} runs the searches for a set of sources concurrently on
+ * the threads of this instance's <code>ForkJoinPool</code>. Distances for any other source are
+ * computed (on the calling thread) when they are first requested. Either way, the distances from
+ * each source are retained for the lifetime of this instance, which uses O(n) memory per source;
+ * computing the distances from every node therefore uses O(n<sup>2</sup>) memory.
+ *
+ * <p>Since this class implements {@link Distance}, it may be used in place of {@link
+ * DijkstraDistance} wherever all (or most) of the distances from many sources are needed, for
+ * example by {@link DistanceStatistics} or {@link
+ * edu.uci.ics.jung.algorithms.scoring.DistanceCentralityScorer}:
+ *
+ * <pre>
+ * MultiSourceDijkstraDistance&lt;N, E&gt; distance =
+ *     new MultiSourceDijkstraDistance&lt;&gt;(graph, nev, ForkJoinPool.commonPool());
+ * distance.computeDistances(graph.nodes());
+ * double diameter = DistanceStatistics.diameter(graph.asGraph(), distance::getDistance);
+ * </pre>
+ *
+ * <p>All edge weights must be nonnegative; unlike <code>DijkstraDistance</code>, this is checked
+ * for every edge on construction. Changes made to the graph or edge weights after construction are
+ * not reflected in the distances; create a new instance instead.
+ *
+ * @see DijkstraDistance
+ */
+public class MultiSourceDijkstraDistance<N, E> implements Distance<N> {
+  private final CompressedSparseRowGraph<N, E> csr;
+  private final ForkJoinPool pool;
+  // the search from each source node, indexed as in csr, or null if not yet computed
+  private final AtomicReferenceArray<Search> searches;
+
+  /**
+   * Creates an instance for the specified graph and edge weights, which runs the searches requested
+   * by <code>computeDistances</code> on the threads of <code>pool</code>.
+   *
+   * @param g the graph on which distances will be calculated
+   * @param nev the class responsible for returning weights for edges
+   * @param pool the pool on which the searches are to be run, or {@code null} if they are to be run
+   *     on the calling thread
+   */
+  public MultiSourceDijkstraDistance(
+      Network<N, E> g, Function<? super E, ? extends Number> nev, ForkJoinPool pool) {
+    for (E e : g.edges()) {
+      double weight = nev.apply(e).doubleValue();
+      Preconditions.checkArgument(
+          weight >= 0, "encountered negative edge weight %s for edge %s", weight, e);
+    }
+    this.csr = CompressedSparseRowGraph.of(g, nev);
+    this.pool = pool;
+    this.searches = new AtomicReferenceArray<Search>(csr.nodeCount());
+  }
+
+  /**
+   * Creates an instance for the specified unweighted graph (that is, all weights 1), which runs the
+   * searches requested by <code>computeDistances</code> on the threads of <code>pool</code>.
+   *
+   * @param g the graph on which distances will be calculated
+   * @param pool the pool on which the searches are to be run, or {@code null} if they are to be run
+   *     on the calling thread
+   */
+  public MultiSourceDijkstraDistance(Network<N, E> g, ForkJoinPool pool) {
+    this.csr = CompressedSparseRowGraph.of(g);
+    this.pool = pool;
+    this.searches = new AtomicReferenceArray<Search>(csr.nodeCount());
+  }
+
+  /**
+   * Computes the distances from each of the specified source nodes whose distances have not already
+   * been computed, running the searches concurrently if this instance has a pool.
+   *
+   * @param sources the nodes from which distances are to be measured
+   */
+  public void computeDistances(Collection<? extends N> sources) {
+    int[] pending = new int[sources.size()];
+    int count = 0;
+    for (N source : sources) {
+      int s = csr.nodeIndex(source);
+      if (searches.get(s) == null) {
+        pending[count++] = s;
+      }
+    }
+    if (pool == null || count < 2) {
+      new SearchTask(pending, 0, count, count).compute();
+    } else {
+      int grain = Math.max(1, count / (pool.getParallelism() * 4));
+      pool.invoke(new SearchTask(pending, 0, count, grain));
+    }
+  }
+
+  /**
+   * Returns the length of a shortest path from the source to the target node, or null if the target
+   * is not reachable from the source. If either node is not in the graph for which this instance
+   * was created, throws <code>IllegalArgumentException</code>.
+   *
+   * @param source the node from which the distance to {@code target} is to be measured
+   * @param target the node to which the distance from {@code source} is to be measured
+   * @return the distance between {@code source} and {@code target}
+   */
+  @Override
+  public Double getDistance(N source, N target) {
+    int t = csr.nodeIndex(target);
+    double distance = searchFrom(csr.nodeIndex(source)).distances[t];
+    return distance == Double.POSITIVE_INFINITY ? null : distance;
+  }
+
+  /**
+   * Returns an unmodifiable {@code Map} from each node reachable from {@code source} (including
+   * {@code source} itself) to its distance from {@code source}. The map's iterator will return the
+   * elements in order of increasing distance from {@code source}. If {@code source} is not in the
+   * graph for which this instance was created, throws <code>IllegalArgumentException</code>.
+   *
+   * @param source the node from which distances are to be measured
+   * @return a mapping from each node reachable from {@code source} to its distance
+   */
+  @Override
+  public Map<N, Double> getDistanceMap(N source) {
+    Search search = searchFrom(csr.nodeIndex(source));
+    Map<N, Double> distanceMap = new LinkedHashMap<N, Double>();
+    for (int v : search.settled) {
+      distanceMap.put(csr.node(v), search.distances[v]);
+    }
+    return Collections.unmodifiableMap(distanceMap);
+  }
+
+  private Search searchFrom(int s) {
+    Search search = searches.get(s);
+    if (search == null) {
+      search = search(csr, s, new IndexedDaryHeap(csr.nodeCount()));
+      searches.set(s, search);
+    }
+    return search;
+  }
+
+  /**
+   * Runs Dijkstra's algorithm from the node with index {@code s} to exhaustion.
+   *
+   * @param heap an empty heap with capacity {@code csr.nodeCount()}; it is empty again on return
+   * @return the distance to each node, and the order in which the reachable nodes were settled
+   */
+  private static Search search(CompressedSparseRowGraph<?, ?> csr, int s, IndexedDaryHeap heap) {
+    double[] row = new double[csr.nodeCount()];
+    int[] settled = new int[csr.nodeCount()];
+    int settledCount = 0;
+    Arrays.fill(row, Double.POSITIVE_INFINITY);
+    heap.insert(s, 0);
+    while (!heap.isEmpty()) {
+      int v = heap.peek();
+      double vDist = heap.key(v);
+      heap.poll();
+      row[v] = vDist;
+      settled[settledCount++] = v;
+      for (int k = csr.outStart(v); k < csr.outEnd(v); k++) {
+        int w = csr.outTarget(k);
+        if (row[w] != Double.POSITIVE_INFINITY) {
+          continue; // already settled
+        }
+        double newDist = vDist + csr.outWeight(k);
+        if (!heap.contains(w)) {
+          heap.insert(w, newDist);
+        } else if (newDist < heap.key(w)) {
+          heap.decreaseKey(w, newDist);
+        }
+      }
+    }
+    return new Search(row, Arrays.copyOf(settled, settledCount));
+  }
+
+  /** The result of a search from one source node. */
+  private static class Search {
+    // the distance to each node, or Double.POSITIVE_INFINITY for unreachable nodes
+    final double[] distances;
+    // the reachable nodes, in the order in which they were settled (by increasing distance)
+    final int[] settled;
+
+    Search(double[] distances, int[] settled) {
+      this.distances = distances;
+      this.settled = settled;
+    }
+  }
+
+  /**
+   * Runs the searches for the sources {@code sources[from, to)}, splitting the range in half until
+   * it is no larger than {@code grain}. The searches of each range share one heap.
+   */
+  private class SearchTask extends RecursiveAction {
+    private final int[] sources;
+    private final int from;
+    private final int to;
+    private final int grain;
+
+    SearchTask(int[] sources, int from, int to, int grain) {
+      this.sources = sources;
+      this.from = from;
+      this.to = to;
+      this.grain = grain;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= grain) {
+        IndexedDaryHeap heap = new IndexedDaryHeap(csr.nodeCount());
+        for (int i = from; i < to; i++) {
+          searches.set(sources[i], search(csr, sources[i], heap));
+        }
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(
+          new SearchTask(sources, from, middle, grain), new SearchTask(sources, middle, to, grain));
+    }
+  }
+}
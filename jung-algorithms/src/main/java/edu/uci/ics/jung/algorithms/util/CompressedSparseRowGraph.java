@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.BiMap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Graph;
+import com.google.common.graph.Network;
+import com.google.common.graph.ValueGraph;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * An immutable, index-based snapshot of the structure of a {@code Graph}, {@code ValueGraph}, or
+ * {@code Network}, stored in compressed sparse row (CSR) form. Nodes and edges are identified by
+ * dense <code>int</code> indices (assigned in the iteration order of the source graph's {@code
+ * nodes()} and {@code edges()}), and the adjacency of each node is a contiguous range of "slots" in
+ * primitive arrays, so that algorithms can traverse the graph without hash lookups or iterator
+ * allocation:
+ *
+ * <pre>{@code
+ * for (int k = csr.outStart(v); k < csr.outEnd(v); k++) {
+ *   int w = csr.outTarget(k);
+ *   double weight = csr.outWeight(k);
+ *   ...
+ * }
+ * }</pre>
+ *
+ * <p>For undirected graphs the incoming and outgoing adjacency are identical, and each edge that is
+ * not a self-loop occupies one outgoing slot of each of its endpoints. A snapshot may optionally
+ * carry a weight for each edge; if it does not, every edge has weight 1.
+ *
+ * <p>For snapshots of a {@code Graph} or {@code ValueGraph}, the edges are the graph's {@code
+ * EndpointPair}s.
+ *
+ * <p>The snapshot does not reflect subsequent changes to the source graph.
+ *
+ * @param <N> the node type
+ * @param <E> the edge type
+ */
+public final class CompressedSparseRowGraph<N, E> {
+  private final ImmutableList<N> nodes;
+  private final BiMap<N, Integer> nodeIndices;
+  private final ImmutableList<E> edges;
+  private final BiMap<E, Integer> edgeIndices;
+  private final boolean directed;
+
+  private final int[] edgeSources;
+  private final int[] edgeTargets;
+  private final double[] edgeWeights;
+
+  private final int[] outOffsets;
+  private final int[] outTargets;
+  private final int[] outEdges;
+  private final double[] outWeights;
+
+  private final int[] inOffsets;
+  private final int[] inSources;
+  private final int[] inEdges;
+  private final double[] inWeights;
+
+  private CompressedSparseRowGraph(
+      Collection<N> nodes,
+      Collection<E> edges,
+      boolean directed,
+      Function<? super E, EndpointPair<N>> endpoints,
+      Function<? super E, ? extends Number> edge_weights) {
+    this.nodes = ImmutableList.copyOf(nodes);
+    this.nodeIndices = Indexer.create(this.nodes);
+    this.edges = ImmutableList.copyOf(edges);
+    this.edgeIndices = Indexer.create(this.edges);
+    this.directed = directed;
+
+    int nodeCount = this.nodes.size();
+    int edgeCount = this.edges.size();
+    this.edgeSources = new int[edgeCount];
+    this.edgeTargets = new int[edgeCount];
+    this.edgeWeights = edge_weights == null ? null : new double[edgeCount];
+
+    // count the slots for each node; offsets[i + 1] temporarily holds the degree of node i
+    this.outOffsets = new int[nodeCount + 1];
+    this.inOffsets = directed ? new int[nodeCount + 1] : outOffsets;
+    for (int e = 0; e < edgeCount; e++) {
+      E edge = this.edges.get(e);
+      EndpointPair<N> pair = endpoints.apply(edge);
+      int u = nodeIndices.get(pair.nodeU());
+      int v = nodeIndices.get(pair.nodeV());
+      edgeSources[e] = u;
+      edgeTargets[e] = v;
+      if (edgeWeights != null) {
+        edgeWeights[e] = edge_weights.apply(edge).doubleValue();
+      }
+      outOffsets[u + 1]++;
+      if (directed) {
+        inOffsets[v + 1]++;
+      } else if (u != v) {
+        outOffsets[v + 1]++;
+      }
+    }
+    for (int i = 0; i < nodeCount; i++) {
+      outOffsets[i + 1] += outOffsets[i];
+      if (directed) {
+        inOffsets[i + 1] += inOffsets[i];
+      }
+    }
+
+    int outSlots = outOffsets[nodeCount];
+    this.outTargets = new int[outSlots];
+    this.outEdges = new int[outSlots];
+    this.outWeights = edgeWeights == null ? null : new double[outSlots];
+    if (directed) {
+      int inSlots = inOffsets[nodeCount];
+      this.inSources = new int[inSlots];
+      this.inEdges = new int[inSlots];
+      this.inWeights = edgeWeights == null ? null : new double[inSlots];
+    } else {
+      this.inSources = outTargets;
+      this.inEdges = outEdges;
+      this.inWeights = outWeights;
+    }
+
+    // fill the slots of each node in edge order
+    int[] outNext = new int[nodeCount];
+    System.arraycopy(outOffsets, 0, outNext, 0, nodeCount);
+    int[] inNext = directed ? new int[nodeCount] : null;
+    if (directed) {
+      System.arraycopy(inOffsets, 0, inNext, 0, nodeCount);
+    }
+    for (int e = 0; e < edgeCount; e++) {
+      int u = edgeSources[e];
+      int v = edgeTargets[e];
+      addSlot(outTargets, outEdges, outWeights, outNext[u]++, v, e);
+      if (directed) {
+        addSlot(inSources, inEdges, inWeights, inNext[v]++, u, e);
+      } else if (u != v) {
+        addSlot(outTargets, outEdges, outWeights, outNext[v]++, u, e);
+      }
+    }
+  }
+
+  private void addSlot(int[] adjacent, int[] slotEdges, double[] weights, int k, int w, int e) {
+    adjacent[k] = w;
+    slotEdges[k] = e;
+    if (weights != null) {
+      weights[k] = edgeWeights[e];
+    }
+  }
+
+  /**
+   * Returns an unweighted snapshot of {@code graph}, whose edges are its {@code EndpointPair}s.
+   *
+   * @param graph the graph to copy
+   * @param <N> the node type
+   * @return a snapshot of the structure of {@code graph}
+   */
+  public static <N> CompressedSparseRowGraph<N, EndpointPair<N>> of(Graph<N> graph) {
+    return new CompressedSparseRowGraph<N, EndpointPair<N>>(
+        graph.nodes(), graph.edges(), graph.isDirected(), Function.identity(), null);
+  }
+
+  /**
+   * Returns a snapshot of {@code graph}, whose edges are its {@code EndpointPair}s, and whose edge
+   * weights are obtained by applying {@code value_weights} to the value of each edge.
+   *
+   * @param graph the graph to copy
+   * @param value_weights a function from edge values to edge weights
+   * @param <N> the node type
+   * @param <V> the edge value type
+   * @return a weighted snapshot of the structure of {@code graph}
+   */
+  public static <N, V> CompressedSparseRowGraph<N, EndpointPair<N>> of(
+      ValueGraph<N, V> graph, Function<? super V, ? extends Number> value_weights) {
+    Preconditions.checkNotNull(value_weights, "value_weights");
+    return new CompressedSparseRowGraph<N, EndpointPair<N>>(
+        graph.nodes(),
+        graph.edges(),
+        graph.isDirected(),
+        Function.identity(),
+        pair -> value_weights.apply(graph.edgeValue(pair.nodeU(), pair.nodeV()).get()));
+  }
+
+  /**
+   * Returns an unweighted snapshot of {@code network}.
+   *
+   * @param network the network to copy
+   * @param <N> the node type
+   * @param <E> the edge type
+   * @return a snapshot of the structure of {@code network}
+   */
+  public static <N, E> CompressedSparseRowGraph<N, E> of(Network<N, E> network) {
+    return of(network, null);
+  }
+
+  /**
+   * Returns a snapshot of {@code network} whose edge weights are given by {@code edge_weights}.
+   *
+   * @param network the network to copy
+   * @param edge_weights the edge weights, or {@code null} if every edge has weight 1
+   * @param <N> the node type
+   * @param <E> the edge type
+   * @return a snapshot of the structure of {@code network}
+   */
+  public static <N, E> CompressedSparseRowGraph<N, E> of(
+      Network<N, E> network, Function<? super E, ? extends Number> edge_weights) {
+    return new CompressedSparseRowGraph<N, E>(
+        network.nodes(),
+        network.edges(),
+        network.isDirected(),
+        network::incidentNodes,
+        edge_weights);
+  }
+
+  /** @return the number of nodes in this graph */
+  public int nodeCount() {
+    return nodes.size();
+  }
+
+  /** @return the number of edges in this graph */
+  public int edgeCount() {
+    return edges.size();
+  }
+
+  /** @return true if this graph's edges are directed */
+  public boolean isDirected() {
+    return directed;
+  }
+
+  /** @return true if this snapshot has a weight for each edge */
+  public boolean isWeighted() {
+    return edgeWeights != null;
+  }
+
+  /** @return the nodes of this graph, in index order */
+  public ImmutableList<N> nodes() {
+    return nodes;
+  }
+
+  /** @return the edges of this graph, in index order */
+  public ImmutableList<E> edges() {
+    return edges;
+  }
+
+  /**
+   * @param index a node index
+   * @return the node with the specified index
+   */
+  public N node(int index) {
+    return nodes.get(index);
+  }
+
+  /**
+   * @param node a node of this graph
+   * @return the index of {@code node}
+   * @throws IllegalArgumentException if {@code node} is not an element of this graph
+   */
+  public int nodeIndex(N node) {
+    Integer index = nodeIndices.get(node);
+    Preconditions.checkArgument(index != null, "Node %s is not an element of this graph", node);
+    return index;
+  }
+
+  /**
+   * @param index an edge index
+   * @return the edge with the specified index
+   */
+  public E edge(int index) {
+    return edges.get(index);
+  }
+
+  /**
+   * @param edge an edge of this graph
+   * @return the index of {@code edge}
+   * @throws IllegalArgumentException if {@code edge} is not an element of this graph
+   */
+  public int edgeIndex(E edge) {
+    Integer index = edgeIndices.get(edge);
+    Preconditions.checkArgument(index != null, "Edge %s is not an element of this graph", edge);
+    return index;
+  }
+
+  /**
+   * @param edge an edge index
+   * @return the index of the source (for undirected graphs, the first endpoint) of {@code edge}
+   */
+  public int edgeSource(int edge) {
+    return edgeSources[edge];
+  }
+
+  /**
+   * @param edge an edge index
+   * @return the index of the target (for undirected graphs, the second endpoint) of {@code edge}
+   */
+  public int edgeTarget(int edge) {
+    return edgeTargets[edge];
+  }
+
+  /**
+   * @param edge an edge index
+   * @return the weight of {@code edge}, or 1 if this snapshot is unweighted
+   */
+  public double edgeWeight(int edge) {
+    return edgeWeights == null ? 1 : edgeWeights[edge];
+  }
+
+  /**
+   * @param node a node index
+   * @return the first outgoing slot of {@code node}
+   */
+  public int outStart(int node) {
+    return outOffsets[node];
+  }
+
+  /**
+   * @param node a node index
+   * @return one past the last outgoing slot of {@code node}
+   */
+  public int outEnd(int node) {
+    return outOffsets[node + 1];
+  }
+
+  /**
+   * @param node a node index
+   * @return the number of outgoing slots of {@code node}
+   */
+  public int outDegree(int node) {
+    return outOffsets[node + 1] - outOffsets[node];
+  }
+
+  /**
+   * @param slot an outgoing slot
+   * @return the index of the node at the far end of the edge in {@code slot}
+   */
+  public int outTarget(int slot) {
+    return outTargets[slot];
+  }
+
+  /**
+   * @param slot an outgoing slot
+   * @return the index of the edge in {@code slot}
+   */
+  public int outEdge(int slot) {
+    return outEdges[slot];
+  }
+
+  /**
+   * @param slot an outgoing slot
+   * @return the weight of the edge in {@code slot}, or 1 if this snapshot is unweighted
+   */
+  public double outWeight(int slot) {
+    return outWeights == null ? 1 : outWeights[slot];
+  }
+
+  /**
+   * @param node a node index
+   * @return the first incoming slot of {@code node}
+   */
+  public int inStart(int node) {
+    return inOffsets[node];
+  }
+
+  /**
+   * @param node a node index
+   * @return one past the last incoming slot of {@code node}
+   */
+  public int inEnd(int node) {
+    return inOffsets[node + 1];
+  }
+
+  /**
+   * @param node a node index
+   * @return the number of incoming slots of {@code node}
+   */
+  public int inDegree(int node) {
+    return inOffsets[node + 1] - inOffsets[node];
+  }
+
+  /**
+   * @param slot an incoming slot
+   * @return the index of the node at the near end of the edge in {@code slot}
+   */
+  public int inSource(int slot) {
+    return inSources[slot];
+  }
+
+  /**
+   * @param slot an incoming slot
+   * @return the index of the edge in {@code slot}
+   */
+  public int inEdge(int slot) {
+    return inEdges[slot];
+  }
+
+  /**
+   * @param slot an incoming slot
+   * @return the weight of the edge in {@code slot}, or 1 if this snapshot is unweighted
+   */
+  public double inWeight(int slot) {
+    return inWeights == null ? 1 : inWeights[slot];
+  }
+
+  @Override
+  public String toString() {
+    return "CompressedSparseRowGraph{"
+        + "directed="
+        + directed
+        + ", weighted="
+        + isWeighted()
+        + ", nodes="
+        + nodes.size()
+        + ", edges="
+        + edges.size()
+        + '}';
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.util;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An array-based d-ary min-heap of the <code>int</code> ids <code>[0, capacity)</code>, each of
+ * which has a <code>double</code> key. Like {@link MapBinaryHeap}, it keeps track of the position
+ * of each id in the heap, so that the key of an id already in the heap can be decreased
+ * efficiently; unlike <code>MapBinaryHeap</code>, it does so with <code>int</code> arrays rather
+ * than a hash table, and does not box its elements or keys.
+ *
+ * <p>A larger arity makes the heap shallower, which makes <code>decreaseKey</code> cheaper and
+ * <code>poll</code> more expensive; 4 is a good choice for shortest-path searches on sparse graphs.
+ *
+ * <p>An instance may be reused once it is empty; each id is removed from the heap as it is polled,
+ * so no additional clearing is required.
+ */
+public final class IndexedDaryHeap {
+  private static final int ABSENT = -1;
+
+  private final int arity;
+  // the heap, as an implicit d-ary tree of ids
+  private final int[] heap;
+  // the position of each id in the heap, or ABSENT
+  private final int[] positions;
+  private final double[] keys;
+  private int size;
+
+  /**
+   * Creates an empty heap for the ids <code>[0, capacity)</code> with the specified arity.
+   *
+   * @param capacity the number of distinct ids that the heap may hold
+   * @param arity the number of children of each element of the heap; must be at least 2
+   */
+  public IndexedDaryHeap(int capacity, int arity) {
+    Preconditions.checkArgument(capacity >= 0, "capacity must be >= 0: %s", capacity);
+    Preconditions.checkArgument(arity >= 2, "arity must be >= 2: %s", arity);
+    this.arity = arity;
+    this.heap = new int[capacity];
+    this.positions = new int[capacity];
+    this.keys = new double[capacity];
+    Arrays.fill(positions, ABSENT);
+  }
+
+  /**
+   * Creates an empty 4-ary heap for the ids <code>[0, capacity)</code>.
+   *
+   * @param capacity the number of distinct ids that the heap may hold
+   */
+  public IndexedDaryHeap(int capacity) {
+    this(capacity, 4);
+  }
+
+  /** @return the number of ids in the heap */
+  public int size() {
+    return size;
+  }
+
+  /** @return <code>true</code> if the heap holds no ids */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @param id the id to look for
+   * @return <code>true</code> if <code>id</code> is in the heap
+   */
+  public boolean contains(int id) {
+    return positions[id] != ABSENT;
+  }
+
+  /**
+   * @param id an id that is in the heap
+   * @return the key of <code>id</code>
+   */
+  public double key(int id) {
+    Preconditions.checkArgument(contains(id), "id %s is not in the heap", id);
+    return keys[id];
+  }
+
+  /**
+   * Adds <code>id</code>, which must not already be in the heap, with the specified key.
+   *
+   * @param id the id to add
+   * @param key the key of <code>id</code>
+   */
+  public void insert(int id, double key) {
+    Preconditions.checkArgument(!contains(id), "id %s is already in the heap", id);
+    keys[id] = key;
+    heap[size] = id;
+    positions[id] = size;
+    siftUp(size++);
+  }
+
+  /**
+   * Decreases the key of <code>id</code>, which must be in the heap, to <code>key</code>.
+   *
+   * @param id the id whose key is to be decreased
+   * @param key the new key, which must be no larger than the current key
+   */
+  public void decreaseKey(int id, double key) {
+    Preconditions.checkArgument(contains(id), "id %s is not in the heap", id);
+    if (key > keys[id]) {
+      // not a Preconditions check, which would box the keys on every call
+      throw new IllegalArgumentException(
+          "new key " + key + " is larger than current key " + keys[id]);
+    }
+    keys[id] = key;
+    siftUp(positions[id]);
+  }
+
+  /**
+   * @return the id with the smallest key, without removing it
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public int peek() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    return heap[0];
+  }
+
+  /**
+   * Removes and returns the id with the smallest key.
+   *
+   * @return the id with the smallest key
+   * @throws NoSuchElementException if the heap is empty
+   */
+  public int poll() {
+    int top = peek();
+    positions[top] = ABSENT;
+    int last = heap[--size];
+    if (size > 0) {
+      heap[0] = last;
+      positions[last] = 0;
+      siftDown(0);
+    }
+    return top;
+  }
+
+  private void siftUp(int i) {
+    int id = heap[i];
+    double key = keys[id];
+    while (i > 0) {
+      int parent = (i - 1) / arity;
+      int p = heap[parent];
+      if (keys[p] <= key) {
+        break;
+      }
+      heap[i] = p;
+      positions[p] = i;
+      i = parent;
+    }
+    heap[i] = id;
+    positions[id] = i;
+  }
+
+  private void siftDown(int i) {
+    int id = heap[i];
+    double key = keys[id];
+    while (true) {
+      int first = arity * i + 1;
+      if (first >= size) {
+        break;
+      }
+      int last = Math.min(first + arity, size);
+      int smallest = first;
+      for (int child = first + 1; child < last; child++) {
+        if (keys[heap[child]] < keys[heap[smallest]]) {
+          smallest = child;
+        }
+      }
+      int c = heap[smallest];
+      if (key <= keys[c]) {
+        break;
+      }
+      heap[i] = c;
+      positions[c] = i;
+      i = smallest;
+    }
+    heap[i] = id;
+    positions[id] = i;
+  }
+}
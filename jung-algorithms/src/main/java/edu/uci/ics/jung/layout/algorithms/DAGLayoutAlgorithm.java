@@ -27,6 +27,9 @@ import org.slf4j.LoggerFactory;
  * towards the top of the layout. Any node has a level one greater than the maximum level of all its
  * successors.
  *
+ * <p>For large DAGs, {@link SugiyamaLayoutAlgorithm} lays out the graph in one pass, with fewer
+ * crossings.
+ *
  * @author John Yesberg
  */
 public class DAGLayoutAlgorithm<N> extends SpringLayoutAlgorithm<N> {
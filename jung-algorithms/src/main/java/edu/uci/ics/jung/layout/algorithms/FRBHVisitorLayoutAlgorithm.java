@@ -10,8 +10,7 @@ package edu.uci.ics.jung.layout.algorithms;
 import edu.uci.ics.jung.algorithms.util.IterativeContext;
 import edu.uci.ics.jung.layout.model.LayoutModel;
 import edu.uci.ics.jung.layout.model.Point;
-import edu.uci.ics.jung.layout.spatial.BarnesHutQuadTree;
-import edu.uci.ics.jung.layout.spatial.ForceObject;
+import edu.uci.ics.jung.layout.spatial.FlatBarnesHutQuadTree;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,6 +19,9 @@ import org.slf4j.LoggerFactory;
  * calculation of node repulsion. The purpose of the Barnes-Hut optimization is to reduce the number
  * of calculations during the calculateRepulsion method from O(n^2) to O(nlog(n))
  *
+ * <p>The tree is a {@link FlatBarnesHutQuadTree}, whose storage is reused from step to step; its
+ * accuracy may be adjusted with {@link #setTheta(double)}.
+ *
  * @author Tom Nelson
  */
 public class FRBHVisitorLayoutAlgorithm<N> extends FRLayoutAlgorithm<N>
@@ -28,7 +30,13 @@ public class FRBHVisitorLayoutAlgorithm<N> extends FRLayoutAlgorithm<N>
   private static final Logger log = LoggerFactory.getLogger(FRBHVisitorLayoutAlgorithm.class);
 
   /** Used for optimization of the calculation of repulsion forces between Nodes */
-  private BarnesHutQuadTree<N> tree;
+  private FlatBarnesHutQuadTree tree;
+
+  private double theta = FlatBarnesHutQuadTree.DEFAULT_THETA;
+
+  private final NodePositions<N> positions = new NodePositions<>();
+
+  private final Repulsion repulsion = new Repulsion();
 
   /**
    * Override to create the BarnesHutQuadTree
@@ -38,7 +46,19 @@ public class FRBHVisitorLayoutAlgorithm<N> extends FRLayoutAlgorithm<N>
   @Override
   public void visit(LayoutModel<N> layoutModel) {
     super.visit(layoutModel);
-    tree = new BarnesHutQuadTree(layoutModel.getWidth(), layoutModel.getHeight());
+    tree = new FlatBarnesHutQuadTree(layoutModel.getWidth(), layoutModel.getHeight());
+    tree.setTheta(theta);
+  }
+
+  /**
+   * @param theta the ratio of cell width to distance below which a cell of the tree is approximated
+   *     by its center of mass; see {@link FlatBarnesHutQuadTree#setTheta(double)}
+   */
+  public void setTheta(double theta) {
+    this.theta = theta;
+    if (tree != null) {
+      tree.setTheta(theta);
+    }
   }
 
   /**
@@ -47,7 +67,8 @@ public class FRBHVisitorLayoutAlgorithm<N> extends FRLayoutAlgorithm<N>
    */
   @Override
   public synchronized void step() {
-    tree.rebuild(layoutModel.getLocations());
+    positions.update(layoutModel);
+    tree.rebuild(positions.x, positions.y, positions.size());
     super.step();
   }
 
@@ -61,24 +82,34 @@ public class FRBHVisitorLayoutAlgorithm<N> extends FRLayoutAlgorithm<N>
     if (fvd1 == null) {
       return;
     }
-    frNodeData.put(node1, Point.ORIGIN);
+    Point p = layoutModel.apply(node1);
+    repulsion.reset(p);
+    tree.applyForcesTo(positions.indexOf(node1), p.x, p.y, repulsion);
+    frNodeData.put(node1, Point.of(repulsion.dx, repulsion.dy));
+  }
+
+  /** Sums the repulsion on a node, reusing its fields for each node. */
+  private class Repulsion implements FlatBarnesHutQuadTree.ForceAccumulator {
+    private double x;
+    private double y;
+    private double dx;
+    private double dy;
 
-    ForceObject<N> nodeForceObject =
-        new ForceObject(node1, layoutModel.apply(node1)) {
-          @Override
-          protected void addForceFrom(ForceObject other) {
-            double dx = this.p.x - other.p.x;
-            double dy = this.p.y - other.p.y;
-            log.trace("dx, dy:{},{}", dx, dy);
-            double dist = Math.sqrt(dx * dx + dy * dy);
-            dist = Math.max(EPSILON, dist);
-            log.trace("dist:{}", dist);
-            double force = (repulsion_constant * repulsion_constant) / dist;
-            log.trace("force:{}", force);
-            f = f.add(force * (dx / dist), force * (dy / dist));
-          }
-        };
-    tree.applyForcesTo(nodeForceObject);
-    frNodeData.put(node1, nodeForceObject.f);
+    void reset(Point p) {
+      x = p.x;
+      y = p.y;
+      dx = 0;
+      dy = 0;
+    }
+
+    @Override
+    public void addForceFrom(double otherX, double otherY, double mass) {
+      double xDelta = x - otherX;
+      double yDelta = y - otherY;
+      double dist = Math.max(EPSILON, Math.sqrt(xDelta * xDelta + yDelta * yDelta));
+      double force = (repulsion_constant * repulsion_constant) / dist;
+      dx += force * (xDelta / dist);
+      dy += force * (yDelta / dist);
+    }
   }
 }
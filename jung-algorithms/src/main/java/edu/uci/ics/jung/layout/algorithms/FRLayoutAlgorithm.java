@@ -13,10 +13,12 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.graph.EndpointPair;
 import com.google.common.graph.Graph;
+import edu.uci.ics.jung.algorithms.util.CompressedSparseRowGraph;
 import edu.uci.ics.jung.algorithms.util.IterativeContext;
 import edu.uci.ics.jung.layout.model.LayoutModel;
 import edu.uci.ics.jung.layout.model.Point;
 import java.util.ConcurrentModificationException;
+import java.util.concurrent.ForkJoinPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +35,13 @@ import org.slf4j.LoggerFactory;
  *
  * Each of the first two defaults to 0.75; the maximum number of iterations defaults to 700.
  *
+ * <p>If a <code>ForkJoinPool</code> is supplied with {@link #setForkJoinPool(ForkJoinPool)}, each
+ * step copies the node positions into arrays, computes the displacement of every node concurrently
+ * on the threads of the pool, and then moves all of the nodes at once. This is much faster for
+ * large graphs on machines with many cores, but bypasses {@link #calcRepulsion(Object)}, {@link
+ * #calcAttraction(EndpointPair)} and {@link #calcPositions(Object)}; subclasses therefore step
+ * serially unless they override {@link #usesDefaultForces()}.
+ *
  * @see "Fruchterman and Reingold, 'Graph Drawing by Force-directed Placement'"
  * @see
  *     "http://i11www.ilkd.uni-karlsruhe.de/teaching/SS_04/visualisierung/papers/fruchterman91graph.pdf"
@@ -65,6 +74,8 @@ public class FRLayoutAlgorithm<N> extends AbstractIterativeLayoutAlgorithm<N>
 
   private boolean initialized = false;
 
+  private ForkJoinPool pool;
+
   public FRLayoutAlgorithm() {
     this.frNodeData =
         CacheBuilder.newBuilder()
@@ -94,6 +105,16 @@ public class FRLayoutAlgorithm<N> extends AbstractIterativeLayoutAlgorithm<N>
     this.repulsion_multiplier = repulsion;
   }
 
+  /**
+   * Sets the pool on which the forces of each step are computed; if {@code pool} is null (the
+   * default), each step is computed serially on the calling thread.
+   *
+   * @param pool the pool on which forces are to be computed, or null
+   */
+  public void setForkJoinPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
   public void initialize() {
     doInit();
   }
@@ -127,12 +148,24 @@ public class FRLayoutAlgorithm<N> extends AbstractIterativeLayoutAlgorithm<N>
     Graph<N> graph = layoutModel.getGraph();
     currentIteration++;
 
+    if (pool != null && usesDefaultForces()) {
+      stepInParallel();
+      cool();
+      return;
+    }
+
     /** Calculate repulsion */
     while (true) {
 
       try {
         for (N node1 : graph.nodes()) {
-          calcRepulsion(node1);
+          // a locked node is not moved, so its displacement is cleared rather than calculated;
+          // calcAttraction likewise adds nothing to it
+          if (layoutModel.isLocked(node1)) {
+            frNodeData.put(node1, Point.ORIGIN);
+          } else {
+            calcRepulsion(node1);
+          }
         }
         break;
       } catch (ConcurrentModificationException cme) {
@@ -165,6 +198,80 @@ public class FRLayoutAlgorithm<N> extends AbstractIterativeLayoutAlgorithm<N>
     cool();
   }
 
+  /**
+   * Returns true if the forces on the nodes are those computed by the methods of this class, so
+   * that a step may be computed in parallel. Subclasses that do not override the force calculations
+   * may override this method to return true.
+   */
+  protected boolean usesDefaultForces() {
+    return getClass() == FRLayoutAlgorithm.class;
+  }
+
+  private void stepInParallel() {
+    LayoutSnapshot<N> snapshot = LayoutSnapshot.of(layoutModel);
+    int n = snapshot.nodeCount();
+    double[] x = snapshot.x;
+    double[] y = snapshot.y;
+    double[] dispX = new double[n];
+    double[] dispY = new double[n];
+    double repulsion = repulsion_constant * repulsion_constant;
+
+    // each task writes only the displacements of its own range of nodes, so that no
+    // synchronization is needed; each edge is visited once from each endpoint
+    snapshot.forEachRange(
+        pool,
+        (from, to) -> {
+          for (int v = from; v < to; v++) {
+            if (snapshot.locked[v]) {
+              continue;
+            }
+            double dx = 0;
+            double dy = 0;
+            for (int w = 0; w < n; w++) {
+              if (w == v) {
+                continue;
+              }
+              double xDelta = x[v] - x[w];
+              double yDelta = y[v] - y[w];
+              double deltaLength =
+                  Math.max(EPSILON, Math.sqrt((xDelta * xDelta) + (yDelta * yDelta)));
+              double force = repulsion / deltaLength;
+              dx += (xDelta / deltaLength) * force;
+              dy += (yDelta / deltaLength) * force;
+            }
+            CompressedSparseRowGraph<N, ?> graph = snapshot.graph;
+            int passes = graph.isDirected() ? 2 : 1;
+            for (int pass = 0; pass < passes; pass++) {
+              int start = pass == 0 ? graph.outStart(v) : graph.inStart(v);
+              int end = pass == 0 ? graph.outEnd(v) : graph.inEnd(v);
+              for (int k = start; k < end; k++) {
+                int w = pass == 0 ? graph.outTarget(k) : graph.inSource(k);
+                double xDelta = x[v] - x[w];
+                double yDelta = y[v] - y[w];
+                double deltaLength =
+                    Math.max(EPSILON, Math.sqrt((xDelta * xDelta) + (yDelta * yDelta)));
+                double force = (deltaLength * deltaLength) / attraction_constant;
+                dx -= (xDelta / deltaLength) * force;
+                dy -= (yDelta / deltaLength) * force;
+              }
+            }
+            Preconditions.checkState(
+                !Double.isNaN(dx) && !Double.isNaN(dy),
+                "Unexpected mathematical result in FRLayout:stepInParallel");
+            dispX[v] = dx;
+            dispY[v] = dy;
+          }
+        });
+
+    synchronized (layoutModel) {
+      for (int v = 0; v < n; v++) {
+        if (!snapshot.locked[v]) {
+          setPosition(snapshot.graph.node(v), x[v], y[v], dispX[v], dispY[v]);
+        }
+      }
+    }
+  }
+
   protected synchronized void calcPositions(N node) {
 
     Point fvd = getFRData(node);
@@ -172,12 +279,16 @@ public class FRLayoutAlgorithm<N> extends AbstractIterativeLayoutAlgorithm<N>
       return;
     }
     Point xyd = layoutModel.apply(node);
-    double deltaLength = Math.max(EPSILON, fvd.length());
+    setPosition(node, xyd.x, xyd.y, fvd.x, fvd.y);
+  }
+
+  // moves the node at (positionX, positionY) by at most the current temperature in the direction
+  // of its displacement (dispX, dispY), keeping it within the borders of the layout
+  private void setPosition(N node, double positionX, double positionY, double dispX, double dispY) {
+    double deltaLength = Math.max(EPSILON, Math.sqrt(dispX * dispX + dispY * dispY));
 
-    double positionX = xyd.x;
-    double positionY = xyd.y;
-    double newXDisp = fvd.x / deltaLength * Math.min(deltaLength, temperature);
-    double newYDisp = fvd.y / deltaLength * Math.min(deltaLength, temperature);
+    double newXDisp = dispX / deltaLength * Math.min(deltaLength, temperature);
+    double newYDisp = dispY / deltaLength * Math.min(deltaLength, temperature);
 
     positionX += newXDisp;
     positionY += newYDisp;
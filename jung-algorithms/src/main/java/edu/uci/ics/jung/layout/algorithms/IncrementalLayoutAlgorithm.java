@@ -0,0 +1,330 @@
+package edu.uci.ics.jung.layout.algorithms;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Sets;
+import com.google.common.graph.Graph;
+import com.google.common.graph.Graphs;
+import edu.uci.ics.jung.layout.model.AbstractLayoutModel;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.Point;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Relaxes only the neighbourhood of a set of changed nodes (typically nodes just added to a graph
+ * that has already been laid out), leaving the rest of the layout in place, so that a growing graph
+ * can be laid out without relaxing the whole graph again. Any IterativeLayoutAlgorithm that honors
+ * locked nodes may be used, such as {@link FRLayoutAlgorithm}, {@link SpringLayoutAlgorithm} or
+ * {@link ISOMLayoutAlgorithm}.
+ *
+ * <p>When visiting a LayoutModel, this algorithm
+ *
+ * <ul>
+ *   <li>places each changed node near its already placed neighbours, at a small random offset from
+ *       their centroid (or at a random location, if none of its neighbours are placed)
+ *   <li>collects the region of the nodes within <i>hops</i> edges of a changed node, and the nodes
+ *       adjacent to that region, which anchor it
+ *   <li>lets the delegate visit a LayoutModel over the subgraph induced by the region and its
+ *       anchors, in which the anchors (and the nodes that are locked in the original LayoutModel)
+ *       are locked. The coordinates of that LayoutModel are those of the bounding box of the region
+ *       and its anchors, padded by a margin, and its locations are read from and written to the
+ *       original LayoutModel.
+ * </ul>
+ *
+ * Each step of this algorithm is a step of the delegate, whose cost depends on the size of the
+ * region rather than the size of the graph. The changed nodes must be set before each visit; after
+ * a visit with no changed nodes in the graph, this algorithm is done at once.
+ *
+ * @param <N> the node type
+ */
+public class IncrementalLayoutAlgorithm<N> implements IterativeLayoutAlgorithm<N> {
+
+  private static final Logger log = LoggerFactory.getLogger(IncrementalLayoutAlgorithm.class);
+
+  private final IterativeLayoutAlgorithm<N> delegate;
+  private Set<N> changedNodes = Collections.emptySet();
+  private int hops = 2;
+  private Random random = new Random();
+  // the LayoutModel over the region being relaxed, or null if there is nothing to relax
+  private RegionLayoutModel<N> region;
+
+  /** @param delegate the algorithm that relaxes the region around the changed nodes */
+  public IncrementalLayoutAlgorithm(IterativeLayoutAlgorithm<N> delegate) {
+    this.delegate = Preconditions.checkNotNull(delegate, "delegate");
+  }
+
+  /** @return the algorithm that relaxes the region around the changed nodes */
+  public IterativeLayoutAlgorithm<N> getDelegate() {
+    return delegate;
+  }
+
+  /** @param changedNodes the nodes around which the layout is to be relaxed in the next visit */
+  public void setChangedNodes(Collection<N> changedNodes) {
+    this.changedNodes = new LinkedHashSet<>(changedNodes);
+  }
+
+  /**
+   * @param hops the number of edges from a changed node within which nodes may move; 0 moves only
+   *     the changed nodes. Defaults to 2.
+   */
+  public void setHops(int hops) {
+    Preconditions.checkArgument(hops >= 0, "hops must be non-negative");
+    this.hops = hops;
+  }
+
+  /** @param randomSeed the seed for the offsets of the changed nodes from their neighbours */
+  public void setRandomSeed(long randomSeed) {
+    this.random = new Random(randomSeed);
+  }
+
+  /** @return the nodes that may be moved by the current visit, or an empty set */
+  public Set<N> getRegion() {
+    if (region == null) {
+      return Collections.emptySet();
+    }
+    return Sets.difference(region.getGraph().nodes(), region.anchors);
+  }
+
+  @Override
+  public void visit(LayoutModel<N> layoutModel) {
+    Graph<N> graph = layoutModel.getGraph();
+    region = null;
+    Set<N> changed = new LinkedHashSet<>();
+    for (N node : changedNodes) {
+      if (graph.nodes().contains(node)) {
+        changed.add(node);
+      }
+    }
+    if (changed.isEmpty()) {
+      log.trace("no changed nodes to lay out in {}", layoutModel);
+      return;
+    }
+    // the natural edge length of a uniform layout, as used by the force-directed algorithms
+    double spacing =
+        Math.sqrt(layoutModel.getWidth() * layoutModel.getHeight() / (double) graph.nodes().size());
+    placeChangedNodes(layoutModel, changed, spacing);
+
+    Set<N> moving = nodesWithinHops(graph, changed);
+    Set<N> anchors = new LinkedHashSet<>();
+    for (N node : moving) {
+      for (N neighbor : graph.adjacentNodes(node)) {
+        if (!moving.contains(neighbor)) {
+          anchors.add(neighbor);
+        }
+      }
+    }
+    Set<N> regionNodes = Sets.union(moving, anchors).immutableCopy();
+    region = regionModel(layoutModel, Graphs.inducedSubgraph(graph, regionNodes), anchors, spacing);
+    log.trace("relaxing {} nodes anchored by {} in {}", moving.size(), anchors.size(), region);
+    delegate.visit(region);
+  }
+
+  /**
+   * places each changed node at a small random offset from the centroid of its placed neighbours,
+   * in order of distance from the placed nodes, so that chains of new nodes grow outwards
+   */
+  private void placeChangedNodes(LayoutModel<N> layoutModel, Set<N> changed, double spacing) {
+    Graph<N> graph = layoutModel.getGraph();
+    Set<N> pending = new LinkedHashSet<>(changed);
+    boolean progress = true;
+    while (!pending.isEmpty() && progress) {
+      progress = false;
+      for (Iterator<N> iterator = pending.iterator(); iterator.hasNext(); ) {
+        N node = iterator.next();
+        double x = 0;
+        double y = 0;
+        int count = 0;
+        for (N neighbor : graph.adjacentNodes(node)) {
+          if (!pending.contains(neighbor)) {
+            Point p = layoutModel.apply(neighbor);
+            x += p.x;
+            y += p.y;
+            count++;
+          }
+        }
+        if (count > 0) {
+          double angle = random.nextDouble() * 2 * Math.PI;
+          double distance = spacing / 2;
+          x = x / count + distance * Math.cos(angle);
+          y = y / count + distance * Math.sin(angle);
+          layoutModel.set(
+              node,
+              Math.max(0, Math.min(layoutModel.getWidth(), x)),
+              Math.max(0, Math.min(layoutModel.getHeight(), y)));
+          iterator.remove();
+          progress = true;
+        }
+      }
+    }
+    // nodes with no path to a placed node
+    for (N node : pending) {
+      layoutModel.set(
+          node,
+          random.nextDouble() * layoutModel.getWidth(),
+          random.nextDouble() * layoutModel.getHeight());
+    }
+  }
+
+  /** @return the nodes within {@code hops} edges of a changed node, by breadth first search */
+  private Set<N> nodesWithinHops(Graph<N> graph, Set<N> changed) {
+    Set<N> visited = new LinkedHashSet<>(changed);
+    Queue<N> queue = new ArrayDeque<>(changed);
+    for (int depth = 0; depth < hops && !queue.isEmpty(); depth++) {
+      Queue<N> nextQueue = new ArrayDeque<>();
+      for (N node : queue) {
+        for (N neighbor : graph.adjacentNodes(node)) {
+          if (visited.add(neighbor)) {
+            nextQueue.add(neighbor);
+          }
+        }
+      }
+      queue = nextQueue;
+    }
+    return visited;
+  }
+
+  /**
+   * creates the LayoutModel for the region, whose bounds are the bounding box of the region padded
+   * by {@code margin}, and kept within the bounds of {@code layoutModel}
+   */
+  private static <N> RegionLayoutModel<N> regionModel(
+      LayoutModel<N> layoutModel, Graph<N> graph, Set<N> anchors, double margin) {
+    double minX = Double.POSITIVE_INFINITY;
+    double minY = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    double maxY = Double.NEGATIVE_INFINITY;
+    for (N node : graph.nodes()) {
+      Point p = layoutModel.apply(node);
+      minX = Math.min(minX, p.x);
+      minY = Math.min(minY, p.y);
+      maxX = Math.max(maxX, p.x);
+      maxY = Math.max(maxY, p.y);
+    }
+    double originX = Math.max(0, minX - margin);
+    double originY = Math.max(0, minY - margin);
+    double right = Math.min(layoutModel.getWidth(), maxX + margin);
+    double bottom = Math.min(layoutModel.getHeight(), maxY + margin);
+    return new RegionLayoutModel<>(
+        layoutModel,
+        graph,
+        anchors,
+        originX,
+        originY,
+        (int) Math.max(1, Math.ceil(right - originX)),
+        (int) Math.max(1, Math.ceil(bottom - originY)));
+  }
+
+  @Override
+  public boolean preRelax() {
+    return region != null && delegate.preRelax();
+  }
+
+  @Override
+  public void step() {
+    if (region != null) {
+      delegate.step();
+    }
+  }
+
+  @Override
+  public boolean done() {
+    return region == null || delegate.done();
+  }
+
+  /**
+   * A LayoutModel over the subgraph of a region of another LayoutModel, whose coordinates are
+   * relative to a bounding box of the region. Locations are read from and written to the other
+   * LayoutModel; the anchors of the region, and the nodes that are locked in the other LayoutModel,
+   * are locked.
+   */
+  private static class RegionLayoutModel<N> extends AbstractLayoutModel<N> {
+
+    private final LayoutModel<N> layoutModel;
+    private final Set<N> anchors;
+    // the location of the origin of this model in the other LayoutModel
+    private final double originX;
+    private final double originY;
+
+    RegionLayoutModel(
+        LayoutModel<N> layoutModel,
+        Graph<N> graph,
+        Set<N> anchors,
+        double originX,
+        double originY,
+        int width,
+        int height) {
+      super(graph, width, height);
+      this.layoutModel = layoutModel;
+      this.anchors = anchors;
+      this.originX = originX;
+      this.originY = originY;
+    }
+
+    @Override
+    public Collection<ChangeListener> getChangeListeners() {
+      return changeSupport.getChangeListeners();
+    }
+
+    @Override
+    public boolean isLocked(N node) {
+      return anchors.contains(node)
+          || super.isLocked(node)
+          || layoutModel.isLocked()
+          || layoutModel.isLocked(node);
+    }
+
+    @Override
+    public void set(N node, Point location) {
+      set(node, location.x, location.y);
+    }
+
+    @Override
+    public void set(N node, double x, double y) {
+      if (!locked && !isLocked(node)) {
+        layoutModel.set(node, originX + x, originY + y);
+      }
+    }
+
+    @Override
+    public Point get(N node) {
+      Point p = layoutModel.get(node);
+      return Point.of(p.x - originX, p.y - originY);
+    }
+
+    @Override
+    public Point apply(N node) {
+      return get(node);
+    }
+
+    /** the locations of the region are those of the other LayoutModel, so this does nothing */
+    @Override
+    public void setInitializer(Function<N, Point> initializer) {}
+
+    @Override
+    public String toString() {
+      return "RegionLayoutModel{"
+          + "nodes="
+          + graph.nodes().size()
+          + ", anchors="
+          + anchors.size()
+          + ", origin=("
+          + originX
+          + ", "
+          + originY
+          + "), width="
+          + width
+          + ", height="
+          + height
+          + '}';
+    }
+  }
+}
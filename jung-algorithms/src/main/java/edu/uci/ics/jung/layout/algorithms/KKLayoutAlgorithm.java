@@ -26,6 +26,11 @@ import org.slf4j.LoggerFactory;
  * Implements the Kamada-Kawai algorithm for node layout. Does not respect filter calls, and
  * sometimes crashes when the view changes to it.
  *
+ * <p>The distances between all pairs of nodes are stored, which takes O(n^2) space, and each step
+ * takes O(n^2) time; for graphs of more than a few thousand nodes, use {@link
+ * SparseStressLayoutAlgorithm}, which approximates the same stress from the distances to a few
+ * pivot nodes.
+ *
  * @see "Tomihisa Kamada and Satoru Kawai: An algorithm for drawing general indirect graphs.
  *     Information Processing Letters 31(1):7-15, 1989"
  * @see "Tomihisa Kamada: On visualization of abstract objects and relations. Ph.D. dissertation,
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either "license.txt"
+ * or https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.layout.algorithms;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Graph;
+import edu.uci.ics.jung.algorithms.util.CompressedSparseRowGraph;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.Point;
+import java.util.ConcurrentModificationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A copy of the graph, node positions and locks of a {@code LayoutModel}, indexed as in a {@link
+ * CompressedSparseRowGraph}, from which the forces of a layout step can be computed concurrently
+ * without consulting the model.
+ */
+final class LayoutSnapshot<N> {
+  final CompressedSparseRowGraph<N, EndpointPair<N>> graph;
+  final double[] x;
+  final double[] y;
+  final boolean[] locked;
+
+  private LayoutSnapshot(LayoutModel<N> layoutModel) {
+    this.graph = CompressedSparseRowGraph.of(layoutModel.getGraph());
+    int n = graph.nodeCount();
+    this.x = new double[n];
+    this.y = new double[n];
+    this.locked = new boolean[n];
+    for (int v = 0; v < n; v++) {
+      N node = graph.node(v);
+      Point p = layoutModel.apply(node);
+      x[v] = p.x;
+      y[v] = p.y;
+      locked[v] = layoutModel.isLocked(node);
+    }
+  }
+
+  /** Copies {@code layoutModel}, retrying if its graph is modified while it is being copied. */
+  static <N> LayoutSnapshot<N> of(LayoutModel<N> layoutModel) {
+    while (true) {
+      try {
+        return new LayoutSnapshot<N>(layoutModel);
+      } catch (ConcurrentModificationException cme) {
+      }
+    }
+  }
+
+  /** Returns the number of nodes in the snapshot. */
+  int nodeCount() {
+    return graph.nodeCount();
+  }
+
+  /** Returns the number of edges incident to node {@code v}, as in {@link Graph#degree(Object)}. */
+  int degree(int v) {
+    int degree = graph.outDegree(v);
+    if (graph.isDirected()) {
+      degree += graph.inDegree(v);
+    } else {
+      for (int k = graph.outStart(v); k < graph.outEnd(v); k++) {
+        if (graph.outTarget(k) == v) {
+          degree++; // an undirected self-loop contributes 2 to the degree
+        }
+      }
+    }
+    return degree;
+  }
+
+  /** Computes the forces on a range of nodes. */
+  interface RangeAction {
+    void apply(int from, int to);
+  }
+
+  /**
+   * Applies {@code action} to the node indices <code>[0, nodeCount())</code> on the threads of
+   * {@code pool}, splitting them into ranges of roughly equal size.
+   */
+  void forEachRange(ForkJoinPool pool, RangeAction action) {
+    forEachRange(pool, nodeCount(), action);
+  }
+
+  /**
+   * Applies {@code action} to the indices <code>[0, count)</code> on the threads of {@code pool},
+   * splitting them into ranges of roughly equal size.
+   */
+  static void forEachRange(ForkJoinPool pool, int count, RangeAction action) {
+    int grain = Math.max(1, count / (pool.getParallelism() * 4));
+    pool.invoke(new RangeTask(action, 0, count, grain));
+  }
+
+  private static class RangeTask extends RecursiveAction {
+    private final RangeAction action;
+    private final int from;
+    private final int to;
+    private final int grain;
+
+    RangeTask(RangeAction action, int from, int to, int grain) {
+      this.action = action;
+      this.from = from;
+      this.to = to;
+      this.grain = grain;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= grain) {
+        action.apply(from, to);
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(
+          new RangeTask(action, from, middle, grain), new RangeTask(action, middle, to, grain));
+    }
+  }
+}
@@ -0,0 +1,515 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either "license.txt"
+ * or https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.layout.algorithms;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.EndpointPair;
+import edu.uci.ics.jung.algorithms.util.CompressedSparseRowGraph;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.Point;
+import edu.uci.ics.jung.layout.spatial.FlatBarnesHutQuadTree;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A multilevel force-directed layout, after Walshaw's multilevel algorithm. The graph is repeatedly
+ * coarsened by matching each node with (at most) one of its neighbors and collapsing each matched
+ * pair into a single node, much as {@link
+ * edu.uci.ics.jung.algorithms.transformation.NodePartitionCollapser} collapses the partitions of a
+ * graph, until it has no more than {@link #setCoarsestSize(int) coarsestSize} nodes or stops
+ * shrinking. The coarsest graph is laid out with the Fruchterman-Reingold forces of {@link
+ * FRLayoutAlgorithm}; each finer graph is then placed by moving each node to the position of the
+ * node into which it was collapsed, and refined with a few more iterations of the same forces. The
+ * repulsion between nodes is approximated with a {@link FlatBarnesHutQuadTree}, so each iteration
+ * takes O(n log(n)) time, and since every level starts from a layout that is already untangled,
+ * only a few iterations are needed on the large graphs.
+ *
+ * <p>The layout is computed on arrays of node indices, rather than on the graph and the layout
+ * model, and runs to completion during {@link #visit(LayoutModel)}. Edges are treated as
+ * undirected, and nodes whose positions are locked in the layout model are not moved (although they
+ * are free to move on the coarser levels).
+ *
+ * @see "C. Walshaw, 'A Multilevel Algorithm for Force-Directed Graph Drawing'"
+ */
+public class MultilevelLayoutAlgorithm<N> implements LayoutAlgorithm<N> {
+
+  private static final Logger log = LoggerFactory.getLogger(MultilevelLayoutAlgorithm.class);
+
+  private static final double EPSILON = 0.000001D;
+
+  // coarsening stops when a level has more than this fraction of the nodes of the level below it
+  private static final double MIN_REDUCTION = 0.8;
+
+  private int coarsestSize = 50;
+  private int coarsestIterations = 300;
+  private int refinementIterations = 20;
+  private double attractionMultiplier = 0.75;
+  private double repulsionMultiplier = 0.75;
+  private double theta = 1.0;
+
+  private Random random = new Random();
+
+  private ForkJoinPool pool;
+
+  public void setRandomSeed(long randomSeed) {
+    this.random = new Random(randomSeed);
+  }
+
+  /**
+   * @param coarsestSize the number of nodes at or below which the graph is no longer coarsened; the
+   *     default is 50
+   */
+  public void setCoarsestSize(int coarsestSize) {
+    Preconditions.checkArgument(coarsestSize > 0, "coarsestSize must be positive");
+    this.coarsestSize = coarsestSize;
+  }
+
+  /**
+   * @param iterations the number of iterations used to lay out the coarsest graph; the default is
+   *     300
+   */
+  public void setCoarsestIterations(int iterations) {
+    Preconditions.checkArgument(iterations >= 0, "iterations must be non-negative");
+    this.coarsestIterations = iterations;
+  }
+
+  /**
+   * @param iterations the number of iterations used to refine each of the finer graphs; the default
+   *     is 20
+   */
+  public void setRefinementIterations(int iterations) {
+    Preconditions.checkArgument(iterations >= 0, "iterations must be non-negative");
+    this.refinementIterations = iterations;
+  }
+
+  public void setAttractionMultiplier(double attraction) {
+    this.attractionMultiplier = attraction;
+  }
+
+  public void setRepulsionMultiplier(double repulsion) {
+    this.repulsionMultiplier = repulsion;
+  }
+
+  /**
+   * @param theta the ratio of cell width to distance below which a cell of the Barnes-Hut tree is
+   *     approximated by its center of mass; see {@link FlatBarnesHutQuadTree#setTheta(double)}. The
+   *     default is 1, coarser than the default of the tree, since the layout of each level is
+   *     corrected by the refinement of the levels below it.
+   */
+  public void setTheta(double theta) {
+    Preconditions.checkArgument(theta >= 0, "theta must be non-negative");
+    this.theta = theta;
+  }
+
+  /**
+   * Sets the pool on which the forces of each iteration are computed; if {@code pool} is null (the
+   * default), they are computed serially on the calling thread.
+   *
+   * @param pool the pool on which forces are to be computed, or null
+   */
+  public void setForkJoinPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  @Override
+  public void visit(LayoutModel<N> layoutModel) {
+    CompressedSparseRowGraph<N, EndpointPair<N>> graph = snapshot(layoutModel);
+    int n = graph.nodeCount();
+    if (n == 0) {
+      return;
+    }
+    double width = layoutModel.getWidth();
+    double height = layoutModel.getHeight();
+
+    // coarsen
+    List<Level> levels = new ArrayList<>();
+    levels.add(Level.of(graph));
+    while (true) {
+      Level finer = levels.get(levels.size() - 1);
+      if (finer.nodeCount <= coarsestSize) {
+        break;
+      }
+      Level coarser = finer.coarsen(random);
+      if (coarser.nodeCount > MIN_REDUCTION * finer.nodeCount) {
+        break;
+      }
+      levels.add(coarser);
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("laying out {} nodes on {} levels", n, levels.size());
+    }
+
+    // lay out the coarsest level from random positions
+    FlatBarnesHutQuadTree tree = new FlatBarnesHutQuadTree(width, height);
+    tree.setTheta(theta);
+    Level coarsest = levels.get(levels.size() - 1);
+    double[] x = new double[coarsest.nodeCount];
+    double[] y = new double[coarsest.nodeCount];
+    for (int v = 0; v < coarsest.nodeCount; v++) {
+      x[v] = width * (0.25 + 0.5 * random.nextDouble());
+      y[v] = height * (0.25 + 0.5 * random.nextDouble());
+    }
+    boolean[] locked = null;
+    if (levels.size() == 1) {
+      locked = lockedPositions(layoutModel, graph, x, y);
+    }
+    new Refinement(coarsest, x, y, locked, tree, width, height).run(coarsestIterations, width / 10);
+
+    // interpolate each finer level from the level above it, and refine it
+    for (int level = levels.size() - 2; level >= 0; level--) {
+      Level finer = levels.get(level);
+      double[] fineX = new double[finer.nodeCount];
+      double[] fineY = new double[finer.nodeCount];
+      double k = naturalLength(width, height, finer.nodeCount);
+      for (int v = 0; v < finer.nodeCount; v++) {
+        int parent = finer.parent[v];
+        // separate the members of each collapsed pair
+        fineX[v] = x[parent] + (random.nextDouble() - 0.5) * k * 0.1;
+        fineY[v] = y[parent] + (random.nextDouble() - 0.5) * k * 0.1;
+      }
+      x = fineX;
+      y = fineY;
+      if (level == 0) {
+        locked = lockedPositions(layoutModel, graph, x, y);
+      }
+      new Refinement(finer, x, y, locked, tree, width, height).run(refinementIterations, k);
+    }
+
+    for (int v = 0; v < n; v++) {
+      if (!locked[v]) {
+        layoutModel.set(graph.node(v), x[v], y[v]);
+      }
+    }
+  }
+
+  private static <N> CompressedSparseRowGraph<N, EndpointPair<N>> snapshot(
+      LayoutModel<N> layoutModel) {
+    while (true) {
+      try {
+        return CompressedSparseRowGraph.of(layoutModel.getGraph());
+      } catch (ConcurrentModificationException cme) {
+      }
+    }
+  }
+
+  // copies the positions of the locked nodes of the finest level, and returns which are locked
+  private static <N> boolean[] lockedPositions(
+      LayoutModel<N> layoutModel,
+      CompressedSparseRowGraph<N, EndpointPair<N>> graph,
+      double[] x,
+      double[] y) {
+    boolean[] locked = new boolean[graph.nodeCount()];
+    for (int v = 0; v < locked.length; v++) {
+      N node = graph.node(v);
+      if (layoutModel.isLocked(node)) {
+        Point p = layoutModel.apply(node);
+        x[v] = p.x;
+        y[v] = p.y;
+        locked[v] = true;
+      }
+    }
+    return locked;
+  }
+
+  // the ideal distance between the nodes of a graph of nodeCount nodes, as in FRLayoutAlgorithm
+  private static double naturalLength(double width, double height, int nodeCount) {
+    return Math.sqrt(width * height / nodeCount);
+  }
+
+  /**
+   * One level of the coarsening: an undirected weighted graph of nodes <code>0, ..., nodeCount - 1
+   * </code> in adjacency array form, with the index of the node of the next coarser level into
+   * which each node is collapsed.
+   */
+  private static class Level {
+    final int nodeCount;
+    // the neighbors of node v are adjacent[start[v]] ... adjacent[start[v + 1] - 1]
+    final int[] start;
+    final int[] adjacent;
+    // the number of edges of the finest graph that each adjacency represents
+    final double[] weight;
+    // the number of nodes of the finest graph that each node represents
+    final double[] mass;
+    int[] parent;
+
+    Level(int nodeCount, int[] start, int[] adjacent, double[] weight, double[] mass) {
+      this.nodeCount = nodeCount;
+      this.start = start;
+      this.adjacent = adjacent;
+      this.weight = weight;
+      this.mass = mass;
+    }
+
+    /** Creates the finest level, ignoring self-loops and the directions of the edges. */
+    static Level of(CompressedSparseRowGraph<?, ?> graph) {
+      int n = graph.nodeCount();
+      int[] start = new int[n + 1];
+      boolean directed = graph.isDirected();
+      for (int v = 0; v < n; v++) {
+        int degree = 0;
+        for (int k = graph.outStart(v); k < graph.outEnd(v); k++) {
+          degree += graph.outTarget(k) == v ? 0 : 1;
+        }
+        if (directed) {
+          for (int k = graph.inStart(v); k < graph.inEnd(v); k++) {
+            degree += graph.inSource(k) == v ? 0 : 1;
+          }
+        }
+        start[v + 1] = start[v] + degree;
+      }
+      int[] adjacent = new int[start[n]];
+      int next = 0;
+      for (int v = 0; v < n; v++) {
+        for (int k = graph.outStart(v); k < graph.outEnd(v); k++) {
+          if (graph.outTarget(k) != v) {
+            adjacent[next++] = graph.outTarget(k);
+          }
+        }
+        if (directed) {
+          for (int k = graph.inStart(v); k < graph.inEnd(v); k++) {
+            if (graph.inSource(k) != v) {
+              adjacent[next++] = graph.inSource(k);
+            }
+          }
+        }
+      }
+      double[] weight = new double[adjacent.length];
+      Arrays.fill(weight, 1);
+      double[] mass = new double[n];
+      Arrays.fill(mass, 1);
+      return new Level(n, start, adjacent, weight, mass);
+    }
+
+    /**
+     * Matches each node, in random order, with the unmatched neighbor to which it has the heaviest
+     * connection relative to their masses (which keeps the collapsed nodes of similar size), and
+     * collapses each matched pair, and each unmatched node, into a node of the coarser level.
+     */
+    Level coarsen(Random random) {
+      int[] order = new int[nodeCount];
+      for (int v = 0; v < nodeCount; v++) {
+        order[v] = v;
+      }
+      for (int i = nodeCount - 1; i > 0; i--) {
+        int j = random.nextInt(i + 1);
+        int swap = order[i];
+        order[i] = order[j];
+        order[j] = swap;
+      }
+
+      parent = new int[nodeCount];
+      Arrays.fill(parent, -1);
+      // the members of each coarse node; the second is -1 for an unmatched node
+      int[] first = new int[nodeCount];
+      int[] second = new int[nodeCount];
+      int coarseCount = 0;
+      for (int v : order) {
+        if (parent[v] != -1) {
+          continue;
+        }
+        int match = -1;
+        double best = 0;
+        for (int k = start[v]; k < start[v + 1]; k++) {
+          int w = adjacent[k];
+          if (parent[w] == -1 && w != v) {
+            double score = weight[k] / (mass[v] * mass[w]);
+            if (score > best) {
+              best = score;
+              match = w;
+            }
+          }
+        }
+        first[coarseCount] = v;
+        second[coarseCount] = match;
+        parent[v] = coarseCount;
+        if (match != -1) {
+          parent[match] = coarseCount;
+        }
+        coarseCount++;
+      }
+
+      // merge the adjacencies of the members of each coarse node, summing the weights of the
+      // adjacencies to each coarse neighbor, and dropping those between the members
+      int[] coarseStart = new int[coarseCount + 1];
+      int[] coarseAdjacent = new int[adjacent.length];
+      double[] coarseWeight = new double[adjacent.length];
+      double[] coarseMass = new double[coarseCount];
+      // the position in coarseAdjacent of the adjacency of the current coarse node to each
+      // coarse node, valid if it is at or after the start of the current node
+      int[] position = new int[coarseCount];
+      Arrays.fill(position, -1);
+      int next = 0;
+      for (int c = 0; c < coarseCount; c++) {
+        coarseStart[c] = next;
+        for (int m = 0; m < 2; m++) {
+          int v = m == 0 ? first[c] : second[c];
+          if (v == -1) {
+            continue;
+          }
+          coarseMass[c] += mass[v];
+          for (int k = start[v]; k < start[v + 1]; k++) {
+            int d = parent[adjacent[k]];
+            if (d == c) {
+              continue;
+            }
+            if (position[d] >= coarseStart[c]) {
+              coarseWeight[position[d]] += weight[k];
+            } else {
+              position[d] = next;
+              coarseAdjacent[next] = d;
+              coarseWeight[next] = weight[k];
+              next++;
+            }
+          }
+        }
+      }
+      coarseStart[coarseCount] = next;
+      return new Level(
+          coarseCount,
+          coarseStart,
+          Arrays.copyOf(coarseAdjacent, next),
+          Arrays.copyOf(coarseWeight, next),
+          coarseMass);
+    }
+  }
+
+  /**
+   * The Fruchterman-Reingold iterations on one level: the repulsion on each node is gathered from
+   * the Barnes-Hut tree, the attraction from its adjacencies, and each node is then moved by at
+   * most the temperature, which cools linearly to 0.
+   */
+  private class Refinement {
+    private final Level level;
+    private final double[] x;
+    private final double[] y;
+    private final boolean[] locked;
+    private final FlatBarnesHutQuadTree tree;
+    private final double width;
+    private final double height;
+    private final double attractionConstant;
+    private final double repulsion;
+    private final double[] dispX;
+    private final double[] dispY;
+
+    Refinement(
+        Level level,
+        double[] x,
+        double[] y,
+        boolean[] locked,
+        FlatBarnesHutQuadTree tree,
+        double width,
+        double height) {
+      this.level = level;
+      this.x = x;
+      this.y = y;
+      this.locked = locked;
+      this.tree = tree;
+      this.width = width;
+      this.height = height;
+      double k = naturalLength(width, height, level.nodeCount);
+      this.attractionConstant = attractionMultiplier * k;
+      double repulsionConstant = repulsionMultiplier * k;
+      this.repulsion = repulsionConstant * repulsionConstant;
+      this.dispX = new double[level.nodeCount];
+      this.dispY = new double[level.nodeCount];
+    }
+
+    void run(int iterations, double initialTemperature) {
+      for (int i = 0; i < iterations; i++) {
+        step(initialTemperature * (1.0 - i / (double) iterations));
+      }
+    }
+
+    private void step(double temperature) {
+      int n = level.nodeCount;
+      tree.rebuild(x, y, level.mass, n);
+      if (pool == null) {
+        calcForces(0, n);
+      } else {
+        // each range writes only the displacements of its own nodes
+        LayoutSnapshot.forEachRange(pool, n, this::calcForces);
+      }
+
+      double borderWidth = width / 50.0;
+      for (int v = 0; v < n; v++) {
+        if (locked != null && locked[v]) {
+          continue;
+        }
+        double deltaLength = Math.max(EPSILON, Math.hypot(dispX[v], dispY[v]));
+        double scale = Math.min(deltaLength, temperature) / deltaLength;
+        x[v] = keepInside(x[v] + dispX[v] * scale, borderWidth, width);
+        y[v] = keepInside(y[v] + dispY[v] * scale, borderWidth, height);
+      }
+    }
+
+    private void calcForces(int from, int to) {
+      Repulsion accumulator = new Repulsion();
+      for (int v = from; v < to; v++) {
+        accumulator.reset(x[v], y[v]);
+        tree.applyForcesTo(v, x[v], y[v], accumulator);
+        // a coarse node stands for mass[v] nodes of the finest level, each repelled by the nodes
+        // that the others stand for
+        double dx = accumulator.dx * level.mass[v];
+        double dy = accumulator.dy * level.mass[v];
+        for (int k = level.start[v]; k < level.start[v + 1]; k++) {
+          int w = level.adjacent[k];
+          double xDelta = x[v] - x[w];
+          double yDelta = y[v] - y[w];
+          double deltaLength = Math.max(EPSILON, Math.sqrt(xDelta * xDelta + yDelta * yDelta));
+          double force = level.weight[k] * deltaLength * deltaLength / attractionConstant;
+          dx -= (xDelta / deltaLength) * force;
+          dy -= (yDelta / deltaLength) * force;
+        }
+        dispX[v] = dx;
+        dispY[v] = dy;
+      }
+    }
+
+    // as in FRLayoutAlgorithm, a node that strays into the border is put back at a random distance
+    // from it, so that nodes pushed against the border do not pile up at the same place
+    private double keepInside(double position, double borderWidth, double extent) {
+      if (position < borderWidth) {
+        return borderWidth + random.nextDouble() * borderWidth * 2.0;
+      } else if (position > extent - borderWidth * 2) {
+        return extent - borderWidth - random.nextDouble() * borderWidth * 2.0;
+      }
+      return position;
+    }
+
+    /** Sums the repulsion on a node, reusing its fields for each node of a range. */
+    private class Repulsion implements FlatBarnesHutQuadTree.ForceAccumulator {
+      private double x;
+      private double y;
+      private double dx;
+      private double dy;
+
+      void reset(double x, double y) {
+        this.x = x;
+        this.y = y;
+        dx = 0;
+        dy = 0;
+      }
+
+      @Override
+      public void addForceFrom(double otherX, double otherY, double mass) {
+        double xDelta = x - otherX;
+        double yDelta = y - otherY;
+        double deltaLength = Math.max(EPSILON, Math.sqrt(xDelta * xDelta + yDelta * yDelta));
+        double force = mass * repulsion / deltaLength;
+        dx += (xDelta / deltaLength) * force;
+        dy += (yDelta / deltaLength) * force;
+      }
+    }
+  }
+}
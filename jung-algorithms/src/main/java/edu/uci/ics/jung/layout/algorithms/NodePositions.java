@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either "license.txt"
+ * or https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.layout.algorithms;
+
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.Point;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The positions of the nodes of a {@code LayoutModel}, copied into arrays indexed in the iteration
+ * order of the model's graph. The arrays and the index of each node are kept from one update to the
+ * next, and are only rebuilt when the nodes of the graph change.
+ */
+final class NodePositions<N> {
+  private Object[] nodes = new Object[0];
+  private final Map<N, Integer> indices = new HashMap<>();
+  private int size;
+  double[] x = new double[0];
+  double[] y = new double[0];
+
+  /** Copies the current positions of the nodes of {@code layoutModel}. */
+  void update(LayoutModel<N> layoutModel) {
+    while (true) {
+      try {
+        copy(layoutModel);
+        return;
+      } catch (ConcurrentModificationException cme) {
+      }
+    }
+  }
+
+  private void copy(LayoutModel<N> layoutModel) {
+    int count = layoutModel.getGraph().nodes().size();
+    boolean sameNodes = count == size;
+    if (count > x.length) {
+      nodes = Arrays.copyOf(nodes, count);
+      x = new double[count];
+      y = new double[count];
+    }
+    int i = 0;
+    for (N node : layoutModel.getGraph().nodes()) {
+      if (nodes[i] != node) {
+        nodes[i] = node;
+        sameNodes = false;
+      }
+      Point p = layoutModel.apply(node);
+      x[i] = p.x;
+      y[i] = p.y;
+      i++;
+    }
+    if (!sameNodes) {
+      Arrays.fill(nodes, count, nodes.length, null);
+      indices.clear();
+      for (int j = 0; j < count; j++) {
+        @SuppressWarnings("unchecked")
+        N node = (N) nodes[j];
+        indices.put(node, j);
+      }
+    }
+    size = count;
+  }
+
+  /** Returns the number of nodes copied by the last update. */
+  int size() {
+    return size;
+  }
+
+  /** Returns the index of {@code node}, or -1 if it was not in the graph at the last update. */
+  int indexOf(N node) {
+    Integer index = indices.get(node);
+    return index == null ? -1 : index;
+  }
+}
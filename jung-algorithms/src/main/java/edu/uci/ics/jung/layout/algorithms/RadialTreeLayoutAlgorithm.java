@@ -31,6 +31,9 @@ public class RadialTreeLayoutAlgorithm<N> extends TreeLayoutAlgorithm<N> {
 
   protected Map<N, PolarPoint> polarLocations;
 
+  /** lays out the tree before it is made radial, or null to use the layout of this class */
+  protected TreeLayoutAlgorithm<N> treeLayoutAlgorithm;
+
   public RadialTreeLayoutAlgorithm() {
     this(DEFAULT_DISTX, DEFAULT_DISTY);
   }
@@ -44,9 +47,25 @@ public class RadialTreeLayoutAlgorithm<N> extends TreeLayoutAlgorithm<N> {
     this.polarLocations = new HashMap<>();
   }
 
+  /**
+   * Creates an instance that makes the layout of {@code treeLayoutAlgorithm} radial, with its X and
+   * Y distances; for example, with a {@link TidyTreeLayoutAlgorithm}, very large trees may be laid
+   * out radially in linear time.
+   *
+   * @param treeLayoutAlgorithm the layout of the tree to make radial
+   */
+  public RadialTreeLayoutAlgorithm(TreeLayoutAlgorithm<N> treeLayoutAlgorithm) {
+    this(treeLayoutAlgorithm.distX, treeLayoutAlgorithm.distY);
+    this.treeLayoutAlgorithm = treeLayoutAlgorithm;
+  }
+
   @Override
   protected void buildTree(LayoutModel<N> layoutModel) {
-    super.buildTree(layoutModel);
+    if (treeLayoutAlgorithm != null) {
+      treeLayoutAlgorithm.buildTree(layoutModel);
+    } else {
+      super.buildTree(layoutModel);
+    }
     setRadialLocations(layoutModel);
     putRadialPointsInModel(layoutModel);
   }
@@ -0,0 +1,512 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either "license.txt"
+ * or https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.layout.algorithms;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.EndpointPair;
+import edu.uci.ics.jung.algorithms.util.CompressedSparseRowGraph;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.Point;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Random;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A stress layout that, like {@link KKLayoutAlgorithm}, places nodes so that their distances in the
+ * drawing are proportional to their (unweighted) graph-theoretic distances, but that does not
+ * compute or store the distance between every pair of nodes. Instead, the distances from each of a
+ * small number of <i>pivot</i> nodes to all other nodes are found by breadth-first search, taking
+ * O(kn) space and O(k(n + m)) time for k pivots:
+ *
+ * <ul>
+ *   <li>the pivots are chosen by max-min selection: each pivot is the node farthest from those
+ *       already chosen;
+ *   <li>the initial layout is computed by pivot MDS, from the distances of all nodes to the pivots;
+ *   <li>the layout is then refined by stress majorization over the sparse stress model, in which
+ *       each node is attracted to its neighbors at unit distance, and to each pivot at their graph
+ *       distance, the pivot standing in for the nodes closer to it than to any other pivot.
+ * </ul>
+ *
+ * Each iteration of the majorization takes O(k n + m) time, and the algorithm runs to completion
+ * during {@link #visit(LayoutModel)}. Edges are treated as undirected, nodes in different
+ * components are treated as being at a distance proportional to the (estimated) diameter of the
+ * graph, and nodes whose positions are locked in the layout model are not moved.
+ *
+ * @see "Mark Ortmann, Mirza Klimenta and Ulrik Brandes: A Sparse Stress Model. Graph Drawing and
+ *     Network Visualization, 2016"
+ * @see "Ulrik Brandes and Christian Pich: Eigensolver Methods for Progressive Multidimensional
+ *     Scaling of Large Data. Graph Drawing, 2006"
+ */
+public class SparseStressLayoutAlgorithm<N> implements LayoutAlgorithm<N> {
+
+  private static final Logger log = LoggerFactory.getLogger(SparseStressLayoutAlgorithm.class);
+
+  private static final int UNREACHED = -1;
+
+  private int pivotCount = 100;
+  private int maxIterations = 200;
+  private double epsilon = 0.0001;
+
+  /** A multiplicative factor which partly specifies the "preferred" length of an edge. */
+  private double length_factor = 0.9;
+
+  /**
+   * A multiplicative factor which specifies the fraction of the graph's diameter to be used as the
+   * inter-node distance between disconnected nodes.
+   */
+  private double disconnected_multiplier = 0.5;
+
+  private Random random = new Random();
+
+  public void setRandomSeed(long randomSeed) {
+    this.random = new Random(randomSeed);
+  }
+
+  /**
+   * @param pivotCount the number of pivots from which distances are computed; more pivots give a
+   *     layout closer to that of full stress majorization, at a proportional cost in time and
+   *     space. The default is 100.
+   */
+  public void setPivotCount(int pivotCount) {
+    Preconditions.checkArgument(pivotCount > 0, "pivotCount must be positive");
+    this.pivotCount = pivotCount;
+  }
+
+  /** @param maxIterations the maximum number of iterations of stress majorization */
+  public void setMaxIterations(int maxIterations) {
+    Preconditions.checkArgument(maxIterations >= 0, "maxIterations must be non-negative");
+    this.maxIterations = maxIterations;
+  }
+
+  /**
+   * @param epsilon the majorization stops when the nodes move, in total, by less than this fraction
+   *     of their total distance from the center of the layout
+   */
+  public void setEpsilon(double epsilon) {
+    this.epsilon = epsilon;
+  }
+
+  /**
+   * @param length_factor a multiplicative factor which partially specifies the preferred length of
+   *     an edge
+   */
+  public void setLengthFactor(double length_factor) {
+    this.length_factor = length_factor;
+  }
+
+  /**
+   * @param disconnected_multiplier a multiplicative factor that specifies the fraction of the
+   *     graph's diameter to be used as the inter-node distance between disconnected nodes
+   */
+  public void setDisconnectedDistanceMultiplier(double disconnected_multiplier) {
+    this.disconnected_multiplier = disconnected_multiplier;
+  }
+
+  @Override
+  public void visit(LayoutModel<N> layoutModel) {
+    CompressedSparseRowGraph<N, EndpointPair<N>> graph = snapshot(layoutModel);
+    int n = graph.nodeCount();
+    if (n == 0) {
+      return;
+    }
+
+    // choose the pivots, and find the distances from each of them to every node
+    int k = Math.min(pivotCount, n);
+    int[] pivots = new int[k];
+    int[][] distances = new int[k][];
+    // the distance from each node to, and the index of, the nearest pivot so far
+    int[] nearestDistance = new int[n];
+    int[] nearestPivot = new int[n];
+    Arrays.fill(nearestDistance, Integer.MAX_VALUE);
+    int[] queue = new int[n];
+    int diameter = 1;
+    int pivot = random.nextInt(n);
+    for (int p = 0; p < k; p++) {
+      pivots[p] = pivot;
+      int[] distance = breadthFirstSearch(graph, pivot, queue);
+      distances[p] = distance;
+      int farthest = 0;
+      for (int v = 0; v < n; v++) {
+        if (distance[v] != UNREACHED) {
+          diameter = Math.max(diameter, distance[v]);
+          if (distance[v] < nearestDistance[v]) {
+            nearestDistance[v] = distance[v];
+            nearestPivot[v] = p;
+          }
+        }
+        if (nearestDistance[v] > nearestDistance[farthest]) {
+          farthest = v;
+        }
+      }
+      pivot = farthest;
+    }
+    double disconnected = Math.max(1, diameter * disconnected_multiplier);
+    if (log.isDebugEnabled()) {
+      log.debug("{} nodes, {} pivots, estimated diameter {}", n, k, diameter);
+    }
+
+    // the layout is computed in units of the ideal edge length, about the center of the layout
+    double width = layoutModel.getWidth();
+    double height = layoutModel.getHeight();
+    double length = Math.min(width, height) / diameter * length_factor;
+    double centerX = width / 2;
+    double centerY = height / 2;
+
+    double[] x = new double[n];
+    double[] y = new double[n];
+    pivotMDS(distances, disconnected, x, y);
+    scaleToUnitEdgeLength(graph, x, y);
+    boolean[] locked = new boolean[n];
+    for (int v = 0; v < n; v++) {
+      N node = graph.node(v);
+      if (layoutModel.isLocked(node)) {
+        Point p = layoutModel.apply(node);
+        x[v] = (p.x - centerX) / length;
+        y[v] = (p.y - centerY) / length;
+        locked[v] = true;
+      }
+    }
+
+    Majorization majorization =
+        new Majorization(graph, pivots, distances, nearestPivot, disconnected, x, y, locked);
+    int iteration = 0;
+    while (iteration < maxIterations && majorization.iterate() >= epsilon) {
+      iteration++;
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("stress majorization stopped after {} iterations", iteration);
+    }
+
+    for (int v = 0; v < n; v++) {
+      if (!locked[v]) {
+        layoutModel.set(graph.node(v), centerX + x[v] * length, centerY + y[v] * length);
+      }
+    }
+  }
+
+  private static <N> CompressedSparseRowGraph<N, EndpointPair<N>> snapshot(
+      LayoutModel<N> layoutModel) {
+    while (true) {
+      try {
+        return CompressedSparseRowGraph.of(layoutModel.getGraph());
+      } catch (ConcurrentModificationException cme) {
+      }
+    }
+  }
+
+  // scales the layout so that the average length of an edge is 1
+  private static void scaleToUnitEdgeLength(
+      CompressedSparseRowGraph<?, ?> graph, double[] x, double[] y) {
+    double sum = 0;
+    for (int e = 0; e < graph.edgeCount(); e++) {
+      int u = graph.edgeSource(e);
+      int v = graph.edgeTarget(e);
+      sum += Math.hypot(x[u] - x[v], y[u] - y[v]);
+    }
+    if (sum > 0) {
+      double scale = graph.edgeCount() / sum;
+      for (int v = 0; v < x.length; v++) {
+        x[v] *= scale;
+        y[v] *= scale;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of edges on a shortest path from {@code source} to each node, ignoring the
+   * directions of the edges, or {@code UNREACHED} for nodes in other components.
+   */
+  private static int[] breadthFirstSearch(
+      CompressedSparseRowGraph<?, ?> graph, int source, int[] queue) {
+    int[] distance = new int[graph.nodeCount()];
+    Arrays.fill(distance, UNREACHED);
+    distance[source] = 0;
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = source;
+    int passes = graph.isDirected() ? 2 : 1;
+    while (head < tail) {
+      int v = queue[head++];
+      for (int pass = 0; pass < passes; pass++) {
+        int start = pass == 0 ? graph.outStart(v) : graph.inStart(v);
+        int end = pass == 0 ? graph.outEnd(v) : graph.inEnd(v);
+        for (int s = start; s < end; s++) {
+          int w = pass == 0 ? graph.outTarget(s) : graph.inSource(s);
+          if (distance[w] == UNREACHED) {
+            distance[w] = distance[v] + 1;
+            queue[tail++] = w;
+          }
+        }
+      }
+    }
+    return distance;
+  }
+
+  /**
+   * Computes an initial layout by pivot MDS: the n x k matrix of squared distances from the nodes
+   * to the pivots is double centered, and the nodes are placed by projecting its rows onto the two
+   * leading eigenvectors of its k x k Gram matrix, which are found by power iteration.
+   */
+  private void pivotMDS(int[][] distances, double disconnected, double[] x, double[] y) {
+    int k = distances.length;
+    int n = x.length;
+    if (k < 3) {
+      // too few pivots to span the plane
+      for (int v = 0; v < n; v++) {
+        x[v] = random.nextDouble() - 0.5;
+        y[v] = random.nextDouble() - 0.5;
+      }
+      return;
+    }
+    double[][] c = new double[k][n];
+    double[] rowMean = new double[n];
+    double[] columnMean = new double[k];
+    double mean = 0;
+    for (int p = 0; p < k; p++) {
+      for (int v = 0; v < n; v++) {
+        double d = distances[p][v] == UNREACHED ? disconnected : distances[p][v];
+        c[p][v] = d * d;
+        rowMean[v] += d * d / k;
+        columnMean[p] += d * d / n;
+      }
+      mean += columnMean[p] / k;
+    }
+    for (int p = 0; p < k; p++) {
+      for (int v = 0; v < n; v++) {
+        c[p][v] = -0.5 * (c[p][v] - rowMean[v] - columnMean[p] + mean);
+      }
+    }
+    double[][] gram = new double[k][k];
+    for (int p = 0; p < k; p++) {
+      for (int q = p; q < k; q++) {
+        double sum = 0;
+        for (int v = 0; v < n; v++) {
+          sum += c[p][v] * c[q][v];
+        }
+        gram[p][q] = gram[q][p] = sum;
+      }
+    }
+    double[] first = powerIteration(gram, null);
+    double[] second = powerIteration(gram, first);
+    for (int v = 0; v < n; v++) {
+      double px = 0;
+      double py = 0;
+      for (int p = 0; p < k; p++) {
+        px += c[p][v] * first[p];
+        py += c[p][v] * second[p];
+      }
+      // a small perturbation separates nodes at the same distances from all of the pivots
+      x[v] = px + (random.nextDouble() - 0.5) * 1.0e-6;
+      y[v] = py + (random.nextDouble() - 0.5) * 1.0e-6;
+    }
+  }
+
+  /**
+   * Returns a unit eigenvector of the symmetric matrix {@code m} for its largest eigenvalue, or (if
+   * {@code orthogonalTo} is not null) for its largest eigenvalue once the eigenvector {@code
+   * orthogonalTo} has been deflated.
+   */
+  private double[] powerIteration(double[][] m, double[] orthogonalTo) {
+    int k = m.length;
+    double[] v = new double[k];
+    for (int i = 0; i < k; i++) {
+      v[i] = random.nextDouble() - 0.5;
+    }
+    deflate(v, orthogonalTo);
+    normalize(v);
+    double[] next = new double[k];
+    for (int iteration = 0; iteration < 100; iteration++) {
+      for (int i = 0; i < k; i++) {
+        next[i] = dot(m[i], v);
+      }
+      deflate(next, orthogonalTo);
+      if (!normalize(next)) {
+        break;
+      }
+      double change = 0;
+      for (int i = 0; i < k; i++) {
+        change += Math.abs(next[i] - v[i]);
+        v[i] = next[i];
+      }
+      if (change < 1.0e-9) {
+        break;
+      }
+    }
+    return v;
+  }
+
+  // removes from v its component along the unit vector u, if u is not null
+  private static void deflate(double[] v, double[] u) {
+    if (u != null) {
+      double dot = dot(v, u);
+      for (int i = 0; i < v.length; i++) {
+        v[i] -= dot * u[i];
+      }
+    }
+  }
+
+  private static double dot(double[] a, double[] b) {
+    double sum = 0;
+    for (int i = 0; i < a.length; i++) {
+      sum += a[i] * b[i];
+    }
+    return sum;
+  }
+
+  // scales v to unit length, returning false if it is 0
+  private static boolean normalize(double[] v) {
+    double norm = Math.sqrt(dot(v, v));
+    if (norm == 0) {
+      return false;
+    }
+    for (int i = 0; i < v.length; i++) {
+      v[i] /= norm;
+    }
+    return true;
+  }
+
+  /**
+   * Stress majorization over the sparse stress model. Each node is moved, in turn, to the position
+   * that minimizes its weighted stress with respect to its neighbors (at distance 1, with weight 1)
+   * and to the pivots that are not its neighbors: a pivot {@code p} at distance {@code d} has
+   * weight {@code s / d^2}, where {@code s} is the number of nodes of the region of {@code p}
+   * (those nearer to {@code p} than to any other pivot) that are within {@code d / 2} of {@code p}.
+   */
+  private static class Majorization {
+    private final CompressedSparseRowGraph<?, ?> graph;
+    private final int[] pivots;
+    private final int[][] distances;
+    private final double disconnected;
+    private final double[] x;
+    private final double[] y;
+    private final boolean[] locked;
+    // regionSize[p][d] is the number of nodes of the region of pivot p within d of p
+    private final int[][] regionSize;
+    // the weighted sums of the terms of the node being moved
+    private double sumX;
+    private double sumY;
+    private double sumWeight;
+
+    Majorization(
+        CompressedSparseRowGraph<?, ?> graph,
+        int[] pivots,
+        int[][] distances,
+        int[] nearestPivot,
+        double disconnected,
+        double[] x,
+        double[] y,
+        boolean[] locked) {
+      this.graph = graph;
+      this.pivots = pivots;
+      this.distances = distances;
+      this.disconnected = disconnected;
+      this.x = x;
+      this.y = y;
+      this.locked = locked;
+
+      int k = pivots.length;
+      int n = graph.nodeCount();
+      // nodes in components that no pivot reached belong to no region
+      int[] radius = new int[k];
+      for (int v = 0; v < n; v++) {
+        int p = nearestPivot[v];
+        if (distances[p][v] != UNREACHED) {
+          radius[p] = Math.max(radius[p], distances[p][v]);
+        }
+      }
+      regionSize = new int[k][];
+      for (int p = 0; p < k; p++) {
+        regionSize[p] = new int[radius[p] + 1];
+      }
+      for (int v = 0; v < n; v++) {
+        int p = nearestPivot[v];
+        if (distances[p][v] != UNREACHED) {
+          regionSize[p][distances[p][v]]++;
+        }
+      }
+      for (int p = 0; p < k; p++) {
+        for (int d = 1; d < regionSize[p].length; d++) {
+          regionSize[p][d] += regionSize[p][d - 1];
+        }
+      }
+    }
+
+    private double weight(int p, int d) {
+      if (d == UNREACHED) {
+        // nodes in other components are only kept apart, with the least weight
+        return 1 / (disconnected * disconnected);
+      }
+      int[] sizes = regionSize[p];
+      int size = sizes[Math.min(d / 2, sizes.length - 1)];
+      return (double) size / ((double) d * d);
+    }
+
+    /**
+     * Moves each unlocked node once, and returns the total distance moved as a fraction of the
+     * total distance of the nodes from the origin.
+     */
+    double iterate() {
+      int n = graph.nodeCount();
+      int passes = graph.isDirected() ? 2 : 1;
+      double moved = 0;
+      double extent = 0;
+      for (int v = 0; v < n; v++) {
+        extent += Math.hypot(x[v], y[v]);
+        if (locked[v]) {
+          continue;
+        }
+        sumX = 0;
+        sumY = 0;
+        sumWeight = 0;
+        for (int pass = 0; pass < passes; pass++) {
+          int start = pass == 0 ? graph.outStart(v) : graph.inStart(v);
+          int end = pass == 0 ? graph.outEnd(v) : graph.inEnd(v);
+          for (int s = start; s < end; s++) {
+            int w = pass == 0 ? graph.outTarget(s) : graph.inSource(s);
+            if (w != v) {
+              addTerm(v, w, 1, 1);
+            }
+          }
+        }
+        for (int p = 0; p < pivots.length; p++) {
+          int w = pivots[p];
+          int d = distances[p][v];
+          if (w == v || d == 1) {
+            continue;
+          }
+          addTerm(v, w, d == UNREACHED ? disconnected : d, weight(p, d));
+        }
+        if (sumWeight > 0) {
+          double newX = sumX / sumWeight;
+          double newY = sumY / sumWeight;
+          moved += Math.hypot(newX - x[v], newY - y[v]);
+          x[v] = newX;
+          y[v] = newY;
+        }
+      }
+      return extent == 0 ? 0 : moved / extent;
+    }
+
+    // adds the weighted position at the desired distance from w, in the direction of v
+    private void addTerm(int v, int w, double distance, double weight) {
+      double dx = x[v] - x[w];
+      double dy = y[v] - y[w];
+      double norm = Math.sqrt(dx * dx + dy * dy);
+      sumWeight += weight;
+      if (norm == 0) {
+        sumX += weight * x[w];
+        sumY += weight * y[w];
+      } else {
+        sumX += weight * (x[w] + distance * dx / norm);
+        sumY += weight * (y[w] + distance * dy / norm);
+      }
+    }
+  }
+}
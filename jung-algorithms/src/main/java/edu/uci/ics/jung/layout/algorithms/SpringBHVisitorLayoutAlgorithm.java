@@ -12,8 +12,7 @@ import com.google.common.graph.Graph;
 import edu.uci.ics.jung.algorithms.util.IterativeContext;
 import edu.uci.ics.jung.layout.model.LayoutModel;
 import edu.uci.ics.jung.layout.model.Point;
-import edu.uci.ics.jung.layout.spatial.BarnesHutQuadTree;
-import edu.uci.ics.jung.layout.spatial.ForceObject;
+import edu.uci.ics.jung.layout.spatial.FlatBarnesHutQuadTree;
 import java.util.ConcurrentModificationException;
 import java.util.function.Function;
 import org.slf4j.Logger;
@@ -24,6 +23,9 @@ import org.slf4j.LoggerFactory;
  * calculation of node repulsion. The purpose of the Barnes-Hut optimization is to reduce the number
  * of calculations during the calculateRepulsion method from O(n^2) to O(nlog(n))
  *
+ * <p>The tree is a {@link FlatBarnesHutQuadTree}, whose storage is reused from step to step; its
+ * accuracy may be adjusted with {@link #setTheta(double)}.
+ *
  * @author Tom Nelson
  */
 public class SpringBHVisitorLayoutAlgorithm<N> extends SpringLayoutAlgorithm<N>
@@ -32,7 +34,13 @@ public class SpringBHVisitorLayoutAlgorithm<N> extends SpringLayoutAlgorithm<N>
   private static final Logger log = LoggerFactory.getLogger(SpringBHVisitorLayoutAlgorithm.class);
 
   /** Used for optimization of the calculation of repulsion forces between Nodes */
-  private BarnesHutQuadTree<N> tree;
+  private FlatBarnesHutQuadTree tree;
+
+  private double theta = FlatBarnesHutQuadTree.DEFAULT_THETA;
+
+  private final NodePositions<N> positions = new NodePositions<>();
+
+  private final Repulsion repulsion = new Repulsion();
 
   public SpringBHVisitorLayoutAlgorithm() {}
 
@@ -49,7 +57,19 @@ public class SpringBHVisitorLayoutAlgorithm<N> extends SpringLayoutAlgorithm<N>
   @Override
   public void visit(LayoutModel<N> layoutModel) {
     super.visit(layoutModel);
-    tree = new BarnesHutQuadTree(layoutModel.getWidth(), layoutModel.getHeight());
+    tree = new FlatBarnesHutQuadTree(layoutModel.getWidth(), layoutModel.getHeight());
+    tree.setTheta(theta);
+  }
+
+  /**
+   * @param theta the ratio of cell width to distance below which a cell of the tree is approximated
+   *     by its center of mass; see {@link FlatBarnesHutQuadTree#setTheta(double)}
+   */
+  public void setTheta(double theta) {
+    this.theta = theta;
+    if (tree != null) {
+      tree.setTheta(theta);
+    }
   }
 
   /**
@@ -58,7 +78,8 @@ public class SpringBHVisitorLayoutAlgorithm<N> extends SpringLayoutAlgorithm<N>
    */
   @Override
   public void step() {
-    tree.rebuild(layoutModel.getLocations());
+    positions.update(layoutModel);
+    tree.rebuild(positions.x, positions.y, positions.size());
     super.step();
   }
 
@@ -81,41 +102,47 @@ public class SpringBHVisitorLayoutAlgorithm<N> extends SpringLayoutAlgorithm<N>
         if (svd == null) {
           continue;
         }
-        ForceObject<N> nodeForceObject =
-            new ForceObject(node, layoutModel.apply(node)) {
-              @Override
-              protected void addForceFrom(ForceObject other) {
-
-                if (other == null || node == other.getElement()) {
-                  return;
-                }
-                Point p = this.p;
-                Point p2 = other.p;
-                if (p == null || p2 == null) {
-                  return;
-                }
-                double vx = p.x - p2.x;
-                double vy = p.y - p2.y;
-                double distanceSq = p.distanceSquared(p2);
-                if (distanceSq == 0) {
-                  f = f.add(random.nextDouble(), random.nextDouble());
-                } else if (distanceSq < repulsion_range_sq) {
-                  double factor = 1;
-                  f = f.add(factor * vx / distanceSq, factor * vy / distanceSq);
-                }
-              }
-            };
-        tree.applyForcesTo(nodeForceObject);
-        Point f = nodeForceObject.f;
-        double dlen = f.x * f.x + f.y * f.y;
+        Point p = layoutModel.apply(node);
+        repulsion.reset(p);
+        tree.applyForcesTo(positions.indexOf(node), p.x, p.y, repulsion);
+        double dlen = repulsion.dx * repulsion.dx + repulsion.dy * repulsion.dy;
         if (dlen > 0) {
           dlen = Math.sqrt(dlen) / 2;
-          svd.repulsiondx += f.x / dlen;
-          svd.repulsiondy += f.y / dlen;
+          svd.repulsiondx += repulsion.dx / dlen;
+          svd.repulsiondy += repulsion.dy / dlen;
         }
       }
     } catch (ConcurrentModificationException cme) {
       calculateRepulsion();
     }
   }
+
+  /** Sums the repulsion on a node, reusing its fields for each node. */
+  private class Repulsion implements FlatBarnesHutQuadTree.ForceAccumulator {
+    private double x;
+    private double y;
+    private double dx;
+    private double dy;
+
+    void reset(Point p) {
+      x = p.x;
+      y = p.y;
+      dx = 0;
+      dy = 0;
+    }
+
+    @Override
+    public void addForceFrom(double otherX, double otherY, double mass) {
+      double vx = x - otherX;
+      double vy = y - otherY;
+      double distanceSq = vx * vx + vy * vy;
+      if (distanceSq == 0) {
+        dx += random.nextDouble();
+        dy += random.nextDouble();
+      } else if (distanceSq < repulsion_range_sq) {
+        dx += vx / distanceSq;
+        dy += vy / distanceSq;
+      }
+    }
+  }
 }
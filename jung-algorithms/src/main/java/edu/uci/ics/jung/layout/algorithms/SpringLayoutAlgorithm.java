@@ -12,9 +12,12 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.graph.EndpointPair;
 import com.google.common.graph.Graph;
+import edu.uci.ics.jung.algorithms.util.CompressedSparseRowGraph;
 import edu.uci.ics.jung.algorithms.util.IterativeContext;
 import edu.uci.ics.jung.layout.model.Point;
 import java.util.ConcurrentModificationException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +27,12 @@ import org.slf4j.LoggerFactory;
  * initialized with a Graph, assigns X/Y locations to each node. When called <code>step()</code>,
  * the SpringLayout moves the visualization forward one step.
  *
+ * <p>If a <code>ForkJoinPool</code> is supplied with {@link #setForkJoinPool(ForkJoinPool)}, each
+ * step copies the node positions into arrays, computes the edge and repulsion forces on every node
+ * concurrently on the threads of the pool, and then moves all of the nodes at once. This bypasses
+ * {@link #relaxEdges()}, {@link #calculateRepulsion()} and {@link #moveNodes()}; subclasses
+ * therefore step serially unless they override {@link #usesDefaultForces()}.
+ *
  * @author Danyel Fisher
  * @author Joshua O'Madadhain
  * @author Tom Nelson
@@ -40,6 +49,8 @@ public class SpringLayoutAlgorithm<N> extends AbstractIterativeLayoutAlgorithm<N
   protected LoadingCache<N, SpringNodeData> springNodeData =
       CacheBuilder.newBuilder().build(CacheLoader.from(() -> new SpringNodeData()));
 
+  private ForkJoinPool pool;
+
   public SpringLayoutAlgorithm() {
     this(n -> 30);
   }
@@ -73,9 +84,23 @@ public class SpringLayoutAlgorithm<N> extends AbstractIterativeLayoutAlgorithm<N
     this.force_multiplier = force;
   }
 
+  /**
+   * Sets the pool on which the forces of each step are computed; if {@code pool} is null (the
+   * default), each step is computed serially on the calling thread.
+   *
+   * @param pool the pool on which forces are to be computed, or null
+   */
+  public void setForkJoinPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
   public void initialize() {}
 
   public void step() {
+    if (pool != null && usesDefaultForces()) {
+      stepInParallel();
+      return;
+    }
     Graph<N> graph = layoutModel.getGraph();
     try {
       for (N node : graph.nodes()) {
@@ -97,6 +122,122 @@ public class SpringLayoutAlgorithm<N> extends AbstractIterativeLayoutAlgorithm<N
     moveNodes();
   }
 
+  /**
+   * Returns true if the forces on the nodes are those computed by the methods of this class, so
+   * that a step may be computed in parallel. Subclasses that do not override the force calculations
+   * may override this method to return true.
+   */
+  protected boolean usesDefaultForces() {
+    return getClass() == SpringLayoutAlgorithm.class;
+  }
+
+  private void stepInParallel() {
+    LayoutSnapshot<N> snapshot = LayoutSnapshot.of(layoutModel);
+    CompressedSparseRowGraph<N, EndpointPair<N>> graph = snapshot.graph;
+    int n = snapshot.nodeCount();
+    double[] x = snapshot.x;
+    double[] y = snapshot.y;
+
+    // the length function is not required to be thread-safe, so it is evaluated here
+    double[] edgeFactors = new double[graph.edgeCount()];
+    double[] desiredLengths = new double[graph.edgeCount()];
+    for (int e = 0; e < graph.edgeCount(); e++) {
+      int u = graph.edgeSource(e);
+      int v = graph.edgeTarget(e);
+      desiredLengths[e] = lengthFunction.apply(graph.edge(e));
+      edgeFactors[e] =
+          force_multiplier * Math.pow(stretch, snapshot.degree(u) + snapshot.degree(v) - 2);
+    }
+
+    // the nudges that separate coincident nodes are drawn from a generator for each node, seeded
+    // from the seeded random of this algorithm, so that seeded layouts remain reproducible
+    long stepSeed = random.nextLong();
+    double[] edgeDx = new double[n];
+    double[] edgeDy = new double[n];
+    double[] repulsionDx = new double[n];
+    double[] repulsionDy = new double[n];
+    // each task writes only the forces on its own range of nodes, so that no synchronization is
+    // needed; each edge is visited once from each endpoint
+    snapshot.forEachRange(
+        pool,
+        (from, to) -> {
+          for (int v = from; v < to; v++) {
+            int passes = graph.isDirected() ? 2 : 1;
+            for (int pass = 0; pass < passes; pass++) {
+              int start = pass == 0 ? graph.outStart(v) : graph.inStart(v);
+              int end = pass == 0 ? graph.outEnd(v) : graph.inEnd(v);
+              for (int k = start; k < end; k++) {
+                int w = pass == 0 ? graph.outTarget(k) : graph.inSource(k);
+                int e = pass == 0 ? graph.outEdge(k) : graph.inEdge(k);
+                double vx = x[v] - x[w];
+                double vy = y[v] - y[w];
+                double len = Math.sqrt(vx * vx + vy * vy);
+                len = (len == 0) ? .0001 : len;
+                double f = edgeFactors[e] * (desiredLengths[e] - len) / len;
+                edgeDx[v] += f * vx;
+                edgeDy[v] += f * vy;
+              }
+            }
+
+            if (snapshot.locked[v]) {
+              continue;
+            }
+            double dx = 0, dy = 0;
+            SplittableRandom nodeRandom = null;
+            for (int w = 0; w < n; w++) {
+              if (w == v) {
+                continue;
+              }
+              double vx = x[v] - x[w];
+              double vy = y[v] - y[w];
+              double distanceSq = vx * vx + vy * vy;
+              if (distanceSq == 0) {
+                if (nodeRandom == null) {
+                  nodeRandom = new SplittableRandom(stepSeed + v);
+                }
+                dx += nodeRandom.nextDouble();
+                dy += nodeRandom.nextDouble();
+              } else if (distanceSq < repulsion_range_sq) {
+                dx += vx / distanceSq;
+                dy += vy / distanceSq;
+              }
+            }
+            double dlen = dx * dx + dy * dy;
+            if (dlen > 0) {
+              dlen = Math.sqrt(dlen) / 2;
+              repulsionDx[v] = dx / dlen;
+              repulsionDy[v] = dy / dlen;
+            }
+          }
+        });
+
+    int width = layoutModel.getWidth();
+    int height = layoutModel.getHeight();
+    synchronized (layoutModel) {
+      for (int v = 0; v < n; v++) {
+        N node = graph.node(v);
+        SpringNodeData vd = springNodeData.getUnchecked(node);
+        vd.dx /= 4;
+        vd.dy /= 4;
+        vd.edgedx = edgeDx[v];
+        vd.edgedy = edgeDy[v];
+        vd.repulsiondx = repulsionDx[v];
+        vd.repulsiondy = repulsionDy[v];
+        if (snapshot.locked[v]) {
+          continue;
+        }
+        vd.dx += vd.repulsiondx + vd.edgedx;
+        vd.dy += vd.repulsiondy + vd.edgedy;
+        // as in moveNodes
+        double posX = x[v] + Math.max(-5, Math.min(5, vd.dx));
+        double posY = y[v] + Math.max(-5, Math.min(5, vd.dy));
+        posX = Math.max(0, Math.min(width, posX));
+        posY = Math.max(0, Math.min(height, posY));
+        layoutModel.set(node, posX, posY);
+      }
+    }
+  }
+
   protected void relaxEdges() {
     Graph<N> graph = layoutModel.getGraph();
     try {
@@ -0,0 +1,882 @@
+package edu.uci.ics.jung.layout.algorithms;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.Graph;
+import edu.uci.ics.jung.algorithms.util.CompressedSparseRowGraph;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A layered layout for directed graphs, in the manner of Sugiyama, Tagawa and Toda, computed in a
+ * single pass rather than iteratively:
+ *
+ * <ul>
+ *   <li>cycles are broken by reversing the back edges of a depth first search; undirected graphs
+ *       are oriented in depth first order
+ *   <li>each node is assigned a layer by the longest path from a source, and then, from the bottom
+ *       up, each node with at least as many successors as predecessors is moved down to just above
+ *       its highest successor; edges that span more than one layer are split by dummy nodes, one in
+ *       each layer that they cross
+ *   <li>crossings are reduced by alternately sweeping down and up the layers, ordering each layer
+ *       by the barycenters of the positions of its neighbours in the layer just ordered, and the
+ *       order with the fewest crossings is kept
+ *   <li>x coordinates are assigned after Brandes and Köpf: in each of four directions, each node is
+ *       aligned with a median neighbour, and the blocks of aligned nodes are compacted in two
+ *       passes, a longest path pass that places each block as far left as the blocks to its left
+ *       allow, and a balancing pass that moves each block right as far as the blocks to its right
+ *       allow; each node then takes the average median of its four coordinates. This is simpler
+ *       than the compaction by classes and shifts of Brandes and Köpf, and may give wider layouts.
+ * </ul>
+ *
+ * Edges point downwards, except those that were reversed to break cycles, so each node is below all
+ * of its predecessors; a source is not necessarily in the first layer, as it is placed just above
+ * its highest successor. Nodes in the same layer are at least {@code nodeSpacing} apart (dummy
+ * nodes take half of that space), and the layers are {@code layerSpacing} apart. As in {@link
+ * TreeLayoutAlgorithm}, the leftmost node is at {@code nodeSpacing}, the first layer is at {@code
+ * layerSpacing}, and the LayoutModel is enlarged if the layout does not fit.
+ *
+ * <p>If a <code>ForkJoinPool</code> is supplied with {@link #setForkJoinPool(ForkJoinPool)}, the
+ * barycenters of the nodes of each large layer, and the crossings between each pair of adjacent
+ * layers, are computed concurrently on the threads of the pool.
+ *
+ * @see "Kozo Sugiyama, Shojiro Tagawa and Mitsuhiko Toda, 'Methods for Visual Understanding of
+ *     Hierarchical System Structures'"
+ * @see "Wilhelm Barth, Michael Jünger and Petra Mutzel, 'Simple and Efficient Bilayer Cross
+ *     Counting'"
+ * @see "Ulrik Brandes and Boris Köpf, 'Fast and Simple Horizontal Coordinate Assignment'"
+ * @param <N> the node type
+ */
+public class SugiyamaLayoutAlgorithm<N> implements LayoutAlgorithm<N> {
+
+  private static final Logger log = LoggerFactory.getLogger(SugiyamaLayoutAlgorithm.class);
+
+  /** The default spacing of the nodes in a layer. */
+  public static final int DEFAULT_NODE_SPACING = 50;
+
+  /** The default spacing of the layers. */
+  public static final int DEFAULT_LAYER_SPACING = 50;
+
+  // layers with fewer nodes than this are ordered serially even if there is a pool
+  private static final int PARALLEL_LAYER_SIZE = 1024;
+
+  private int nodeSpacing = DEFAULT_NODE_SPACING;
+  private int layerSpacing = DEFAULT_LAYER_SPACING;
+  private int maxSweeps = 24;
+  private ForkJoinPool pool;
+  private long crossingCount;
+  private int layerCount;
+
+  /** @param nodeSpacing the minimum horizontal distance between nodes in the same layer */
+  public void setNodeSpacing(int nodeSpacing) {
+    Preconditions.checkArgument(nodeSpacing >= 1, "node spacing must be positive");
+    this.nodeSpacing = nodeSpacing;
+  }
+
+  /** @param layerSpacing the vertical distance between layers */
+  public void setLayerSpacing(int layerSpacing) {
+    Preconditions.checkArgument(layerSpacing >= 1, "layer spacing must be positive");
+    this.layerSpacing = layerSpacing;
+  }
+
+  /**
+   * @param maxSweeps the maximum number of sweeps, down or up the layers, to reduce crossings;
+   *     defaults to 24. The sweeps stop early if there are no crossings, or if several sweeps in a
+   *     row do not reduce the number of crossings.
+   */
+  public void setMaxSweeps(int maxSweeps) {
+    Preconditions.checkArgument(maxSweeps >= 0, "max sweeps must be non-negative");
+    this.maxSweeps = maxSweeps;
+  }
+
+  /**
+   * Sets the pool on which the barycenters and crossings are computed; if {@code pool} is null (the
+   * default), they are computed serially on the calling thread.
+   *
+   * @param pool the pool on which to compute, or null
+   */
+  public void setForkJoinPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * @return the number of crossings between the segments of the edges (split at the dummy nodes) in
+   *     the last layout
+   */
+  public long getCrossingCount() {
+    return crossingCount;
+  }
+
+  /** @return the number of layers in the last layout */
+  public int getLayerCount() {
+    return layerCount;
+  }
+
+  @Override
+  public void visit(LayoutModel<N> layoutModel) {
+    Graph<N> graph = layoutModel.getGraph();
+    if (graph == null || graph.nodes().isEmpty()) {
+      return;
+    }
+    CompressedSparseRowGraph<N, ?> csr = CompressedSparseRowGraph.of(graph);
+    int n = csr.nodeCount();
+    int[][] edges = orient(csr);
+    int[] layer = assignLayers(n, edges[0], edges[1]);
+    Hierarchy hierarchy = new Hierarchy(n, layer, edges[0], edges[1], nodeSpacing, pool);
+    crossingCount = hierarchy.reduceCrossings(maxSweeps);
+    layerCount = hierarchy.layers.length;
+    double[] x = hierarchy.assignCoordinates();
+    log.trace(
+        "{} nodes, {} dummy nodes, {} layers, {} crossings",
+        n,
+        hierarchy.size - n,
+        layerCount,
+        crossingCount);
+
+    double minX = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    for (int v = 0; v < n; v++) {
+      minX = Math.min(minX, x[v]);
+      maxX = Math.max(maxX, x[v]);
+    }
+    double offsetX = nodeSpacing - minX;
+    int width = Math.max(layoutModel.getWidth(), (int) Math.ceil(maxX + offsetX) + nodeSpacing);
+    int height = Math.max(layoutModel.getHeight(), (layerCount + 1) * layerSpacing);
+    if (layoutModel.getWidth() < width || layoutModel.getHeight() < height) {
+      layoutModel.setSize(width, height);
+    }
+    for (int v = 0; v < n; v++) {
+      layoutModel.set(csr.node(v), x[v] + offsetX, (layer[v] + 1) * layerSpacing);
+    }
+  }
+
+  /**
+   * @return the sources and targets of the edges of the graph, without self loops or duplicates,
+   *     directed so that there are no cycles: the back edges of a depth first search of a directed
+   *     graph are reversed, and the edges of an undirected graph point away from the node that the
+   *     search reached first
+   */
+  private static int[][] orient(CompressedSparseRowGraph<?, ?> csr) {
+    int n = csr.nodeCount();
+    int[] pre = new int[n];
+    int[] post = new int[n];
+    Arrays.fill(pre, -1);
+    int[] stack = new int[n];
+    int[] cursor = new int[n];
+    int preCount = 0;
+    int postCount = 0;
+    // start from the sources of a directed graph, so that fewer edges are reversed
+    for (int pass = 0; pass < 2; pass++) {
+      for (int s = 0; s < n; s++) {
+        if (pre[s] != -1 || (pass == 0 && csr.isDirected() && csr.inDegree(s) > 0)) {
+          continue;
+        }
+        int top = 0;
+        stack[0] = s;
+        pre[s] = preCount++;
+        cursor[s] = csr.outStart(s);
+        while (top >= 0) {
+          int v = stack[top];
+          if (cursor[v] < csr.outEnd(v)) {
+            int w = csr.outTarget(cursor[v]++);
+            if (pre[w] == -1) {
+              pre[w] = preCount++;
+              cursor[w] = csr.outStart(w);
+              stack[++top] = w;
+            }
+          } else {
+            post[v] = postCount++;
+            top--;
+          }
+        }
+      }
+    }
+
+    int m = csr.edgeCount();
+    int[] sources = new int[m];
+    int[] targets = new int[m];
+    Set<Long> seen = new HashSet<>();
+    int count = 0;
+    for (int e = 0; e < m; e++) {
+      int u = csr.edgeSource(e);
+      int w = csr.edgeTarget(e);
+      if (u == w) {
+        continue;
+      }
+      // an edge u -> w of a directed graph is a back edge iff w finishes after u
+      boolean forward = csr.isDirected() ? post[u] > post[w] : pre[u] < pre[w];
+      if (!forward) {
+        int t = u;
+        u = w;
+        w = t;
+      }
+      if (seen.add((long) u * n + w)) {
+        sources[count] = u;
+        targets[count] = w;
+        count++;
+      }
+    }
+    return new int[][] {Arrays.copyOf(sources, count), Arrays.copyOf(targets, count)};
+  }
+
+  /**
+   * @return the layer of each node: the length of the longest path to it from a source, except that
+   *     each node with at least as many successors as predecessors is moved down to the layer above
+   *     its highest successor
+   */
+  private static int[] assignLayers(int n, int[] sources, int[] targets) {
+    int[] start = new int[n + 1];
+    for (int source : sources) {
+      start[source + 1]++;
+    }
+    for (int v = 0; v < n; v++) {
+      start[v + 1] += start[v];
+    }
+    int[] successors = new int[sources.length];
+    int[] next = Arrays.copyOf(start, n);
+    int[] inDegree = new int[n];
+    for (int e = 0; e < sources.length; e++) {
+      successors[next[sources[e]]++] = targets[e];
+      inDegree[targets[e]]++;
+    }
+    int[] layer = new int[n];
+    int[] order = new int[n];
+    int head = 0;
+    int tail = 0;
+    int[] remaining = Arrays.copyOf(inDegree, n);
+    for (int v = 0; v < n; v++) {
+      if (remaining[v] == 0) {
+        order[tail++] = v;
+      }
+    }
+    while (head < tail) {
+      int v = order[head++];
+      for (int k = start[v]; k < start[v + 1]; k++) {
+        int w = successors[k];
+        layer[w] = Math.max(layer[w], layer[v] + 1);
+        if (--remaining[w] == 0) {
+          order[tail++] = w;
+        }
+      }
+    }
+    // in reverse topological order, move each node with at least as many successors as
+    // predecessors down to the layer above its highest successor, which shortens its edges
+    for (int i = n - 1; i >= 0; i--) {
+      int v = order[i];
+      int outDegree = start[v + 1] - start[v];
+      if (outDegree > 0 && outDegree >= inDegree[v]) {
+        int highest = Integer.MAX_VALUE;
+        for (int k = start[v]; k < start[v + 1]; k++) {
+          highest = Math.min(highest, layer[successors[k]]);
+        }
+        layer[v] = highest - 1;
+      }
+    }
+    return layer;
+  }
+
+  /**
+   * The layered graph: the nodes of the graph and the dummy nodes, the order of the nodes in each
+   * layer, and the segments between adjacent layers, as arrays indexed by node. The nodes of the
+   * graph are <code>0, ..., n - 1</code>, and the dummy nodes follow.
+   */
+  private static class Hierarchy {
+    final int n;
+    final int size;
+    final double nodeSpacing;
+    final ForkJoinPool pool;
+    final int[] layerOf;
+    int[][] layers;
+    // the position of each node in its layer
+    final int[] pos;
+    // the neighbours of node v in the layer above are up[upStart[v]], ..., up[upStart[v + 1] - 1],
+    // and likewise for the layer below
+    final int[] upStart;
+    final int[] up;
+    final int[] downStart;
+    final int[] down;
+
+    Hierarchy(
+        int n, int[] layer, int[] sources, int[] targets, double nodeSpacing, ForkJoinPool pool) {
+      this.n = n;
+      this.nodeSpacing = nodeSpacing;
+      this.pool = pool;
+      int dummies = 0;
+      int layerCount = 0;
+      for (int v = 0; v < n; v++) {
+        layerCount = Math.max(layerCount, layer[v] + 1);
+      }
+      for (int e = 0; e < sources.length; e++) {
+        dummies += layer[targets[e]] - layer[sources[e]] - 1;
+      }
+      size = n + dummies;
+      layerOf = Arrays.copyOf(layer, size);
+      pos = new int[size];
+
+      // split the long edges into segments between adjacent layers; the dummy nodes of each edge
+      // are numbered consecutively, from the top
+      int segmentCount = sources.length + dummies;
+      int[] segmentUpper = new int[segmentCount];
+      int[] segmentLower = new int[segmentCount];
+      int[] chainStart = new int[n + 1];
+      int segment = 0;
+      int dummy = n;
+      int[] edgeDummy = new int[sources.length];
+      for (int e = 0; e < sources.length; e++) {
+        int u = sources[e];
+        int w = targets[e];
+        edgeDummy[e] = dummy;
+        int upper = u;
+        for (int l = layer[u] + 1; l < layer[w]; l++) {
+          layerOf[dummy] = l;
+          segmentUpper[segment] = upper;
+          segmentLower[segment] = dummy;
+          segment++;
+          upper = dummy++;
+        }
+        segmentUpper[segment] = upper;
+        segmentLower[segment] = w;
+        segment++;
+        chainStart[u + 1]++;
+      }
+      upStart = new int[size + 1];
+      downStart = new int[size + 1];
+      up = new int[segmentCount];
+      down = new int[segmentCount];
+      for (int s = 0; s < segmentCount; s++) {
+        downStart[segmentUpper[s] + 1]++;
+        upStart[segmentLower[s] + 1]++;
+      }
+      for (int v = 0; v < size; v++) {
+        downStart[v + 1] += downStart[v];
+        upStart[v + 1] += upStart[v];
+      }
+      int[] nextDown = Arrays.copyOf(downStart, size);
+      int[] nextUp = Arrays.copyOf(upStart, size);
+      for (int s = 0; s < segmentCount; s++) {
+        down[nextDown[segmentUpper[s]]++] = segmentLower[s];
+        up[nextUp[segmentLower[s]]++] = segmentUpper[s];
+      }
+
+      // the initial order: the nodes of the graph by layer and index, each followed in the lower
+      // layers by the dummy nodes of its edges
+      int[] layerSize = new int[layerCount];
+      for (int v = 0; v < size; v++) {
+        layerSize[layerOf[v]]++;
+      }
+      layers = new int[layerCount][];
+      for (int l = 0; l < layerCount; l++) {
+        layers[l] = new int[layerSize[l]];
+      }
+      int[] filled = new int[layerCount];
+      int[] edgesBySource = new int[sources.length];
+      for (int v = 0; v < n; v++) {
+        chainStart[v + 1] += chainStart[v];
+      }
+      int[] nextEdge = Arrays.copyOf(chainStart, n);
+      for (int e = 0; e < sources.length; e++) {
+        edgesBySource[nextEdge[sources[e]]++] = e;
+      }
+      int[] byLayerStart = new int[layerCount + 1];
+      for (int v = 0; v < n; v++) {
+        byLayerStart[layer[v] + 1]++;
+      }
+      for (int l = 0; l < layerCount; l++) {
+        byLayerStart[l + 1] += byLayerStart[l];
+      }
+      int[] byLayer = new int[n];
+      int[] nextInLayer = Arrays.copyOf(byLayerStart, layerCount);
+      for (int v = 0; v < n; v++) {
+        byLayer[nextInLayer[layer[v]]++] = v;
+      }
+      for (int l = 0; l < layerCount; l++) {
+        for (int i = byLayerStart[l]; i < byLayerStart[l + 1]; i++) {
+          add(byLayer[i], filled);
+        }
+        // the dummy nodes in layer l + 1 of the edges from nodes in layers l and above follow
+        // the order of those nodes
+        if (l + 1 < layerCount) {
+          for (int k = 0; k < filled[l]; k++) {
+            int v = layers[l][k];
+            if (v < n) {
+              for (int i = chainStart[v]; i < chainStart[v + 1]; i++) {
+                int e = edgesBySource[i];
+                if (layer[targets[e]] - layer[sources[e]] > 1) {
+                  add(edgeDummy[e], filled);
+                }
+              }
+            } else if (downStart[v + 1] > downStart[v] && down[downStart[v]] >= n) {
+              add(down[downStart[v]], filled);
+            }
+          }
+        }
+      }
+    }
+
+    private void add(int v, int[] filled) {
+      int l = layerOf[v];
+      pos[v] = filled[l];
+      layers[l][filled[l]++] = v;
+    }
+
+    boolean isDummy(int v) {
+      return v >= n;
+    }
+
+    /** @return the number of crossings in the best order found, which is left in place */
+    long reduceCrossings(int maxSweeps) {
+      int[][] best = copy(layers);
+      long bestCrossings = countCrossings();
+      int stale = 0;
+      for (int sweep = 0; sweep < maxSweeps && bestCrossings > 0 && stale < 4; sweep++) {
+        if (sweep % 2 == 0) {
+          for (int l = 1; l < layers.length; l++) {
+            orderByBarycenter(layers[l], upStart, up);
+          }
+        } else {
+          for (int l = layers.length - 2; l >= 0; l--) {
+            orderByBarycenter(layers[l], downStart, down);
+          }
+        }
+        long crossings = countCrossings();
+        if (crossings < bestCrossings) {
+          best = copy(layers);
+          bestCrossings = crossings;
+          stale = 0;
+        } else {
+          stale++;
+        }
+      }
+      layers = best;
+      for (int[] layer : layers) {
+        for (int k = 0; k < layer.length; k++) {
+          pos[layer[k]] = k;
+        }
+      }
+      return bestCrossings;
+    }
+
+    private static int[][] copy(int[][] layers) {
+      int[][] copy = new int[layers.length][];
+      for (int l = 0; l < layers.length; l++) {
+        copy[l] = layers[l].clone();
+      }
+      return copy;
+    }
+
+    /**
+     * orders {@code layer} by the mean position of the neighbours of each node in the adjacent
+     * layer; a node with no neighbours there keeps its own position as its key
+     */
+    private void orderByBarycenter(int[] layer, int[] start, int[] neighbours) {
+      double[] keys = new double[layer.length];
+      LayoutSnapshot.RangeAction action =
+          (from, to) -> {
+            for (int k = from; k < to; k++) {
+              int v = layer[k];
+              int degree = start[v + 1] - start[v];
+              if (degree == 0) {
+                keys[k] = k;
+              } else {
+                double sum = 0;
+                for (int i = start[v]; i < start[v + 1]; i++) {
+                  sum += pos[neighbours[i]];
+                }
+                keys[k] = sum / degree;
+              }
+            }
+          };
+      if (pool != null && layer.length >= PARALLEL_LAYER_SIZE) {
+        LayoutSnapshot.forEachRange(pool, layer.length, action);
+      } else {
+        action.apply(0, layer.length);
+      }
+      int[] order = sortByKey(keys);
+      int[] nodes = layer.clone();
+      for (int k = 0; k < layer.length; k++) {
+        layer[k] = nodes[order[k]];
+        pos[layer[k]] = k;
+      }
+    }
+
+    /**
+     * @return the indices of {@code keys} in increasing order of their keys, and in increasing
+     *     order of index for equal keys, by a bottom up merge sort
+     */
+    private static int[] sortByKey(double[] keys) {
+      int length = keys.length;
+      int[] order = new int[length];
+      for (int k = 0; k < length; k++) {
+        order[k] = k;
+      }
+      int[] merged = new int[length];
+      for (int width = 1; width < length; width *= 2) {
+        for (int from = 0; from < length; from += 2 * width) {
+          int middle = Math.min(from + width, length);
+          int to = Math.min(from + 2 * width, length);
+          int i = from;
+          int j = middle;
+          for (int k = from; k < to; k++) {
+            if (j >= to || (i < middle && keys[order[i]] <= keys[order[j]])) {
+              merged[k] = order[i++];
+            } else {
+              merged[k] = order[j++];
+            }
+          }
+        }
+        int[] t = order;
+        order = merged;
+        merged = t;
+      }
+      return order;
+    }
+
+    long countCrossings() {
+      int pairs = layers.length - 1;
+      if (pairs <= 0) {
+        return 0;
+      }
+      long[] crossings = new long[pairs];
+      LayoutSnapshot.RangeAction action =
+          (from, to) -> {
+            for (int l = from; l < to; l++) {
+              crossings[l] = countCrossings(l);
+            }
+          };
+      if (pool != null) {
+        LayoutSnapshot.forEachRange(pool, pairs, action);
+      } else {
+        action.apply(0, pairs);
+      }
+      long total = 0;
+      for (long c : crossings) {
+        total += c;
+      }
+      return total;
+    }
+
+    /**
+     * @return the number of crossings between layers {@code l} and {@code l + 1}, counted with an
+     *     accumulator tree over the positions of the lower layer, as by Barth, Jünger and Mutzel
+     */
+    private long countCrossings(int l) {
+      int lowerSize = layers[l + 1].length;
+      int firstIndex = 1;
+      while (firstIndex < lowerSize) {
+        firstIndex *= 2;
+      }
+      long[] tree = new long[2 * firstIndex - 1];
+      firstIndex -= 1;
+      long crossings = 0;
+      int[] targets = new int[0];
+      for (int v : layers[l]) {
+        int degree = downStart[v + 1] - downStart[v];
+        if (targets.length < degree) {
+          targets = new int[degree];
+        }
+        for (int i = 0; i < degree; i++) {
+          targets[i] = pos[down[downStart[v] + i]];
+        }
+        Arrays.sort(targets, 0, degree);
+        for (int i = 0; i < degree; i++) {
+          int index = targets[i] + firstIndex;
+          tree[index]++;
+          while (index > 0) {
+            if (index % 2 == 1) {
+              crossings += tree[index + 1];
+            }
+            index = (index - 1) / 2;
+            tree[index]++;
+          }
+        }
+      }
+      return crossings;
+    }
+
+    /**
+     * @return the x coordinate of each node, after Brandes and Köpf: the average median of the
+     *     coordinates of four alignments, each shifted to the smallest of them
+     */
+    double[] assignCoordinates() {
+      Set<Long> conflicts = markTypeOneConflicts();
+      double[][] xs = new double[4][];
+      for (int direction = 0; direction < 4; direction++) {
+        boolean downwards = direction >= 2;
+        boolean rightwards = direction % 2 == 1;
+        // the layers as seen from this direction
+        int[][] ordered = new int[layers.length][];
+        for (int l = 0; l < layers.length; l++) {
+          int[] layer = layers[downwards ? layers.length - 1 - l : l].clone();
+          if (rightwards) {
+            reverse(layer);
+          }
+          ordered[l] = layer;
+        }
+        int[] order = new int[size];
+        for (int[] layer : ordered) {
+          for (int k = 0; k < layer.length; k++) {
+            order[layer[k]] = k;
+          }
+        }
+        int[] root = new int[size];
+        int[] align = new int[size];
+        if (downwards) {
+          alignVertically(ordered, order, downStart, down, conflicts, root, align);
+        } else {
+          alignVertically(ordered, order, upStart, up, conflicts, root, align);
+        }
+        double[] x = compactHorizontally(ordered, root);
+        if (rightwards) {
+          for (int v = 0; v < size; v++) {
+            x[v] = -x[v];
+          }
+        }
+        xs[direction] = x;
+      }
+
+      // shift each alignment to the one of smallest width, at its left or right as appropriate
+      double[] min = new double[4];
+      double[] max = new double[4];
+      int smallest = 0;
+      for (int d = 0; d < 4; d++) {
+        min[d] = Double.POSITIVE_INFINITY;
+        max[d] = Double.NEGATIVE_INFINITY;
+        for (double value : xs[d]) {
+          min[d] = Math.min(min[d], value);
+          max[d] = Math.max(max[d], value);
+        }
+        if (max[d] - min[d] < max[smallest] - min[smallest]) {
+          smallest = d;
+        }
+      }
+      for (int d = 0; d < 4; d++) {
+        double shift = d % 2 == 0 ? min[smallest] - min[d] : max[smallest] - max[d];
+        for (int v = 0; v < size; v++) {
+          xs[d][v] += shift;
+        }
+      }
+      double[] x = new double[size];
+      double[] values = new double[4];
+      for (int v = 0; v < size; v++) {
+        for (int d = 0; d < 4; d++) {
+          values[d] = xs[d][v];
+        }
+        Arrays.sort(values);
+        x[v] = (values[1] + values[2]) / 2;
+      }
+      return x;
+    }
+
+    private static void reverse(int[] array) {
+      for (int i = 0, j = array.length - 1; i < j; i++, j--) {
+        int t = array[i];
+        array[i] = array[j];
+        array[j] = t;
+      }
+    }
+
+    private long key(int upper, int lower) {
+      return (long) upper * size + lower;
+    }
+
+    /**
+     * @return the segments (as keys of their upper and lower nodes) that cross an inner segment,
+     *     one between two dummy nodes; these are not aligned, so that long edges stay straight
+     */
+    private Set<Long> markTypeOneConflicts() {
+      Set<Long> conflicts = new HashSet<>();
+      for (int l = 0; l + 1 < layers.length; l++) {
+        int[] upper = layers[l];
+        int[] lower = layers[l + 1];
+        int k0 = 0;
+        int scan = 0;
+        for (int l1 = 0; l1 < lower.length; l1++) {
+          int v = lower[l1];
+          int innerUpper = -1;
+          if (isDummy(v) && upStart[v + 1] > upStart[v] && isDummy(up[upStart[v]])) {
+            innerUpper = up[upStart[v]];
+          }
+          if (l1 == lower.length - 1 || innerUpper != -1) {
+            int k1 = innerUpper != -1 ? pos[innerUpper] : upper.length - 1;
+            for (; scan <= l1; scan++) {
+              int w = lower[scan];
+              for (int i = upStart[w]; i < upStart[w + 1]; i++) {
+                int u = up[i];
+                if (pos[u] < k0 || pos[u] > k1) {
+                  conflicts.add(key(u, w));
+                }
+              }
+            }
+            k0 = k1;
+          }
+        }
+      }
+      return conflicts;
+    }
+
+    /**
+     * aligns each node with a median neighbour in the preceding layer of {@code ordered}, where
+     * that does not cross an earlier alignment or a marked conflict; each block of aligned nodes is
+     * a cycle through {@code align}, and {@code root} holds the first node of each block
+     */
+    private void alignVertically(
+        int[][] ordered,
+        int[] order,
+        int[] start,
+        int[] neighbours,
+        Set<Long> conflicts,
+        int[] root,
+        int[] align) {
+      for (int v = 0; v < size; v++) {
+        root[v] = v;
+        align[v] = v;
+      }
+      int[] medians = new int[0];
+      for (int l = 1; l < ordered.length; l++) {
+        int r = -1;
+        for (int v : ordered[l]) {
+          int degree = start[v + 1] - start[v];
+          if (degree == 0) {
+            continue;
+          }
+          if (medians.length < degree) {
+            medians = new int[degree];
+          }
+          // the neighbours, sorted by their order in this direction
+          for (int i = 0; i < degree; i++) {
+            medians[i] = neighbours[start[v] + i];
+          }
+          sortByOrder(medians, degree, order);
+          for (int m = (degree - 1) / 2; m <= degree / 2; m++) {
+            if (align[v] != v) {
+              break;
+            }
+            int u = medians[m];
+            if (r < order[u] && !conflicts.contains(key(u, v)) && !conflicts.contains(key(v, u))) {
+              align[u] = v;
+              root[v] = root[u];
+              align[v] = root[v];
+              r = order[u];
+            }
+          }
+        }
+      }
+    }
+
+    private static void sortByOrder(int[] nodes, int count, int[] order) {
+      // insertion sort, as the degrees are usually small
+      for (int i = 1; i < count; i++) {
+        int node = nodes[i];
+        int j = i - 1;
+        while (j >= 0 && order[nodes[j]] > order[node]) {
+          nodes[j + 1] = nodes[j];
+          j--;
+        }
+        nodes[j + 1] = node;
+      }
+    }
+
+    private double separation(int u, int v) {
+      double su = isDummy(u) ? nodeSpacing / 2 : nodeSpacing;
+      double sv = isDummy(v) ? nodeSpacing / 2 : nodeSpacing;
+      return (su + sv) / 2;
+    }
+
+    /**
+     * @return the x coordinate of each node, the coordinate of its block: the blocks form an
+     *     acyclic graph in which each block must be at least the separation of the adjacent nodes
+     *     to the right of the block to its left in any layer; each block is placed as far left as
+     *     that allows, and then moved right as far as the blocks to its right allow
+     */
+    private double[] compactHorizontally(int[][] ordered, int[] root) {
+      int edgeCount = 0;
+      for (int[] layer : ordered) {
+        edgeCount += Math.max(0, layer.length - 1);
+      }
+      int[] from = new int[edgeCount];
+      int[] to = new int[edgeCount];
+      double[] weight = new double[edgeCount];
+      int e = 0;
+      for (int[] layer : ordered) {
+        for (int k = 1; k < layer.length; k++) {
+          from[e] = root[layer[k - 1]];
+          to[e] = root[layer[k]];
+          weight[e] = separation(layer[k - 1], layer[k]);
+          e++;
+        }
+      }
+      int[] outStart = new int[size + 1];
+      for (int i = 0; i < edgeCount; i++) {
+        outStart[from[i] + 1]++;
+      }
+      for (int v = 0; v < size; v++) {
+        outStart[v + 1] += outStart[v];
+      }
+      int[] out = new int[edgeCount];
+      int[] next = Arrays.copyOf(outStart, size);
+      int[] inDegree = new int[size];
+      for (int i = 0; i < edgeCount; i++) {
+        out[next[from[i]]++] = i;
+        inDegree[to[i]]++;
+      }
+
+      // the blocks in topological order
+      int[] blocks = new int[size];
+      int head = 0;
+      int tail = 0;
+      for (int v = 0; v < size; v++) {
+        if (root[v] == v && inDegree[v] == 0) {
+          blocks[tail++] = v;
+        }
+      }
+      while (head < tail) {
+        int b = blocks[head++];
+        for (int i = outStart[b]; i < outStart[b + 1]; i++) {
+          if (--inDegree[to[out[i]]] == 0) {
+            blocks[tail++] = to[out[i]];
+          }
+        }
+      }
+      Preconditions.checkState(
+          tail == countRoots(root), "the blocks of the alignment are not acyclic");
+
+      double[] blockX = new double[size];
+      for (int k = 0; k < tail; k++) {
+        int b = blocks[k];
+        for (int i = outStart[b]; i < outStart[b + 1]; i++) {
+          int c = to[out[i]];
+          blockX[c] = Math.max(blockX[c], blockX[b] + weight[out[i]]);
+        }
+      }
+      for (int k = tail - 1; k >= 0; k--) {
+        int b = blocks[k];
+        double limit = Double.POSITIVE_INFINITY;
+        for (int i = outStart[b]; i < outStart[b + 1]; i++) {
+          limit = Math.min(limit, blockX[to[out[i]]] - weight[out[i]]);
+        }
+        if (limit != Double.POSITIVE_INFINITY) {
+          blockX[b] = Math.max(blockX[b], limit);
+        }
+      }
+      double[] x = new double[size];
+      for (int v = 0; v < size; v++) {
+        x[v] = blockX[root[v]];
+      }
+      return x;
+    }
+
+    private int countRoots(int[] root) {
+      int count = 0;
+      for (int v = 0; v < size; v++) {
+        if (root[v] == v) {
+          count++;
+        }
+      }
+      return count;
+    }
+  }
+}
@@ -0,0 +1,362 @@
+package edu.uci.ics.jung.layout.algorithms;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.Graph;
+import edu.uci.ics.jung.graph.util.TreeUtils;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A tidy tree layout for Tree or Forest graphs, computed in time linear in the number of nodes by
+ * the algorithm of Walker, as improved by Buchheim, Jünger and Leipert. Each subtree is placed as
+ * close as possible to its left siblings, with at least {@code distX} between the contours of
+ * adjacent subtrees, and each parent is centered over its children; the trees of a forest are
+ * placed side by side in the same way. As in {@link TreeLayoutAlgorithm}, the levels of the tree
+ * are {@code distY} apart, the leftmost node is at {@code distX}, and the LayoutModel is enlarged
+ * if the tree does not fit.
+ *
+ * <p>The nodes are indexed in depth first order, and the tree is walked with explicit stacks over
+ * arrays indexed by node, so that very deep trees do not overflow the call stack. A node that is a
+ * successor of more than one node is placed under the first of them to be reached.
+ *
+ * <p>To lay out a tree radially with this layout, pass an instance to {@link
+ * RadialTreeLayoutAlgorithm#RadialTreeLayoutAlgorithm(TreeLayoutAlgorithm)}.
+ *
+ * @see "Christoph Buchheim, Michael Jünger and Sebastian Leipert, 'Improving Walker's Algorithm to
+ *     Run in Linear Time'"
+ * @param <N> the node type
+ */
+public class TidyTreeLayoutAlgorithm<N> extends TreeLayoutAlgorithm<N> {
+
+  private static final Logger log = LoggerFactory.getLogger(TidyTreeLayoutAlgorithm.class);
+
+  private static final int NONE = -1;
+
+  /** Creates an instance with default X and Y distances. */
+  public TidyTreeLayoutAlgorithm() {
+    this(DEFAULT_DISTX, DEFAULT_DISTY);
+  }
+
+  /**
+   * Creates an instance with the specified X distance and default Y distance.
+   *
+   * @param distx the minimum horizontal spacing between adjacent nodes
+   */
+  public TidyTreeLayoutAlgorithm(int distx) {
+    this(distx, DEFAULT_DISTY);
+  }
+
+  /**
+   * Creates an instance with the specified X and Y distances.
+   *
+   * @param distx the minimum horizontal spacing between adjacent nodes
+   * @param disty the vertical spacing between levels of the tree
+   */
+  public TidyTreeLayoutAlgorithm(int distx, int disty) {
+    super(distx, disty);
+  }
+
+  @Override
+  protected void buildTree(LayoutModel<N> layoutModel) {
+    Graph<N> graph = layoutModel.getGraph();
+    Set<N> roots = TreeUtils.roots(graph);
+    Preconditions.checkArgument(roots.size() > 0);
+    Tree<N> tree = new Tree<>(graph, roots, distX);
+    tree.firstWalk();
+    double[] x = tree.secondWalk();
+    int n = tree.size();
+
+    // index 0 is the virtual root of the forest, which is not placed
+    double minX = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    int maxDepth = 0;
+    for (int v = 1; v < n; v++) {
+      minX = Math.min(minX, x[v]);
+      maxX = Math.max(maxX, x[v]);
+      maxDepth = Math.max(maxDepth, tree.depth[v]);
+    }
+    double offsetX = distX - minX;
+    int right = (int) (maxX + offsetX);
+    int bottom = 20 + maxDepth * distY;
+    int width = layoutModel.getWidth();
+    int height = layoutModel.getHeight();
+    if (right >= width - distX) {
+      width = right + distX;
+    }
+    if (bottom >= height - distY) {
+      height = bottom + distY;
+    }
+    if (layoutModel.getWidth() < width || layoutModel.getHeight() < height) {
+      layoutModel.setSize(width, height);
+    }
+    log.trace("placing {} nodes in {} levels", n - 1, maxDepth);
+    for (int v = 1; v < n; v++) {
+      setLocation(layoutModel, tree.nodes.get(v), x[v] + offsetX, 20 + tree.depth[v] * distY);
+    }
+  }
+
+  /**
+   * The forest, as a tree under a virtual root, with the state of the algorithm of Buchheim et al.
+   * in arrays indexed by node. The nodes are indexed in depth first order, so that each node has a
+   * greater index than its parent, and the children of each node are in increasing order of index.
+   */
+  private static class Tree<N> {
+    final List<N> nodes = new ArrayList<>();
+    final double distance;
+
+    int[] parent;
+    int[] depth;
+    // the index of each node among its siblings
+    int[] number;
+    // the children of node v are children[childStart[v]], ..., children[childStart[v + 1] - 1]
+    int[] childStart;
+    int[] children;
+
+    double[] prelim;
+    double[] mod;
+    double[] shift;
+    double[] change;
+    int[] thread;
+    int[] ancestor;
+
+    Tree(Graph<N> graph, Set<N> roots, double distance) {
+      this.distance = distance;
+      index(graph, roots);
+      int n = nodes.size();
+      prelim = new double[n];
+      mod = new double[n];
+      shift = new double[n];
+      change = new double[n];
+      thread = new int[n];
+      ancestor = new int[n];
+      for (int v = 0; v < n; v++) {
+        thread[v] = NONE;
+        ancestor[v] = v;
+      }
+    }
+
+    int size() {
+      return nodes.size();
+    }
+
+    /** indexes the nodes reachable from the roots in depth first order, and records the tree */
+    private void index(Graph<N> graph, Set<N> roots) {
+      Map<N, Integer> indices = new HashMap<>();
+      List<Integer> parents = new ArrayList<>();
+      List<Integer> depths = new ArrayList<>();
+      nodes.add(null); // the virtual root
+      parents.add(NONE);
+      depths.add(0);
+      Deque<Iterator<N>> successors = new ArrayDeque<>();
+      Deque<Integer> path = new ArrayDeque<>();
+      successors.push(roots.iterator());
+      path.push(0);
+      while (!successors.isEmpty()) {
+        Iterator<N> iterator = successors.peek();
+        if (!iterator.hasNext()) {
+          successors.pop();
+          path.pop();
+          continue;
+        }
+        N node = iterator.next();
+        if (indices.containsKey(node)) {
+          continue;
+        }
+        int v = nodes.size();
+        int p = path.peek();
+        indices.put(node, v);
+        nodes.add(node);
+        parents.add(p);
+        depths.add(depths.get(p) + 1);
+        successors.push(graph.successors(node).iterator());
+        path.push(v);
+      }
+
+      int n = nodes.size();
+      parent = new int[n];
+      depth = new int[n];
+      number = new int[n];
+      childStart = new int[n + 1];
+      children = new int[Math.max(0, n - 1)];
+      for (int v = 0; v < n; v++) {
+        parent[v] = parents.get(v);
+        depth[v] = depths.get(v);
+        if (parent[v] != NONE) {
+          childStart[parent[v] + 1]++;
+        }
+      }
+      for (int v = 0; v < n; v++) {
+        childStart[v + 1] += childStart[v];
+      }
+      int[] next = new int[n];
+      for (int v = 1; v < n; v++) {
+        int p = parent[v];
+        number[v] = next[p]++;
+        children[childStart[p] + number[v]] = v;
+      }
+    }
+
+    int childCount(int v) {
+      return childStart[v + 1] - childStart[v];
+    }
+
+    int firstChild(int v) {
+      return children[childStart[v]];
+    }
+
+    int lastChild(int v) {
+      return children[childStart[v + 1] - 1];
+    }
+
+    int leftSibling(int v) {
+      return number[v] == 0 ? NONE : children[childStart[parent[v]] + number[v] - 1];
+    }
+
+    int leftmostSibling(int v) {
+      return firstChild(parent[v]);
+    }
+
+    int nextLeft(int v) {
+      return childCount(v) > 0 ? firstChild(v) : thread[v];
+    }
+
+    int nextRight(int v) {
+      return childCount(v) > 0 ? lastChild(v) : thread[v];
+    }
+
+    /**
+     * computes the preliminary x coordinate and modifier of each node, in post order, keeping the
+     * path from the root and the next child to visit of each node on that path in arrays
+     */
+    void firstWalk() {
+      int n = size();
+      int[] stack = new int[n];
+      int[] cursor = new int[n];
+      // the default ancestor of the children of each node
+      int[] defaultAncestor = new int[n];
+      int top = 0;
+      stack[0] = 0;
+      while (top >= 0) {
+        int v = stack[top];
+        if (cursor[v] < childCount(v)) {
+          int w = children[childStart[v] + cursor[v]++];
+          if (cursor[v] == 1) {
+            defaultAncestor[v] = w;
+          }
+          stack[++top] = w;
+          continue;
+        }
+        top--;
+        if (childCount(v) > 0) {
+          executeShifts(v);
+          double midpoint = (prelim[firstChild(v)] + prelim[lastChild(v)]) / 2;
+          int w = v == 0 ? NONE : leftSibling(v);
+          if (w != NONE) {
+            prelim[v] = prelim[w] + distance;
+            mod[v] = prelim[v] - midpoint;
+          } else {
+            prelim[v] = midpoint;
+          }
+        } else if (v != 0) {
+          int w = leftSibling(v);
+          prelim[v] = w != NONE ? prelim[w] + distance : 0;
+        }
+        if (v != 0) {
+          int p = parent[v];
+          defaultAncestor[p] = apportion(v, defaultAncestor[p]);
+        }
+      }
+    }
+
+    /** moves the subtree of v away from the subtrees of its left siblings, where they overlap */
+    private int apportion(int v, int defaultAncestor) {
+      int w = leftSibling(v);
+      if (w == NONE) {
+        return defaultAncestor;
+      }
+      int vip = v;
+      int vop = v;
+      int vim = w;
+      int vom = leftmostSibling(vip);
+      double sip = mod[vip];
+      double sop = mod[vop];
+      double sim = mod[vim];
+      double som = mod[vom];
+      while (nextRight(vim) != NONE && nextLeft(vip) != NONE) {
+        vim = nextRight(vim);
+        vip = nextLeft(vip);
+        vom = nextLeft(vom);
+        vop = nextRight(vop);
+        ancestor[vop] = v;
+        double shiftBy = (prelim[vim] + sim) - (prelim[vip] + sip) + distance;
+        if (shiftBy > 0) {
+          int a = parent[ancestor[vim]] == parent[v] ? ancestor[vim] : defaultAncestor;
+          moveSubtree(a, v, shiftBy);
+          sip += shiftBy;
+          sop += shiftBy;
+        }
+        sim += mod[vim];
+        sip += mod[vip];
+        som += mod[vom];
+        sop += mod[vop];
+      }
+      if (nextRight(vim) != NONE && nextRight(vop) == NONE) {
+        thread[vop] = nextRight(vim);
+        mod[vop] += sim - sop;
+      }
+      if (nextLeft(vip) != NONE && nextLeft(vom) == NONE) {
+        thread[vom] = nextLeft(vip);
+        mod[vom] += sip - som;
+        defaultAncestor = v;
+      }
+      return defaultAncestor;
+    }
+
+    private void moveSubtree(int wm, int wp, double shiftBy) {
+      int subtrees = number[wp] - number[wm];
+      change[wp] -= shiftBy / subtrees;
+      shift[wp] += shiftBy;
+      change[wm] += shiftBy / subtrees;
+      prelim[wp] += shiftBy;
+      mod[wp] += shiftBy;
+    }
+
+    private void executeShifts(int v) {
+      double shiftBy = 0;
+      double changeBy = 0;
+      for (int k = childStart[v + 1] - 1; k >= childStart[v]; k--) {
+        int w = children[k];
+        prelim[w] += shiftBy;
+        mod[w] += shiftBy;
+        changeBy += change[w];
+        shiftBy += shift[w] + changeBy;
+      }
+    }
+
+    /**
+     * @return the final x coordinate of each node, the sum of its preliminary x coordinate and the
+     *     modifiers of its ancestors; as each parent precedes its children, one pass suffices
+     */
+    double[] secondWalk() {
+      int n = size();
+      double[] x = new double[n];
+      double[] modSum = new double[n];
+      x[0] = prelim[0];
+      for (int v = 1; v < n; v++) {
+        int p = parent[v];
+        modSum[v] = modSum[p] + mod[p];
+        x[v] = prelim[v] + modSum[v];
+      }
+      return x;
+    }
+  }
+}
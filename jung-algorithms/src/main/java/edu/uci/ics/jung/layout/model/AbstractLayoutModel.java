@@ -1,18 +1,25 @@
 package edu.uci.ics.jung.layout.model;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.graph.Graph;
+import edu.uci.ics.jung.algorithms.util.IterativeContext;
 import edu.uci.ics.jung.layout.algorithms.IterativeLayoutAlgorithm;
 import edu.uci.ics.jung.layout.algorithms.LayoutAlgorithm;
+import edu.uci.ics.jung.layout.util.LayoutBatchEvent;
 import edu.uci.ics.jung.layout.util.LayoutChangeListener;
 import edu.uci.ics.jung.layout.util.LayoutEvent;
 import edu.uci.ics.jung.layout.util.LayoutEventSupport;
+import edu.uci.ics.jung.layout.util.RelaxPolicy;
 import edu.uci.ics.jung.layout.util.VisRunnable;
 import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,12 +41,19 @@ public abstract class AbstractLayoutModel<N>
   protected int height;
   protected Graph<N> graph;
   protected VisRunnable visRunnable;
+  /** the Executor for the relaxer; if null, the common ForkJoinPool is used */
+  protected Executor relaxerExecutor;
+
+  protected RelaxPolicy relaxPolicy = RelaxPolicy.defaultPolicy();
   /** @value relaxing true is this layout model is being accessed by a running relaxer */
   protected boolean relaxing;
 
   protected CompletableFuture theFuture;
   protected LayoutModel.ChangeSupport changeSupport = new DefaultLayoutModelChangeSupport();
   private List<LayoutChangeListener<N>> layoutChangeListeners = Lists.newArrayList();
+  // the batch of LayoutEvents open on each thread; a batch holds back only the events fired on
+  // the thread that opened it
+  private final ThreadLocal<EventBatch<N>> eventBatch = ThreadLocal.withInitial(EventBatch::new);
   protected LayoutModel.LayoutStateChangeSupport layoutStateChangeSupport =
       new DefaultLayoutStateChangeSupport();
 
@@ -63,6 +77,16 @@ public abstract class AbstractLayoutModel<N>
     return theFuture;
   }
 
+  @Override
+  public void setRelaxerExecutor(Executor executor) {
+    this.relaxerExecutor = executor;
+  }
+
+  @Override
+  public void setRelaxPolicy(RelaxPolicy relaxPolicy) {
+    this.relaxPolicy = Preconditions.checkNotNull(relaxPolicy, "relaxPolicy");
+  }
+
   /**
    * accept the visit of a LayoutAlgorithm. If it is an IterativeContext, create a VisRunner to run
    * its relaxer in a new Thread. If there is a current VisRunner, stop it first.
@@ -86,7 +110,12 @@ public abstract class AbstractLayoutModel<N>
       log.trace("{} will visit {}", layoutAlgorithm, this);
     }
     if (layoutAlgorithm != null) {
-      layoutAlgorithm.visit(this);
+      beginLayoutEventBatch();
+      try {
+        layoutAlgorithm.visit(this);
+      } finally {
+        endLayoutEventBatch();
+      }
 
       if (layoutAlgorithm instanceof IterativeLayoutAlgorithm) {
         setRelaxing(true);
@@ -110,7 +139,8 @@ public abstract class AbstractLayoutModel<N>
   }
 
   /**
-   * create and start a new VisRunner for the passed IterativeContext
+   * create and start a new VisRunner for the passed IterativeContext, on the relaxer Executor and
+   * paced by the RelaxPolicy of this model
    *
    * @param iterativeContext
    */
@@ -131,17 +161,40 @@ public abstract class AbstractLayoutModel<N>
     changeSupport.setFireEvents(true);
     log.trace("prerelax is done");
 
-    visRunnable = new VisRunnable(iterativeContext);
+    // the moves of each step are delivered to the LayoutChangeListeners as one batch
+    IterativeContext batchedSteps =
+        new IterativeContext() {
+          @Override
+          public void step() {
+            beginLayoutEventBatch();
+            try {
+              iterativeContext.step();
+            } finally {
+              endLayoutEventBatch();
+            }
+          }
+
+          @Override
+          public boolean done() {
+            return iterativeContext.done();
+          }
+        };
+    VisRunnable runnable = new VisRunnable(batchedSteps, relaxPolicy);
+    visRunnable = runnable;
+    CompletableFuture<Void> relaxer =
+        relaxerExecutor == null
+            ? CompletableFuture.runAsync(runnable)
+            : CompletableFuture.runAsync(runnable, relaxerExecutor);
     theFuture =
-        CompletableFuture.runAsync(visRunnable)
-            .thenRun(
-                () -> {
-                  log.trace("We're done");
-                  setRelaxing(false);
-                  this.fireChanged();
-                  // fire an event to say that the layout relax is done
-                  this.layoutStateChangeSupport.fireLayoutStateChanged(this, false);
-                });
+        relaxer.thenRun(
+            () -> {
+              log.trace("We're done");
+              setRelaxing(false);
+              this.fireChanged();
+              // fire an event to say that the layout relax is done, with its timings
+              this.layoutStateChangeSupport.fireLayoutStateChanged(
+                  this, false, runnable.getMetrics());
+            });
   }
 
   /** @return the graph */
@@ -315,8 +368,18 @@ public abstract class AbstractLayoutModel<N>
     layoutChangeListeners.remove(listener);
   }
 
+  /** @return true if any LayoutChangeListeners are registered with this model */
+  protected boolean hasLayoutChangeListeners() {
+    return !layoutChangeListeners.isEmpty();
+  }
+
   protected void fireLayoutChanged(N node, Point location) {
     if (layoutChangeListeners.size() > 0) {
+      EventBatch<N> batch = eventBatch.get();
+      if (batch.depth > 0) {
+        batch.events.put(node, location);
+        return;
+      }
       LayoutEvent<N> layoutEvent = new LayoutEvent(node, location);
       for (LayoutChangeListener<N> layoutChangeListener : layoutChangeListeners) {
         layoutChangeListener.layoutChanged(layoutEvent);
@@ -324,6 +387,56 @@ public abstract class AbstractLayoutModel<N>
     }
   }
 
+  /**
+   * fire one LayoutBatchEvent for the passed locations, or add them to the open batch, if any
+   *
+   * @param locations the new locations of the moved nodes
+   */
+  protected void fireLayoutChanged(Map<N, Point> locations) {
+    if (layoutChangeListeners.size() > 0 && !locations.isEmpty()) {
+      EventBatch<N> batch = eventBatch.get();
+      if (batch.depth > 0) {
+        batch.events.putAll(locations);
+        return;
+      }
+      LayoutBatchEvent<N> batchEvent = new LayoutBatchEvent<>(locations);
+      for (LayoutChangeListener<N> layoutChangeListener : layoutChangeListeners) {
+        layoutChangeListener.layoutChanged(batchEvent);
+      }
+    }
+  }
+
+  /**
+   * Opens a batch of LayoutEvents: until the matching call to {@link #endLayoutEventBatch()}, the
+   * moves of nodes are collected rather than delivered, and are then delivered to the
+   * LayoutChangeListeners as one {@link LayoutBatchEvent}. Batches may be nested; the events are
+   * delivered when the outermost batch ends. A batch is confined to the thread that opens it: it
+   * holds back only the moves made on that thread, and must be ended on that thread. A running
+   * relaxer batches the events of each of its steps, and the events of each LayoutAlgorithm visit
+   * are batched.
+   */
+  public void beginLayoutEventBatch() {
+    eventBatch.get().depth++;
+  }
+
+  /** Closes a batch opened on this thread by {@link #beginLayoutEventBatch()}. */
+  public void endLayoutEventBatch() {
+    EventBatch<N> batch = eventBatch.get();
+    Preconditions.checkState(batch.depth > 0, "no batch is open on this thread");
+    if (--batch.depth > 0 || batch.events.isEmpty()) {
+      return;
+    }
+    Map<N, Point> moved = new LinkedHashMap<>(batch.events);
+    batch.events.clear();
+    fireLayoutChanged(moved);
+  }
+
+  /** the LayoutEvents held back by the batches open on one thread */
+  private static class EventBatch<N> {
+    int depth;
+    final Map<N, Point> events = new LinkedHashMap<>();
+  }
+
   @Override
   public void removeChangeListener(ChangeListener l) {
     changeSupport.removeChangeListener(l);
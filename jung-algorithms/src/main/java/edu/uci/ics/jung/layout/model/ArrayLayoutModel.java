@@ -0,0 +1,329 @@
+package edu.uci.ics.jung.layout.model;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.Graph;
+import edu.uci.ics.jung.layout.util.Caching;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A LayoutModel that stores node locations in primitive coordinate arrays, indexed by a dense index
+ * that is assigned to each node (in the iteration order of the graph, and then, for nodes that are
+ * added to the graph or set later, in order of first use). A node that is not in the graph and has
+ * not been set has no index and no location. Setting a location stores two doubles rather than
+ * allocating a {@code Point}; a {@code Point} is only created when a location is requested with
+ * {@link #get(Object)}. The locations of all nodes may be written and read in bulk, by index, with
+ * {@link #setAll(double[], double[])} and {@link #snapshot(double[], double[])}.
+ *
+ * <p>As with {@link LoadingCacheLayoutModel}, the location of a node is computed by the initializer
+ * when it is first requested, and {@link #setInitializer(Function)} and {@link #clear()} discard
+ * all locations. All access to the arrays is synchronized on this model.
+ *
+ * @param <N> the node type
+ */
+public class ArrayLayoutModel<N> extends AbstractLayoutModel<N> implements LayoutModel<N>, Caching {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private Function<N, Point> initializer = n -> Point.ORIGIN;
+
+  private final Map<N, Integer> indices = new HashMap<>();
+  private Object[] nodes = new Object[INITIAL_CAPACITY];
+  private int size;
+  private double[] xs = new double[INITIAL_CAPACITY];
+  private double[] ys = new double[INITIAL_CAPACITY];
+  // whether the location of each node has been set or initialized
+  private boolean[] placed = new boolean[INITIAL_CAPACITY];
+
+  @Override
+  public Collection<ChangeListener> getChangeListeners() {
+    return changeSupport.getChangeListeners();
+  }
+
+  /**
+   * a builder for ArrayLayoutModel instances
+   *
+   * @param <N> the node type
+   * @param <T> the type of the superclass of the LayoutModel to be built
+   */
+  public abstract static class Builder<N, T extends ArrayLayoutModel<N>> {
+    protected Graph<N> graph;
+    protected int width;
+    protected int height;
+    protected Function<N, Point> initializer = n -> Point.ORIGIN;
+
+    /**
+     * set the Graph to use for the LayoutModel
+     *
+     * @param graph
+     * @return this builder for further use
+     */
+    public ArrayLayoutModel.Builder<N, T> setGraph(Graph<N> graph) {
+      this.graph = graph;
+      return this;
+    }
+
+    /**
+     * set the LayoutModel to copy with this builder
+     *
+     * @param layoutModel
+     * @return this builder for further use
+     */
+    public ArrayLayoutModel.Builder<N, T> setLayoutModel(LayoutModel<N> layoutModel) {
+      this.width = layoutModel.getWidth();
+      this.height = layoutModel.getHeight();
+      return this;
+    }
+
+    /**
+     * sets the size that will be used for the LayoutModel
+     *
+     * @param width
+     * @param height
+     * @return the LayoutModel.Builder being built
+     */
+    public ArrayLayoutModel.Builder<N, T> setSize(int width, int height) {
+      this.width = width;
+      this.height = height;
+      return this;
+    }
+
+    /**
+     * sets the initializer to use for new nodes
+     *
+     * @param initializer
+     * @return the builder
+     */
+    public ArrayLayoutModel.Builder<N, T> setInitializer(Function<N, Point> initializer) {
+      this.initializer = Preconditions.checkNotNull(initializer, "initializer");
+      return this;
+    }
+
+    /**
+     * build an instance of the requested LayoutModel of type T
+     *
+     * @return
+     */
+    public abstract T build();
+  }
+
+  public static <N> Builder<N, ?> builder() {
+    return new Builder<N, ArrayLayoutModel<N>>() {
+      @Override
+      public ArrayLayoutModel<N> build() {
+        return new ArrayLayoutModel<>(this);
+      }
+    };
+  }
+
+  protected ArrayLayoutModel(ArrayLayoutModel.Builder<N, ?> builder) {
+    super(builder.graph, builder.width, builder.height);
+    this.initializer = builder.initializer;
+    if (graph != null) {
+      indexNodes();
+    }
+  }
+
+  /**
+   * assigns an index to each node of the graph, in iteration order, keeping the locations of the
+   * nodes that were already present and discarding the rest
+   */
+  private synchronized void indexNodes() {
+    double[] oldXs = xs;
+    double[] oldYs = ys;
+    boolean[] oldPlaced = placed;
+    Map<N, Integer> oldIndices = new HashMap<>(indices);
+    while (true) {
+      try {
+        int capacity = Math.max(INITIAL_CAPACITY, graph.nodes().size());
+        nodes = new Object[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+        placed = new boolean[capacity];
+        indices.clear();
+        size = 0;
+        for (N node : graph.nodes()) {
+          int index = add(node);
+          Integer oldIndex = oldIndices.get(node);
+          if (oldIndex != null && oldPlaced[oldIndex]) {
+            xs[index] = oldXs[oldIndex];
+            ys[index] = oldYs[oldIndex];
+            placed[index] = true;
+          }
+        }
+        return;
+      } catch (ConcurrentModificationException cme) {
+      }
+    }
+  }
+
+  private int add(N node) {
+    if (size == nodes.length) {
+      int capacity = 2 * size;
+      nodes = Arrays.copyOf(nodes, capacity);
+      xs = Arrays.copyOf(xs, capacity);
+      ys = Arrays.copyOf(ys, capacity);
+      placed = Arrays.copyOf(placed, capacity);
+    }
+    int index = size++;
+    nodes[index] = node;
+    indices.put(node, index);
+    return index;
+  }
+
+  /**
+   * Returns the dense index of {@code node}, assigning it the next index if it is a node of the
+   * graph that has none (as when it was added to the graph after the graph was set).
+   *
+   * @param node the node whose index is requested
+   * @return the index of {@code node}, or -1 if it is not a node of the graph and has not been set
+   */
+  public synchronized int indexOf(N node) {
+    Integer index = indices.get(node);
+    if (index != null) {
+      return index;
+    }
+    return graph != null && graph.nodes().contains(node) ? add(node) : -1;
+  }
+
+  /**
+   * @param index a node index
+   * @return the node with the specified index
+   */
+  @SuppressWarnings("unchecked")
+  public synchronized N node(int index) {
+    Preconditions.checkElementIndex(index, size);
+    return (N) nodes[index];
+  }
+
+  /** @return the number of nodes that have been assigned an index */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Sets the locations of the nodes <code>0, ..., x.length - 1</code> from the passed arrays, which
+   * must be the same length and no longer than {@link #size()}. Does nothing if this model is
+   * locked; the locks of individual nodes are not checked, and are the responsibility of the
+   * caller, as for {@link #set(Object, double, double)}. The moves are delivered to the
+   * LayoutChangeListeners as one {@link edu.uci.ics.jung.layout.util.LayoutBatchEvent}.
+   *
+   * @param x the x coordinates of the nodes, by index
+   * @param y the y coordinates of the nodes, by index
+   */
+  public void setAll(double[] x, double[] y) {
+    Preconditions.checkArgument(x.length == y.length, "x and y must be the same length");
+    synchronized (this) {
+      Preconditions.checkArgument(x.length <= size, "more coordinates than nodes");
+      if (locked) {
+        return;
+      }
+      System.arraycopy(x, 0, xs, 0, x.length);
+      System.arraycopy(y, 0, ys, 0, y.length);
+      Arrays.fill(placed, 0, x.length, true);
+    }
+    if (isFireEvents() && hasLayoutChangeListeners()) {
+      Map<N, Point> moved = new LinkedHashMap<>();
+      for (int i = 0; i < x.length; i++) {
+        moved.put(node(i), Point.of(x[i], y[i]));
+      }
+      fireLayoutChanged(moved);
+    }
+  }
+
+  /**
+   * Copies the locations of all nodes, by index, into the passed arrays, initializing the locations
+   * of any nodes that have not yet been placed.
+   *
+   * @param x the array to receive the x coordinates; must be at least {@link #size()} long
+   * @param y the array to receive the y coordinates; must be at least {@link #size()} long
+   * @return the number of locations copied, which is {@link #size()}
+   */
+  public synchronized int snapshot(double[] x, double[] y) {
+    Preconditions.checkArgument(
+        x.length >= size && y.length >= size, "the arrays are shorter than size()");
+    for (int i = 0; i < size; i++) {
+      place(i);
+    }
+    System.arraycopy(xs, 0, x, 0, size);
+    System.arraycopy(ys, 0, y, 0, size);
+    return size;
+  }
+
+  // computes the initial location of the node at index, if it has not been placed
+  @SuppressWarnings("unchecked")
+  private void place(int index) {
+    if (!placed[index]) {
+      Point p = initializer.apply((N) nodes[index]);
+      xs[index] = p.x;
+      ys[index] = p.y;
+      placed[index] = true;
+    }
+  }
+
+  @Override
+  public void setGraph(Graph<N> graph) {
+    super.setGraph(graph);
+    indexNodes();
+    changeSupport.fireChanged();
+  }
+
+  @Override
+  public void set(N node, Point location) {
+    set(node, location.x, location.y);
+  }
+
+  @Override
+  public void set(N node, double x, double y) {
+    synchronized (this) {
+      if (locked) {
+        return;
+      }
+      Integer index = indices.get(node);
+      if (index == null) {
+        index = add(node);
+      }
+      xs[index] = x;
+      ys[index] = y;
+      placed[index] = true;
+    }
+    if (isFireEvents() && hasLayoutChangeListeners()) {
+      fireLayoutChanged(node, Point.of(x, y));
+    }
+  }
+
+  /**
+   * @return the location of {@code node}, or null if it is not a node of the graph and has not been
+   *     set
+   */
+  @Override
+  public synchronized Point get(N node) {
+    int index = indexOf(node);
+    if (index < 0) {
+      return null;
+    }
+    place(index);
+    return Point.of(xs[index], ys[index]);
+  }
+
+  @Override
+  public Point apply(N node) {
+    return this.get(node);
+  }
+
+  public synchronized void setInitializer(Function<N, Point> initializer) {
+    this.initializer = Preconditions.checkNotNull(initializer, "initializer");
+    clear();
+  }
+
+  /** discards all locations, so that they will be recomputed by the initializer */
+  @Override
+  public synchronized void clear() {
+    Arrays.fill(placed, false);
+  }
+}
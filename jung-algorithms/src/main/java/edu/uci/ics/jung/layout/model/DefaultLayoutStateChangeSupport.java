@@ -1,6 +1,7 @@
 package edu.uci.ics.jung.layout.model;
 
 import com.google.common.collect.Lists;
+import edu.uci.ics.jung.layout.util.RelaxMetrics;
 import java.util.Collections;
 import java.util.List;
 import org.slf4j.Logger;
@@ -20,6 +21,9 @@ public class DefaultLayoutStateChangeSupport implements LayoutModel.LayoutStateC
   protected List<LayoutModel.LayoutStateChangeListener> changeListeners =
       Collections.synchronizedList(Lists.newArrayList());
 
+  /** the timings of the most recent relaxer to finish */
+  protected volatile RelaxMetrics relaxMetrics;
+
   @Override
   public boolean isFireEvents() {
     return fireEvents;
@@ -45,13 +49,26 @@ public class DefaultLayoutStateChangeSupport implements LayoutModel.LayoutStateC
     return changeListeners;
   }
 
+  @Override
+  public RelaxMetrics getRelaxMetrics() {
+    return relaxMetrics;
+  }
+
   @Override
   public void fireLayoutStateChanged(LayoutModel layoutModel, boolean state) {
+    fireLayoutStateChanged(layoutModel, state, null);
+  }
+
+  @Override
+  public void fireLayoutStateChanged(LayoutModel layoutModel, boolean state, RelaxMetrics metrics) {
     log.trace("fireLayoutStateChange to {}", state);
+    if (metrics != null) {
+      relaxMetrics = metrics;
+    }
     if (changeListeners.size() > 0) {
       // make an event and fire it
       LayoutModel.LayoutStateChangeEvent evt =
-          new LayoutModel.LayoutStateChangeEvent(layoutModel, state);
+          new LayoutModel.LayoutStateChangeEvent(layoutModel, state, metrics);
       for (LayoutModel.LayoutStateChangeListener listener : changeListeners) {
         listener.layoutStateChanged(evt);
       }
@@ -12,11 +12,14 @@ package edu.uci.ics.jung.layout.model;
 import com.google.common.collect.Maps;
 import com.google.common.graph.Graph;
 import edu.uci.ics.jung.layout.algorithms.LayoutAlgorithm;
+import edu.uci.ics.jung.layout.util.RelaxMetrics;
+import edu.uci.ics.jung.layout.util.RelaxPolicy;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 /** two dimensional layoutmodel */
@@ -63,6 +66,22 @@ public interface LayoutModel<N> extends Function<N, Point> {
    */
   boolean isRelaxing();
 
+  /**
+   * sets the Executor on which the relaxer of an IterativeLayoutAlgorithm will run; takes effect
+   * when the next LayoutAlgorithm is accepted; ignored by default
+   *
+   * @param executor the Executor to use, or null (the default) to use the common ForkJoinPool
+   */
+  default void setRelaxerExecutor(Executor executor) {}
+
+  /**
+   * sets the policy by which the relaxer paces the steps of an IterativeLayoutAlgorithm; takes
+   * effect when the next LayoutAlgorithm is accepted; ignored by default
+   *
+   * @param relaxPolicy the policy to use; {@link RelaxPolicy#defaultPolicy()} by default
+   */
+  default void setRelaxPolicy(RelaxPolicy relaxPolicy) {}
+
   /**
    * a handle to the relaxer thread; may be used to attach a process to run after relax is complete
    *
@@ -154,6 +173,23 @@ public interface LayoutModel<N> extends Function<N, Point> {
 
     void fireLayoutStateChanged(LayoutModel source, boolean state);
 
+    /**
+     * fires a LayoutStateChangeEvent that carries the timings of the relaxer that has just
+     * finished, and retains them to be returned by {@link #getRelaxMetrics()}; by default the
+     * timings are dropped and the event is fired without them
+     */
+    default void fireLayoutStateChanged(LayoutModel source, boolean state, RelaxMetrics metrics) {
+      fireLayoutStateChanged(source, state);
+    }
+
+    /**
+     * @return the timings of the most recent relaxer to finish, or null if none has; null by
+     *     default
+     */
+    default RelaxMetrics getRelaxMetrics() {
+      return null;
+    }
+
     List<LayoutStateChangeListener> getLayoutStateChangeListeners();
   }
 
@@ -166,15 +202,29 @@ public interface LayoutModel<N> extends Function<N, Point> {
   class LayoutStateChangeEvent {
     public final LayoutModel layoutModel;
     public final boolean active;
+    /** the timings of the relaxer, when it has just finished; otherwise null */
+    public final RelaxMetrics metrics;
 
     public LayoutStateChangeEvent(LayoutModel layoutModel, boolean active) {
+      this(layoutModel, active, null);
+    }
+
+    public LayoutStateChangeEvent(LayoutModel layoutModel, boolean active, RelaxMetrics metrics) {
       this.layoutModel = layoutModel;
       this.active = active;
+      this.metrics = metrics;
     }
 
     @Override
     public String toString() {
-      return "LayoutStateChangeEvent{" + "layoutModel=" + layoutModel + ", active=" + active + '}';
+      return "LayoutStateChangeEvent{"
+          + "layoutModel="
+          + layoutModel
+          + ", active="
+          + active
+          + ", metrics="
+          + metrics
+          + '}';
     }
   }
 
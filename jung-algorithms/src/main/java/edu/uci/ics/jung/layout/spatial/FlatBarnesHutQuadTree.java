@@ -0,0 +1,377 @@
+package edu.uci.ics.jung.layout.spatial;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+
+/**
+ * An array-backed Barnes-Hut quad tree over a set of bodies, each identified by its index in the
+ * coordinate arrays passed to {@link #rebuild(double[], double[], int)}. It computes the same
+ * approximation as {@link BarnesHutQuadTree}, but stores its cells in flat primitive arrays that
+ * are reused from one rebuild to the next, inserts bodies without locking, computes the centers of
+ * mass in a single bottom-up pass, and visits the tree iteratively, following a precomputed link
+ * from each cell to the cell that follows its subtree rather than keeping a stack; once the arrays
+ * have grown to fit the graph, neither rebuilding nor visiting the tree allocates any objects.
+ *
+ * <p>A cell is approximated by its center of mass when its width divided by the distance from the
+ * visiting body to that center of mass is less than the tree's <i>theta</i>, which defaults to
+ * {@link #DEFAULT_THETA}; smaller values are more accurate and slower.
+ *
+ * <p>Once it has been rebuilt, the tree may be visited by any number of threads at once, but it
+ * must not be rebuilt while it is being visited.
+ */
+public class FlatBarnesHutQuadTree {
+
+  /**
+   * Receives the forces gathered by {@link #applyForcesTo(int, double, double, ForceAccumulator)};
+   * implementations typically sum the force exerted by each mass into fields of their own.
+   */
+  public interface ForceAccumulator {
+    /**
+     * Adds the force exerted by a body (or a cell of bodies) of the specified mass whose center of
+     * mass is at {@code (x, y)}.
+     *
+     * @param x the x coordinate of the center of mass
+     * @param y the y coordinate of the center of mass
+     * @param mass the mass (the sum of the masses of the bodies)
+     */
+    void addForceFrom(double x, double y, double mass);
+  }
+
+  /** The default value of theta, as used by {@link BarnesHutQuadTree}. */
+  public static final double DEFAULT_THETA = Node.THETA;
+
+  // bodies that are still distinct at this depth are treated as coincident, which bounds the
+  // height of the tree
+  private static final int MAX_DEPTH = 64;
+  private static final int INITIAL_CAPACITY = 64;
+  private static final int NO_CHILDREN = -1;
+  private static final int EMPTY = -1;
+  private static final int NONE = -1;
+  // a leaf holding more than one coincident body
+  private static final int MERGED = -2;
+
+  private final Rectangle bounds;
+  private double theta = DEFAULT_THETA;
+
+  private int cellCount;
+  private int bodyCount;
+  // the bounds of each cell
+  private double[] cellX;
+  private double[] cellY;
+  private double[] cellWidth;
+  private double[] cellHeight;
+  // the index of the first of the 4 children (NW, NE, SW, SE) of each cell, or NO_CHILDREN
+  private int[] firstChild;
+  // the cell to visit after the subtree of each cell, or NONE
+  private int[] next;
+  // for leaves: the body in the cell, EMPTY, or MERGED
+  private int[] body;
+  private double[] mass;
+  private double[] centerX;
+  private double[] centerY;
+  // the leaf that holds each body, and the mass of each body
+  private int[] leafOf = new int[0];
+  private double[] bodyMass = new double[0];
+
+  public FlatBarnesHutQuadTree(double width, double height) {
+    this(new Rectangle(0, 0, width, height));
+  }
+
+  public FlatBarnesHutQuadTree(Rectangle bounds) {
+    this.bounds = Preconditions.checkNotNull(bounds);
+    allocate(INITIAL_CAPACITY);
+    clear();
+  }
+
+  /** @return the bounds of the root cell of this tree */
+  public Rectangle getBounds() {
+    return bounds;
+  }
+
+  /** @return the ratio of cell width to distance below which a cell is approximated */
+  public double getTheta() {
+    return theta;
+  }
+
+  /**
+   * @param theta the ratio of cell width to distance below which a cell is approximated by its
+   *     center of mass; 0 visits every body
+   */
+  public void setTheta(double theta) {
+    Preconditions.checkArgument(theta >= 0, "theta must be non-negative");
+    this.theta = theta;
+  }
+
+  /** @return the number of bodies in this tree */
+  public int size() {
+    return bodyCount;
+  }
+
+  /** @return the number of cells (inner nodes and leaves) in this tree */
+  public int cellCount() {
+    return cellCount;
+  }
+
+  /** @return the total mass of the bodies in this tree */
+  public double getMass() {
+    return mass[0];
+  }
+
+  /** @return the x coordinate of the center of mass of the bodies in this tree */
+  public double getCenterX() {
+    return centerX[0];
+  }
+
+  /** @return the y coordinate of the center of mass of the bodies in this tree */
+  public double getCenterY() {
+    return centerY[0];
+  }
+
+  /** Removes all bodies from this tree, retaining its storage. */
+  public void clear() {
+    cellCount = 0;
+    bodyCount = 0;
+    newCell(bounds.x, bounds.y, bounds.width, bounds.height);
+  }
+
+  /**
+   * Rebuilds this tree to hold the bodies <code>0, ..., count - 1</code>, where body {@code i} is
+   * at {@code (x[i], y[i])}, each with a mass of 1. Bodies outside the bounds of the tree are
+   * placed in the nearest cell.
+   *
+   * @param x the x coordinates of the bodies
+   * @param y the y coordinates of the bodies
+   * @param count the number of bodies
+   */
+  public void rebuild(double[] x, double[] y, int count) {
+    rebuild(x, y, null, count);
+  }
+
+  /**
+   * Rebuilds this tree to hold the bodies <code>0, ..., count - 1</code>, where body {@code i} is
+   * at {@code (x[i], y[i])} and has a mass of {@code mass[i]}. Bodies outside the bounds of the
+   * tree are placed in the nearest cell.
+   *
+   * @param x the x coordinates of the bodies
+   * @param y the y coordinates of the bodies
+   * @param mass the (positive) masses of the bodies, or null if each has a mass of 1
+   * @param count the number of bodies
+   */
+  public void rebuild(double[] x, double[] y, double[] mass, int count) {
+    Preconditions.checkArgument(
+        count <= x.length && count <= y.length, "count exceeds the length of the coordinates");
+    Preconditions.checkArgument(
+        mass == null || count <= mass.length, "count exceeds the length of the masses");
+    clear();
+    if (bodyMass.length < count) {
+      bodyMass = new double[count];
+    }
+    for (int i = 0; i < count; i++) {
+      double m = mass == null ? 1 : mass[i];
+      Preconditions.checkArgument(m > 0, "the mass of body %s is not positive", i);
+      bodyMass[i] = m;
+      insert(i, x[i], y[i], m);
+    }
+    bodyCount = count;
+    if (leafOf.length < count) {
+      leafOf = new int[count];
+    }
+    for (int i = 0; i < count; i++) {
+      int c = 0;
+      while (firstChild[c] != NO_CHILDREN) {
+        c = quadrant(c, x[i], y[i]);
+      }
+      leafOf[i] = c;
+    }
+    // children are always created after their parent, so a reverse scan visits each cell after
+    // all of its descendants
+    for (int c = cellCount - 1; c >= 0; c--) {
+      int first = firstChild[c];
+      if (first == NO_CHILDREN) {
+        continue;
+      }
+      double m = 0;
+      double sumX = 0;
+      double sumY = 0;
+      for (int k = first; k < first + 4; k++) {
+        m += this.mass[k];
+        sumX += centerX[k] * this.mass[k];
+        sumY += centerY[k] * this.mass[k];
+      }
+      this.mass[c] = m;
+      centerX[c] = sumX / m;
+      centerY[c] = sumY / m;
+    }
+  }
+
+  private void insert(int b, double bx, double by, double m) {
+    int c = 0;
+    for (int depth = 0; ; depth++) {
+      if (firstChild[c] != NO_CHILDREN) {
+        c = quadrant(c, bx, by);
+        continue;
+      }
+      if (body[c] == EMPTY) {
+        body[c] = b;
+        mass[c] = m;
+        centerX[c] = bx;
+        centerY[c] = by;
+        return;
+      }
+      if ((centerX[c] == bx && centerY[c] == by) || depth >= MAX_DEPTH) {
+        // coincident bodies share a leaf
+        centerX[c] = (centerX[c] * mass[c] + bx * m) / (mass[c] + m);
+        centerY[c] = (centerY[c] * mass[c] + by * m) / (mass[c] + m);
+        mass[c] += m;
+        body[c] = MERGED;
+        return;
+      }
+      // split the leaf, move its resident into the proper quadrant, and continue down with b
+      int resident = body[c];
+      double residentMass = mass[c];
+      double residentX = centerX[c];
+      double residentY = centerY[c];
+      split(c);
+      int q = quadrant(c, residentX, residentY);
+      body[q] = resident;
+      mass[q] = residentMass;
+      centerX[q] = residentX;
+      centerY[q] = residentY;
+      c = quadrant(c, bx, by);
+    }
+  }
+
+  // the child of inner cell c that contains (x, y); boundaries belong to the north and west
+  private int quadrant(int c, double x, double y) {
+    double halfWidth = cellWidth[c] / 2;
+    double halfHeight = cellHeight[c] / 2;
+    int q = firstChild[c];
+    if (x > cellX[c] + halfWidth) {
+      q += 1;
+    }
+    if (y > cellY[c] + halfHeight) {
+      q += 2;
+    }
+    return q;
+  }
+
+  private void split(int c) {
+    double width = cellWidth[c] / 2;
+    double height = cellHeight[c] / 2;
+    double x = cellX[c];
+    double y = cellY[c];
+    body[c] = EMPTY;
+    firstChild[c] = newCell(x, y, width, height); // NW
+    newCell(x + width, y, width, height); // NE
+    newCell(x, y + height, width, height); // SW
+    newCell(x + width, y + height, width, height); // SE
+    // the subtree of each child is followed by its next sibling, or, for the last child, by
+    // whatever follows the subtree of c
+    int first = firstChild[c];
+    next[first] = first + 1;
+    next[first + 1] = first + 2;
+    next[first + 2] = first + 3;
+    next[first + 3] = next[c];
+  }
+
+  private int newCell(double x, double y, double width, double height) {
+    if (cellCount == firstChild.length) {
+      allocate(2 * cellCount);
+    }
+    int c = cellCount++;
+    cellX[c] = x;
+    cellY[c] = y;
+    cellWidth[c] = width;
+    cellHeight[c] = height;
+    firstChild[c] = NO_CHILDREN;
+    next[c] = NONE;
+    body[c] = EMPTY;
+    mass[c] = 0;
+    centerX[c] = 0;
+    centerY[c] = 0;
+    return c;
+  }
+
+  private void allocate(int capacity) {
+    if (firstChild == null) {
+      cellX = new double[capacity];
+      cellY = new double[capacity];
+      cellWidth = new double[capacity];
+      cellHeight = new double[capacity];
+      firstChild = new int[capacity];
+      next = new int[capacity];
+      body = new int[capacity];
+      mass = new double[capacity];
+      centerX = new double[capacity];
+      centerY = new double[capacity];
+    } else {
+      cellX = Arrays.copyOf(cellX, capacity);
+      cellY = Arrays.copyOf(cellY, capacity);
+      cellWidth = Arrays.copyOf(cellWidth, capacity);
+      cellHeight = Arrays.copyOf(cellHeight, capacity);
+      firstChild = Arrays.copyOf(firstChild, capacity);
+      next = Arrays.copyOf(next, capacity);
+      body = Arrays.copyOf(body, capacity);
+      mass = Arrays.copyOf(mass, capacity);
+      centerX = Arrays.copyOf(centerX, capacity);
+      centerY = Arrays.copyOf(centerY, capacity);
+    }
+  }
+
+  /**
+   * Passes to {@code accumulator} the forces on body {@code b}, at {@code (x, y)}, from all of the
+   * other bodies in the tree, approximating distant cells by their centers of mass.
+   *
+   * @param b the index of the body on which the forces act
+   * @param x the x coordinate of the body
+   * @param y the y coordinate of the body
+   * @param accumulator the recipient of the forces
+   */
+  public void applyForcesTo(int b, double x, double y, ForceAccumulator accumulator) {
+    Preconditions.checkNotNull(accumulator, "accumulator");
+    // visits the children of each cell in the order NW, NE, SW, SE
+    int c = 0;
+    while (c != NONE) {
+      int first = firstChild[c];
+      if (mass[c] == 0) {
+        c = next[c];
+      } else if (first == NO_CHILDREN) {
+        if (b < 0 || b >= bodyCount || leafOf[b] != c) {
+          accumulator.addForceFrom(centerX[c], centerY[c], mass[c]);
+        } else if (body[c] == MERGED) {
+          // the other bodies merged into the leaf of b are coincident with it, up to the size of
+          // the leaf, so their center of mass is that of the leaf
+          accumulator.addForceFrom(centerX[c], centerY[c], mass[c] - bodyMass[b]);
+        }
+        c = next[c];
+      } else {
+        double dx = centerX[c] - x;
+        double dy = centerY[c] - y;
+        double d = Math.sqrt(dx * dx + dy * dy);
+        if (cellWidth[c] / d < theta) {
+          accumulator.addForceFrom(centerX[c], centerY[c], mass[c]);
+          c = next[c];
+        } else {
+          c = first;
+        }
+      }
+    }
+  }
+
+  /**
+   * Passes to {@code accumulator} the forces on a point at {@code (x, y)} from all of the bodies in
+   * the tree, approximating distant cells by their centers of mass.
+   *
+   * @param x the x coordinate of the point
+   * @param y the y coordinate of the point
+   * @param accumulator the recipient of the forces
+   */
+  public void applyForcesTo(double x, double y, ForceAccumulator accumulator) {
+    applyForcesTo(EMPTY, x, y, accumulator);
+  }
+
+  @Override
+  public String toString() {
+    return "FlatBarnesHutQuadTree{bodies=" + bodyCount + ", cells=" + cellCount + "}";
+  }
+}
@@ -0,0 +1,37 @@
+package edu.uci.ics.jung.layout.util;
+
+import com.google.common.collect.ImmutableMap;
+import edu.uci.ics.jung.layout.model.Point;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * an event with information about a batch of nodes that have moved together (for example, in one
+ * step of a layout relaxation), and their new locations. A node appears at most once in a batch,
+ * with its latest location.
+ *
+ * @param <N>
+ */
+public class LayoutBatchEvent<N> {
+
+  final Map<N, Point> locations;
+
+  public LayoutBatchEvent(Map<N, Point> locations) {
+    this.locations = ImmutableMap.copyOf(locations);
+  }
+
+  /** @return the new locations of the moved nodes, in the order in which they were first moved */
+  public Map<N, Point> getLocations() {
+    return locations;
+  }
+
+  /** @return the nodes that moved */
+  public Set<N> getNodes() {
+    return locations.keySet();
+  }
+
+  /** @return the number of nodes that moved */
+  public int size() {
+    return locations.size();
+  }
+}
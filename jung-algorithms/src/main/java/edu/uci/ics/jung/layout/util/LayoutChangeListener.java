@@ -1,5 +1,8 @@
 package edu.uci.ics.jung.layout.util;
 
+import edu.uci.ics.jung.layout.model.Point;
+import java.util.Map;
+
 /**
  * interface for support for LayoutEvents
  *
@@ -10,4 +13,17 @@ public interface LayoutChangeListener<N> {
   void layoutChanged(LayoutEvent<N> evt);
 
   void layoutChanged(LayoutNetworkEvent<N> evt);
+
+  /**
+   * Called once for a batch of nodes that moved together. By default, each move in the batch is
+   * passed to {@link #layoutChanged(LayoutEvent)}; listeners that can update themselves in bulk
+   * should override this.
+   *
+   * @param evt the batch of moved nodes
+   */
+  default void layoutChanged(LayoutBatchEvent<N> evt) {
+    for (Map.Entry<N, Point> entry : evt.getLocations().entrySet()) {
+      layoutChanged(new LayoutEvent<>(entry.getKey(), entry.getValue()));
+    }
+  }
 }
@@ -0,0 +1,102 @@
+package edu.uci.ics.jung.layout.util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import edu.uci.ics.jung.layout.model.Point;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * A LayoutChangeListener that collects the LayoutEvents (and LayoutBatchEvents) that it receives
+ * and passes them on to its own listeners as a single {@link LayoutBatchEvent}, keeping only the
+ * latest location of each node. The first event after a flush schedules the next flush on the flush
+ * {@code Executor}; with an Executor that runs tasks on the event dispatch thread (such as {@code
+ * SwingUtilities::invokeLater}), the events of any number of layout steps are delivered once per
+ * frame, on that thread.
+ *
+ * @param <N> the node type
+ */
+public class LayoutEventCoalescer<N> implements LayoutChangeListener<N>, LayoutEventSupport<N> {
+
+  private final Executor flushExecutor;
+  private final List<LayoutChangeListener<N>> layoutChangeListeners =
+      Lists.newCopyOnWriteArrayList();
+  // the moves received since the last flush, guarded by this
+  private Map<N, Point> pending = new LinkedHashMap<>();
+  private boolean flushScheduled;
+
+  /** @param flushExecutor runs the flushes of the collected events */
+  public LayoutEventCoalescer(Executor flushExecutor) {
+    this.flushExecutor = Preconditions.checkNotNull(flushExecutor, "flushExecutor");
+  }
+
+  @Override
+  public void addLayoutChangeListener(LayoutChangeListener<N> listener) {
+    layoutChangeListeners.add(listener);
+  }
+
+  @Override
+  public void removeLayoutChangeListener(LayoutChangeListener<N> listener) {
+    layoutChangeListeners.remove(listener);
+  }
+
+  @Override
+  public void layoutChanged(LayoutEvent<N> evt) {
+    boolean schedule;
+    synchronized (this) {
+      pending.put(evt.getNode(), evt.getLocation());
+      schedule = scheduleFlush();
+    }
+    if (schedule) {
+      flushExecutor.execute(this::flush);
+    }
+  }
+
+  @Override
+  public void layoutChanged(LayoutNetworkEvent<N> evt) {
+    layoutChanged((LayoutEvent<N>) evt);
+  }
+
+  @Override
+  public void layoutChanged(LayoutBatchEvent<N> evt) {
+    boolean schedule;
+    synchronized (this) {
+      pending.putAll(evt.getLocations());
+      schedule = scheduleFlush();
+    }
+    if (schedule) {
+      flushExecutor.execute(this::flush);
+    }
+  }
+
+  // returns true if a flush must be scheduled for the events just added
+  private boolean scheduleFlush() {
+    if (flushScheduled) {
+      return false;
+    }
+    flushScheduled = true;
+    return true;
+  }
+
+  /**
+   * Delivers the events collected since the last flush, if any, to the listeners as one
+   * LayoutBatchEvent. Normally called by the flush Executor, but may be called directly.
+   */
+  public void flush() {
+    Map<N, Point> moved;
+    synchronized (this) {
+      flushScheduled = false;
+      if (pending.isEmpty()) {
+        return;
+      }
+      moved = pending;
+      pending = new LinkedHashMap<>();
+    }
+    LayoutBatchEvent<N> batchEvent = new LayoutBatchEvent<>(moved);
+    for (LayoutChangeListener<N> listener : layoutChangeListeners) {
+      listener.layoutChanged(batchEvent);
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package edu.uci.ics.jung.layout.util;
+
+/**
+ * Timing measurements of the relaxation of a layout by a {@link VisRunnable}: how many steps were
+ * taken, how long they took, and how long the relaxation took from start to finish, including the
+ * pauses imposed by its {@link RelaxPolicy}. Instances are immutable snapshots.
+ */
+public final class RelaxMetrics {
+
+  private final long stepCount;
+  private final long stepNanos;
+  private final long maxStepNanos;
+  private final long elapsedNanos;
+  private final boolean completed;
+
+  public RelaxMetrics(
+      long stepCount, long stepNanos, long maxStepNanos, long elapsedNanos, boolean completed) {
+    this.stepCount = stepCount;
+    this.stepNanos = stepNanos;
+    this.maxStepNanos = maxStepNanos;
+    this.elapsedNanos = elapsedNanos;
+    this.completed = completed;
+  }
+
+  /** @return the number of steps taken */
+  public long getStepCount() {
+    return stepCount;
+  }
+
+  /** @return the total time spent in steps, in nanoseconds */
+  public long getStepNanos() {
+    return stepNanos;
+  }
+
+  /** @return the time taken by the longest step, in nanoseconds */
+  public long getMaxStepNanos() {
+    return maxStepNanos;
+  }
+
+  /** @return the mean time taken by a step, in nanoseconds, or 0 if no steps were taken */
+  public double getMeanStepNanos() {
+    return stepCount == 0 ? 0 : (double) stepNanos / stepCount;
+  }
+
+  /** @return the wall-clock time from the start of the relaxation to its end, in nanoseconds */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * @return true if the relaxation ended because the layout algorithm was done, false if it was
+   *     stopped
+   */
+  public boolean isCompleted() {
+    return completed;
+  }
+
+  @Override
+  public String toString() {
+    return "RelaxMetrics{"
+        + "stepCount="
+        + stepCount
+        + ", stepNanos="
+        + stepNanos
+        + ", maxStepNanos="
+        + maxStepNanos
+        + ", elapsedNanos="
+        + elapsedNanos
+        + ", completed="
+        + completed
+        + '}';
+  }
+}
@@ -0,0 +1,100 @@
+package edu.uci.ics.jung.layout.util;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Determines how a {@link VisRunnable} paces the steps of an iterative layout algorithm. Use one of
+ * the static factory methods:
+ *
+ * <ul>
+ *   <li>{@link #fixedDelay(long)}: pause for a fixed time after each step; this is the default,
+ *       with a delay of 10 ms, and leaves time for a view to paint each step
+ *   <li>{@link #runToCompletion()}: step without pausing until the algorithm is done, for layouts
+ *       computed off screen
+ *   <li>{@link #frameBudget(long, long)}: in each frame, step for at most a budgeted time, then
+ *       pause until the end of the frame
+ *   <li>{@link #fixedRate(long)}: start a step at a fixed interval, pausing for whatever part of
+ *       the interval the step did not take
+ * </ul>
+ */
+public final class RelaxPolicy {
+
+  enum Mode {
+    FIXED_DELAY,
+    RUN_TO_COMPLETION,
+    FRAME_BUDGET,
+    FIXED_RATE
+  }
+
+  private static final RelaxPolicy DEFAULT = fixedDelay(10);
+
+  final Mode mode;
+  // the delay, frame or rate period, in nanoseconds
+  final long periodNanos;
+  // the time that may be spent stepping in each frame, in nanoseconds
+  final long budgetNanos;
+
+  private RelaxPolicy(Mode mode, long periodNanos, long budgetNanos) {
+    this.mode = mode;
+    this.periodNanos = periodNanos;
+    this.budgetNanos = budgetNanos;
+  }
+
+  /** @return the default policy, a fixed delay of 10 ms after each step */
+  public static RelaxPolicy defaultPolicy() {
+    return DEFAULT;
+  }
+
+  /**
+   * @param delayMs the time, in milliseconds, to pause after each step
+   * @return a policy that pauses for a fixed time after each step
+   */
+  public static RelaxPolicy fixedDelay(long delayMs) {
+    Preconditions.checkArgument(delayMs >= 0, "delayMs must be non-negative");
+    return new RelaxPolicy(Mode.FIXED_DELAY, TimeUnit.MILLISECONDS.toNanos(delayMs), 0);
+  }
+
+  /** @return a policy that steps without pausing until the algorithm is done */
+  public static RelaxPolicy runToCompletion() {
+    return new RelaxPolicy(Mode.RUN_TO_COMPLETION, 0, 0);
+  }
+
+  /**
+   * @param budgetMs the time, in milliseconds, that may be spent stepping in each frame; a step
+   *     that is started within the budget is always completed
+   * @param frameMs the length of a frame, in milliseconds
+   * @return a policy that steps for at most {@code budgetMs} in each frame of {@code frameMs}
+   */
+  public static RelaxPolicy frameBudget(long budgetMs, long frameMs) {
+    Preconditions.checkArgument(budgetMs > 0, "budgetMs must be positive");
+    Preconditions.checkArgument(frameMs >= budgetMs, "frameMs must be at least budgetMs");
+    return new RelaxPolicy(
+        Mode.FRAME_BUDGET,
+        TimeUnit.MILLISECONDS.toNanos(frameMs),
+        TimeUnit.MILLISECONDS.toNanos(budgetMs));
+  }
+
+  /**
+   * @param periodMs the interval, in milliseconds, between the starts of successive steps; if a
+   *     step takes longer than this, the next one starts at once, and the schedule is not caught up
+   *     afterwards
+   * @return a policy that starts a step every {@code periodMs}
+   */
+  public static RelaxPolicy fixedRate(long periodMs) {
+    Preconditions.checkArgument(periodMs > 0, "periodMs must be positive");
+    return new RelaxPolicy(Mode.FIXED_RATE, TimeUnit.MILLISECONDS.toNanos(periodMs), 0);
+  }
+
+  @Override
+  public String toString() {
+    return "RelaxPolicy{"
+        + "mode="
+        + mode
+        + ", periodNanos="
+        + periodNanos
+        + ", budgetNanos="
+        + budgetNanos
+        + '}';
+  }
+}
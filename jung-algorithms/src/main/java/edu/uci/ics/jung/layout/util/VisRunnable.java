@@ -1,12 +1,15 @@
 package edu.uci.ics.jung.layout.util;
 
+import com.google.common.base.Preconditions;
 import edu.uci.ics.jung.algorithms.util.IterativeContext;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * a {@code Runnable} object to pass to the {@code Thread} that will perform the relax function on a
- * graph layout
+ * graph layout. The steps are paced according to a {@link RelaxPolicy}, and timed; the timings are
+ * available from {@link #getMetrics()}.
  *
  * @author Tom Nelson
  */
@@ -14,12 +17,26 @@ public class VisRunnable implements Runnable {
 
   private static final Logger log = LoggerFactory.getLogger(VisRunnable.class);
   private final IterativeContext iterativeContext;
-  private long sleepTime = 10;
-  private boolean stop = false;
+  private final RelaxPolicy policy;
+  private volatile boolean stop = false;
+
+  // timings, guarded by this
+  private boolean started;
+  private boolean ended;
+  private long startNanos;
+  private long endNanos;
+  private long stepCount;
+  private long stepNanos;
+  private long maxStepNanos;
 
   public VisRunnable(IterativeContext iterativeContext) {
+    this(iterativeContext, RelaxPolicy.defaultPolicy());
+  }
+
+  public VisRunnable(IterativeContext iterativeContext, RelaxPolicy policy) {
     log.trace("created a VisRunnable {} for {}", hashCode(), iterativeContext);
     this.iterativeContext = iterativeContext;
+    this.policy = Preconditions.checkNotNull(policy, "policy");
   }
 
   public void stop() {
@@ -29,16 +46,50 @@ public class VisRunnable implements Runnable {
 
   @Override
   public void run() {
+    long now = System.nanoTime();
+    synchronized (this) {
+      started = true;
+      startNanos = now;
+    }
+    long frameStart = now;
     while (!iterativeContext.done() && !stop) {
+      long stepStart = System.nanoTime();
       try {
         iterativeContext.step();
-        try {
-          Thread.sleep(sleepTime);
-        } catch (InterruptedException ex) {
-        }
       } catch (Exception ex) {
         ex.printStackTrace();
       }
+      long stepEnd = System.nanoTime();
+      recordStep(stepEnd - stepStart);
+
+      long pause = 0;
+      boolean endOfFrame = false;
+      switch (policy.mode) {
+        case FIXED_DELAY:
+          pause = policy.periodNanos;
+          break;
+        case RUN_TO_COMPLETION:
+          break;
+        case FRAME_BUDGET:
+          if (stepEnd - frameStart >= policy.budgetNanos) {
+            pause = policy.periodNanos - (stepEnd - frameStart);
+            endOfFrame = true;
+          }
+          break;
+        case FIXED_RATE:
+          pause = policy.periodNanos - (stepEnd - stepStart);
+          break;
+      }
+      if (pause > 0 && !pause(pause)) {
+        break;
+      }
+      if (endOfFrame) {
+        frameStart = System.nanoTime();
+      }
+    }
+    synchronized (this) {
+      ended = true;
+      endNanos = System.nanoTime();
     }
     if (iterativeContext.done()) {
       log.trace("done here because {} is done", hashCode());
@@ -47,4 +98,32 @@ public class VisRunnable implements Runnable {
       log.trace("done here because {} stop = {}", hashCode(), stop);
     }
   }
+
+  // returns false if the thread was interrupted while pausing
+  private boolean pause(long nanos) {
+    try {
+      TimeUnit.NANOSECONDS.sleep(nanos);
+      return true;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private synchronized void recordStep(long nanos) {
+    stepCount++;
+    stepNanos += nanos;
+    maxStepNanos = Math.max(maxStepNanos, nanos);
+  }
+
+  /**
+   * @return the timings of the steps taken so far; the elapsed time is measured up to now if the
+   *     relaxation is still running
+   */
+  public synchronized RelaxMetrics getMetrics() {
+    long end = ended ? endNanos : System.nanoTime();
+    long elapsed = started ? end - startNanos : 0;
+    return new RelaxMetrics(
+        stepCount, stepNanos, maxStepNanos, elapsed, ended && iterativeContext.done());
+  }
 }
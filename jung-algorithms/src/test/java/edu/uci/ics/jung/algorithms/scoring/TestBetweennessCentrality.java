@@ -10,6 +10,10 @@ package edu.uci.ics.jung.algorithms.scoring;
 
 import com.google.common.graph.MutableNetwork;
 import com.google.common.graph.NetworkBuilder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 import junit.framework.TestCase;
 
@@ -125,4 +129,104 @@ public class TestBetweennessCentrality extends TestCase {
     //    				edge_weights.apply(e), bc.getEdgeScore(e)));
     //    	}
   }
+
+  public void testWeightedShorterPathFoundLater() {
+    MutableNetwork<Integer, Character> graph = NetworkBuilder.directed().build();
+    graph.addEdge(0, 1, 'a');
+    graph.addEdge(1, 2, 'b');
+    graph.addEdge(0, 2, 'c');
+    graph.addEdge(2, 3, 'd');
+
+    // the path 0-2 is found first, and then the shorter path 0-1-2
+    final int weights[] = {1, 1, 5, 1};
+    BetweennessCentrality<Integer, Character> bc =
+        new BetweennessCentrality<Integer, Character>(graph, e -> weights[e - 'a']);
+
+    assertEquals(0.0, bc.getNodeScore(0), 1.0e-9);
+    assertEquals(2.0, bc.getNodeScore(1), 1.0e-9);
+    assertEquals(2.0, bc.getNodeScore(2), 1.0e-9);
+    assertEquals(0.0, bc.getNodeScore(3), 1.0e-9);
+    assertEquals(3.0, bc.getEdgeScore('a'), 1.0e-9);
+    assertEquals(0.0, bc.getEdgeScore('c'), 1.0e-9);
+  }
+
+  public void testParallelUnweighted() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (boolean directed : new boolean[] {true, false}) {
+        MutableNetwork<Integer, Integer> graph = createRandomGraph(directed, 60, 240, 1L);
+        assertSameScores(
+            graph,
+            new BetweennessCentrality<Integer, Integer>(graph),
+            new BetweennessCentrality<Integer, Integer>(graph, pool));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  public void testParallelWeighted() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (boolean directed : new boolean[] {true, false}) {
+        MutableNetwork<Integer, Integer> graph = createRandomGraph(directed, 60, 240, 2L);
+        Random random = new Random(3L);
+        Map<Integer, Integer> weights = new HashMap<Integer, Integer>();
+        for (Integer e : graph.edges()) {
+          weights.put(e, 1 + random.nextInt(4));
+        }
+        assertSameScores(
+            graph,
+            new BetweennessCentrality<Integer, Integer>(graph, weights::get),
+            new BetweennessCentrality<Integer, Integer>(graph, weights::get, pool));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  public void testParallelIsDeterministic() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      MutableNetwork<Integer, Integer> graph = createRandomGraph(false, 200, 800, 4L);
+      BetweennessCentrality<Integer, Integer> first =
+          new BetweennessCentrality<Integer, Integer>(graph, pool);
+      for (int run = 0; run < 5; run++) {
+        BetweennessCentrality<Integer, Integer> next =
+            new BetweennessCentrality<Integer, Integer>(graph, pool);
+        assertEquals(first.nodeScores(), next.nodeScores());
+        assertEquals(first.edgeScores(), next.edgeScores());
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static MutableNetwork<Integer, Integer> createRandomGraph(
+      boolean directed, int nodeCount, int edgeCount, long seed) {
+    MutableNetwork<Integer, Integer> graph =
+        directed
+            ? NetworkBuilder.directed().allowsParallelEdges(true).allowsSelfLoops(true).build()
+            : NetworkBuilder.undirected().allowsParallelEdges(true).allowsSelfLoops(true).build();
+    Random random = new Random(seed);
+    for (int i = 0; i < nodeCount; i++) {
+      graph.addNode(i);
+    }
+    for (int e = 0; e < edgeCount; e++) {
+      graph.addEdge(random.nextInt(nodeCount), random.nextInt(nodeCount), e);
+    }
+    return graph;
+  }
+
+  private static void assertSameScores(
+      MutableNetwork<Integer, Integer> graph,
+      BetweennessCentrality<Integer, Integer> serial,
+      BetweennessCentrality<Integer, Integer> parallel) {
+    for (Integer v : graph.nodes()) {
+      assertEquals(serial.getNodeScore(v), parallel.getNodeScore(v), 1.0e-9);
+    }
+    for (Integer e : graph.edges()) {
+      assertEquals(serial.getEdgeScore(e), parallel.getEdgeScore(e), 1.0e-9);
+    }
+  }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.scoring;
+
+import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.graph.ObservableNetwork;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import junit.framework.TestCase;
+
+public class TestIncrementalPageRank extends TestCase {
+  private static final double ALPHA = 0.15;
+
+  private ObservableNetwork<Integer, Integer> createRandomGraph(
+      boolean directed, int nodeCount, int edgeCount, Random random) {
+    ObservableNetwork<Integer, Integer> graph =
+        new ObservableNetwork<Integer, Integer>(
+            directed
+                ? NetworkBuilder.directed().allowsParallelEdges(true).allowsSelfLoops(true).build()
+                : NetworkBuilder.undirected()
+                    .allowsParallelEdges(true)
+                    .allowsSelfLoops(true)
+                    .build());
+    for (int i = 0; i < nodeCount; i++) {
+      graph.addNode(i);
+    }
+    for (int e = 0; e < edgeCount; e++) {
+      graph.addEdge(random.nextInt(nodeCount), random.nextInt(nodeCount), e);
+    }
+    return graph;
+  }
+
+  private static void assertMatchesPageRank(
+      ObservableNetwork<Integer, Integer> graph,
+      IncrementalPageRank<Integer, Integer> incremental) {
+    PageRank<Integer, Integer> expected = new PageRank<Integer, Integer>(graph, ALPHA);
+    expected.setTolerance(1.0e-13);
+    expected.setMaxIterations(1000);
+    expected.evaluate();
+    assertEquals(graph.nodes(), incremental.nodeScores().keySet());
+    for (Integer v : graph.nodes()) {
+      assertEquals(expected.getNodeScore(v), incremental.getNodeScore(v), 1.0e-7);
+    }
+  }
+
+  public void testInitialScores() {
+    for (boolean directed : new boolean[] {true, false}) {
+      ObservableNetwork<Integer, Integer> graph =
+          createRandomGraph(directed, 100, 250, new Random(1L));
+      IncrementalPageRank<Integer, Integer> incremental =
+          new IncrementalPageRank<Integer, Integer>(graph, ALPHA);
+      assertMatchesPageRank(graph, incremental);
+    }
+  }
+
+  public void testMutations() {
+    for (boolean directed : new boolean[] {true, false}) {
+      Random random = new Random(2L);
+      ObservableNetwork<Integer, Integer> graph = createRandomGraph(directed, 100, 250, random);
+      IncrementalPageRank<Integer, Integer> incremental =
+          new IncrementalPageRank<Integer, Integer>(graph, ALPHA);
+
+      int nextEdge = 1000;
+      int nextNode = 1000;
+      for (int round = 0; round < 20; round++) {
+        List<Integer> nodes = new ArrayList<Integer>(graph.nodes());
+        List<Integer> edges = new ArrayList<Integer>(graph.edges());
+        switch (round % 4) {
+          case 0:
+            graph.addEdge(
+                nodes.get(random.nextInt(nodes.size())),
+                nodes.get(random.nextInt(nodes.size())),
+                nextEdge++);
+            break;
+          case 1:
+            graph.removeEdge(edges.get(random.nextInt(edges.size())));
+            break;
+          case 2:
+            // adds a node implicitly, without a NODE_ADDED event
+            graph.addEdge(nodes.get(random.nextInt(nodes.size())), nextNode++, nextEdge++);
+            graph.addNode(nextNode++);
+            break;
+          default:
+            graph.removeNode(nodes.get(random.nextInt(nodes.size())));
+            break;
+        }
+        incremental.evaluate();
+        assertMatchesPageRank(graph, incremental);
+      }
+    }
+  }
+
+  public void testWarmStart() {
+    ObservableNetwork<Integer, Integer> graph = createRandomGraph(true, 200, 800, new Random(3L));
+    PageRank<Integer, Integer> pageRank = new PageRank<Integer, Integer>(graph, ALPHA);
+    pageRank.setTolerance(1.0e-13);
+    pageRank.setMaxIterations(1000);
+    pageRank.evaluate();
+
+    IncrementalPageRank<Integer, Integer> incremental =
+        new IncrementalPageRank<Integer, Integer>(graph, ALPHA, pageRank.nodeScores());
+    // scores that are already converged need (almost) no further work
+    assertTrue(incremental.getPushCount() < graph.nodes().size());
+    assertMatchesPageRank(graph, incremental);
+
+    graph.addEdge(0, 1, 10000);
+    incremental.evaluate();
+    assertMatchesPageRank(graph, incremental);
+  }
+
+  public void testLocalChange() {
+    // in a long directed cycle, the effect of a change dies out within a bounded number of hops
+    int nodeCount = 5000;
+    ObservableNetwork<Integer, Integer> graph =
+        new ObservableNetwork<Integer, Integer>(
+            NetworkBuilder.directed().allowsParallelEdges(true).build());
+    for (int i = 0; i < nodeCount; i++) {
+      graph.addEdge(i, (i + 1) % nodeCount, i);
+    }
+    IncrementalPageRank<Integer, Integer> incremental =
+        new IncrementalPageRank<Integer, Integer>(graph, ALPHA);
+
+    long before = incremental.getPushCount();
+    graph.addEdge(0, nodeCount / 2, nodeCount);
+    incremental.evaluate();
+    assertTrue(incremental.getPushCount() - before < nodeCount / 10);
+    assertMatchesPageRank(graph, incremental);
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.scoring;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.algorithms.scoring.util.ScoringUtils;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import junit.framework.TestCase;
+
+public class TestIndexedPageRank extends TestCase {
+
+  private static MutableNetwork<Integer, Integer> createRandomGraph(
+      boolean directed, int nodeCount, int edgeCount, long seed) {
+    MutableNetwork<Integer, Integer> graph =
+        directed
+            ? NetworkBuilder.directed().allowsParallelEdges(true).allowsSelfLoops(true).build()
+            : NetworkBuilder.undirected().allowsParallelEdges(true).allowsSelfLoops(true).build();
+    Random random = new Random(seed);
+    for (int i = 0; i < nodeCount; i++) {
+      graph.addNode(i);
+    }
+    for (int e = 0; e < edgeCount; e++) {
+      graph.addEdge(random.nextInt(nodeCount), random.nextInt(nodeCount), e);
+    }
+    return graph;
+  }
+
+  public void testPriors() {
+    MutableNetwork<Integer, Integer> graph =
+        NetworkBuilder.directed().allowsParallelEdges(true).build();
+    graph.addEdge(0, 1, 0);
+    graph.addEdge(1, 2, 1);
+    graph.addEdge(2, 3, 2);
+    graph.addEdge(3, 0, 3);
+    graph.addEdge(2, 1, 4);
+
+    IndexedPageRankWithPriors<Integer, Integer> pr =
+        new IndexedPageRankWithPriors<Integer, Integer>(
+            graph, ScoringUtils.getUniformRootPrior(ImmutableSet.of(2)), 0.3);
+    pr.evaluate();
+
+    double[] expected_score = new double[] {0.1157, 0.2463, 0.4724, 0.1653};
+    for (int i = 0; i < expected_score.length; i++) {
+      assertEquals(expected_score[i], pr.getNodeScore(i), pr.getTolerance());
+    }
+  }
+
+  public void testMatchesPageRank() {
+    for (boolean directed : new boolean[] {true, false}) {
+      MutableNetwork<Integer, Integer> graph = createRandomGraph(directed, 200, 500, 1L);
+      PageRank<Integer, Integer> expected = new PageRank<Integer, Integer>(graph, 0.15);
+      expected.setTolerance(1.0e-10);
+      expected.evaluate();
+      IndexedPageRank<Integer, Integer> actual = new IndexedPageRank<Integer, Integer>(graph, 0.15);
+      actual.setTolerance(1.0e-10);
+      actual.evaluate();
+
+      assertEquals(expected.getIterations(), actual.getIterations());
+      for (Integer v : graph.nodes()) {
+        assertEquals(expected.getNodeScore(v), actual.getNodeScore(v), 1.0e-12);
+      }
+    }
+  }
+
+  public void testWeightedMatchesPageRank() {
+    MutableNetwork<Integer, Integer> graph = createRandomGraph(true, 100, 300, 2L);
+    PageRank<Integer, Integer> expected =
+        new PageRank<Integer, Integer>(
+            graph, e -> 1.0 / graph.outDegree(graph.incidentNodes(e).source()), 0.2);
+    expected.evaluate();
+    IndexedPageRank<Integer, Integer> actual =
+        new IndexedPageRank<Integer, Integer>(
+            graph, e -> 1.0 / graph.outDegree(graph.incidentNodes(e).source()), 0.2);
+    actual.evaluate();
+
+    for (Integer v : graph.nodes()) {
+      assertEquals(expected.getNodeScore(v), actual.getNodeScore(v), 1.0e-12);
+    }
+  }
+
+  public void testParallel() {
+    MutableNetwork<Integer, Integer> graph = createRandomGraph(true, 5000, 20000, 3L);
+    IndexedPageRank<Integer, Integer> serial = new IndexedPageRank<Integer, Integer>(graph, 0.15);
+    serial.evaluate();
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      IndexedPageRank<Integer, Integer> parallel =
+          new IndexedPageRank<Integer, Integer>(graph, 0.15);
+      parallel.setForkJoinPool(pool);
+      parallel.evaluate();
+
+      assertEquals(serial.getIterations(), parallel.getIterations());
+      assertEquals(serial.nodeScores(), parallel.nodeScores());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  public void testDisconnectedGraphNotAccepted() {
+    MutableNetwork<Integer, Integer> graph = NetworkBuilder.directed().build();
+    graph.addEdge(0, 1, 0);
+    IndexedPageRank<Integer, Integer> pr = new IndexedPageRank<Integer, Integer>(graph, 0.15);
+    pr.acceptDisconnectedGraph(false);
+    try {
+      pr.step();
+      fail("expected IllegalStateException");
+    } catch (IllegalStateException expected) {
+    }
+  }
+}
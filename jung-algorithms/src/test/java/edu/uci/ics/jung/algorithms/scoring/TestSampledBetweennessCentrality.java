@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.scoring;
+
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.NetworkBuilder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import junit.framework.TestCase;
+
+public class TestSampledBetweennessCentrality extends TestCase {
+
+  private MutableNetwork<Integer, Integer> createRandomGraph(
+      boolean directed, int nodeCount, int edgeCount, long seed) {
+    MutableNetwork<Integer, Integer> graph =
+        directed
+            ? NetworkBuilder.directed().allowsParallelEdges(true).build()
+            : NetworkBuilder.undirected().allowsParallelEdges(true).build();
+    Random random = new Random(seed);
+    for (int i = 0; i < nodeCount; i++) {
+      graph.addNode(i);
+    }
+    for (int e = 0; e < edgeCount; e++) {
+      int u = random.nextInt(nodeCount);
+      int v = random.nextInt(nodeCount);
+      if (u != v) {
+        graph.addEdge(u, v, e);
+      }
+    }
+    return graph;
+  }
+
+  public void testAllPivotsIsExact() {
+    for (boolean directed : new boolean[] {true, false}) {
+      MutableNetwork<Integer, Integer> graph = createRandomGraph(directed, 40, 120, 1L);
+      BetweennessCentrality<Integer, Integer> exact =
+          new BetweennessCentrality<Integer, Integer>(graph);
+      SampledBetweennessCentrality<Integer, Integer> sampled =
+          new SampledBetweennessCentrality<Integer, Integer>(graph, 1000, new Random(2L));
+
+      assertEquals(graph.nodes().size(), sampled.getPivotCount());
+      for (Integer v : graph.nodes()) {
+        assertEquals(exact.getNodeScore(v), sampled.getNodeScore(v), 1.0e-9);
+      }
+      for (Integer e : graph.edges()) {
+        assertEquals(exact.getEdgeScore(e), sampled.getEdgeScore(e), 1.0e-9);
+      }
+    }
+  }
+
+  public void testWeightedAllPivotsIsExact() {
+    MutableNetwork<Integer, Integer> graph = createRandomGraph(true, 40, 160, 3L);
+    Random random = new Random(4L);
+    Map<Integer, Integer> weights = new HashMap<Integer, Integer>();
+    for (Integer e : graph.edges()) {
+      weights.put(e, 1 + random.nextInt(3));
+    }
+    BetweennessCentrality<Integer, Integer> exact =
+        new BetweennessCentrality<Integer, Integer>(graph, weights::get);
+    SampledBetweennessCentrality<Integer, Integer> sampled =
+        new SampledBetweennessCentrality<Integer, Integer>(
+            graph, weights::get, graph.nodes().size(), new Random(5L));
+
+    for (Integer v : graph.nodes()) {
+      assertEquals(exact.getNodeScore(v), sampled.getNodeScore(v), 1.0e-9);
+    }
+    for (Integer e : graph.edges()) {
+      assertEquals(exact.getEdgeScore(e), sampled.getEdgeScore(e), 1.0e-9);
+    }
+  }
+
+  public void testSameSeedIsReproducible() {
+    MutableNetwork<Integer, Integer> graph = createRandomGraph(false, 200, 600, 6L);
+    SampledBetweennessCentrality<Integer, Integer> first =
+        new SampledBetweennessCentrality<Integer, Integer>(graph, 20, new Random(7L));
+    SampledBetweennessCentrality<Integer, Integer> second =
+        new SampledBetweennessCentrality<Integer, Integer>(graph, 20, new Random(7L));
+
+    assertEquals(20, first.getPivotCount());
+    assertEquals(first.nodeScores(), second.nodeScores());
+    assertEquals(first.edgeScores(), second.edgeScores());
+  }
+
+  public void testEstimateIsWithinBound() {
+    MutableNetwork<Integer, Integer> graph = createRandomGraph(true, 300, 1200, 8L);
+    int n = graph.nodes().size();
+    double epsilon = 0.02;
+    double delta = 0.01;
+    int k = SampledBetweennessCentrality.pivotCount(graph, epsilon, delta);
+    assertEquals(
+        (int) Math.ceil(Math.log(2 * (n + graph.edges().size()) / delta) / (2 * epsilon * epsilon)),
+        k);
+
+    // far fewer pivots than the bound requires; the estimate should still be close
+    BetweennessCentrality<Integer, Integer> exact =
+        new BetweennessCentrality<Integer, Integer>(graph);
+    SampledBetweennessCentrality<Integer, Integer> sampled =
+        new SampledBetweennessCentrality<Integer, Integer>(graph, 100, new Random(9L));
+    for (Integer v : graph.nodes()) {
+      assertEquals(exact.getNodeScore(v), sampled.getNodeScore(v), epsilon * n * (n - 1));
+    }
+  }
+
+  public void testErrorBoundConstructor() {
+    MutableNetwork<Integer, Integer> graph = createRandomGraph(true, 300, 1200, 10L);
+    int n = graph.nodes().size();
+    double epsilon = 0.2;
+    double delta = 0.1;
+    SampledBetweennessCentrality<Integer, Integer> sampled =
+        new SampledBetweennessCentrality<Integer, Integer>(
+            graph, null, epsilon, delta, new Random(11L));
+    assertEquals(
+        SampledBetweennessCentrality.pivotCount(graph, epsilon, delta), sampled.getPivotCount());
+
+    BetweennessCentrality<Integer, Integer> exact =
+        new BetweennessCentrality<Integer, Integer>(graph);
+    for (Integer v : graph.nodes()) {
+      assertEquals(exact.getNodeScore(v), sampled.getNodeScore(v), epsilon * n * (n - 1));
+    }
+  }
+}
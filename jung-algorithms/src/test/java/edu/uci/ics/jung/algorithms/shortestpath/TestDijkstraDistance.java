@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.shortestpath;
+
+import com.google.common.cache.CacheStats;
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.NetworkBuilder;
+import java.util.Arrays;
+import java.util.List;
+import junit.framework.TestCase;
+
+/** Tests the bounded caching of {@code DijkstraDistance}. */
+public class TestDijkstraDistance extends TestCase {
+  private MutableNetwork<Integer, Integer> graph;
+
+  @Override
+  protected void setUp() {
+    // a directed path 0 -> 1 -> ... -> 9
+    graph = NetworkBuilder.directed().build();
+    for (int i = 0; i < 9; i++) {
+      graph.addEdge(i, i + 1, i);
+    }
+  }
+
+  public void testResetRemovesEntry() {
+    DijkstraDistance<Integer, Integer> dd = new DijkstraDistance<Integer, Integer>(graph);
+    assertEquals(9, dd.getDistance(0, 9).intValue());
+    assertTrue(dd.sourceMap.containsKey(0));
+    dd.reset(0);
+    assertFalse(dd.sourceMap.containsKey(0));
+    assertEquals(9, dd.getDistance(0, 9).intValue());
+  }
+
+  public void testMaxCachedSources() {
+    DijkstraDistance<Integer, Integer> dd = new DijkstraDistance<Integer, Integer>(graph);
+    dd.setMaxCachedSources(2);
+    dd.getDistanceMap(0);
+    dd.getDistanceMap(1);
+    dd.getDistanceMap(0); // hit; 1 is now the least recently used
+    dd.getDistanceMap(2); // evicts 1
+    assertEquals(2, dd.sourceMap.size());
+    assertTrue(dd.sourceMap.containsKey(0));
+    assertFalse(dd.sourceMap.containsKey(1));
+
+    CacheStats stats = dd.getCacheStats();
+    assertEquals(1, stats.hitCount());
+    assertEquals(3, stats.missCount());
+    assertEquals(1, stats.evictionCount());
+
+    // evicted results are recalculated
+    assertEquals(8, dd.getDistance(1, 9).intValue());
+  }
+
+  public void testMaxCachedDistances() {
+    DijkstraDistance<Integer, Integer> dd = new DijkstraDistance<Integer, Integer>(graph);
+    dd.getDistanceMap(0); // 10 distances
+    dd.getDistanceMap(5); // 5 distances
+    dd.setMaxCachedDistances(12);
+    assertEquals(1, dd.sourceMap.size());
+    dd.getDistanceMap(8); // 2 distances
+    assertEquals(2, dd.sourceMap.size());
+
+    // results that exceed the limit on their own are not retained, but are still returned
+    dd.setMaxCachedDistances(5);
+    assertEquals(10, dd.getDistanceMap(0).size());
+    assertFalse(dd.sourceMap.containsKey(0));
+  }
+
+  public void testShortestPathWithoutCaching() {
+    DijkstraShortestPath<Integer, Integer> dsp = new DijkstraShortestPath<Integer, Integer>(graph);
+    dsp.setMaxCachedSources(0);
+    List<Integer> path = dsp.getPath(2, 5);
+    assertEquals(Arrays.asList(2, 3, 4), path);
+    assertEquals(Integer.valueOf(4), dsp.getIncomingEdge(2, 5));
+    assertEquals(4, dsp.getIncomingEdgeMap(2, 4).size());
+    assertTrue(dsp.sourceMap.isEmpty());
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.shortestpath;
+
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.NetworkBuilder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import junit.framework.TestCase;
+
+public class TestMultiSourceDijkstraDistance extends TestCase {
+  private MutableNetwork<Integer, Integer> graph;
+  private Map<Integer, Double> weights;
+
+  @Override
+  protected void setUp() {
+    Random random = new Random(1L);
+    graph = NetworkBuilder.directed().allowsParallelEdges(true).allowsSelfLoops(true).build();
+    weights = new HashMap<Integer, Double>();
+    for (int i = 0; i < 200; i++) {
+      graph.addNode(i);
+    }
+    for (int e = 0; e < 600; e++) {
+      graph.addEdge(random.nextInt(200), random.nextInt(200), e);
+      // include some zero-weight edges
+      weights.put(e, e % 10 == 0 ? 0.0 : random.nextDouble() * 10);
+    }
+  }
+
+  private void assertMatchesDijkstraDistance(MultiSourceDijkstraDistance<Integer, Integer> msd) {
+    DijkstraDistance<Integer, Integer> expected =
+        new DijkstraDistance<Integer, Integer>(graph, weights::get);
+    for (Integer source : graph.nodes()) {
+      Map<Integer, Number> expectedMap = expected.getDistanceMap(source);
+      Map<Integer, Double> actualMap = msd.getDistanceMap(source);
+      assertEquals(expectedMap.keySet(), actualMap.keySet());
+      // the map iterates in order of increasing distance, as that of DijkstraDistance does
+      double previous = 0;
+      for (double distance : actualMap.values()) {
+        assertTrue(distance >= previous);
+        previous = distance;
+      }
+      for (Integer target : graph.nodes()) {
+        Number distance = expectedMap.get(target);
+        if (distance == null) {
+          assertNull(msd.getDistance(source, target));
+        } else {
+          assertEquals(distance.doubleValue(), msd.getDistance(source, target), 1.0e-9);
+        }
+      }
+    }
+  }
+
+  public void testParallel() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      MultiSourceDijkstraDistance<Integer, Integer> msd =
+          new MultiSourceDijkstraDistance<Integer, Integer>(graph, weights::get, pool);
+      msd.computeDistances(graph.nodes());
+      assertMatchesDijkstraDistance(msd);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  public void testOnDemand() {
+    MultiSourceDijkstraDistance<Integer, Integer> msd =
+        new MultiSourceDijkstraDistance<Integer, Integer>(graph, weights::get, null);
+    assertMatchesDijkstraDistance(msd);
+  }
+
+  public void testUnweighted() {
+    MultiSourceDijkstraDistance<Integer, Integer> msd =
+        new MultiSourceDijkstraDistance<Integer, Integer>(graph, null);
+    UnweightedShortestPath<Integer> expected = new UnweightedShortestPath<Integer>(graph.asGraph());
+    for (Integer source : graph.nodes()) {
+      Map<Integer, Integer> expectedMap = expected.getDistanceMap(source);
+      assertEquals(expectedMap.keySet(), msd.getDistanceMap(source).keySet());
+      for (Map.Entry<Integer, Integer> entry : expectedMap.entrySet()) {
+        assertEquals(entry.getValue().doubleValue(), msd.getDistance(source, entry.getKey()), 0.0);
+      }
+    }
+  }
+
+  public void testNegativeWeight() {
+    weights.put(0, -1.0);
+    try {
+      new MultiSourceDijkstraDistance<Integer, Integer>(graph, weights::get, null);
+      fail("expected IllegalArgumentException");
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+}
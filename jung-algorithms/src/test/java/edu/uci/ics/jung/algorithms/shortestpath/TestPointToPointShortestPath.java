@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.shortestpath;
+
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.Network;
+import com.google.common.graph.NetworkBuilder;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import junit.framework.TestCase;
+
+/** Tests the bidirectional and A* searches of {@code DijkstraShortestPath}. */
+public class TestPointToPointShortestPath extends TestCase {
+  private static final int GRID_SIZE = 20;
+
+  private Map<Integer, Double> weights;
+
+  @Override
+  protected void setUp() {
+    weights = new HashMap<Integer, Double>();
+  }
+
+  private MutableNetwork<Integer, Integer> createRandomGraph(boolean directed, Random random) {
+    MutableNetwork<Integer, Integer> graph =
+        (directed ? NetworkBuilder.directed() : NetworkBuilder.undirected())
+            .allowsParallelEdges(true)
+            .allowsSelfLoops(true)
+            .build();
+    for (int i = 0; i < 100; i++) {
+      graph.addNode(i);
+    }
+    for (int e = 0; e < 250; e++) {
+      graph.addEdge(random.nextInt(100), random.nextInt(100), e);
+      weights.put(e, e % 7 == 0 ? 0.0 : random.nextDouble() * 5);
+    }
+    return graph;
+  }
+
+  /**
+   * Checks that {@code path} is a path from {@code source} to {@code target} whose length is the
+   * shortest distance between them (or that it is empty, if there is no such path).
+   */
+  private void assertShortestPath(
+      Network<Integer, Integer> graph,
+      DijkstraShortestPath<Integer, Integer> dsp,
+      Integer source,
+      Integer target,
+      List<Integer> path) {
+    Number distance = dsp.getDistance(source, target);
+    if (distance == null || source.equals(target)) {
+      assertTrue(path.isEmpty());
+      return;
+    }
+    double length = 0;
+    Integer current = source;
+    for (Integer e : path) {
+      assertTrue(graph.outEdges(current).contains(e));
+      current = graph.incidentNodes(e).adjacentNode(current);
+      length += weights.get(e);
+    }
+    assertEquals(target, current);
+    assertEquals(distance.doubleValue(), length, 1.0e-9);
+  }
+
+  public void testBidirectional() {
+    Random random = new Random(1L);
+    for (boolean directed : new boolean[] {true, false}) {
+      MutableNetwork<Integer, Integer> graph = createRandomGraph(directed, random);
+      DijkstraShortestPath<Integer, Integer> dsp =
+          new DijkstraShortestPath<Integer, Integer>(graph, weights::get);
+      for (int i = 0; i < 200; i++) {
+        Integer source = random.nextInt(100);
+        Integer target = random.nextInt(100);
+        assertShortestPath(graph, dsp, source, target, dsp.getPathBidirectional(source, target));
+      }
+    }
+  }
+
+  public void testAStarWithZeroHeuristic() {
+    Random random = new Random(2L);
+    for (boolean directed : new boolean[] {true, false}) {
+      MutableNetwork<Integer, Integer> graph = createRandomGraph(directed, random);
+      DijkstraShortestPath<Integer, Integer> dsp =
+          new DijkstraShortestPath<Integer, Integer>(graph, weights::get);
+      for (int i = 0; i < 200; i++) {
+        Integer source = random.nextInt(100);
+        Integer target = random.nextInt(100);
+        assertShortestPath(graph, dsp, source, target, dsp.getPath(source, target, (v, t) -> 0));
+      }
+    }
+  }
+
+  public void testAStarOnGrid() {
+    // a grid whose edge weights are at least the Manhattan distance between their endpoints
+    Random random = new Random(3L);
+    MutableNetwork<Integer, Integer> graph = NetworkBuilder.undirected().build();
+    int edge = 0;
+    for (int x = 0; x < GRID_SIZE; x++) {
+      for (int y = 0; y < GRID_SIZE; y++) {
+        int node = x * GRID_SIZE + y;
+        graph.addNode(node);
+        if (x > 0) {
+          graph.addEdge(node - GRID_SIZE, node, edge);
+          weights.put(edge++, 1 + random.nextDouble());
+        }
+        if (y > 0) {
+          graph.addEdge(node - 1, node, edge);
+          weights.put(edge++, 1 + random.nextDouble());
+        }
+      }
+    }
+    DijkstraShortestPath<Integer, Integer> dsp =
+        new DijkstraShortestPath<Integer, Integer>(graph, weights::get);
+    for (int i = 0; i < 50; i++) {
+      Integer source = random.nextInt(GRID_SIZE * GRID_SIZE);
+      Integer target = random.nextInt(GRID_SIZE * GRID_SIZE);
+      List<Integer> path =
+          dsp.getPath(
+              source,
+              target,
+              (v, t) ->
+                  Math.abs(v / GRID_SIZE - t / GRID_SIZE)
+                      + Math.abs(v % GRID_SIZE - t % GRID_SIZE));
+      assertShortestPath(graph, dsp, source, target, path);
+    }
+  }
+
+  public void testNegativeWeight() {
+    MutableNetwork<Integer, Integer> graph = NetworkBuilder.directed().build();
+    graph.addEdge(0, 1, 0);
+    weights.put(0, -1.0);
+    DijkstraShortestPath<Integer, Integer> dsp =
+        new DijkstraShortestPath<Integer, Integer>(graph, weights::get);
+    try {
+      dsp.getPathBidirectional(0, 1);
+      fail("expected IllegalArgumentException");
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.algorithms.util;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.MutableValueGraph;
+import com.google.common.graph.NetworkBuilder;
+import com.google.common.graph.ValueGraphBuilder;
+import java.util.HashSet;
+import java.util.Set;
+import junit.framework.TestCase;
+
+public class TestCompressedSparseRowGraph extends TestCase {
+
+  public void testDirectedNetwork() {
+    MutableNetwork<String, Integer> network =
+        NetworkBuilder.directed().allowsParallelEdges(true).allowsSelfLoops(true).build();
+    network.addNode("lonely");
+    network.addEdge("a", "b", 0);
+    network.addEdge("a", "c", 1);
+    network.addEdge("b", "c", 2);
+    network.addEdge("a", "b", 3);
+    network.addEdge("c", "c", 4);
+
+    CompressedSparseRowGraph<String, Integer> csr =
+        CompressedSparseRowGraph.of(network, e -> e * 10);
+
+    assertTrue(csr.isDirected());
+    assertTrue(csr.isWeighted());
+    assertEquals(network.nodes().size(), csr.nodeCount());
+    assertEquals(network.edges().size(), csr.edgeCount());
+    for (String node : network.nodes()) {
+      int v = csr.nodeIndex(node);
+      assertEquals(node, csr.node(v));
+      assertEquals(network.outEdges(node), outEdges(csr, v));
+      assertEquals(network.inEdges(node), inEdges(csr, v));
+      for (int k = csr.outStart(v); k < csr.outEnd(v); k++) {
+        Integer edge = csr.edge(csr.outEdge(k));
+        assertEquals(network.incidentNodes(edge).target(), csr.node(csr.outTarget(k)));
+        assertEquals(edge * 10.0, csr.outWeight(k));
+      }
+      for (int k = csr.inStart(v); k < csr.inEnd(v); k++) {
+        Integer edge = csr.edge(csr.inEdge(k));
+        assertEquals(network.incidentNodes(edge).source(), csr.node(csr.inSource(k)));
+        assertEquals(edge * 10.0, csr.inWeight(k));
+      }
+    }
+    int lonely = csr.nodeIndex("lonely");
+    assertEquals(0, csr.outDegree(lonely));
+    assertEquals(0, csr.inDegree(lonely));
+  }
+
+  public void testUndirectedNetwork() {
+    MutableNetwork<String, Integer> network =
+        NetworkBuilder.undirected().allowsSelfLoops(true).build();
+    network.addEdge("a", "b", 0);
+    network.addEdge("b", "c", 1);
+    network.addEdge("c", "c", 2);
+
+    CompressedSparseRowGraph<String, Integer> csr = CompressedSparseRowGraph.of(network);
+
+    assertFalse(csr.isDirected());
+    assertFalse(csr.isWeighted());
+    for (String node : network.nodes()) {
+      int v = csr.nodeIndex(node);
+      assertEquals(network.outEdges(node), outEdges(csr, v));
+      assertEquals(network.inEdges(node), inEdges(csr, v));
+      for (int k = csr.outStart(v); k < csr.outEnd(v); k++) {
+        Integer edge = csr.edge(csr.outEdge(k));
+        assertEquals(network.incidentNodes(edge).adjacentNode(node), csr.node(csr.outTarget(k)));
+        assertEquals(1.0, csr.outWeight(k));
+      }
+    }
+    int e = csr.edgeIndex(1);
+    assertEquals(network.incidentNodes(1).nodeU(), csr.node(csr.edgeSource(e)));
+    assertEquals(network.incidentNodes(1).nodeV(), csr.node(csr.edgeTarget(e)));
+  }
+
+  public void testGraph() {
+    MutableGraph<Integer> graph = GraphBuilder.directed().build();
+    graph.putEdge(1, 2);
+    graph.putEdge(2, 3);
+    graph.putEdge(1, 3);
+
+    CompressedSparseRowGraph<Integer, EndpointPair<Integer>> csr =
+        CompressedSparseRowGraph.of(graph);
+
+    assertEquals(3, csr.edgeCount());
+    for (Integer node : graph.nodes()) {
+      int v = csr.nodeIndex(node);
+      Set<Integer> successors = new HashSet<>();
+      for (int k = csr.outStart(v); k < csr.outEnd(v); k++) {
+        successors.add(csr.node(csr.outTarget(k)));
+      }
+      assertEquals(graph.successors(node), successors);
+    }
+    assertEquals(csr.nodeIndex(2), csr.edgeTarget(csr.edgeIndex(EndpointPair.ordered(1, 2))));
+  }
+
+  public void testValueGraph() {
+    MutableValueGraph<String, Double> graph = ValueGraphBuilder.undirected().build();
+    graph.putEdgeValue("a", "b", 2.5);
+    graph.putEdgeValue("b", "c", 4.0);
+
+    CompressedSparseRowGraph<String, EndpointPair<String>> csr =
+        CompressedSparseRowGraph.of(graph, value -> value);
+
+    assertTrue(csr.isWeighted());
+    assertEquals(2.5, csr.edgeWeight(csr.edgeIndex(EndpointPair.unordered("b", "a"))));
+    int b = csr.nodeIndex("b");
+    assertEquals(2, csr.outDegree(b));
+    for (int k = csr.outStart(b); k < csr.outEnd(b); k++) {
+      String other = csr.node(csr.outTarget(k));
+      assertEquals(graph.edgeValue("b", other).get(), csr.outWeight(k));
+    }
+  }
+
+  public void testUnknownNode() {
+    MutableGraph<Integer> graph = GraphBuilder.directed().build();
+    graph.addNode(1);
+    CompressedSparseRowGraph<Integer, EndpointPair<Integer>> csr =
+        CompressedSparseRowGraph.of(graph);
+    try {
+      csr.nodeIndex(2);
+      fail("expected IllegalArgumentException");
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  private static Set<Integer> outEdges(CompressedSparseRowGraph<String, Integer> csr, int v) {
+    Set<Integer> edges = new HashSet<>();
+    for (int k = csr.outStart(v); k < csr.outEnd(v); k++) {
+      edges.add(csr.edge(csr.outEdge(k)));
+    }
+    return edges;
+  }
+
+  private static Set<Integer> inEdges(CompressedSparseRowGraph<String, Integer> csr, int v) {
+    Set<Integer> edges = new HashSet<>();
+    for (int k = csr.inStart(v); k < csr.inEnd(v); k++) {
+      edges.add(csr.edge(csr.inEdge(k)));
+    }
+    return edges;
+  }
+}
@@ -9,7 +9,12 @@ import edu.uci.ics.jung.graph.util.TestGraphs;
 import edu.uci.ics.jung.layout.algorithms.CircleLayoutAlgorithm;
 import edu.uci.ics.jung.layout.algorithms.KKLayoutAlgorithm;
 import edu.uci.ics.jung.layout.algorithms.LayoutAlgorithm;
+import edu.uci.ics.jung.layout.algorithms.MultilevelLayoutAlgorithm;
+import edu.uci.ics.jung.layout.algorithms.RadialTreeLayoutAlgorithm;
+import edu.uci.ics.jung.layout.algorithms.SparseStressLayoutAlgorithm;
 import edu.uci.ics.jung.layout.algorithms.SpringLayoutAlgorithm;
+import edu.uci.ics.jung.layout.algorithms.SugiyamaLayoutAlgorithm;
+import edu.uci.ics.jung.layout.algorithms.TidyTreeLayoutAlgorithm;
 import edu.uci.ics.jung.layout.algorithms.TreeLayoutAlgorithm;
 import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
 import edu.uci.ics.jung.layout.model.Point;
@@ -38,6 +43,9 @@ public class LayoutAlgorithmTest {
     // ISOM seems to put some nodes in the same location, so the test will fail
     //    testLayoutAlgorithm(new ISOMLayoutAlgorithm<>();
     testLayoutAlgorithm(new CircleLayoutAlgorithm<>());
+    testLayoutAlgorithm(new MultilevelLayoutAlgorithm<>());
+    testLayoutAlgorithm(new SparseStressLayoutAlgorithm<>());
+    testLayoutAlgorithm(new SugiyamaLayoutAlgorithm<>());
   }
 
   @Test
@@ -46,6 +54,8 @@ public class LayoutAlgorithmTest {
     layoutModel =
         LoadingCacheLayoutModel.<String>builder().setGraph(graph).setSize(500, 500).build();
     testLayoutAlgorithm(new TreeLayoutAlgorithm<>());
+    testLayoutAlgorithm(new TidyTreeLayoutAlgorithm<>());
+    testLayoutAlgorithm(new RadialTreeLayoutAlgorithm<>(new TidyTreeLayoutAlgorithm<>()));
   }
 
   private void testLayoutAlgorithm(LayoutAlgorithm<String> layoutAlgorithm) {
@@ -0,0 +1,55 @@
+package edu.uci.ics.jung.layout.algorithms;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import edu.uci.ics.jung.layout.model.Point;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that a step of FRLayoutAlgorithm calculates no repulsion for a locked node, and leaves it
+ * with no displacement, even if it had one before it was locked.
+ */
+public class FRLayoutAlgorithmTest {
+
+  @Test
+  public void testLockedNodeHasNoDisplacement() {
+    MutableGraph<Integer> graph = GraphBuilder.undirected().build();
+    graph.putEdge(0, 1);
+    graph.putEdge(1, 2);
+    graph.putEdge(2, 3);
+    LayoutModel<Integer> layoutModel =
+        LoadingCacheLayoutModel.<Integer>builder()
+            .setGraph(graph)
+            .setSize(500, 500)
+            .setInitializer(n -> Point.of(100 + n * 50, 100 + n * 30))
+            .build();
+    CountingFRLayoutAlgorithm layoutAlgorithm = new CountingFRLayoutAlgorithm();
+    layoutAlgorithm.setRandomSeed(0);
+    layoutAlgorithm.visit(layoutModel);
+    layoutAlgorithm.step();
+    Assert.assertEquals(4, layoutAlgorithm.repulsions);
+    Assert.assertNotEquals(Point.ORIGIN, layoutAlgorithm.getFRData(0));
+
+    layoutModel.lock(0, true);
+    Point locked = layoutModel.apply(0);
+    layoutAlgorithm.repulsions = 0;
+    layoutAlgorithm.step();
+    Assert.assertEquals(3, layoutAlgorithm.repulsions);
+    Assert.assertEquals(Point.ORIGIN, layoutAlgorithm.getFRData(0));
+    Assert.assertEquals(locked, layoutModel.apply(0));
+  }
+
+  /** counts the calls to calcRepulsion */
+  private static class CountingFRLayoutAlgorithm extends FRLayoutAlgorithm<Integer> {
+    int repulsions;
+
+    @Override
+    protected void calcRepulsion(Integer node) {
+      repulsions++;
+      super.calcRepulsion(node);
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package edu.uci.ics.jung.layout.algorithms;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import edu.uci.ics.jung.layout.model.Point;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Lays out a grid at fixed locations, adds nodes to one corner, and checks that the
+ * IncrementalLayoutAlgorithm places them near their neighbours and moves only the nodes near them.
+ */
+public class IncrementalLayoutAlgorithmTest {
+
+  private static final int SIDE = 10;
+  private static final int CORNER = SIDE * SIDE - 1;
+
+  private MutableGraph<Integer> graph;
+  private LayoutModel<Integer> layoutModel;
+  private Map<Integer, Point> before;
+
+  @Before
+  public void setup() {
+    graph = GraphBuilder.undirected().build();
+    for (int row = 0; row < SIDE; row++) {
+      for (int column = 0; column < SIDE; column++) {
+        int node = row * SIDE + column;
+        graph.addNode(node);
+        if (column > 0) {
+          graph.putEdge(node - 1, node);
+        }
+        if (row > 0) {
+          graph.putEdge(node - SIDE, node);
+        }
+      }
+    }
+    layoutModel =
+        LoadingCacheLayoutModel.<Integer>builder()
+            .setGraph(graph)
+            .setSize(1000, 1000)
+            .setInitializer(n -> Point.of(n % SIDE * 90 + 50, n / SIDE * 90 + 50))
+            .build();
+    before = new HashMap<>();
+    for (Integer node : graph.nodes()) {
+      before.put(node, layoutModel.apply(node));
+    }
+    // a chain of two new nodes off the bottom right corner
+    graph.putEdge(CORNER, 100);
+    graph.putEdge(100, 101);
+  }
+
+  @Test
+  public void testFR() {
+    FRLayoutAlgorithm<Integer> delegate = new FRLayoutAlgorithm<>();
+    delegate.setRandomSeed(0);
+    checkIncrementalLayout(delegate);
+  }
+
+  @Test
+  public void testSpring() {
+    checkIncrementalLayout(new SpringLayoutAlgorithm<>());
+  }
+
+  @Test
+  public void testISOM() {
+    checkIncrementalLayout(new ISOMLayoutAlgorithm<>());
+  }
+
+  @Test
+  public void testNoChangedNodes() {
+    IncrementalLayoutAlgorithm<Integer> layoutAlgorithm =
+        new IncrementalLayoutAlgorithm<>(new FRLayoutAlgorithm<>());
+    layoutAlgorithm.setChangedNodes(Collections.singleton(-1));
+    layoutAlgorithm.visit(layoutModel);
+    Assert.assertTrue(layoutAlgorithm.done());
+    Assert.assertTrue(layoutAlgorithm.getRegion().isEmpty());
+  }
+
+  private void checkIncrementalLayout(IterativeLayoutAlgorithm<Integer> delegate) {
+    IncrementalLayoutAlgorithm<Integer> layoutAlgorithm =
+        new IncrementalLayoutAlgorithm<>(delegate);
+    layoutAlgorithm.setRandomSeed(0);
+    layoutAlgorithm.setHops(1);
+    layoutAlgorithm.setChangedNodes(ImmutableSet.of(100, 101));
+    layoutAlgorithm.visit(layoutModel);
+    Assert.assertEquals(ImmutableSet.of(CORNER, 100, 101), layoutAlgorithm.getRegion());
+
+    // the new nodes start near the corner
+    Point corner = before.get(CORNER);
+    Assert.assertTrue(corner.distance(layoutModel.apply(100)) < 100);
+    Assert.assertTrue(corner.distance(layoutModel.apply(101)) < 200);
+
+    for (int i = 0; i < 300 && !layoutAlgorithm.done(); i++) {
+      layoutAlgorithm.step();
+    }
+
+    for (Integer node : before.keySet()) {
+      if (node != CORNER) {
+        Assert.assertEquals(before.get(node), layoutModel.apply(node));
+      }
+    }
+    for (Integer node : ImmutableSet.of(CORNER, 100, 101)) {
+      Point p = layoutModel.apply(node);
+      Assert.assertTrue(p.x >= 0 && p.x <= 1000 && p.y >= 0 && p.y <= 1000);
+      Assert.assertTrue(corner.distance(p) < 400);
+    }
+  }
+}
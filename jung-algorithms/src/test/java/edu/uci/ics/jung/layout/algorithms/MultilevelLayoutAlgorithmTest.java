@@ -0,0 +1,117 @@
+package edu.uci.ics.jung.layout.algorithms;
+
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import edu.uci.ics.jung.layout.model.Point;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Lays out a grid, large enough to be coarsened several times, with the MultilevelLayoutAlgorithm,
+ * and checks that the nodes are kept inside the layout area, that locked nodes are not moved, and
+ * that the grid is untangled: adjacent nodes end up much closer together than nodes in general.
+ */
+public class MultilevelLayoutAlgorithmTest {
+
+  private static final int SIDE = 30;
+
+  private MutableGraph<Integer> graph;
+  private LayoutModel<Integer> layoutModel;
+
+  @Before
+  public void setup() {
+    graph = GraphBuilder.undirected().build();
+    for (int row = 0; row < SIDE; row++) {
+      for (int column = 0; column < SIDE; column++) {
+        int node = row * SIDE + column;
+        graph.addNode(node);
+        if (column > 0) {
+          graph.putEdge(node - 1, node);
+        }
+        if (row > 0) {
+          graph.putEdge(node - SIDE, node);
+        }
+      }
+    }
+    layoutModel =
+        LoadingCacheLayoutModel.<Integer>builder()
+            .setGraph(graph)
+            .setSize(1000, 1000)
+            .setInitializer(n -> Point.of(500, 500))
+            .build();
+  }
+
+  @Test
+  public void testLayout() {
+    layoutModel.lock(0, true);
+    MultilevelLayoutAlgorithm<Integer> layoutAlgorithm = new MultilevelLayoutAlgorithm<>();
+    layoutAlgorithm.setRandomSeed(0);
+    layoutModel.accept(layoutAlgorithm);
+
+    Assert.assertEquals(Point.of(500, 500), layoutModel.apply(0));
+    for (Integer node : graph.nodes()) {
+      Point p = layoutModel.apply(node);
+      Assert.assertTrue(p + " is outside the layout", p.x >= 0 && p.x <= 1000);
+      Assert.assertTrue(p + " is outside the layout", p.y >= 0 && p.y <= 1000);
+    }
+
+    double edgeLength = 0;
+    for (EndpointPair<Integer> endpoints : graph.edges()) {
+      edgeLength += distance(endpoints.nodeU(), endpoints.nodeV());
+    }
+    edgeLength /= graph.edges().size();
+    double distance = 0;
+    int pairs = 0;
+    for (int u = 0; u < SIDE * SIDE; u += 7) {
+      for (int v = u + 1; v < SIDE * SIDE; v += 11) {
+        distance += distance(u, v);
+        pairs++;
+      }
+    }
+    distance /= pairs;
+    Assert.assertTrue(
+        "edges average " + edgeLength + ", pairs average " + distance, edgeLength * 5 < distance);
+  }
+
+  @Test
+  public void testForkJoinPool() {
+    MultilevelLayoutAlgorithm<Integer> serial = new MultilevelLayoutAlgorithm<>();
+    serial.setRandomSeed(0);
+    layoutModel.accept(serial);
+    Map<Integer, Point> expected = new HashMap<>(layoutModel.getLocations());
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      MultilevelLayoutAlgorithm<Integer> parallel = new MultilevelLayoutAlgorithm<>();
+      parallel.setRandomSeed(0);
+      parallel.setForkJoinPool(pool);
+      layoutModel.accept(parallel);
+    } finally {
+      pool.shutdown();
+    }
+    for (Integer node : graph.nodes()) {
+      Assert.assertEquals(expected.get(node), layoutModel.apply(node));
+    }
+  }
+
+  @Test
+  public void testSingleNode() {
+    MutableGraph<Integer> single = GraphBuilder.undirected().build();
+    single.addNode(1);
+    layoutModel.setGraph(single);
+    layoutModel.accept(new MultilevelLayoutAlgorithm<>());
+    Point p = layoutModel.apply(1);
+    Assert.assertTrue(p.x > 0 && p.x < 1000 && p.y > 0 && p.y < 1000);
+  }
+
+  private double distance(int u, int v) {
+    return layoutModel.apply(u).distance(layoutModel.apply(v));
+  }
+}
@@ -0,0 +1,129 @@
+package edu.uci.ics.jung.layout.algorithms;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import edu.uci.ics.jung.layout.model.Point;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that stepping FRLayoutAlgorithm and SpringLayoutAlgorithm on a ForkJoinPool moves the
+ * nodes to the same places as stepping them serially. The layout models are stepped directly, so no
+ * relax thread is started.
+ */
+public class ParallelStepTest {
+
+  private static final int STEPS = 20;
+
+  private MutableGraph<Integer> graph;
+  private ForkJoinPool pool;
+
+  @Before
+  public void setup() {
+    graph = GraphBuilder.directed().allowsSelfLoops(true).build();
+    Random random = new Random(0);
+    for (int i = 0; i < 60; i++) {
+      graph.addNode(i);
+    }
+    for (int i = 0; i < 150; i++) {
+      graph.putEdge(random.nextInt(60), random.nextInt(60));
+    }
+    graph.putEdge(7, 7);
+    pool = new ForkJoinPool(4);
+  }
+
+  @After
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  public void testFRLayout() {
+    FRLayoutAlgorithm<Integer> serial = new FRLayoutAlgorithm<>();
+    serial.setRandomSeed(0);
+    FRLayoutAlgorithm<Integer> parallel = new FRLayoutAlgorithm<>();
+    parallel.setRandomSeed(0);
+    parallel.setForkJoinPool(pool);
+    assertSamePositions(run(serial), run(parallel));
+  }
+
+  @Test
+  public void testSpringLayout() {
+    SpringLayoutAlgorithm<Integer> serial = new SpringLayoutAlgorithm<>();
+    serial.setRandomSeed(0);
+    SpringLayoutAlgorithm<Integer> parallel = new SpringLayoutAlgorithm<>();
+    parallel.setRandomSeed(0);
+    parallel.setForkJoinPool(pool);
+    assertSamePositions(run(serial), run(parallel));
+  }
+
+  @Test
+  public void testSeededSpringLayoutIsReproducible() {
+    // every node starts at the same place, so the nodes are separated by random nudges
+    LayoutModel<Integer> first = runCoincident(0);
+    LayoutModel<Integer> second = runCoincident(0);
+    for (Integer node : graph.nodes()) {
+      Assert.assertEquals("location of " + node, first.apply(node), second.apply(node));
+    }
+    Assert.assertNotEquals(first.apply(0), first.apply(1));
+  }
+
+  @Test
+  public void testSubclassStepsSerially() {
+    // the Barnes-Hut forces are not those of FRLayoutAlgorithm, so the pool must be ignored
+    FRBHVisitorLayoutAlgorithm<Integer> serial = new FRBHVisitorLayoutAlgorithm<>();
+    serial.setRandomSeed(0);
+    FRBHVisitorLayoutAlgorithm<Integer> withPool = new FRBHVisitorLayoutAlgorithm<>();
+    withPool.setRandomSeed(0);
+    withPool.setForkJoinPool(pool);
+    assertSamePositions(run(serial), run(withPool));
+  }
+
+  private LayoutModel<Integer> run(IterativeLayoutAlgorithm<Integer> layoutAlgorithm) {
+    LayoutModel<Integer> layoutModel =
+        LoadingCacheLayoutModel.<Integer>builder()
+            .setGraph(graph)
+            .setSize(500, 500)
+            .setInitializer(n -> Point.of(50 + (n * 37) % 400, 50 + (n * 53) % 400))
+            .build();
+    layoutModel.lock(3, true);
+    layoutAlgorithm.visit(layoutModel);
+    for (int i = 0; i < STEPS; i++) {
+      layoutAlgorithm.step();
+    }
+    return layoutModel;
+  }
+
+  private LayoutModel<Integer> runCoincident(long seed) {
+    SpringLayoutAlgorithm<Integer> layoutAlgorithm = new SpringLayoutAlgorithm<>();
+    layoutAlgorithm.setRandomSeed(seed);
+    layoutAlgorithm.setForkJoinPool(pool);
+    LayoutModel<Integer> layoutModel =
+        LoadingCacheLayoutModel.<Integer>builder()
+            .setGraph(graph)
+            .setSize(500, 500)
+            .setInitializer(n -> Point.of(250, 250))
+            .build();
+    layoutAlgorithm.visit(layoutModel);
+    for (int i = 0; i < STEPS; i++) {
+      layoutAlgorithm.step();
+    }
+    return layoutModel;
+  }
+
+  private void assertSamePositions(LayoutModel<Integer> expected, LayoutModel<Integer> actual) {
+    Assert.assertEquals(expected.apply(3), Point.of(50 + 111, 50 + 159));
+    for (Integer node : graph.nodes()) {
+      Point e = expected.apply(node);
+      Point a = actual.apply(node);
+      Assert.assertEquals("x of " + node, e.x, a.x, 1.0e-6);
+      Assert.assertEquals("y of " + node, e.y, a.y, 1.0e-6);
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package edu.uci.ics.jung.layout.algorithms;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import edu.uci.ics.jung.layout.model.Point;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Lays out a grid with the SparseStressLayoutAlgorithm, using far fewer pivots than nodes, and
+ * checks that the distances in the drawing are nearly proportional to the distances in the grid
+ * (which a grid drawn as a square achieves), and that locked nodes are not moved.
+ */
+public class SparseStressLayoutAlgorithmTest {
+
+  private static final int SIDE = 20;
+
+  private MutableGraph<Integer> graph;
+  private LayoutModel<Integer> layoutModel;
+
+  @Before
+  public void setup() {
+    graph = GraphBuilder.undirected().build();
+    for (int row = 0; row < SIDE; row++) {
+      for (int column = 0; column < SIDE; column++) {
+        int node = row * SIDE + column;
+        graph.addNode(node);
+        if (column > 0) {
+          graph.putEdge(node - 1, node);
+        }
+        if (row > 0) {
+          graph.putEdge(node - SIDE, node);
+        }
+      }
+    }
+    layoutModel =
+        LoadingCacheLayoutModel.<Integer>builder().setGraph(graph).setSize(1000, 1000).build();
+  }
+
+  @Test
+  public void testGrid() {
+    SparseStressLayoutAlgorithm<Integer> layoutAlgorithm = new SparseStressLayoutAlgorithm<>();
+    layoutAlgorithm.setRandomSeed(0);
+    layoutAlgorithm.setPivotCount(20);
+    layoutModel.accept(layoutAlgorithm);
+
+    // the ratio of drawn to grid (Manhattan) distance should not vary much from pair to pair;
+    // diagonal pairs are excluded, since they are drawn closer than their Manhattan distance
+    double sum = 0;
+    double sumSquares = 0;
+    int pairs = 0;
+    for (int u = 0; u < SIDE * SIDE; u += 3) {
+      for (int v = u + 1; v < SIDE * SIDE; v += 5) {
+        int rows = Math.abs(u / SIDE - v / SIDE);
+        int columns = Math.abs(u % SIDE - v % SIDE);
+        if (rows != 0 && columns != 0) {
+          continue;
+        }
+        double ratio = layoutModel.apply(u).distance(layoutModel.apply(v)) / (rows + columns);
+        sum += ratio;
+        sumSquares += ratio * ratio;
+        pairs++;
+      }
+    }
+    double mean = sum / pairs;
+    double deviation = Math.sqrt(sumSquares / pairs - mean * mean);
+    Assert.assertTrue("deviation " + deviation + " of mean " + mean, deviation < 0.1 * mean);
+  }
+
+  @Test
+  public void testLockedNode() {
+    layoutModel.set(0, Point.of(10, 20));
+    layoutModel.lock(0, true);
+    layoutModel.accept(new SparseStressLayoutAlgorithm<>());
+    Assert.assertEquals(Point.of(10, 20), layoutModel.apply(0));
+    Assert.assertNotEquals(layoutModel.apply(1), layoutModel.apply(2));
+  }
+
+  @Test
+  public void testMoreComponentsThanPivots() {
+    // 30 isolated nodes and a path, so that most components are not reached by any pivot
+    MutableGraph<Integer> components = GraphBuilder.undirected().build();
+    for (int i = 0; i < 30; i++) {
+      components.addNode(i);
+    }
+    for (int i = 30; i < 40; i++) {
+      components.putEdge(i, i + 1);
+    }
+    LayoutModel<Integer> componentsModel =
+        LoadingCacheLayoutModel.<Integer>builder().setGraph(components).setSize(1000, 1000).build();
+    SparseStressLayoutAlgorithm<Integer> layoutAlgorithm = new SparseStressLayoutAlgorithm<>();
+    layoutAlgorithm.setRandomSeed(0);
+    layoutAlgorithm.setPivotCount(5);
+    componentsModel.accept(layoutAlgorithm);
+    for (Integer node : components.nodes()) {
+      Point p = componentsModel.apply(node);
+      Assert.assertFalse(node + " is at " + p, Double.isNaN(p.x) || Double.isNaN(p.y));
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package edu.uci.ics.jung.layout.algorithms;
+
+import com.google.common.graph.Graph;
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import edu.uci.ics.jung.layout.model.Point;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the SugiyamaLayoutAlgorithm: the layering and separation of the nodes of a random DAG, the
+ * breaking of cycles, a DAG that can be drawn without crossings, and the agreement of the serial
+ * and parallel layouts.
+ */
+public class SugiyamaLayoutAlgorithmTest {
+
+  private static final int NODE_SPACING = 30;
+  private static final int LAYER_SPACING = 40;
+
+  @Test
+  public void testRandomDag() {
+    MutableGraph<Integer> graph = randomDag(new Random(0), 500, 900);
+    LayoutModel<Integer> layoutModel = layoutModel(graph);
+    SugiyamaLayoutAlgorithmTest.<Integer>algorithm().visit(layoutModel);
+
+    // every edge points down, and the nodes of each layer are at least NODE_SPACING apart
+    Map<Double, List<Double>> layers = new HashMap<>();
+    for (Integer node : graph.nodes()) {
+      Point p = layoutModel.apply(node);
+      Assert.assertTrue(p.x >= NODE_SPACING - 1.0e-6);
+      Assert.assertTrue(p.x <= layoutModel.getWidth());
+      Assert.assertTrue(p.y <= layoutModel.getHeight());
+      layers.computeIfAbsent(p.y, y -> new ArrayList<>()).add(p.x);
+      for (Integer successor : graph.successors(node)) {
+        Assert.assertTrue(layoutModel.apply(successor).y > p.y);
+      }
+    }
+    for (List<Double> layer : layers.values()) {
+      layer.sort(Double::compare);
+      for (int i = 1; i < layer.size(); i++) {
+        Assert.assertTrue(layer.get(i) - layer.get(i - 1) >= NODE_SPACING - 1.0e-6);
+      }
+    }
+  }
+
+  @Test
+  public void testCycles() {
+    // a directed cycle, with a chord and a self loop
+    MutableGraph<String> graph = GraphBuilder.directed().allowsSelfLoops(true).build();
+    graph.putEdge("A", "B");
+    graph.putEdge("B", "C");
+    graph.putEdge("C", "D");
+    graph.putEdge("D", "A");
+    graph.putEdge("B", "D");
+    graph.putEdge("C", "C");
+    LayoutModel<String> layoutModel = layoutModel(graph);
+    SugiyamaLayoutAlgorithm<String> algorithm = algorithm();
+    algorithm.visit(layoutModel);
+
+    // one edge of the cycle is reversed, leaving a path of four layers
+    Assert.assertEquals(4, algorithm.getLayerCount());
+    List<Double> ys = new ArrayList<>();
+    for (String node : graph.nodes()) {
+      ys.add(layoutModel.apply(node).y);
+    }
+    Assert.assertEquals(4, ys.stream().distinct().count());
+  }
+
+  @Test
+  public void testPlanarDag() {
+    // a complete binary tree of depth 5 whose leaves all point to one sink
+    MutableGraph<Integer> graph = GraphBuilder.directed().build();
+    for (int i = 1; i < 63; i++) {
+      graph.putEdge((i - 1) / 2, i);
+    }
+    for (int i = 31; i < 63; i++) {
+      graph.putEdge(i, 63);
+    }
+    LayoutModel<Integer> layoutModel = layoutModel(graph);
+    SugiyamaLayoutAlgorithm<Integer> algorithm = algorithm();
+    algorithm.visit(layoutModel);
+
+    Assert.assertEquals(0, algorithm.getCrossingCount());
+    Assert.assertEquals(7, algorithm.getLayerCount());
+    // the root is centered over the leaves, and so is the sink
+    double minX = Double.POSITIVE_INFINITY;
+    double maxX = Double.NEGATIVE_INFINITY;
+    for (int i = 31; i < 63; i++) {
+      minX = Math.min(minX, layoutModel.apply(i).x);
+      maxX = Math.max(maxX, layoutModel.apply(i).x);
+    }
+    Assert.assertEquals(31 * NODE_SPACING, maxX - minX, 1.0e-6);
+    Assert.assertEquals((minX + maxX) / 2, layoutModel.apply(0).x, 1.0e-6);
+    Assert.assertEquals((minX + maxX) / 2, layoutModel.apply(63).x, 1.0e-6);
+  }
+
+  @Test
+  public void testParallelLayoutMatchesSerial() {
+    MutableGraph<Integer> graph = randomDag(new Random(1), 3000, 6000);
+    LayoutModel<Integer> serial = layoutModel(graph);
+    SugiyamaLayoutAlgorithm<Integer> serialAlgorithm = algorithm();
+    serialAlgorithm.visit(serial);
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      LayoutModel<Integer> parallel = layoutModel(graph);
+      SugiyamaLayoutAlgorithm<Integer> parallelAlgorithm = algorithm();
+      parallelAlgorithm.setForkJoinPool(pool);
+      parallelAlgorithm.visit(parallel);
+      Assert.assertEquals(serialAlgorithm.getCrossingCount(), parallelAlgorithm.getCrossingCount());
+      for (Integer node : graph.nodes()) {
+        Assert.assertEquals(serial.apply(node), parallel.apply(node));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /** a DAG of edges from lower to higher numbered nodes, between nodes at most 20 apart */
+  private static MutableGraph<Integer> randomDag(Random random, int nodes, int edges) {
+    MutableGraph<Integer> graph = GraphBuilder.directed().build();
+    for (int i = 0; i < nodes; i++) {
+      graph.addNode(i);
+    }
+    int count = 0;
+    while (count < edges) {
+      int u = random.nextInt(nodes - 1);
+      int w = Math.min(nodes - 1, u + 1 + random.nextInt(20));
+      if (graph.putEdge(u, w)) {
+        count++;
+      }
+    }
+    return graph;
+  }
+
+  private static <N> SugiyamaLayoutAlgorithm<N> algorithm() {
+    SugiyamaLayoutAlgorithm<N> algorithm = new SugiyamaLayoutAlgorithm<>();
+    algorithm.setNodeSpacing(NODE_SPACING);
+    algorithm.setLayerSpacing(LAYER_SPACING);
+    return algorithm;
+  }
+
+  private static <N> LayoutModel<N> layoutModel(Graph<N> graph) {
+    return LoadingCacheLayoutModel.<N>builder().setGraph(graph).setSize(500, 500).build();
+  }
+}
@@ -0,0 +1,109 @@
+package edu.uci.ics.jung.layout.algorithms;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import edu.uci.ics.jung.layout.model.Point;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the TidyTreeLayoutAlgorithm: the placement of a small tree, the separation of the nodes of
+ * a random forest, and a tree far too deep to be laid out recursively.
+ */
+public class TidyTreeLayoutAlgorithmTest {
+
+  private static final int DIST_X = 30;
+  private static final int DIST_Y = 40;
+
+  @Test
+  public void testSmallTree() {
+    // A has children B and C; B has children D and E; C is a leaf
+    MutableGraph<String> graph = GraphBuilder.directed().build();
+    graph.putEdge("A", "B");
+    graph.putEdge("A", "C");
+    graph.putEdge("B", "D");
+    graph.putEdge("B", "E");
+    LayoutModel<String> layoutModel = layout(graph);
+
+    Point a = layoutModel.apply("A");
+    Point b = layoutModel.apply("B");
+    Point c = layoutModel.apply("C");
+    Point d = layoutModel.apply("D");
+    Point e = layoutModel.apply("E");
+    Assert.assertEquals(20 + DIST_Y, a.y, 0);
+    Assert.assertEquals(20 + 2 * DIST_Y, b.y, 0);
+    Assert.assertEquals(20 + 3 * DIST_Y, d.y, 0);
+    Assert.assertEquals(DIST_X, d.x, 1.0e-9);
+    Assert.assertEquals(DIST_X, e.x - d.x, 1.0e-9);
+    Assert.assertEquals((d.x + e.x) / 2, b.x, 1.0e-9);
+    Assert.assertEquals(DIST_X, c.x - b.x, 1.0e-9);
+    Assert.assertEquals((b.x + c.x) / 2, a.x, 1.0e-9);
+  }
+
+  @Test
+  public void testRandomForest() {
+    Random random = new Random(0);
+    MutableGraph<Integer> graph = GraphBuilder.directed().build();
+    // three trees, each node attached to a random earlier node of its tree
+    for (int tree = 0; tree < 3; tree++) {
+      int root = tree * 1000;
+      graph.addNode(root);
+      for (int i = 1; i < 1000; i++) {
+        graph.putEdge(root + random.nextInt(i), root + i);
+      }
+    }
+    LayoutModel<Integer> layoutModel = layout(graph);
+
+    // the nodes of each level are at least DIST_X apart
+    Map<Double, List<Double>> levels = new HashMap<>();
+    for (Integer node : graph.nodes()) {
+      Point p = layoutModel.apply(node);
+      levels.computeIfAbsent(p.y, y -> new ArrayList<>()).add(p.x);
+      for (Integer child : graph.successors(node)) {
+        Assert.assertEquals(p.y + DIST_Y, layoutModel.apply(child).y, 0);
+      }
+    }
+    for (List<Double> level : levels.values()) {
+      level.sort(Double::compare);
+      for (int i = 1; i < level.size(); i++) {
+        Assert.assertTrue(level.get(i) - level.get(i - 1) >= DIST_X - 1.0e-6);
+      }
+    }
+  }
+
+  @Test
+  public void testDeepTree() {
+    // a path of 100000 nodes, with a leaf hanging from each node
+    MutableGraph<Integer> graph = GraphBuilder.directed().build();
+    int depth = 100000;
+    for (int i = 1; i < depth; i++) {
+      graph.putEdge(i - 1, i);
+      graph.putEdge(i - 1, -i);
+    }
+    LayoutModel<Integer> layoutModel = layout(graph);
+    Point last = layoutModel.apply(depth - 1);
+    Assert.assertEquals(20 + depth * DIST_Y, last.y, 0);
+    Assert.assertTrue(layoutModel.getHeight() > last.y);
+    // each node is centered over the next node of the path and its leaf, which are DIST_X apart
+    for (int i = 1; i < depth; i++) {
+      Point node = layoutModel.apply(i);
+      Point leaf = layoutModel.apply(-i);
+      Assert.assertEquals(DIST_X, Math.abs(leaf.x - node.x), 1.0e-6);
+      Assert.assertEquals((leaf.x + node.x) / 2, layoutModel.apply(i - 1).x, 1.0e-6);
+    }
+  }
+
+  private static <N> LayoutModel<N> layout(MutableGraph<N> graph) {
+    LayoutModel<N> layoutModel =
+        LoadingCacheLayoutModel.<N>builder().setGraph(graph).setSize(500, 500).build();
+    new TidyTreeLayoutAlgorithm<N>(DIST_X, DIST_Y).visit(layoutModel);
+    return layoutModel;
+  }
+}
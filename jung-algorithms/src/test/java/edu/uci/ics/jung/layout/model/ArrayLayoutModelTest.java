@@ -0,0 +1,133 @@
+package edu.uci.ics.jung.layout.model;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+import edu.uci.ics.jung.layout.algorithms.FRLayoutAlgorithm;
+import edu.uci.ics.jung.layout.util.LayoutChangeListener;
+import edu.uci.ics.jung.layout.util.LayoutEvent;
+import edu.uci.ics.jung.layout.util.LayoutNetworkEvent;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the ArrayLayoutModel: lazy initialization, bulk access by index, preservation of locations
+ * when the graph changes, and agreement with a LoadingCacheLayoutModel under the same layout.
+ */
+public class ArrayLayoutModelTest {
+
+  private MutableGraph<String> graph;
+  private ArrayLayoutModel<String> layoutModel;
+
+  @Before
+  public void setup() {
+    graph = GraphBuilder.undirected().build();
+    graph.putEdge("A", "B");
+    graph.putEdge("B", "C");
+    graph.putEdge("C", "A");
+    layoutModel =
+        ArrayLayoutModel.<String>builder()
+            .setGraph(graph)
+            .setSize(100, 100)
+            .setInitializer(n -> Point.of(n.charAt(0), 10))
+            .build();
+  }
+
+  @Test
+  public void testSetAndGet() {
+    Assert.assertEquals(3, layoutModel.size());
+    Assert.assertEquals(Point.of('B', 10), layoutModel.get("B"));
+    layoutModel.set("B", 1, 2);
+    Assert.assertEquals(Point.of(1, 2), layoutModel.apply("B"));
+
+    // a node that is not in the graph, and has not been set, has no index or location
+    Assert.assertNull(layoutModel.get("Z"));
+    Assert.assertEquals(-1, layoutModel.indexOf("Z"));
+    Assert.assertEquals(3, layoutModel.size());
+
+    // a node that is added to the graph, or set, is assigned the next index
+    graph.putEdge("Z", "A");
+    Assert.assertEquals(Point.of('Z', 10), layoutModel.get("Z"));
+    Assert.assertEquals(3, layoutModel.indexOf("Z"));
+    Assert.assertEquals("Z", layoutModel.node(3));
+    layoutModel.set("Y", 3, 4);
+    Assert.assertEquals(4, layoutModel.indexOf("Y"));
+    Assert.assertEquals(Point.of(3, 4), layoutModel.get("Y"));
+  }
+
+  @Test
+  public void testSetAllAndSnapshot() {
+    List<String> changed = new ArrayList<>();
+    layoutModel.addLayoutChangeListener(
+        new LayoutChangeListener<String>() {
+          @Override
+          public void layoutChanged(LayoutEvent<String> evt) {
+            changed.add(evt.getNode());
+          }
+
+          @Override
+          public void layoutChanged(LayoutNetworkEvent<String> evt) {}
+        });
+    layoutModel.setAll(new double[] {1, 2, 3}, new double[] {4, 5, 6});
+    Assert.assertEquals(3, changed.size());
+
+    double[] x = new double[3];
+    double[] y = new double[3];
+    Assert.assertEquals(3, layoutModel.snapshot(x, y));
+    for (int i = 0; i < 3; i++) {
+      String node = layoutModel.node(i);
+      Assert.assertEquals(Point.of(i + 1, i + 4), layoutModel.get(node));
+      Assert.assertEquals(i + 1, x[i], 0);
+      Assert.assertEquals(i + 4, y[i], 0);
+    }
+  }
+
+  @Test
+  public void testLockedModel() {
+    layoutModel.lock(true);
+    layoutModel.set("A", 1, 2);
+    layoutModel.setAll(new double[] {1}, new double[] {2});
+    Assert.assertEquals(Point.of('A', 10), layoutModel.get("A"));
+  }
+
+  @Test
+  public void testSetGraphKeepsLocations() {
+    layoutModel.set("A", 1, 2);
+    MutableGraph<String> other = GraphBuilder.undirected().build();
+    other.putEdge("D", "A");
+    layoutModel.setGraph(other);
+    Assert.assertEquals(2, layoutModel.size());
+    Assert.assertEquals(Point.of(1, 2), layoutModel.get("A"));
+    Assert.assertEquals(Point.of('D', 10), layoutModel.get("D"));
+  }
+
+  @Test
+  public void testSetInitializerDiscardsLocations() {
+    layoutModel.set("A", 1, 2);
+    layoutModel.setInitializer(n -> Point.of(50, 50));
+    Assert.assertEquals(Point.of(50, 50), layoutModel.get("A"));
+  }
+
+  @Test
+  public void testSameLayoutAsLoadingCacheLayoutModel() {
+    LayoutModel<String> expected =
+        LoadingCacheLayoutModel.<String>builder()
+            .setGraph(graph)
+            .setSize(100, 100)
+            .setInitializer(n -> Point.of(n.charAt(0), 10))
+            .build();
+    for (LayoutModel<String> model : new LayoutModel[] {expected, layoutModel}) {
+      FRLayoutAlgorithm<String> layoutAlgorithm = new FRLayoutAlgorithm<>();
+      layoutAlgorithm.setRandomSeed(0);
+      layoutAlgorithm.visit(model);
+      for (int i = 0; i < 20; i++) {
+        layoutAlgorithm.step();
+      }
+    }
+    for (String node : graph.nodes()) {
+      Assert.assertEquals(expected.apply(node), layoutModel.apply(node));
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package edu.uci.ics.jung.layout.spatial;
+
+import edu.uci.ics.jung.layout.model.Point;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the FlatBarnesHutQuadTree, comparing the forces that it gathers with those gathered from a
+ * BarnesHutQuadTree over the same points, and (with a theta of 0) with the exact forces.
+ */
+public class FlatBarnesHutQuadTreeTest {
+
+  private static final int COUNT = 300;
+
+  private double[] x;
+  private double[] y;
+
+  @Before
+  public void setup() {
+    Random random = new Random(0);
+    x = new double[COUNT];
+    y = new double[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      x[i] = random.nextDouble() * 500;
+      y[i] = random.nextDouble() * 500;
+    }
+  }
+
+  /** bodies at the same location share a single leaf */
+  @Test
+  public void testCoincidentBodies() {
+    FlatBarnesHutQuadTree tree = new FlatBarnesHutQuadTree(500, 500);
+    tree.rebuild(new double[] {10, 10, 10}, new double[] {10, 10, 10}, 3);
+    Assert.assertEquals(1, tree.cellCount());
+    Assert.assertEquals(3, tree.getMass(), 0);
+    Assert.assertEquals(10, tree.getCenterX(), 0);
+    Assert.assertEquals(10, tree.getCenterY(), 0);
+  }
+
+  @Test
+  public void testCoincidentBodiesExcludeThemselves() {
+    FlatBarnesHutQuadTree tree = new FlatBarnesHutQuadTree(500, 500);
+    tree.setTheta(0);
+    tree.rebuild(new double[] {10, 10, 10, 400}, new double[] {10, 10, 10, 400}, 4);
+    double[] mass = new double[1];
+    tree.applyForcesTo(1, 10, 10, (otherX, otherY, m) -> mass[0] += m);
+    // the two other coincident bodies and the distant one
+    Assert.assertEquals(3, mass[0], 0);
+
+    mass[0] = 0;
+    tree.applyForcesTo(3, 400, 400, (otherX, otherY, m) -> mass[0] += m);
+    Assert.assertEquals(3, mass[0], 0);
+  }
+
+  @Test
+  public void testWeightedBodies() {
+    FlatBarnesHutQuadTree tree = new FlatBarnesHutQuadTree(500, 500);
+    tree.setTheta(0);
+    tree.rebuild(new double[] {10, 10, 400}, new double[] {10, 10, 100}, new double[] {2, 3, 5}, 3);
+    Assert.assertEquals(10, tree.getMass(), 0);
+    Assert.assertEquals((10 * 5 + 400 * 5) / 10.0, tree.getCenterX(), 1.0e-9);
+    Assert.assertEquals((10 * 5 + 100 * 5) / 10.0, tree.getCenterY(), 1.0e-9);
+    double[] mass = new double[1];
+    tree.applyForcesTo(0, 10, 10, (otherX, otherY, m) -> mass[0] += m);
+    Assert.assertEquals(8, mass[0], 0);
+  }
+
+  @Test
+  public void testCenterOfMass() {
+    FlatBarnesHutQuadTree tree = new FlatBarnesHutQuadTree(500, 500);
+    tree.rebuild(x, y, COUNT);
+    double sumX = 0;
+    double sumY = 0;
+    for (int i = 0; i < COUNT; i++) {
+      sumX += x[i];
+      sumY += y[i];
+    }
+    Assert.assertEquals(COUNT, tree.size());
+    Assert.assertEquals(COUNT, tree.getMass(), 0);
+    Assert.assertEquals(sumX / COUNT, tree.getCenterX(), 1.0e-9);
+    Assert.assertEquals(sumY / COUNT, tree.getCenterY(), 1.0e-9);
+  }
+
+  /** the same approximation as the BarnesHutQuadTree, even when the tree is reused */
+  @Test
+  public void testMatchesBarnesHutQuadTree() {
+    BarnesHutQuadTree<Integer> expectedTree = new BarnesHutQuadTree<>(500, 500);
+    FlatBarnesHutQuadTree tree = new FlatBarnesHutQuadTree(500, 500);
+    // build once with other points, to check that the rebuild starts afresh
+    tree.rebuild(y, x, COUNT / 2);
+    tree.rebuild(x, y, COUNT);
+    for (int i = 0; i < COUNT; i++) {
+      expectedTree.insert(new ForceObject<>(i, x[i], y[i]));
+    }
+
+    for (int i = 0; i < COUNT; i++) {
+      ForceObject<Integer> visitor =
+          new ForceObject<Integer>(i, x[i], y[i]) {
+            @Override
+            protected <S> void addForceFrom(ForceObject<Integer> other) {
+              f = f.add(force(p.x, p.y, other.p.x, other.p.y, other.mass));
+            }
+          };
+      expectedTree.applyForcesTo(visitor);
+      Sum sum = new Sum(x[i], y[i]);
+      tree.applyForcesTo(i, x[i], y[i], sum);
+      Assert.assertEquals(visitor.f.x, sum.dx, 1.0e-9);
+      Assert.assertEquals(visitor.f.y, sum.dy, 1.0e-9);
+    }
+  }
+
+  /** with a theta of 0 every other body is visited, so the forces are exact */
+  @Test
+  public void testExactWithThetaZero() {
+    FlatBarnesHutQuadTree tree = new FlatBarnesHutQuadTree(500, 500);
+    tree.setTheta(0);
+    tree.rebuild(x, y, COUNT);
+    for (int i = 0; i < COUNT; i++) {
+      Point expected = Point.ORIGIN;
+      for (int j = 0; j < COUNT; j++) {
+        if (j != i) {
+          expected = expected.add(force(x[i], y[i], x[j], y[j], 1));
+        }
+      }
+      Sum sum = new Sum(x[i], y[i]);
+      tree.applyForcesTo(i, x[i], y[i], sum);
+      Assert.assertEquals(expected.x, sum.dx, 1.0e-9);
+      Assert.assertEquals(expected.y, sum.dy, 1.0e-9);
+    }
+  }
+
+  private static Point force(double x, double y, double otherX, double otherY, double mass) {
+    double dx = x - otherX;
+    double dy = y - otherY;
+    double distSq = Math.max(1.0e-6, dx * dx + dy * dy);
+    return Point.of(mass * dx / distSq, mass * dy / distSq);
+  }
+
+  private static class Sum implements FlatBarnesHutQuadTree.ForceAccumulator {
+    final double x;
+    final double y;
+    double dx;
+    double dy;
+
+    Sum(double x, double y) {
+      this.x = x;
+      this.y = y;
+    }
+
+    @Override
+    public void addForceFrom(double otherX, double otherY, double mass) {
+      Point f = force(x, y, otherX, otherY, mass);
+      dx += f.x;
+      dy += f.y;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package edu.uci.ics.jung.layout.util;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import edu.uci.ics.jung.layout.model.Point;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the batching of LayoutEvents by a LayoutModel, and the coalescing of events into one
+ * LayoutBatchEvent per flush by the LayoutEventCoalescer.
+ */
+public class LayoutEventCoalescerTest {
+
+  private LoadingCacheLayoutModel<String> layoutModel;
+  private Recorder recorder;
+
+  @Before
+  public void setup() {
+    MutableGraph<String> graph = GraphBuilder.undirected().build();
+    graph.putEdge("A", "B");
+    graph.putEdge("B", "C");
+    layoutModel =
+        LoadingCacheLayoutModel.<String>builder().setGraph(graph).setSize(100, 100).build();
+    recorder = new Recorder();
+  }
+
+  @Test
+  public void testEventsOutsideABatchAreDeliveredSingly() {
+    layoutModel.addLayoutChangeListener(recorder);
+    layoutModel.set("A", 1, 1);
+    layoutModel.set("B", 2, 2);
+    Assert.assertEquals(2, recorder.events.size());
+    Assert.assertTrue(recorder.batches.isEmpty());
+  }
+
+  @Test
+  public void testNestedBatchIsDeliveredOnceWithLatestLocations() {
+    layoutModel.addLayoutChangeListener(recorder);
+    layoutModel.beginLayoutEventBatch();
+    layoutModel.set("A", 1, 1);
+    layoutModel.beginLayoutEventBatch();
+    layoutModel.set("B", 2, 2);
+    layoutModel.endLayoutEventBatch();
+    layoutModel.set("A", 3, 3);
+    Assert.assertTrue(recorder.batches.isEmpty());
+    layoutModel.endLayoutEventBatch();
+
+    Assert.assertTrue(recorder.events.isEmpty());
+    Assert.assertEquals(1, recorder.batches.size());
+    LayoutBatchEvent<String> batch = recorder.batches.get(0);
+    Assert.assertEquals(2, batch.size());
+    Assert.assertEquals(Point.of(3, 3), batch.getLocations().get("A"));
+    Assert.assertEquals(Point.of(2, 2), batch.getLocations().get("B"));
+  }
+
+  @Test
+  public void testBatchIsConfinedToItsThread() throws InterruptedException {
+    layoutModel.addLayoutChangeListener(recorder);
+    layoutModel.beginLayoutEventBatch();
+    Thread other = new Thread(() -> layoutModel.set("B", 2, 2));
+    other.start();
+    other.join();
+    // the move on the other thread is not held back by the batch of this thread
+    Assert.assertEquals(1, recorder.events.size());
+    layoutModel.set("A", 1, 1);
+    layoutModel.endLayoutEventBatch();
+    Assert.assertEquals(1, recorder.batches.size());
+    Assert.assertEquals(1, recorder.batches.get(0).size());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testUnbalancedBatchEnd() {
+    layoutModel.endLayoutEventBatch();
+  }
+
+  /** a listener that does not handle batches receives each move as a LayoutEvent */
+  @Test
+  public void testDefaultBatchHandling() {
+    List<String> moved = new ArrayList<>();
+    layoutModel.addLayoutChangeListener(
+        new LayoutChangeListener<String>() {
+          @Override
+          public void layoutChanged(LayoutEvent<String> evt) {
+            moved.add(evt.getNode());
+          }
+
+          @Override
+          public void layoutChanged(LayoutNetworkEvent<String> evt) {}
+        });
+    layoutModel.beginLayoutEventBatch();
+    layoutModel.set("A", 1, 1);
+    layoutModel.set("C", 2, 2);
+    layoutModel.endLayoutEventBatch();
+    Assert.assertEquals(2, moved.size());
+    Assert.assertTrue(moved.contains("A"));
+    Assert.assertTrue(moved.contains("C"));
+  }
+
+  @Test
+  public void testCoalescerDeliversOneBatchPerFlush() {
+    Queue<Runnable> frames = new ArrayDeque<>();
+    LayoutEventCoalescer<String> coalescer = new LayoutEventCoalescer<>(frames::add);
+    coalescer.addLayoutChangeListener(recorder);
+    layoutModel.addLayoutChangeListener(coalescer);
+
+    layoutModel.set("A", 1, 1);
+    layoutModel.beginLayoutEventBatch();
+    layoutModel.set("B", 2, 2);
+    layoutModel.set("A", 3, 3);
+    layoutModel.endLayoutEventBatch();
+    // only the first event schedules a flush
+    Assert.assertEquals(1, frames.size());
+    Assert.assertTrue(recorder.batches.isEmpty());
+
+    frames.remove().run();
+    Assert.assertEquals(1, recorder.batches.size());
+    Assert.assertEquals(2, recorder.batches.get(0).size());
+    Assert.assertEquals(Point.of(3, 3), recorder.batches.get(0).getLocations().get("A"));
+
+    // after a flush, the next event schedules another
+    layoutModel.set("C", 4, 4);
+    Assert.assertEquals(1, frames.size());
+    frames.remove().run();
+    Assert.assertEquals(2, recorder.batches.size());
+    Assert.assertEquals(Point.of(4, 4), recorder.batches.get(1).getLocations().get("C"));
+  }
+
+  private static class Recorder implements LayoutChangeListener<String> {
+    final List<LayoutEvent<String>> events = new ArrayList<>();
+    final List<LayoutBatchEvent<String>> batches = new ArrayList<>();
+
+    @Override
+    public void layoutChanged(LayoutEvent<String> evt) {
+      events.add(evt);
+    }
+
+    @Override
+    public void layoutChanged(LayoutNetworkEvent<String> evt) {
+      events.add(evt);
+    }
+
+    @Override
+    public void layoutChanged(LayoutBatchEvent<String> evt) {
+      batches.add(evt);
+    }
+  }
+}
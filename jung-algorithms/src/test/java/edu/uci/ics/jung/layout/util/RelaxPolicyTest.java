@@ -0,0 +1,122 @@
+package edu.uci.ics.jung.layout.util;
+
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+import edu.uci.ics.jung.layout.algorithms.IterativeLayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs a layout algorithm that takes a fixed number of steps under each RelaxPolicy, on a supplied
+ * Executor, and checks the pacing and the timings reported with the final LayoutStateChangeEvent.
+ */
+public class RelaxPolicyTest {
+
+  private static final int STEPS = 5;
+
+  private LayoutModel<String> layoutModel;
+  private ExecutorService executor;
+  private AtomicReference<LayoutModel.LayoutStateChangeEvent> finished;
+  private volatile Thread relaxerThread;
+
+  @Before
+  public void setup() {
+    MutableGraph<String> graph = GraphBuilder.undirected().build();
+    graph.putEdge("A", "B");
+    layoutModel =
+        LoadingCacheLayoutModel.<String>builder().setGraph(graph).setSize(100, 100).build();
+    executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "relaxer"));
+    layoutModel.setRelaxerExecutor(executor);
+    finished = new AtomicReference<>();
+    layoutModel
+        .getLayoutStateChangeSupport()
+        .addLayoutStateChangeListener(
+            evt -> {
+              if (!evt.active) {
+                finished.set(evt);
+              }
+            });
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testRunToCompletion() throws Exception {
+    RelaxMetrics metrics = relax(RelaxPolicy.runToCompletion());
+    Assert.assertEquals("relaxer", relaxerThread.getName());
+    Assert.assertEquals(STEPS, metrics.getStepCount());
+    Assert.assertTrue(metrics.isCompleted());
+    Assert.assertTrue(metrics.getStepNanos() <= metrics.getElapsedNanos());
+    Assert.assertTrue(metrics.getMaxStepNanos() <= metrics.getStepNanos());
+    Assert.assertSame(metrics, layoutModel.getLayoutStateChangeSupport().getRelaxMetrics());
+  }
+
+  @Test
+  public void testFixedRate() throws Exception {
+    RelaxMetrics metrics = relax(RelaxPolicy.fixedRate(20));
+    Assert.assertEquals(STEPS, metrics.getStepCount());
+    // every step is followed by the rest of its period
+    Assert.assertTrue(metrics.getElapsedNanos() >= TimeUnit.MILLISECONDS.toNanos(STEPS * 20));
+  }
+
+  @Test
+  public void testFrameBudget() throws Exception {
+    // each step takes about 2ms, so the budget allows a single step in each frame
+    RelaxMetrics metrics = relax(RelaxPolicy.frameBudget(1, 20));
+    Assert.assertEquals(STEPS, metrics.getStepCount());
+    Assert.assertTrue(metrics.getElapsedNanos() >= TimeUnit.MILLISECONDS.toNanos(STEPS * 18));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testFrameShorterThanBudget() {
+    RelaxPolicy.frameBudget(20, 10);
+  }
+
+  private RelaxMetrics relax(RelaxPolicy policy) throws Exception {
+    layoutModel.setRelaxPolicy(policy);
+    layoutModel.accept(new CountingLayoutAlgorithm());
+    layoutModel.getTheFuture().get(10, TimeUnit.SECONDS);
+    Assert.assertFalse(layoutModel.isRelaxing());
+    return finished.get().metrics;
+  }
+
+  /** takes STEPS steps of about 2ms each */
+  private class CountingLayoutAlgorithm implements IterativeLayoutAlgorithm<String> {
+    private int steps;
+
+    @Override
+    public boolean preRelax() {
+      return false;
+    }
+
+    @Override
+    public void visit(LayoutModel<String> layoutModel) {}
+
+    @Override
+    public void step() {
+      relaxerThread = Thread.currentThread();
+      steps++;
+      try {
+        Thread.sleep(2);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    @Override
+    public boolean done() {
+      return steps >= STEPS;
+    }
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.benchmarks;
+
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.algorithms.scoring.BetweennessCentrality;
+import java.util.concurrent.ForkJoinPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/** Measures the computation of the betweenness centrality of every node and edge. */
+public class BetweennessCentralityBenchmark extends NetworkBenchmark {
+  private Network<Integer, Integer> network;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    network = generateNetwork();
+  }
+
+  @Benchmark
+  public BetweennessCentrality<Integer, Integer> unweighted() {
+    return new BetweennessCentrality<>(network);
+  }
+
+  @Benchmark
+  public BetweennessCentrality<Integer, Integer> unweightedParallel() {
+    return new BetweennessCentrality<>(network, ForkJoinPool.commonPool());
+  }
+
+  @Benchmark
+  public BetweennessCentrality<Integer, Integer> weighted() {
+    return new BetweennessCentrality<>(network, e -> 1 + (e % 7));
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.benchmarks;
+
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.algorithms.shortestpath.DijkstraDistance;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures single-source shortest path searches, both to exhaustion and to a single target. The
+ * sources and targets cycle through a fixed random sequence of nodes.
+ */
+public class DijkstraDistanceBenchmark extends NetworkBenchmark {
+  private static final int PAIRS = 64;
+
+  private Network<Integer, Integer> network;
+  private List<Integer> sources;
+  private List<Integer> targets;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    network = generateNetwork();
+    Random random = new Random(SEED);
+    List<Integer> nodes = new ArrayList<>(network.nodes());
+    sources = new ArrayList<>();
+    targets = new ArrayList<>();
+    for (int i = 0; i < PAIRS; i++) {
+      sources.add(nodes.get(random.nextInt(nodes.size())));
+      targets.add(nodes.get(random.nextInt(nodes.size())));
+    }
+  }
+
+  @Benchmark
+  public Map<Integer, Number> distanceMap() {
+    int i = next++ % PAIRS;
+    return new DijkstraDistance<>(network, e -> 1 + (e % 7), false).getDistanceMap(sources.get(i));
+  }
+
+  @Benchmark
+  public Number pointToPoint() {
+    int i = next++ % PAIRS;
+    return new DijkstraDistance<>(network, e -> 1 + (e % 7), false)
+        .getDistance(sources.get(i), targets.get(i));
+  }
+}
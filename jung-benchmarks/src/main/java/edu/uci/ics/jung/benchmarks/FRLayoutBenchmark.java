@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.benchmarks;
+
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.layout.algorithms.FRLayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import edu.uci.ics.jung.layout.util.RandomLocationTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures a single step of the Fruchterman-Reingold layout. The layout is restarted from the same
+ * random positions at the start of each iteration, and is driven directly on the benchmark thread
+ * rather than by a relaxer thread.
+ */
+public class FRLayoutBenchmark extends NetworkBenchmark {
+  private static final int SIZE = 1000;
+
+  private Network<Integer, Integer> network;
+  private FRLayoutAlgorithm<Integer> layoutAlgorithm;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    network = generateNetwork();
+  }
+
+  @Setup(Level.Iteration)
+  public void restartLayout() {
+    LayoutModel<Integer> layoutModel =
+        LoadingCacheLayoutModel.<Integer>builder()
+            .setGraph(network.asGraph())
+            .setSize(SIZE, SIZE)
+            .setInitializer(new RandomLocationTransformer<>(SIZE, SIZE, SEED))
+            .build();
+    layoutAlgorithm = new FRLayoutAlgorithm<>();
+    layoutAlgorithm.setRandomSeed(SEED);
+    layoutAlgorithm.setMaxIterations(Integer.MAX_VALUE);
+    layoutAlgorithm.visit(layoutModel);
+  }
+
+  @Benchmark
+  public FRLayoutAlgorithm<Integer> step() {
+    layoutAlgorithm.step();
+    return layoutAlgorithm;
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.benchmarks;
+
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.io.GraphMLReader;
+import edu.uci.ics.jung.io.GraphMLWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import javax.xml.parsers.ParserConfigurationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+import org.xml.sax.SAXException;
+
+/**
+ * Measures parsing a graph, with a weight for each edge, from GraphML held in memory. The GraphML
+ * is written by {@link GraphMLWriter} when the trial starts.
+ */
+public class GraphMLReaderBenchmark extends NetworkBenchmark {
+  private String graphML;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    GraphMLWriter<Integer, Integer> writer = new GraphMLWriter<>();
+    writer.setNodeIDs(String::valueOf);
+    writer.setEdgeIDs(String::valueOf);
+    writer.addEdgeData("weight", "the weight of the edge", "1", e -> String.valueOf(1 + e % 7));
+    StringWriter out = new StringWriter();
+    writer.save(generateNetwork(), out);
+    graphML = out.toString();
+  }
+
+  @Benchmark
+  public MutableNetwork<String, String> parse()
+      throws IOException, ParserConfigurationException, SAXException {
+    GraphMLReader<MutableNetwork<String, String>, String, String> reader = new GraphMLReader<>();
+    MutableNetwork<String, String> network = NetworkBuilder.undirected().build();
+    reader.load(new StringReader(graphML), network);
+    return network;
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.benchmarks;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Graph;
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.algorithms.generators.Lattice2DGenerator;
+import edu.uci.ics.jung.algorithms.generators.random.BarabasiAlbertGenerator;
+import edu.uci.ics.jung.algorithms.generators.random.ErdosRenyiGenerator;
+import edu.uci.ics.jung.algorithms.generators.random.KleinbergSmallWorld;
+import java.util.function.Supplier;
+
+/**
+ * The shapes of graph over which the benchmarks are run. Each shape generates an undirected graph
+ * of (approximately) a requested number of nodes, whose nodes and edges are consecutive integers
+ * starting at 0; for a given size and seed, the same graph is generated every time, so that results
+ * from different runs are comparable.
+ */
+public enum GraphShape {
+  /** A scale-free graph, in which each new node attaches 3 edges by preferential attachment. */
+  BARABASI_ALBERT {
+    @Override
+    MutableNetwork<Integer, Integer> generate(int nodeCount, long seed) {
+      BarabasiAlbertGenerator<Integer, Integer> generator =
+          new BarabasiAlbertGenerator<>(
+              NetworkBuilder.undirected(), counter(), counter(), 4, 3, (int) seed);
+      generator.evolveGraph(nodeCount - 4);
+      return generator.get();
+    }
+  },
+
+  /** A random graph in which each pair of nodes is connected with probability 6 / (n - 1). */
+  ERDOS_RENYI {
+    @Override
+    MutableNetwork<Integer, Integer> generate(int nodeCount, long seed) {
+      ErdosRenyiGenerator<Integer> generator =
+          new ErdosRenyiGenerator<>(counter(), nodeCount, 6.0 / (nodeCount - 1));
+      generator.setSeed(seed);
+      Graph<Integer> graph = generator.get();
+      MutableNetwork<Integer, Integer> network =
+          NetworkBuilder.undirected().expectedNodeCount(nodeCount).build();
+      for (Integer node : graph.nodes()) {
+        network.addNode(node);
+      }
+      Supplier<Integer> edges = counter();
+      for (EndpointPair<Integer> endpoints : graph.edges()) {
+        network.addEdge(endpoints.nodeU(), endpoints.nodeV(), edges.get());
+      }
+      return network;
+    }
+  },
+
+  /** A square (non-toroidal) grid. */
+  LATTICE {
+    @Override
+    MutableNetwork<Integer, Integer> generate(int nodeCount, long seed) {
+      int side = side(nodeCount);
+      return new Lattice2DGenerator<Integer, Integer>(side, side, false)
+          .generateNetwork(false, counter(), counter());
+    }
+  },
+
+  /** A square toroidal grid to which each node adds 2 long-range edges, per Kleinberg. */
+  KLEINBERG {
+    @Override
+    MutableNetwork<Integer, Integer> generate(int nodeCount, long seed) {
+      int side = side(nodeCount);
+      Lattice2DGenerator<Integer, Integer> lattice = new Lattice2DGenerator<>(side, side, true);
+      Supplier<Integer> edges = counter();
+      MutableNetwork<Integer, Integer> network = lattice.generateNetwork(false, counter(), edges);
+      KleinbergSmallWorld.<Integer, Integer>builder()
+          .connectionCount(2)
+          .randomSeed(seed)
+          .build()
+          .addSmallWorldConnections(network, lattice.distance(network.asGraph()), edges);
+      return network;
+    }
+  };
+
+  /**
+   * Generates a graph of this shape.
+   *
+   * @param nodeCount the number of nodes; grids use the largest square no larger than this
+   * @param seed the seed for any random choices made by the generator
+   * @return the generated graph
+   */
+  abstract MutableNetwork<Integer, Integer> generate(int nodeCount, long seed);
+
+  private static int side(int nodeCount) {
+    int side = (int) Math.sqrt(nodeCount);
+    Preconditions.checkArgument(side >= 4, "a grid requires at least 16 nodes");
+    return side;
+  }
+
+  private static Supplier<Integer> counter() {
+    return new Supplier<Integer>() {
+      private int next = 0;
+
+      @Override
+      public Integer get() {
+        return next++;
+      }
+    };
+  }
+}
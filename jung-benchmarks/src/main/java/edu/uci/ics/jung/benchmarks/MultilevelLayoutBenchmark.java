@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.benchmarks;
+
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.layout.algorithms.MultilevelLayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures a complete multilevel layout, from coarsening to the refinement of the finest level, for
+ * comparison with the cost of the many steps that {@link FRLayoutBenchmark} needs to converge.
+ */
+public class MultilevelLayoutBenchmark extends NetworkBenchmark {
+  private static final int SIZE = 1000;
+
+  private Network<Integer, Integer> network;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    network = generateNetwork();
+  }
+
+  @Benchmark
+  public LayoutModel<Integer> layout() {
+    LayoutModel<Integer> layoutModel =
+        LoadingCacheLayoutModel.<Integer>builder()
+            .setGraph(network.asGraph())
+            .setSize(SIZE, SIZE)
+            .build();
+    MultilevelLayoutAlgorithm<Integer> layoutAlgorithm = new MultilevelLayoutAlgorithm<>();
+    layoutAlgorithm.setRandomSeed(SEED);
+    layoutAlgorithm.visit(layoutModel);
+    return layoutModel;
+  }
+}
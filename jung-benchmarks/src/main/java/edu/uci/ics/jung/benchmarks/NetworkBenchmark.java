@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.benchmarks;
+
+import com.google.common.graph.MutableNetwork;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The common state of the benchmarks, each of which is run over a generated graph of each {@link
+ * GraphShape} and size. The sizes and shapes may be restricted on the command line, for example
+ * with <code>-p nodeCount=1024 -p shape=LATTICE</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class NetworkBenchmark {
+  /** The seed used for all random choices, so that each run sees the same graphs. */
+  static final long SEED = 20180401L;
+
+  @Param({"BARABASI_ALBERT", "ERDOS_RENYI", "LATTICE", "KLEINBERG"})
+  public GraphShape shape;
+
+  @Param({"256", "1024", "4096"})
+  public int nodeCount;
+
+  /** Returns a new graph of the shape and size of the current trial. */
+  protected MutableNetwork<Integer, Integer> generateNetwork() {
+    return shape.generate(nodeCount, SEED);
+  }
+}
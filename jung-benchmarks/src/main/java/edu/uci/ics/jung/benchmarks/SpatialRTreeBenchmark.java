@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.benchmarks;
+
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.layout.algorithms.StaticLayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import edu.uci.ics.jung.layout.util.RandomLocationTransformer;
+import edu.uci.ics.jung.visualization.BaseVisualizationModel;
+import edu.uci.ics.jung.visualization.BasicVisualizationServer;
+import edu.uci.ics.jung.visualization.VisualizationModel;
+import edu.uci.ics.jung.visualization.layout.BoundingRectangleCollector;
+import edu.uci.ics.jung.visualization.spatial.SpatialRTree;
+import edu.uci.ics.jung.visualization.spatial.rtree.RStarLeafSplitter;
+import edu.uci.ics.jung.visualization.spatial.rtree.RStarSplitter;
+import edu.uci.ics.jung.visualization.spatial.rtree.SplitterContext;
+import java.awt.Dimension;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+import java.util.Set;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures building a {@link SpatialRTree} of the nodes of a graph laid out at random, and querying
+ * it for the nodes in a rectangle (a tenth of the layout's width and height) and for the node
+ * closest to a point. The queries cycle through a fixed random sequence of locations.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SpatialRTreeBenchmark extends NetworkBenchmark {
+  private static final int SIZE = 1000;
+  private static final int QUERIES = 64;
+
+  private VisualizationModel<Integer, Integer> visualizationModel;
+  private BoundingRectangleCollector.Nodes<Integer> boundingRectangleCollector;
+  private SpatialRTree.Nodes<Integer> spatial;
+  private Rectangle2D[] queries;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Network<Integer, Integer> network = generateNetwork();
+    LayoutModel<Integer> layoutModel =
+        LoadingCacheLayoutModel.<Integer>builder()
+            .setGraph(network.asGraph())
+            .setSize(SIZE, SIZE)
+            .setInitializer(new RandomLocationTransformer<>(SIZE, SIZE, SEED))
+            .build();
+    visualizationModel =
+        new BaseVisualizationModel<>(network, layoutModel, new StaticLayoutAlgorithm<>());
+    BasicVisualizationServer<Integer, Integer> server =
+        new BasicVisualizationServer<>(visualizationModel, new Dimension(SIZE, SIZE));
+    boundingRectangleCollector =
+        new BoundingRectangleCollector.Nodes<>(server.getRenderContext(), visualizationModel);
+    spatial = createSpatial();
+
+    Random random = new Random(SEED);
+    queries = new Rectangle2D[QUERIES];
+    for (int i = 0; i < QUERIES; i++) {
+      queries[i] =
+          new Rectangle2D.Double(
+              random.nextDouble() * SIZE, random.nextDouble() * SIZE, SIZE / 10, SIZE / 10);
+    }
+  }
+
+  private SpatialRTree.Nodes<Integer> createSpatial() {
+    SpatialRTree.Nodes<Integer> spatial =
+        new SpatialRTree.Nodes<>(
+            visualizationModel,
+            boundingRectangleCollector,
+            SplitterContext.of(new RStarLeafSplitter<>(), new RStarSplitter<>()));
+    spatial.setActive(true);
+    spatial.recalculate();
+    return spatial;
+  }
+
+  @Benchmark
+  public SpatialRTree.Nodes<Integer> build() {
+    return createSpatial();
+  }
+
+  @Benchmark
+  public Set<Integer> visibleElements() {
+    return spatial.getVisibleElements(queries[next++ % QUERIES]);
+  }
+
+  @Benchmark
+  public Integer closestElement() {
+    Rectangle2D query = queries[next++ % QUERIES];
+    return spatial.getClosestElement(query.getCenterX(), query.getCenterY());
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.io;
+
+/**
+ * The layout of the binary graph format written by {@link BinaryGraphWriter} and read by {@link
+ * BinaryGraphReader}. All values are little-endian, and each section starts at a multiple of 8
+ * bytes:
+ *
+ * <ul>
+ *   <li>header: magic number (int), version (int), flags (int), reserved (int), node count (long),
+ *       edge count (long), outgoing slot count (long), reserved (long)
+ *   <li>node ids: the (long) id of each node, in strictly increasing order; the position of a node
+ *       in this table is its <i>index</i>
+ *   <li>edge ids: the (long) id of each edge, in strictly increasing order
+ *   <li>edge sources, edge targets: the (int) index of the source and target of each edge (for
+ *       undirected edges, of its two endpoints)
+ *   <li>outgoing offsets, outgoing edges: for each node <code>v</code>, the (int) indices of its
+ *       outgoing edges (its incident edges, if undirected) are those at positions <code>
+ *       [offset[v], offset[v + 1])</code>, in increasing order
+ *   <li>incoming offsets, incoming edges (directed graphs only): likewise for incoming edges
+ *   <li>edge weights (weighted graphs only): the (double) weight of each edge
+ * </ul>
+ *
+ * <p>An undirected self-loop occupies one outgoing slot of its node.
+ */
+final class BinaryGraphFormat {
+  static final int MAGIC = 0x4A554E47; // "JUNG"
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 48;
+
+  static final int DIRECTED = 1;
+  static final int WEIGHTED = 1 << 1;
+  static final int ALLOWS_PARALLEL_EDGES = 1 << 2;
+  static final int ALLOWS_SELF_LOOPS = 1 << 3;
+
+  final int flags;
+  final int nodeCount;
+  final int edgeCount;
+  final int slotCount;
+
+  // the offset of each section in the file
+  final long nodeIds;
+  final long edgeIds;
+  final long edgeSources;
+  final long edgeTargets;
+  final long outOffsets;
+  final long outEdges;
+  final long inOffsets;
+  final long inEdges;
+  final long weights;
+  final long fileSize;
+
+  BinaryGraphFormat(int flags, int nodeCount, int edgeCount, int slotCount) {
+    this.flags = flags;
+    this.nodeCount = nodeCount;
+    this.edgeCount = edgeCount;
+    this.slotCount = slotCount;
+
+    boolean directed = (flags & DIRECTED) != 0;
+    long offset = HEADER_SIZE;
+    this.nodeIds = offset;
+    offset = align(offset + 8L * nodeCount);
+    this.edgeIds = offset;
+    offset = align(offset + 8L * edgeCount);
+    this.edgeSources = offset;
+    offset = align(offset + 4L * edgeCount);
+    this.edgeTargets = offset;
+    offset = align(offset + 4L * edgeCount);
+    this.outOffsets = offset;
+    offset = align(offset + 4L * (nodeCount + 1));
+    this.outEdges = offset;
+    offset = align(offset + 4L * slotCount);
+    this.inOffsets = offset;
+    offset = align(offset + (directed ? 4L * (nodeCount + 1) : 0));
+    this.inEdges = offset;
+    offset = align(offset + (directed ? 4L * edgeCount : 0));
+    this.weights = offset;
+    offset += (flags & WEIGHTED) != 0 ? 8L * edgeCount : 0;
+    this.fileSize = offset;
+  }
+
+  boolean isDirected() {
+    return (flags & DIRECTED) != 0;
+  }
+
+  boolean isWeighted() {
+    return (flags & WEIGHTED) != 0;
+  }
+
+  private static long align(long offset) {
+    return (offset + 7) & ~7L;
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads graphs written by {@link BinaryGraphWriter}. Rather than building a graph in memory, the
+ * reader maps the file into memory and returns a read-only {@link MappedNetwork} view of it, whose
+ * nodes and edges are their <code>long</code> ids; the contents of the file are paged in by the
+ * operating system as they are used, so opening even a very large graph is nearly instantaneous.
+ *
+ * <p>Each section of the file (such as the table of edge ids) is mapped separately, and so must be
+ * smaller than 2 GB; in particular, the file may describe at most 2<sup>28</sup> edges.
+ *
+ * @see BinaryGraphWriter
+ */
+public class BinaryGraphReader {
+  /** Creates a new instance. */
+  public BinaryGraphReader() {}
+
+  /**
+   * Maps the graph in the specified file into memory. The file must not be modified while the view
+   * is in use.
+   *
+   * @param path the file from which the graph is to be read
+   * @return a read-only view of the graph in the file
+   * @throws IOException if the file cannot be read, or is not in the expected format
+   */
+  public MappedNetwork read(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() < BinaryGraphFormat.HEADER_SIZE) {
+        throw new IOException("File " + path + " is too short to contain a graph");
+      }
+      ByteBuffer header = map(channel, 0, BinaryGraphFormat.HEADER_SIZE);
+      if (header.getInt(0) != BinaryGraphFormat.MAGIC) {
+        throw new IOException("File " + path + " is not a binary graph file");
+      }
+      int version = header.getInt(4);
+      if (version != BinaryGraphFormat.VERSION) {
+        throw new IOException("Unsupported binary graph format version " + version);
+      }
+      BinaryGraphFormat format =
+          new BinaryGraphFormat(
+              header.getInt(8),
+              toCount(header.getLong(16)),
+              toCount(header.getLong(24)),
+              toCount(header.getLong(32)));
+      if (channel.size() < format.fileSize) {
+        throw new IOException(
+            "File " + path + " is truncated: expected " + format.fileSize + " bytes");
+      }
+
+      int n = format.nodeCount;
+      int m = format.edgeCount;
+      return new MappedNetwork(
+          format,
+          map(channel, format.nodeIds, 8L * n).asLongBuffer(),
+          map(channel, format.edgeIds, 8L * m).asLongBuffer(),
+          map(channel, format.edgeSources, 4L * m).asIntBuffer(),
+          map(channel, format.edgeTargets, 4L * m).asIntBuffer(),
+          map(channel, format.outOffsets, 4L * (n + 1)).asIntBuffer(),
+          map(channel, format.outEdges, 4L * format.slotCount).asIntBuffer(),
+          format.isDirected() ? map(channel, format.inOffsets, 4L * (n + 1)).asIntBuffer() : null,
+          format.isDirected() ? map(channel, format.inEdges, 4L * m).asIntBuffer() : null,
+          format.isWeighted() ? map(channel, format.weights, 8L * m).asDoubleBuffer() : null);
+    }
+  }
+
+  private static ByteBuffer map(FileChannel channel, long offset, long size) throws IOException {
+    if (size > Integer.MAX_VALUE) {
+      throw new IOException("Section of " + size + " bytes is too large to be mapped");
+    }
+    return channel.map(FileChannel.MapMode.READ_ONLY, offset, size).order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  private static int toCount(long count) throws IOException {
+    if (count < 0 || count >= Integer.MAX_VALUE) {
+      throw new IOException("Invalid element count " + count);
+    }
+    return (int) count;
+  }
+}
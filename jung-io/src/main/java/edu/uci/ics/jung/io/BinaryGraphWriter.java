@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.io;
+
+import com.google.common.base.Preconditions;
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.Network;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Writes graphs in a compact binary format, which {@link BinaryGraphReader} can map directly into
+ * memory. Each node and edge is identified in the file by a <code>long</code> id, which must be
+ * unique among the nodes (respectively, edges) of the graph; edge weights may optionally be
+ * written.
+ *
+ * <p>The nodes and edges of the graph, and their adjacency lists, are written in order of
+ * increasing id.
+ *
+ * @see BinaryGraphReader
+ */
+public class BinaryGraphWriter<N, E> {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /** Creates a new instance. */
+  public BinaryGraphWriter() {}
+
+  /**
+   * Saves the graph, without edge weights, to the specified file.
+   *
+   * @param g the graph to be saved
+   * @param path the file to which the graph is to be written
+   * @param nodeIds mapping from nodes to ids
+   * @param edgeIds mapping from edges to ids
+   * @throws IOException if the graph cannot be saved
+   */
+  public void save(
+      Network<N, E> g,
+      Path path,
+      ToLongFunction<? super N> nodeIds,
+      ToLongFunction<? super E> edgeIds)
+      throws IOException {
+    save(g, path, nodeIds, edgeIds, null);
+  }
+
+  /**
+   * Saves the graph to the specified file.
+   *
+   * @param g the graph to be saved
+   * @param path the file to which the graph is to be written
+   * @param nodeIds mapping from nodes to ids
+   * @param edgeIds mapping from edges to ids
+   * @param nev mapping from edges to weights (no weights are written if null)
+   * @throws IOException if the graph cannot be saved
+   */
+  public void save(
+      Network<N, E> g,
+      Path path,
+      ToLongFunction<? super N> nodeIds,
+      ToLongFunction<? super E> edgeIds,
+      Function<? super E, ? extends Number> nev)
+      throws IOException {
+    List<N> nodes = sortById(g.nodes(), nodeIds, "node");
+    List<E> edges = sortById(g.edges(), edgeIds, "edge");
+    int nodeCount = nodes.size();
+    int edgeCount = edges.size();
+    Map<N, Integer> nodeIndices = new HashMap<N, Integer>();
+    for (int v = 0; v < nodeCount; v++) {
+      nodeIndices.put(nodes.get(v), v);
+    }
+
+    int[] sources = new int[edgeCount];
+    int[] targets = new int[edgeCount];
+    for (int e = 0; e < edgeCount; e++) {
+      EndpointPair<N> endpoints = g.incidentNodes(edges.get(e));
+      sources[e] = nodeIndices.get(endpoints.nodeU());
+      targets[e] = nodeIndices.get(endpoints.nodeV());
+    }
+
+    // count the slots of each node, then fill them in order of increasing edge index
+    int[] outOffsets = new int[nodeCount + 1];
+    int[] inOffsets = g.isDirected() ? new int[nodeCount + 1] : null;
+    for (int e = 0; e < edgeCount; e++) {
+      outOffsets[sources[e] + 1]++;
+      if (g.isDirected()) {
+        inOffsets[targets[e] + 1]++;
+      } else if (sources[e] != targets[e]) {
+        outOffsets[targets[e] + 1]++;
+      }
+    }
+    prefixSum(outOffsets);
+    int[] outEdges = new int[outOffsets[nodeCount]];
+    int[] outCursor = Arrays.copyOf(outOffsets, nodeCount);
+    int[] inEdges = null;
+    int[] inCursor = null;
+    if (g.isDirected()) {
+      prefixSum(inOffsets);
+      inEdges = new int[edgeCount];
+      inCursor = Arrays.copyOf(inOffsets, nodeCount);
+    }
+    for (int e = 0; e < edgeCount; e++) {
+      outEdges[outCursor[sources[e]]++] = e;
+      if (g.isDirected()) {
+        inEdges[inCursor[targets[e]]++] = e;
+      } else if (sources[e] != targets[e]) {
+        outEdges[outCursor[targets[e]]++] = e;
+      }
+    }
+
+    int flags =
+        (g.isDirected() ? BinaryGraphFormat.DIRECTED : 0)
+            | (nev != null ? BinaryGraphFormat.WEIGHTED : 0)
+            | (g.allowsParallelEdges() ? BinaryGraphFormat.ALLOWS_PARALLEL_EDGES : 0)
+            | (g.allowsSelfLoops() ? BinaryGraphFormat.ALLOWS_SELF_LOOPS : 0);
+    BinaryGraphFormat format = new BinaryGraphFormat(flags, nodeCount, edgeCount, outEdges.length);
+
+    try (FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      Output out = new Output(channel);
+      out.putInt(BinaryGraphFormat.MAGIC);
+      out.putInt(BinaryGraphFormat.VERSION);
+      out.putInt(flags);
+      out.putInt(0);
+      out.putLong(nodeCount);
+      out.putLong(edgeCount);
+      out.putLong(outEdges.length);
+      out.putLong(0);
+
+      out.pad(format.nodeIds);
+      for (N v : nodes) {
+        out.putLong(nodeIds.applyAsLong(v));
+      }
+      out.pad(format.edgeIds);
+      for (E e : edges) {
+        out.putLong(edgeIds.applyAsLong(e));
+      }
+      out.pad(format.edgeSources);
+      out.putInts(sources);
+      out.pad(format.edgeTargets);
+      out.putInts(targets);
+      out.pad(format.outOffsets);
+      out.putInts(outOffsets);
+      out.pad(format.outEdges);
+      out.putInts(outEdges);
+      if (g.isDirected()) {
+        out.pad(format.inOffsets);
+        out.putInts(inOffsets);
+        out.pad(format.inEdges);
+        out.putInts(inEdges);
+      }
+      if (nev != null) {
+        out.pad(format.weights);
+        for (E e : edges) {
+          out.putDouble(nev.apply(e).doubleValue());
+        }
+      }
+      out.flush();
+    }
+  }
+
+  private static <T> List<T> sortById(
+      Iterable<T> elements, ToLongFunction<? super T> ids, String kind) {
+    List<T> sorted = new ArrayList<T>();
+    for (T element : elements) {
+      sorted.add(element);
+    }
+    sorted.sort((a, b) -> Long.compare(ids.applyAsLong(a), ids.applyAsLong(b)));
+    for (int i = 1; i < sorted.size(); i++) {
+      long id = ids.applyAsLong(sorted.get(i));
+      Preconditions.checkArgument(
+          id != ids.applyAsLong(sorted.get(i - 1)), "duplicate %s id %s", kind, id);
+    }
+    return sorted;
+  }
+
+  private static void prefixSum(int[] counts) {
+    for (int i = 1; i < counts.length; i++) {
+      counts[i] += counts[i - 1];
+    }
+  }
+
+  /** Writes little-endian values to a channel through a buffer. */
+  private static class Output {
+    private final FileChannel channel;
+    private final ByteBuffer buffer =
+        ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    Output(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    // writes zeroes up to the specified offset in the file
+    void pad(long offset) throws IOException {
+      while (channel.position() + buffer.position() < offset) {
+        ensureRemaining(1);
+        buffer.put((byte) 0);
+      }
+    }
+
+    void putInt(int value) throws IOException {
+      ensureRemaining(4);
+      buffer.putInt(value);
+    }
+
+    void putInts(int[] values) throws IOException {
+      for (int value : values) {
+        putInt(value);
+      }
+    }
+
+    void putLong(long value) throws IOException {
+      ensureRemaining(8);
+      buffer.putLong(value);
+    }
+
+    void putDouble(double value) throws IOException {
+      ensureRemaining(8);
+      buffer.putDouble(value);
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+      }
+    }
+
+    void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    }
+  }
+}
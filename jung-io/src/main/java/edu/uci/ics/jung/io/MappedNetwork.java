@@ -0,0 +1,472 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.io;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.graph.AbstractNetwork;
+import com.google.common.graph.ElementOrder;
+import com.google.common.graph.EndpointPair;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A read-only <code>Network</code> view of a graph file that has been mapped into memory by {@link
+ * BinaryGraphReader}. Its nodes and edges are the <code>Long</code> ids with which they were
+ * written; the node and edge sets iterate in order of increasing id.
+ *
+ * <p>Nothing is copied out of the file: nodes and edges are looked up by binary search in the id
+ * tables, and the edge sets of a node are views of its range of the file's adjacency lists. The
+ * node sets returned by <code>successors</code>, <code>predecessors</code>, and <code>
+ * adjacentNodes</code> are small copies, since parallel edges must be collapsed. The methods that
+ * take or return node and edge <i>indices</i> (positions in the id tables) avoid boxing entirely.
+ *
+ * <p>Attempts to modify this network or its sets throw <code>UnsupportedOperationException</code>.
+ *
+ * @see BinaryGraphReader
+ */
+public final class MappedNetwork extends AbstractNetwork<Long, Long> {
+  private final BinaryGraphFormat format;
+  private final LongBuffer nodeIds;
+  private final LongBuffer edgeIds;
+  private final IntBuffer edgeSources;
+  private final IntBuffer edgeTargets;
+  private final IntBuffer outOffsets;
+  private final IntBuffer outEdges;
+  // the same as the outgoing lists, if undirected
+  private final IntBuffer inOffsets;
+  private final IntBuffer inEdges;
+  private final DoubleBuffer weights;
+
+  MappedNetwork(
+      BinaryGraphFormat format,
+      LongBuffer nodeIds,
+      LongBuffer edgeIds,
+      IntBuffer edgeSources,
+      IntBuffer edgeTargets,
+      IntBuffer outOffsets,
+      IntBuffer outEdges,
+      IntBuffer inOffsets,
+      IntBuffer inEdges,
+      DoubleBuffer weights) {
+    this.format = format;
+    this.nodeIds = nodeIds;
+    this.edgeIds = edgeIds;
+    this.edgeSources = edgeSources;
+    this.edgeTargets = edgeTargets;
+    this.outOffsets = outOffsets;
+    this.outEdges = outEdges;
+    this.inOffsets = inOffsets == null ? outOffsets : inOffsets;
+    this.inEdges = inEdges == null ? outEdges : inEdges;
+    this.weights = weights;
+  }
+
+  /** @return the number of nodes */
+  public int nodeCount() {
+    return format.nodeCount;
+  }
+
+  /** @return the number of edges */
+  public int edgeCount() {
+    return format.edgeCount;
+  }
+
+  /**
+   * @param index the index of a node
+   * @return the id of the node with the specified index
+   */
+  public long nodeId(int index) {
+    return nodeIds.get(index);
+  }
+
+  /**
+   * @param id the id of a node
+   * @return the index of the node with the specified id, or -1 if there is no such node
+   */
+  public int nodeIndex(long id) {
+    return search(nodeIds, format.nodeCount, id);
+  }
+
+  /**
+   * @param index the index of an edge
+   * @return the id of the edge with the specified index
+   */
+  public long edgeId(int index) {
+    return edgeIds.get(index);
+  }
+
+  /**
+   * @param id the id of an edge
+   * @return the index of the edge with the specified id, or -1 if there is no such edge
+   */
+  public int edgeIndex(long id) {
+    return search(edgeIds, format.edgeCount, id);
+  }
+
+  /**
+   * @param index the index of an edge
+   * @return the index of the source of the edge (of its first endpoint, if undirected)
+   */
+  public int edgeSource(int index) {
+    return edgeSources.get(index);
+  }
+
+  /**
+   * @param index the index of an edge
+   * @return the index of the target of the edge (of its second endpoint, if undirected)
+   */
+  public int edgeTarget(int index) {
+    return edgeTargets.get(index);
+  }
+
+  /**
+   * @param v the index of a node
+   * @return the position of the first of the node's outgoing (if undirected, incident) edges in the
+   *     outgoing adjacency lists
+   */
+  public int outStart(int v) {
+    return outOffsets.get(v);
+  }
+
+  /**
+   * @param v the index of a node
+   * @return the position after the last of the node's outgoing (if undirected, incident) edges
+   */
+  public int outEnd(int v) {
+    return outOffsets.get(v + 1);
+  }
+
+  /**
+   * @param slot a position in the outgoing adjacency lists
+   * @return the index of the edge at that position
+   */
+  public int outEdge(int slot) {
+    return outEdges.get(slot);
+  }
+
+  /** @return true if the file includes edge weights */
+  public boolean isWeighted() {
+    return format.isWeighted();
+  }
+
+  /**
+   * @param index the index of an edge
+   * @return the weight of the edge, or 1 if the file does not include edge weights
+   */
+  public double edgeWeight(int index) {
+    return weights == null ? 1 : weights.get(index);
+  }
+
+  /**
+   * @param edge the id of an edge
+   * @return the weight of the edge, or 1 if the file does not include edge weights
+   */
+  public double edgeWeight(Long edge) {
+    return edgeWeight(checkedEdgeIndex(edge));
+  }
+
+  @Override
+  public Set<Long> nodes() {
+    return new IdSet(nodeIds, format.nodeCount);
+  }
+
+  @Override
+  public Set<Long> edges() {
+    return new IdSet(edgeIds, format.edgeCount);
+  }
+
+  @Override
+  public boolean isDirected() {
+    return format.isDirected();
+  }
+
+  @Override
+  public boolean allowsParallelEdges() {
+    return (format.flags & BinaryGraphFormat.ALLOWS_PARALLEL_EDGES) != 0;
+  }
+
+  @Override
+  public boolean allowsSelfLoops() {
+    return (format.flags & BinaryGraphFormat.ALLOWS_SELF_LOOPS) != 0;
+  }
+
+  @Override
+  public ElementOrder<Long> nodeOrder() {
+    return ElementOrder.natural();
+  }
+
+  @Override
+  public ElementOrder<Long> edgeOrder() {
+    return ElementOrder.natural();
+  }
+
+  @Override
+  public Set<Long> adjacentNodes(Long node) {
+    return ImmutableSet.<Long>builder().addAll(successors(node)).addAll(predecessors(node)).build();
+  }
+
+  @Override
+  public Set<Long> predecessors(Long node) {
+    int v = checkedNodeIndex(node);
+    return adjacentIds(v, inOffsets, inEdges);
+  }
+
+  @Override
+  public Set<Long> successors(Long node) {
+    int v = checkedNodeIndex(node);
+    return adjacentIds(v, outOffsets, outEdges);
+  }
+
+  @Override
+  public Set<Long> incidentEdges(Long node) {
+    int v = checkedNodeIndex(node);
+    if (!isDirected()) {
+      return new SlotSet(outEdges, outOffsets.get(v), outOffsets.get(v + 1));
+    }
+    return new IncidentEdgeSet(v);
+  }
+
+  @Override
+  public Set<Long> inEdges(Long node) {
+    int v = checkedNodeIndex(node);
+    return new SlotSet(inEdges, inOffsets.get(v), inOffsets.get(v + 1));
+  }
+
+  @Override
+  public Set<Long> outEdges(Long node) {
+    int v = checkedNodeIndex(node);
+    return new SlotSet(outEdges, outOffsets.get(v), outOffsets.get(v + 1));
+  }
+
+  @Override
+  public EndpointPair<Long> incidentNodes(Long edge) {
+    int e = checkedEdgeIndex(edge);
+    long source = nodeIds.get(edgeSources.get(e));
+    long target = nodeIds.get(edgeTargets.get(e));
+    return isDirected()
+        ? EndpointPair.ordered(source, target)
+        : EndpointPair.unordered(source, target);
+  }
+
+  // the ids of the nodes at the other end of the edges in v's slots [offsets[v], offsets[v + 1])
+  private Set<Long> adjacentIds(int v, IntBuffer offsets, IntBuffer slots) {
+    ImmutableSet.Builder<Long> adjacent = ImmutableSet.builder();
+    for (int k = offsets.get(v); k < offsets.get(v + 1); k++) {
+      int e = slots.get(k);
+      int other = edgeSources.get(e) == v ? edgeTargets.get(e) : edgeSources.get(e);
+      adjacent.add(nodeIds.get(other));
+    }
+    return adjacent.build();
+  }
+
+  private int checkedNodeIndex(Long node) {
+    int v = nodeIndex(Preconditions.checkNotNull(node, "node"));
+    Preconditions.checkArgument(v >= 0, "Node %s is not an element of this graph.", node);
+    return v;
+  }
+
+  private int checkedEdgeIndex(Long edge) {
+    int e = edgeIndex(Preconditions.checkNotNull(edge, "edge"));
+    Preconditions.checkArgument(e >= 0, "Edge %s is not an element of this graph.", edge);
+    return e;
+  }
+
+  private static int search(LongBuffer ids, int size, long id) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      long middleId = ids.get(middle);
+      if (middleId < id) {
+        low = middle + 1;
+      } else if (middleId > id) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /** The ids in a sorted id table. */
+  private static final class IdSet extends AbstractSet<Long> {
+    private final LongBuffer ids;
+    private final int size;
+
+    IdSet(LongBuffer ids, int size) {
+      this.ids = ids;
+      this.size = size;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof Long && search(ids, size, (Long) o) >= 0;
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+      return new IndexIterator(size) {
+        @Override
+        Long get(int index) {
+          return ids.get(index);
+        }
+      };
+    }
+  }
+
+  /** The ids of the edges in the slots {@code [start, end)} of an adjacency list. */
+  private final class SlotSet extends AbstractSet<Long> {
+    private final IntBuffer slots;
+    private final int start;
+    private final int end;
+
+    SlotSet(IntBuffer slots, int start, int end) {
+      this.slots = slots;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    public int size() {
+      return end - start;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      if (!(o instanceof Long)) {
+        return false;
+      }
+      int e = edgeIndex((Long) o);
+      if (e < 0) {
+        return false;
+      }
+      for (int k = start; k < end; k++) {
+        if (slots.get(k) == e) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+      return new IndexIterator(end - start) {
+        @Override
+        Long get(int index) {
+          return edgeIds.get(slots.get(start + index));
+        }
+      };
+    }
+  }
+
+  /**
+   * The incoming and outgoing edges of a node of a directed graph; self-loops, which are both, are
+   * included only once.
+   */
+  private final class IncidentEdgeSet extends AbstractSet<Long> {
+    private final SlotSet out;
+    private final SlotSet in;
+
+    IncidentEdgeSet(int v) {
+      this.out = new SlotSet(outEdges, outOffsets.get(v), outOffsets.get(v + 1));
+      this.in = new SlotSet(inEdges, inOffsets.get(v), inOffsets.get(v + 1));
+    }
+
+    @Override
+    public int size() {
+      int size = out.size();
+      for (int k = in.start; k < in.end; k++) {
+        int e = inEdges.get(k);
+        if (edgeSources.get(e) != edgeTargets.get(e)) {
+          size++;
+        }
+      }
+      return size;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return out.contains(o) || in.contains(o);
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+      return new Iterator<Long>() {
+        private int outSlot = out.start;
+        private int inSlot = in.start;
+        private int next = advance();
+
+        // returns the index of the next edge, or -1 if there are none
+        private int advance() {
+          if (outSlot < out.end) {
+            return outEdges.get(outSlot++);
+          }
+          while (inSlot < in.end) {
+            int e = inEdges.get(inSlot++);
+            if (edgeSources.get(e) != edgeTargets.get(e)) {
+              return e;
+            }
+          }
+          return -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+          return next >= 0;
+        }
+
+        @Override
+        public Long next() {
+          if (next < 0) {
+            throw new NoSuchElementException();
+          }
+          long id = edgeIds.get(next);
+          next = advance();
+          return id;
+        }
+      };
+    }
+  }
+
+  /** Iterates over the elements with indices {@code [0, size)}. */
+  private abstract static class IndexIterator implements Iterator<Long> {
+    private final int size;
+    private int index;
+
+    IndexIterator(int size) {
+      this.size = size;
+    }
+
+    abstract Long get(int index);
+
+    @Override
+    public boolean hasNext() {
+      return index < size;
+    }
+
+    @Override
+    public Long next() {
+      if (index >= size) {
+        throw new NoSuchElementException();
+      }
+      return get(index++);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2018, The JUNG Authors
+ *
+ * All rights reserved.
+ *
+ * This software is open-source under the BSD license; see either
+ * "license.txt" or
+ * https://github.com/jrtom/jung/blob/master/LICENSE for a description.
+ */
+package edu.uci.ics.jung.io;
+
+import com.google.common.graph.MutableNetwork;
+import com.google.common.graph.Network;
+import com.google.common.graph.NetworkBuilder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import junit.framework.TestCase;
+
+public class BinaryGraphIOTest extends TestCase {
+  private Path file;
+
+  @Override
+  protected void setUp() throws IOException {
+    file = Files.createTempFile("jung", ".bin");
+  }
+
+  @Override
+  protected void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  private static MutableNetwork<Long, Long> createRandomGraph(boolean directed, Random random) {
+    MutableNetwork<Long, Long> graph =
+        (directed ? NetworkBuilder.directed() : NetworkBuilder.undirected())
+            .allowsParallelEdges(true)
+            .allowsSelfLoops(true)
+            .build();
+    // sparse, unordered ids, and an isolated node
+    for (int i = 0; i < 50; i++) {
+      graph.addNode(random.nextLong());
+    }
+    Long[] nodes = graph.nodes().toArray(new Long[0]);
+    for (int i = 0; i < 150; i++) {
+      graph.addEdge(
+          nodes[random.nextInt(nodes.length - 1)],
+          nodes[random.nextInt(nodes.length - 1)],
+          1000L * i + random.nextInt(1000));
+    }
+    return graph;
+  }
+
+  private static void assertSameNetwork(Network<Long, Long> expected, MappedNetwork actual) {
+    assertEquals(expected, actual);
+    assertEquals(expected.allowsParallelEdges(), actual.allowsParallelEdges());
+    assertEquals(expected.allowsSelfLoops(), actual.allowsSelfLoops());
+    for (Long node : expected.nodes()) {
+      assertTrue(actual.nodes().contains(node));
+      assertEquals(expected.outEdges(node), actual.outEdges(node));
+      assertEquals(expected.inEdges(node), actual.inEdges(node));
+      assertEquals(expected.incidentEdges(node), actual.incidentEdges(node));
+      assertEquals(expected.incidentEdges(node).size(), actual.incidentEdges(node).size());
+      assertEquals(expected.successors(node), actual.successors(node));
+      assertEquals(expected.predecessors(node), actual.predecessors(node));
+      assertEquals(expected.adjacentNodes(node), actual.adjacentNodes(node));
+      assertEquals(expected.degree(node), actual.degree(node));
+    }
+    assertEquals(expected.asGraph(), actual.asGraph());
+  }
+
+  public void testDirected() throws IOException {
+    MutableNetwork<Long, Long> graph = createRandomGraph(true, new Random(1L));
+    new BinaryGraphWriter<Long, Long>().save(graph, file, v -> v, e -> e);
+    MappedNetwork mapped = new BinaryGraphReader().read(file);
+    assertFalse(mapped.isWeighted());
+    assertSameNetwork(graph, mapped);
+  }
+
+  public void testUndirectedWeighted() throws IOException {
+    MutableNetwork<Long, Long> graph = createRandomGraph(false, new Random(2L));
+    new BinaryGraphWriter<Long, Long>().save(graph, file, v -> v, e -> e, e -> e / 2.0);
+    MappedNetwork mapped = new BinaryGraphReader().read(file);
+    assertTrue(mapped.isWeighted());
+    assertSameNetwork(graph, mapped);
+    for (Long e : graph.edges()) {
+      assertEquals(e / 2.0, mapped.edgeWeight(e));
+    }
+  }
+
+  public void testIndices() throws IOException {
+    MutableNetwork<String, Integer> graph = NetworkBuilder.directed().build();
+    graph.addEdge("a", "b", 7);
+    graph.addEdge("a", "c", 3);
+    new BinaryGraphWriter<String, Integer>().save(graph, file, v -> v.charAt(0), e -> e);
+    MappedNetwork mapped = new BinaryGraphReader().read(file);
+
+    int a = mapped.nodeIndex('a');
+    assertEquals(0, a);
+    assertEquals(-1, mapped.nodeIndex('z'));
+    // outgoing edges are ordered by id
+    assertEquals(3, mapped.edgeId(mapped.outEdge(mapped.outStart(a))));
+    assertEquals(7, mapped.edgeId(mapped.outEdge(mapped.outStart(a) + 1)));
+    assertEquals(mapped.nodeIndex('b'), mapped.edgeTarget(mapped.edgeIndex(7)));
+  }
+
+  public void testDuplicateIds() throws IOException {
+    MutableNetwork<String, Integer> graph = NetworkBuilder.directed().build();
+    graph.addNode("a");
+    graph.addNode("b");
+    try {
+      new BinaryGraphWriter<String, Integer>().save(graph, file, v -> 1, e -> e);
+      fail("expected IllegalArgumentException");
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testNotBinaryGraph() throws IOException {
+    Files.write(file, new byte[64]);
+    try {
+      new BinaryGraphReader().read(file);
+      fail("expected IOException");
+    } catch (IOException expected) {
+    }
+  }
+
+  public void testUnknownNode() throws IOException {
+    MutableNetwork<Long, Long> graph = createRandomGraph(true, new Random(3L));
+    new BinaryGraphWriter<Long, Long>().save(graph, file, v -> v, e -> e);
+    MappedNetwork mapped = new BinaryGraphReader().read(file);
+    try {
+      mapped.outEdges(Long.MIN_VALUE);
+      fail("expected IllegalArgumentException");
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+}
@@ -17,6 +17,7 @@ import edu.uci.ics.jung.layout.algorithms.LayoutAlgorithm;
 import edu.uci.ics.jung.layout.model.LayoutModel;
 import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
 import edu.uci.ics.jung.layout.model.Point;
+import edu.uci.ics.jung.layout.util.LayoutBatchEvent;
 import edu.uci.ics.jung.layout.util.LayoutChangeListener;
 import edu.uci.ics.jung.layout.util.LayoutEvent;
 import edu.uci.ics.jung.layout.util.LayoutEventSupport;
@@ -240,4 +241,12 @@ public class BaseVisualizationModel<N, E>
   public void layoutChanged(LayoutNetworkEvent<N> evt) {
     fireLayoutChanged(evt, network);
   }
+
+  /** pass a batch of moves from the LayoutModel on to the listeners as the same batch */
+  @Override
+  public void layoutChanged(LayoutBatchEvent<N> evt) {
+    for (LayoutChangeListener<N> listener : layoutChangeListeners) {
+      listener.layoutChanged(evt);
+    }
+  }
 }
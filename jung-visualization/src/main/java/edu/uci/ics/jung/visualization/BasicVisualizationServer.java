@@ -11,23 +11,33 @@ package edu.uci.ics.jung.visualization;
 
 import static edu.uci.ics.jung.visualization.MultiLayerTransformer.Layer;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.graph.EndpointPair;
 import com.google.common.graph.Network;
 import edu.uci.ics.jung.layout.algorithms.LayoutAlgorithm;
 import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.LoadingCacheLayoutModel;
+import edu.uci.ics.jung.layout.model.Point;
 import edu.uci.ics.jung.layout.util.Caching;
+import edu.uci.ics.jung.layout.util.LayoutBatchEvent;
 import edu.uci.ics.jung.layout.util.LayoutChangeListener;
 import edu.uci.ics.jung.layout.util.LayoutEvent;
+import edu.uci.ics.jung.layout.util.LayoutEventCoalescer;
 import edu.uci.ics.jung.layout.util.LayoutEventSupport;
 import edu.uci.ics.jung.layout.util.LayoutNetworkEvent;
 import edu.uci.ics.jung.visualization.annotations.AnnotationPaintable;
 import edu.uci.ics.jung.visualization.control.ScalingControl;
 import edu.uci.ics.jung.visualization.control.TransformSupport;
+import edu.uci.ics.jung.visualization.decorators.EdgeShape;
 import edu.uci.ics.jung.visualization.decorators.PickableEdgePaintFunction;
 import edu.uci.ics.jung.visualization.decorators.PickableNodePaintFunction;
 import edu.uci.ics.jung.visualization.layout.BoundingRectangleCollector;
 import edu.uci.ics.jung.visualization.layout.NetworkElementAccessor;
+import edu.uci.ics.jung.visualization.picking.AbstractPickedState;
 import edu.uci.ics.jung.visualization.picking.MultiPickedState;
+import edu.uci.ics.jung.visualization.picking.PickedInfo;
 import edu.uci.ics.jung.visualization.picking.PickedState;
 import edu.uci.ics.jung.visualization.picking.ShapePickSupport;
 import edu.uci.ics.jung.visualization.properties.VisualizationViewerUI;
@@ -40,24 +50,38 @@ import edu.uci.ics.jung.visualization.spatial.rtree.QuadraticSplitter;
 import edu.uci.ics.jung.visualization.spatial.rtree.RStarLeafSplitter;
 import edu.uci.ics.jung.visualization.spatial.rtree.RStarSplitter;
 import edu.uci.ics.jung.visualization.spatial.rtree.SplitterContext;
+import edu.uci.ics.jung.visualization.transform.MutableAffineTransformer;
 import edu.uci.ics.jung.visualization.transform.shape.GraphicsDecorator;
 import edu.uci.ics.jung.visualization.util.ChangeEventSupport;
+import edu.uci.ics.jung.visualization.util.Context;
 import edu.uci.ics.jung.visualization.util.DefaultChangeEventSupport;
 import java.awt.*;
 import java.awt.RenderingHints.Key;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
+import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import javax.swing.*;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
@@ -113,6 +137,64 @@ public class BasicVisualizationServer<N, E> extends JPanel
   /** user-settable choice to use the offscreen image or not. 'false' by default */
   protected boolean doubleBuffered;
 
+  /**
+   * user-settable choice to cache the lower layers of the view (the background, the pre-renderers
+   * and the elements that are not picked) in an image, and to draw only the picked elements and the
+   * post-renderers over it while it is valid. 'false' by default
+   */
+  protected boolean layerCaching;
+
+  /** the cached lower layers of the view, used if layerCaching is set to true */
+  private BufferedImage cachedLayer;
+
+  private boolean cachedLayerValid;
+
+  // the transforms and background with which the cached layer was drawn; it is drawn again if any
+  // of them change
+  private AffineTransform cachedLayerDeviceTransform;
+  private AffineTransform cachedLayerViewTransform;
+  private AffineTransform cachedLayerLayoutTransform;
+  private Color cachedLayerBackground;
+
+  // the elements that were picked, and so left out of the cached layer, when it was drawn
+  private Set<N> cachedLayerExcludedNodes = ImmutableSet.of();
+  private Set<E> cachedLayerExcludedEdges = ImmutableSet.of();
+
+  /**
+   * user-settable choice to repaint, when elements are moved or picked, only the region that they
+   * covered before and cover after the change, rather than the whole view. 'false' by default
+   */
+  protected boolean dirtyRegionRepaint;
+
+  /** the most nodes whose moves are repainted as a region, rather than as the whole view */
+  private static final int MAX_DIRTY_NODES = 256;
+
+  // the locations at which the nodes that were recently moved or picked were last painted, from
+  // which the regions that they leave are found
+  private final Map<N, Point> paintedLocations = new HashMap<>();
+
+  /**
+   * user-settable choice to render the network on a background thread, from a snapshot of the
+   * locations, picked states and visible elements, and to only draw the finished frames on the
+   * event dispatch thread. 'false' by default
+   */
+  protected boolean backgroundRendering;
+
+  /** renders the frames, used if backgroundRendering is set to true */
+  private ExecutorService frameProducer;
+
+  // counts the changes to the layout, the picked states, the transforms and the RenderContext of
+  // this view; a frame is current if it was rendered from a snapshot taken at the current count
+  private final AtomicLong changeCount = new AtomicLong();
+
+  // the last finished frame, and whether another is being rendered
+  private volatile Frame frame;
+  private volatile boolean frameInFlight;
+
+  // an image that no frame is drawn from, into which the next frame is rendered if it is the right
+  // size
+  private BufferedImage spareImage;
+
   /**
    * a collection of user-implementable functions to render under the topology (before the graph is
    * rendered)
@@ -133,6 +215,13 @@ public class BasicVisualizationServer<N, E> extends JPanel
 
   protected Spatial<E> edgeSpatial;
 
+  /**
+   * collects the layout events from the model and delivers them to this view once per frame, on the
+   * event dispatch thread
+   */
+  protected LayoutEventCoalescer<N> layoutEventCoalescer =
+      new LayoutEventCoalescer<>(SwingUtilities::invokeLater);
+
   /**
    * @param network the network to render
    * @param layoutAlgorithm the algorithm to apply
@@ -155,7 +244,8 @@ public class BasicVisualizationServer<N, E> extends JPanel
     renderer = new BasicRenderer<>();
     createSpatialStuctures(model, renderContext);
     model.addChangeListener(this);
-    model.addLayoutChangeListener(this);
+    layoutEventCoalescer.addLayoutChangeListener(this);
+    model.addLayoutChangeListener(layoutEventCoalescer);
     setDoubleBuffered(false);
     this.addComponentListener(new VisualizationListener(this));
 
@@ -280,6 +370,112 @@ public class BasicVisualizationServer<N, E> extends JPanel
     return doubleBuffered;
   }
 
+  /**
+   * Specifies whether the lower layers of the view are cached. When they are, the background, the
+   * pre-renderers and the elements that are not picked are drawn into an image, which is drawn
+   * again only when the transforms, the size or the background of this view change, when a node
+   * that was not picked when it was drawn is moved, or when {@link #invalidateCachedLayer()} is
+   * called. Each paint draws the image, then the picked elements, the elements that were picked
+   * when the image was drawn and the edges incident to their nodes, and then the post-renderers.
+   * Picking, and dragging picked nodes, therefore redraws only a few elements. As the edges of the
+   * picked nodes are drawn over the cached layer, they may be drawn over nodes that are not picked.
+   * The view is drawn without the cached layer if the RenderContext is not a {@link
+   * PluggableRenderContext}, which can be copied, or the view is transformed by a lens.
+   *
+   * @param layerCaching whether to cache the lower layers of the view
+   */
+  public void setLayerCaching(boolean layerCaching) {
+    this.layerCaching = layerCaching;
+    invalidateCachedLayer();
+    if (!layerCaching) {
+      cachedLayer = null;
+    }
+  }
+
+  /** @return whether the lower layers of the view are cached */
+  public boolean isLayerCaching() {
+    return layerCaching;
+  }
+
+  /**
+   * Specifies whether layout and pick events repaint only the region of the view that the moved or
+   * picked elements cover, both before and after the change, rather than the whole view. The region
+   * is found from the shapes, strokes, icons, arrows and labels of the RenderContext and the
+   * locations of the LayoutModel, so it covers what the default renderers draw. The whole view is
+   * repainted when more than a few hundred nodes move at once, when the view is transformed by a
+   * lens, or when a node moves that was not moved or picked since it was last painted.
+   *
+   * @param dirtyRegionRepaint whether to repaint only the changed region of the view
+   */
+  public void setDirtyRegionRepaint(boolean dirtyRegionRepaint) {
+    this.dirtyRegionRepaint = dirtyRegionRepaint;
+    paintedLocations.clear();
+  }
+
+  /** @return whether layout and pick events repaint only the changed region of the view */
+  public boolean isDirtyRegionRepaint() {
+    return dirtyRegionRepaint;
+  }
+
+  /**
+   * Specifies whether the network is rendered on a background thread. When it is, each paint that
+   * finds the last frame out of date takes a snapshot of the transforms, the picked states, the
+   * visible elements and their locations, and a background thread renders the elements from it into
+   * an image. The event dispatch thread draws the background, the pre-renderers, the last finished
+   * frame and the post-renderers, so it is not held up by rendering while a layout algorithm is
+   * running, and the frame is not left incomplete when the layout changes while it is rendered. A
+   * frame that was rendered with other view transforms is drawn transformed to the current ones
+   * until the next frame is finished. The network is rendered directly if the RenderContext is not
+   * a {@link PluggableRenderContext}, which can be copied, or the view is transformed by a lens.
+   * The functions of the RenderContext are called on the background thread; a {@link
+   * PickableNodePaintFunction} or {@link PickableEdgePaintFunction} that reads the picked states of
+   * this view reads them from the snapshot instead, but other functions must not read state that is
+   * changed on the event dispatch thread.
+   *
+   * @param backgroundRendering whether to render the network on a background thread
+   */
+  public void setBackgroundRendering(boolean backgroundRendering) {
+    this.backgroundRendering = backgroundRendering;
+    if (backgroundRendering && frameProducer == null) {
+      frameProducer =
+          Executors.newSingleThreadExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "jung-frame-producer");
+                thread.setDaemon(true);
+                return thread;
+              });
+    } else if (!backgroundRendering && frameProducer != null) {
+      frameProducer.shutdownNow();
+      frameProducer = null;
+      frame = null;
+      frameInFlight = false;
+      spareImage = null;
+    }
+    repaint();
+  }
+
+  /** @return whether the network is rendered on a background thread */
+  public boolean isBackgroundRendering() {
+    return backgroundRendering;
+  }
+
+  /** @return whether the last finished frame was rendered from a snapshot of the current state */
+  boolean isFrameCurrent() {
+    Frame frame = this.frame;
+    return frame != null && frame.changeCount == changeCount.get();
+  }
+
+  /**
+   * Causes the cached lower layers of the view, and the frame rendered on a background thread, to
+   * be drawn again at the next paint. This must be called after changing the RenderContext or the
+   * pre-renderers in a way that does not fire an event, if layer caching or background rendering is
+   * on.
+   */
+  public void invalidateCachedLayer() {
+    cachedLayerValid = false;
+    changeCount.incrementAndGet();
+  }
+
   /**
    * Always sanity-check getLayoutSize so that we don't use a value that is improbable
    *
@@ -317,15 +513,18 @@ public class BasicVisualizationServer<N, E> extends JPanel
 
   public void setModel(VisualizationModel<N, E> model) {
     this.model = model;
+    invalidateCachedLayer();
   }
 
   public void stateChanged(ChangeEvent e) {
+    invalidateCachedLayer();
     repaint();
     fireStateChanged();
   }
 
   public void setRenderer(Renderer<N, E> r) {
     this.renderer = r;
+    invalidateCachedLayer();
     repaint();
   }
 
@@ -357,6 +556,9 @@ public class BasicVisualizationServer<N, E> extends JPanel
     super.paintComponent(g);
 
     Graphics2D g2d = (Graphics2D) g;
+    if (backgroundRendering && paintFrame(g2d)) {
+      return;
+    }
     if (doubleBuffered) {
       checkOffscreenImage(getSize());
       renderGraph(offscreenG2d);
@@ -386,17 +588,11 @@ public class BasicVisualizationServer<N, E> extends JPanel
     // the layoutSize of the VisualizationViewer
     Dimension d = getSize();
 
-    // clear the offscreen image
-    g2d.setColor(getBackground());
-    g2d.fillRect(0, 0, d.width, d.height);
-
     AffineTransform oldXform = g2d.getTransform();
     AffineTransform newXform = new AffineTransform(oldXform);
     newXform.concatenate(
         renderContext.getMultiLayerTransformer().getTransformer(Layer.VIEW).getTransform());
 
-    g2d.setTransform(newXform);
-
     AnnotationPaintable lowerAnnotationPaintable = null;
 
     if (log.isTraceEnabled()) {
@@ -407,8 +603,44 @@ public class BasicVisualizationServer<N, E> extends JPanel
       removeSpatialAnnotations();
     }
 
-    // if there are  preRenderers set, paint them
-    for (Paintable paintable : preRenderers) {
+    if (model instanceof Caching) {
+      ((Caching) model).clear();
+    }
+
+    if (layerCaching && renderContext instanceof PluggableRenderContext && isAffine()) {
+      renderLayers(g2d, d, oldXform, newXform);
+    } else {
+      // clear the offscreen image
+      g2d.setColor(getBackground());
+      g2d.fillRect(0, 0, d.width, d.height);
+
+      g2d.setTransform(newXform);
+
+      // if there are  preRenderers set, paint them
+      paint(preRenderers, g2d, oldXform, newXform);
+      if (lowerAnnotationPaintable != null) {
+        this.removePreRenderPaintable(lowerAnnotationPaintable);
+      }
+
+      renderer.render(renderContext, model, nodeSpatial, edgeSpatial);
+    }
+
+    // if there are postRenderers set, do it
+    paint(postRenderers, g2d, oldXform, newXform);
+    g2d.setTransform(oldXform);
+  }
+
+  /**
+   * Paints the {@code paintables} on {@code g2d}, with {@code newXform} for those that use the
+   * transform and {@code oldXform} for the others, and leaves {@code newXform} set.
+   */
+  private void paint(
+      List<Paintable> paintables,
+      Graphics2D g2d,
+      AffineTransform oldXform,
+      AffineTransform newXform) {
+    g2d.setTransform(newXform);
+    for (Paintable paintable : paintables) {
 
       if (paintable.useTransform()) {
         paintable.paint(g2d);
@@ -418,38 +650,724 @@ public class BasicVisualizationServer<N, E> extends JPanel
         g2d.setTransform(newXform);
       }
     }
-    if (lowerAnnotationPaintable != null) {
-      this.removePreRenderPaintable(lowerAnnotationPaintable);
+  }
+
+  /**
+   * Draws the cached layer, first drawing it again if it is not valid, and then the elements that
+   * are left out of it.
+   */
+  private void renderLayers(
+      Graphics2D g2d, Dimension d, AffineTransform oldXform, AffineTransform newXform) {
+    // the cached layer has the resolution of the device, without its translation
+    AffineTransform deviceXform =
+        AffineTransform.getScaleInstance(oldXform.getScaleX(), oldXform.getScaleY());
+    MultiLayerTransformer multiLayerTransformer = renderContext.getMultiLayerTransformer();
+    AffineTransform viewXform = multiLayerTransformer.getTransformer(Layer.VIEW).getTransform();
+    AffineTransform layoutXform = multiLayerTransformer.getTransformer(Layer.LAYOUT).getTransform();
+    int width = (int) Math.ceil(d.width * deviceXform.getScaleX());
+    int height = (int) Math.ceil(d.height * deviceXform.getScaleY());
+    if (!cachedLayerValid
+        || cachedLayer == null
+        || cachedLayer.getWidth() != width
+        || cachedLayer.getHeight() != height
+        || !deviceXform.equals(cachedLayerDeviceTransform)
+        || !viewXform.equals(cachedLayerViewTransform)
+        || !layoutXform.equals(cachedLayerLayoutTransform)
+        || !getBackground().equals(cachedLayerBackground)) {
+      renderCachedLayer(width, height, deviceXform);
+      cachedLayerDeviceTransform = deviceXform;
+      cachedLayerViewTransform = new AffineTransform(viewXform);
+      cachedLayerLayoutTransform = new AffineTransform(layoutXform);
+      cachedLayerBackground = getBackground();
+      cachedLayerValid = true;
     }
 
-    if (model instanceof Caching) {
-      ((Caching) model).clear();
+    g2d.setTransform(oldXform);
+    try {
+      g2d.drawImage(cachedLayer, deviceXform.createInverse(), null);
+    } catch (NoninvertibleTransformException ex) {
+      log.warn("cannot draw the cached layer with the device transform {}", deviceXform);
     }
+    g2d.setTransform(newXform);
 
-    renderer.render(renderContext, model, nodeSpatial, edgeSpatial);
+    // the elements that are picked now or were picked when the cached layer was drawn, and the
+    // edges incident to their nodes
+    Network<N, E> network = model.getNetwork();
+    Set<N> nodes = new LinkedHashSet<>();
+    Set<E> edges = new LinkedHashSet<>();
+    for (N node : Iterables.concat(cachedLayerExcludedNodes, pickedNodeState.getPicked())) {
+      if (network.nodes().contains(node) && nodes.add(node)) {
+        edges.addAll(network.incidentEdges(node));
+      }
+    }
+    for (E edge : Iterables.concat(cachedLayerExcludedEdges, pickedEdgeState.getPicked())) {
+      if (network.edges().contains(edge)) {
+        edges.add(edge);
+      }
+    }
+    try {
+      if (renderer instanceof BasicRenderer) {
+        ((BasicRenderer<N, E>) renderer).renderElements(renderContext, model, nodes, edges);
+      } else {
+        for (E edge : edges) {
+          renderer.renderEdge(renderContext, model, edge);
+          renderer.renderEdgeLabel(renderContext, model, edge);
+        }
+        for (N node : nodes) {
+          renderer.renderNode(renderContext, model, node);
+          renderer.renderNodeLabel(renderContext, model, node);
+        }
+      }
+    } catch (ConcurrentModificationException cme) {
+      repaint();
+    }
+  }
 
-    // if there are postRenderers set, do it
-    for (Paintable paintable : postRenderers) {
+  /**
+   * Draws the background, the pre-renderers and the elements that are not picked into the cached
+   * layer, leaving out the picked elements with the include predicates of a copy of the
+   * RenderContext.
+   */
+  private void renderCachedLayer(int width, int height, AffineTransform deviceXform) {
+    if (cachedLayer == null
+        || cachedLayer.getWidth() != width
+        || cachedLayer.getHeight() != height) {
+      cachedLayer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+    Set<N> excludedNodes = ImmutableSet.copyOf(pickedNodeState.getPicked());
+    Set<E> excludedEdges = ImmutableSet.copyOf(pickedEdgeState.getPicked());
+    Graphics2D g2d = cachedLayer.createGraphics();
+    try {
+      g2d.setRenderingHints(renderingHints);
+      g2d.setColor(getBackground());
+      g2d.fillRect(0, 0, width, height);
+      AffineTransform newXform = new AffineTransform(deviceXform);
+      newXform.concatenate(
+          renderContext.getMultiLayerTransformer().getTransformer(Layer.VIEW).getTransform());
+      paint(preRenderers, g2d, deviceXform, newXform);
+
+      PluggableRenderContext<N, E> context = ((PluggableRenderContext<N, E>) renderContext).copy();
+      context.setGraphicsContext(new GraphicsDecorator(g2d));
+      context.setScreenDevice(this);
+      Predicate<N> nodeIncludePredicate = renderContext.getNodeIncludePredicate();
+      Predicate<E> edgeIncludePredicate = renderContext.getEdgeIncludePredicate();
+      if (!excludedNodes.isEmpty()) {
+        context.setNodeIncludePredicate(
+            n -> !excludedNodes.contains(n) && nodeIncludePredicate.test(n));
+      }
+      if (!excludedEdges.isEmpty()) {
+        context.setEdgeIncludePredicate(
+            e -> !excludedEdges.contains(e) && edgeIncludePredicate.test(e));
+      }
+      renderer.render(context, model, nodeSpatial, edgeSpatial);
+    } finally {
+      g2d.dispose();
+    }
+    cachedLayerExcludedNodes = excludedNodes;
+    cachedLayerExcludedEdges = excludedEdges;
+  }
 
-      if (paintable.useTransform()) {
-        paintable.paint(g2d);
-      } else {
-        g2d.setTransform(oldXform);
-        paintable.paint(g2d);
-        g2d.setTransform(newXform);
+  /**
+   * Draws the background, the pre-renderers, the last finished frame and the post-renderers, first
+   * requesting a new frame if the last one is out of date and none is being rendered.
+   *
+   * @return false if frames cannot be rendered for the current RenderContext and transforms, in
+   *     which case nothing is drawn
+   */
+  private boolean paintFrame(Graphics2D g2d) {
+    Dimension d = getSize();
+    long count = changeCount.get();
+    Frame frame = this.frame;
+    if (!frameInFlight
+        && (frame == null || frame.changeCount != count || !frame.size.equals(d))
+        && !requestFrame(d, count)) {
+      return false;
+    }
+    if (renderContext.getGraphicsContext() == null) {
+      renderContext.setGraphicsContext(new GraphicsDecorator(g2d));
+    } else {
+      renderContext.getGraphicsContext().setDelegate(g2d);
+    }
+    g2d.setRenderingHints(renderingHints);
+
+    MultiLayerTransformer multiLayerTransformer = renderContext.getMultiLayerTransformer();
+    AffineTransform viewXform = multiLayerTransformer.getTransformer(Layer.VIEW).getTransform();
+    AffineTransform layoutXform = multiLayerTransformer.getTransformer(Layer.LAYOUT).getTransform();
+    AffineTransform oldXform = g2d.getTransform();
+    AffineTransform newXform = new AffineTransform(oldXform);
+    newXform.concatenate(viewXform);
+
+    g2d.setColor(getBackground());
+    g2d.fillRect(0, 0, d.width, d.height);
+    paint(preRenderers, g2d, oldXform, newXform);
+
+    if (frame != null && frame.layoutTransform.equals(layoutXform)) {
+      // a frame rendered with other view transforms is moved to where the current ones put it
+      AffineTransform frameXform = new AffineTransform(newXform);
+      try {
+        frameXform.concatenate(frame.viewTransform.createInverse());
+        g2d.setTransform(frameXform);
+        g2d.drawImage(frame.image, 0, 0, null);
+      } catch (NoninvertibleTransformException ex) {
+        log.warn("cannot draw the frame rendered with view transform {}", frame.viewTransform);
       }
     }
+
+    paint(postRenderers, g2d, oldXform, newXform);
     g2d.setTransform(oldXform);
+    return true;
+  }
+
+  /**
+   * Takes a snapshot of the state that the renderer reads and starts to render a frame from it on
+   * the frame producer.
+   *
+   * @return false if the RenderContext cannot be copied or the view is transformed by a lens
+   */
+  private boolean requestFrame(Dimension d, long count) {
+    if (!(renderContext instanceof PluggableRenderContext) || !isAffine()) {
+      return false;
+    }
+    MultiLayerTransformer multiLayerTransformer = renderContext.getMultiLayerTransformer();
+    AffineTransform viewXform =
+        new AffineTransform(multiLayerTransformer.getTransformer(Layer.VIEW).getTransform());
+    AffineTransform layoutXform =
+        new AffineTransform(multiLayerTransformer.getTransformer(Layer.LAYOUT).getTransform());
+    BasicTransformer transformer = new BasicTransformer();
+    transformer.setTransformer(
+        Layer.LAYOUT, new MutableAffineTransformer(new AffineTransform(layoutXform)));
+    transformer.setTransformer(
+        Layer.VIEW, new MutableAffineTransformer(new AffineTransform(viewXform)));
+
+    Network<N, E> network = model.getNetwork();
+    LayoutModel<N> layoutModel = model.getLayoutModel();
+    List<N> nodes;
+    List<E> edges = new ArrayList<>();
+    Map<N, Point> locations = new HashMap<>();
+    try {
+      Shape area = viewOnLayout();
+      nodes =
+          new ArrayList<>(
+              nodeSpatial != null ? nodeSpatial.getVisibleElements(area) : network.nodes());
+      Collection<E> visibleEdges =
+          nodeSpatial != null && edgeSpatial != null
+              ? edgeSpatial.getVisibleElements(area)
+              : network.edges();
+      for (E edge : visibleEdges) {
+        if (network.edges().contains(edge)) {
+          edges.add(edge);
+          for (N node : network.incidentNodes(edge)) {
+            locations.put(node, layoutModel.apply(node));
+          }
+        }
+      }
+      for (N node : nodes) {
+        locations.put(node, layoutModel.apply(node));
+      }
+    } catch (ConcurrentModificationException ex) {
+      // as in BasicRenderer, the layout is changing the spatial structures; the last frame is drawn
+      // and a snapshot is taken again at the next paint
+      repaint();
+      return true;
+    }
+    LayoutModel<N> frameLayoutModel =
+        LoadingCacheLayoutModel.<N>builder()
+            .setGraph(network.asGraph())
+            .setSize(layoutModel.getWidth(), layoutModel.getHeight())
+            .setInitializer(node -> locations.getOrDefault(node, Point.ORIGIN))
+            .build();
+
+    // the copy reads the picked elements from a snapshot, as do the paint functions that read the
+    // picked states of this view
+    PickedState<N> pickedNodes =
+        new PickedSnapshot<>(ImmutableSet.copyOf(pickedNodeState.getPicked()));
+    PickedState<E> pickedEdges =
+        new PickedSnapshot<>(ImmutableSet.copyOf(pickedEdgeState.getPicked()));
+    PluggableRenderContext<N, E> context = ((PluggableRenderContext<N, E>) renderContext).copy();
+    context.setMultiLayerTransformer(transformer);
+    context.setScreenDevice(screenDevice(d));
+    context.setPickedNodeState(pickedNodes);
+    context.setPickedEdgeState(pickedEdges);
+    context.setNodeFillPaintFunction(
+        snapshot(context.getNodeFillPaintFunction(), pickedNodeState, pickedNodes));
+    context.setNodeDrawPaintFunction(
+        snapshot(context.getNodeDrawPaintFunction(), pickedNodeState, pickedNodes));
+    context.setEdgeFillPaintFunction(
+        snapshot(context.getEdgeFillPaintFunction(), pickedEdgeState, pickedEdges));
+    context.setEdgeDrawPaintFunction(
+        snapshot(context.getEdgeDrawPaintFunction(), pickedEdgeState, pickedEdges));
+    context.setArrowFillPaintFunction(
+        snapshot(context.getArrowFillPaintFunction(), pickedEdgeState, pickedEdges));
+    context.setArrowDrawPaintFunction(
+        snapshot(context.getArrowDrawPaintFunction(), pickedEdgeState, pickedEdges));
+
+    BufferedImage image = spareImage;
+    spareImage = null;
+    if (image == null || image.getWidth() != d.width || image.getHeight() != d.height) {
+      image = new BufferedImage(d.width, d.height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    frameInFlight = true;
+    frameProducer.execute(
+        new FrameRenderer(
+            context,
+            new BaseVisualizationModel<>(network, frameLayoutModel, null),
+            nodes,
+            edges,
+            new Frame(image, count, d, viewXform, layoutXform)));
+    return true;
+  }
+
+  /**
+   * @return {@code function}, or, if it is a {@link PickableNodePaintFunction} or a {@link
+   *     PickableEdgePaintFunction} that reads {@code pickedState}, one with the same paints that
+   *     reads {@code snapshot}
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> Function<? super T, Paint> snapshot(
+      Function<? super T, Paint> function, PickedState<T> pickedState, PickedInfo<T> snapshot) {
+    if (function != null
+        && function.getClass() == PickableNodePaintFunction.class
+        && ((PickableNodePaintFunction<T>) function).getPickedInfo() == pickedState) {
+      PickableNodePaintFunction<T> paintFunction = (PickableNodePaintFunction<T>) function;
+      return new PickableNodePaintFunction<>(
+          snapshot, paintFunction.getFillPaint(), paintFunction.getPickedPaint());
+    }
+    if (function != null
+        && function.getClass() == PickableEdgePaintFunction.class
+        && ((PickableEdgePaintFunction<T>) function).getPickedInfo() == pickedState) {
+      PickableEdgePaintFunction<T> paintFunction = (PickableEdgePaintFunction<T>) function;
+      return new PickableEdgePaintFunction<>(
+          snapshot, paintFunction.getDrawPaint(), paintFunction.getPickedPaint());
+    }
+    return function;
+  }
+
+  /** The picked elements of a snapshot, which cannot be picked or unpicked. */
+  private static class PickedSnapshot<T> extends AbstractPickedState<T> {
+    private final Set<T> picked;
+
+    PickedSnapshot(Set<T> picked) {
+      this.picked = picked;
+    }
+
+    public boolean pick(T v, boolean b) {
+      throw new UnsupportedOperationException();
+    }
+
+    public void clear() {
+      throw new UnsupportedOperationException();
+    }
+
+    public Set<T> getPicked() {
+      return picked;
+    }
+
+    public boolean isPicked(T v) {
+      return picked.contains(v);
+    }
+
+    @SuppressWarnings("unchecked")
+    public T[] getSelectedObjects() {
+      return (T[]) picked.toArray();
+    }
+  }
+
+  /**
+   * @return a component with the size, colors and font of this view, on which the label renderers
+   *     can be laid out on the frame producer
+   */
+  private JPanel screenDevice(Dimension d) {
+    JPanel screenDevice = new JPanel(null);
+    screenDevice.setBackground(getBackground());
+    screenDevice.setForeground(getForeground());
+    screenDevice.setFont(getFont());
+    screenDevice.setSize(d);
+    return screenDevice;
+  }
+
+  /** Renders the elements of a snapshot into a frame and hands it to the event dispatch thread. */
+  private class FrameRenderer implements Runnable {
+    private final Renderer<N, E> renderer = BasicVisualizationServer.this.renderer;
+    private final Map<Key, Object> renderingHints =
+        new HashMap<>(BasicVisualizationServer.this.renderingHints);
+    private final RenderContext<N, E> context;
+    private final VisualizationModel<N, E> frameModel;
+    private final List<N> nodes;
+    private final List<E> edges;
+    private final Frame frame;
+
+    FrameRenderer(
+        RenderContext<N, E> context,
+        VisualizationModel<N, E> frameModel,
+        List<N> nodes,
+        List<E> edges,
+        Frame frame) {
+      this.context = context;
+      this.frameModel = frameModel;
+      this.nodes = nodes;
+      this.edges = edges;
+      this.frame = frame;
+    }
+
+    @Override
+    public void run() {
+      Graphics2D g2d = frame.image.createGraphics();
+      boolean complete = true;
+      try {
+        // the image may hold an earlier frame
+        g2d.setComposite(AlphaComposite.Clear);
+        g2d.fillRect(0, 0, frame.size.width, frame.size.height);
+        g2d.setComposite(AlphaComposite.SrcOver);
+        g2d.setRenderingHints(renderingHints);
+        g2d.setTransform(frame.viewTransform);
+        context.setGraphicsContext(new GraphicsDecorator(g2d));
+        if (renderer instanceof BasicRenderer) {
+          ((BasicRenderer<N, E>) renderer).renderElements(context, frameModel, nodes, edges);
+        } else {
+          for (E edge : edges) {
+            renderer.renderEdge(context, frameModel, edge);
+            renderer.renderEdgeLabel(context, frameModel, edge);
+          }
+          for (N node : nodes) {
+            renderer.renderNode(context, frameModel, node);
+            renderer.renderNodeLabel(context, frameModel, node);
+          }
+        }
+      } catch (ConcurrentModificationException ex) {
+        // the network changed while the frame was rendered; it is rendered again from a new
+        // snapshot
+        complete = false;
+      } catch (RuntimeException ex) {
+        // the frame is kept, so that the same failure is not repeated until the view changes
+        log.warn("failed to render a frame", ex);
+      } finally {
+        g2d.dispose();
+      }
+      boolean keep = complete;
+      SwingUtilities.invokeLater(
+          () -> {
+            if (!backgroundRendering) {
+              return;
+            }
+            if (keep) {
+              // the image of the last frame is no longer drawn, and the next frame is rendered
+              // into it
+              Frame last = BasicVisualizationServer.this.frame;
+              BasicVisualizationServer.this.frame = frame;
+              spareImage = last != null ? last.image : null;
+            } else {
+              spareImage = frame.image;
+            }
+            frameInFlight = false;
+            repaint();
+          });
+    }
+  }
+
+  /** A rendered image of the network and the state from which it was rendered. */
+  private static class Frame {
+    final BufferedImage image;
+    final long changeCount;
+    final Dimension size;
+    final AffineTransform viewTransform;
+    final AffineTransform layoutTransform;
+
+    Frame(
+        BufferedImage image,
+        long changeCount,
+        Dimension size,
+        AffineTransform viewTransform,
+        AffineTransform layoutTransform) {
+      this.image = image;
+      this.changeCount = changeCount;
+      this.size = size;
+      this.viewTransform = viewTransform;
+      this.layoutTransform = layoutTransform;
+    }
   }
 
   @Override
   public void layoutChanged(LayoutEvent<N> evt) {
-    repaint();
+    changeCount.incrementAndGet();
+    if (!cachedLayerExcludedNodes.contains(evt.getNode())) {
+      invalidateCachedLayer();
+    }
+    repaintMoved(Collections.singleton(evt.getNode()));
   }
 
   @Override
   public void layoutChanged(LayoutNetworkEvent<N> evt) {
-    repaint();
+    changeCount.incrementAndGet();
+    if (!cachedLayerExcludedNodes.contains(evt.getNode())) {
+      invalidateCachedLayer();
+    }
+    repaintMoved(Collections.singleton(evt.getNode()));
+  }
+
+  @Override
+  public void layoutChanged(LayoutBatchEvent<N> evt) {
+    changeCount.incrementAndGet();
+    if (!cachedLayerExcludedNodes.containsAll(evt.getNodes())) {
+      invalidateCachedLayer();
+    }
+    repaintMoved(evt.getNodes());
+  }
+
+  /**
+   * Repaints the region that the {@code nodes} and their edges covered where they were last painted
+   * and cover now, or the whole view if that region cannot be found.
+   */
+  private void repaintMoved(Set<N> nodes) {
+    Network<N, E> network = model.getNetwork();
+    if (!dirtyRegionRepaint
+        || nodes.size() > MAX_DIRTY_NODES
+        || !isAffine()
+        || !paintedLocations.keySet().containsAll(nodes)
+        || !network.nodes().containsAll(nodes)) {
+      if (paintedLocations.size() + nodes.size() > MAX_DIRTY_NODES) {
+        paintedLocations.clear();
+      }
+      if (dirtyRegionRepaint && nodes.size() <= MAX_DIRTY_NODES) {
+        // so that their next moves are repainted as regions
+        LayoutModel<N> layoutModel = model.getLayoutModel();
+        for (N node : nodes) {
+          if (network.nodes().contains(node)) {
+            paintedLocations.put(node, layoutModel.apply(node));
+          }
+        }
+      }
+      repaint();
+      return;
+    }
+    LayoutModel<N> layoutModel = model.getLayoutModel();
+    Rectangle2D region = null;
+    for (N node : nodes) {
+      if (region == null) {
+        region = nodeBounds(node, paintedLocations.get(node));
+      } else {
+        region.add(nodeBounds(node, paintedLocations.get(node)));
+      }
+      region.add(nodeBounds(node, layoutModel.apply(node)));
+      for (E edge : network.incidentEdges(node)) {
+        EndpointPair<N> endpoints = network.incidentNodes(edge);
+        N u = endpoints.nodeU();
+        N v = endpoints.nodeV();
+        region.add(
+            edgeBounds(
+                edge,
+                paintedLocations.getOrDefault(u, layoutModel.apply(u)),
+                paintedLocations.getOrDefault(v, layoutModel.apply(v))));
+        region.add(edgeBounds(edge, layoutModel.apply(u), layoutModel.apply(v)));
+      }
+    }
+    for (N node : nodes) {
+      paintedLocations.put(node, layoutModel.apply(node));
+    }
+    if (region != null) {
+      repaintRegion(region);
+    }
+  }
+
+  /**
+   * Repaints the region that the picked or unpicked element of {@code e} covers, or the whole view
+   * if that region cannot be found.
+   */
+  @SuppressWarnings("unchecked")
+  private void repaintPicked(ItemEvent e) {
+    changeCount.incrementAndGet();
+    Network<N, E> network = model.getNetwork();
+    Object item = e.getItem();
+    if (!dirtyRegionRepaint || !isAffine()) {
+      repaint();
+    } else if (e.getItemSelectable() == pickedNodeState && network.nodes().contains(item)) {
+      N node = (N) item;
+      LayoutModel<N> layoutModel = model.getLayoutModel();
+      Point location = layoutModel.apply(node);
+      Rectangle2D region = nodeBounds(node, location);
+      if (layerCaching) {
+        // the edges of picked nodes are drawn over the cached layer
+        for (E edge : network.incidentEdges(node)) {
+          EndpointPair<N> endpoints = network.incidentNodes(edge);
+          region.add(
+              edgeBounds(
+                  edge,
+                  layoutModel.apply(endpoints.nodeU()),
+                  layoutModel.apply(endpoints.nodeV())));
+        }
+      }
+      // a picked node is likely to be dragged next
+      if (paintedLocations.size() >= MAX_DIRTY_NODES) {
+        paintedLocations.clear();
+      }
+      paintedLocations.put(node, location);
+      repaintRegion(region);
+    } else if (e.getItemSelectable() == pickedEdgeState && network.edges().contains(item)) {
+      E edge = (E) item;
+      EndpointPair<N> endpoints = network.incidentNodes(edge);
+      LayoutModel<N> layoutModel = model.getLayoutModel();
+      repaintRegion(
+          edgeBounds(
+              edge, layoutModel.apply(endpoints.nodeU()), layoutModel.apply(endpoints.nodeV())));
+    } else {
+      repaint();
+    }
+  }
+
+  /** @return whether the layout and view transforms are affine, so that regions can be found */
+  private boolean isAffine() {
+    MultiLayerTransformer multiLayerTransformer = renderContext.getMultiLayerTransformer();
+    return multiLayerTransformer.getTransformer(Layer.LAYOUT) instanceof MutableAffineTransformer
+        && multiLayerTransformer.getTransformer(Layer.VIEW) instanceof MutableAffineTransformer;
+  }
+
+  /** repaints {@code region}, in the coordinates in which the renderers draw, with a margin */
+  private void repaintRegion(Rectangle2D region) {
+    Rectangle bounds =
+        renderContext
+            .getMultiLayerTransformer()
+            .getTransformer(Layer.VIEW)
+            .transform(region)
+            .getBounds();
+    // for antialiasing
+    bounds.grow(2, 2);
+    repaint(bounds);
+  }
+
+  /**
+   * @return the bounds of the shape, stroke, icon and label of {@code node} at {@code location}, in
+   *     the coordinates in which the renderers draw
+   */
+  private Rectangle2D nodeBounds(N node, Point location) {
+    Point2D p =
+        renderContext
+            .getMultiLayerTransformer()
+            .transform(Layer.LAYOUT, new Point2D.Double(location.x, location.y));
+    Rectangle2D shapeBounds = renderContext.getNodeShapeFunction().apply(node).getBounds2D();
+    Rectangle2D bounds =
+        new Rectangle2D.Double(
+            p.getX() + shapeBounds.getX(),
+            p.getY() + shapeBounds.getY(),
+            shapeBounds.getWidth(),
+            shapeBounds.getHeight());
+    grow(bounds, strokeWidth(renderContext.getNodeStrokeFunction().apply(node)) / 2);
+    if (renderContext.getNodeIconFunction() != null) {
+      Icon icon = renderContext.getNodeIconFunction().apply(node);
+      if (icon != null) {
+        bounds.add(
+            new Rectangle2D.Double(
+                p.getX() - icon.getIconWidth() / 2,
+                p.getY() - icon.getIconHeight() / 2,
+                icon.getIconWidth(),
+                icon.getIconHeight()));
+      }
+    }
+    String label = renderContext.getNodeLabelFunction().apply(node);
+    if (label != null && !label.isEmpty()) {
+      // the label is next to the bounds of the shape, 5 away, in any direction
+      Dimension d =
+          renderContext
+              .getNodeLabelRenderer()
+              .<N>getNodeLabelRendererComponent(
+                  this,
+                  label,
+                  renderContext.getNodeFontFunction().apply(node),
+                  pickedNodeState.isPicked(node),
+                  node)
+              .getPreferredSize();
+      bounds.add(
+          new Rectangle2D.Double(
+              bounds.getX() - d.width - 5,
+              bounds.getY() - d.height - 5,
+              bounds.getWidth() + 2 * (d.width + 5),
+              bounds.getHeight() + 2 * (d.height + 5)));
+    }
+    return bounds;
+  }
+
+  /**
+   * @return the bounds of the shape, stroke, arrows and label of {@code edge} with its endpoints at
+   *     {@code location1} and {@code location2}, in the coordinates in which the renderers draw
+   */
+  private Rectangle2D edgeBounds(E edge, Point location1, Point location2) {
+    Network<N, E> network = model.getNetwork();
+    EndpointPair<N> endpoints = network.incidentNodes(edge);
+    MultiLayerTransformer multiLayerTransformer = renderContext.getMultiLayerTransformer();
+    Point2D p1 =
+        multiLayerTransformer.transform(Layer.LAYOUT, new Point2D.Double(location1.x, location1.y));
+    Point2D p2 =
+        multiLayerTransformer.transform(Layer.LAYOUT, new Point2D.Double(location2.x, location2.y));
+    Context<Network<N, E>, E> context = Context.getInstance(network, edge);
+    Function<Context<Network<N, E>, E>, Shape> edgeShapeFunction =
+        renderContext.getEdgeShapeFunction();
+    Shape edgeShape = edgeShapeFunction.apply(context);
+    int index = renderContext.getParallelEdgeIndexFunction().getIndex(context);
+
+    // as drawn by BasicEdgeRenderer
+    Rectangle2D bounds;
+    AffineTransform xform = AffineTransform.getTranslateInstance(p1.getX(), p1.getY());
+    if (endpoints.nodeU().equals(endpoints.nodeV())) {
+      Rectangle2D nodeBounds =
+          renderContext.getNodeShapeFunction().apply(endpoints.nodeV()).getBounds2D();
+      xform.scale(nodeBounds.getWidth(), nodeBounds.getHeight());
+      xform.translate(0, -edgeShape.getBounds2D().getWidth() / 2);
+      bounds = xform.createTransformedShape(edgeShape).getBounds2D();
+    } else if (edgeShapeFunction instanceof EdgeShape.Orthogonal) {
+      bounds = new Rectangle2D.Double();
+      bounds.setFrameFromDiagonal(p1, p2);
+      grow(bounds, 20 * Math.abs(index));
+    } else {
+      double dx = p2.getX() - p1.getX();
+      double dy = p2.getY() - p1.getY();
+      xform.rotate(Math.atan2(dy, dx));
+      xform.scale(Math.sqrt(dx * dx + dy * dy), 1.0);
+      bounds = xform.createTransformedShape(edgeShape).getBounds2D();
+    }
+    grow(bounds, strokeWidth(renderContext.edgeStrokeFunction().apply(edge)) / 2);
+    if (renderContext.renderEdgeArrow()) {
+      Rectangle2D arrowBounds = renderContext.getEdgeArrow().getBounds2D();
+      grow(
+          bounds,
+          Math.max(arrowBounds.getWidth(), arrowBounds.getHeight())
+              + strokeWidth(renderContext.getEdgeArrowStrokeFunction().apply(edge)));
+    }
+    String label = renderContext.getEdgeLabelFunction().apply(edge);
+    if (label != null && !label.isEmpty()) {
+      // the label is near the line between the endpoints, offset by the label offset and by its
+      // height for each parallel edge, and may be rotated
+      Dimension d =
+          renderContext
+              .getEdgeLabelRenderer()
+              .<E>getEdgeLabelRendererComponent(
+                  this,
+                  label,
+                  renderContext.getEdgeFontFunction().apply(edge),
+                  pickedEdgeState.isPicked(edge),
+                  edge)
+              .getPreferredSize();
+      Rectangle2D line = new Rectangle2D.Double();
+      line.setFrameFromDiagonal(p1, p2);
+      grow(
+          line,
+          renderContext.getLabelOffset()
+              + (Math.abs(index) + 1) * d.height
+              + edgeShape.getBounds2D().getHeight()
+              + Math.hypot(d.width, d.height));
+      bounds.add(line);
+    }
+    return bounds;
+  }
+
+  private static double strokeWidth(Stroke stroke) {
+    return stroke instanceof BasicStroke ? ((BasicStroke) stroke).getLineWidth() : 1;
+  }
+
+  private static void grow(Rectangle2D rectangle, double amount) {
+    rectangle.setRect(
+        rectangle.getX() - amount,
+        rectangle.getY() - amount,
+        rectangle.getWidth() + 2 * amount,
+        rectangle.getHeight() + 2 * amount);
   }
 
   /**
@@ -481,6 +1399,7 @@ public class BasicVisualizationServer<N, E> extends JPanel
     if (preRenderers == null) {
       preRenderers = new ArrayList<>();
     }
+    invalidateCachedLayer();
     preRenderers.add(paintable);
   }
 
@@ -488,12 +1407,13 @@ public class BasicVisualizationServer<N, E> extends JPanel
     if (preRenderers == null) {
       preRenderers = new ArrayList<>();
     }
+    invalidateCachedLayer();
     preRenderers.add(0, paintable);
   }
 
   public void removePreRenderPaintable(Paintable paintable) {
-    if (preRenderers != null) {
-      preRenderers.remove(paintable);
+    if (preRenderers != null && preRenderers.remove(paintable)) {
+      invalidateCachedLayer();
     }
   }
 
@@ -548,7 +1468,7 @@ public class BasicVisualizationServer<N, E> extends JPanel
     this.pickedNodeState = pickedNodeState;
     this.renderContext.setPickedNodeState(pickedNodeState);
     if (pickEventListener == null) {
-      pickEventListener = e -> repaint();
+      pickEventListener = this::repaintPicked;
     }
     pickedNodeState.addItemListener(pickEventListener);
   }
@@ -560,7 +1480,7 @@ public class BasicVisualizationServer<N, E> extends JPanel
     this.pickedEdgeState = pickedEdgeState;
     this.renderContext.setPickedEdgeState(pickedEdgeState);
     if (pickEventListener == null) {
-      pickEventListener = e -> repaint();
+      pickEventListener = this::repaintPicked;
     }
     pickedEdgeState.addItemListener(pickEventListener);
   }
@@ -584,6 +1504,7 @@ public class BasicVisualizationServer<N, E> extends JPanel
 
   public void setRenderContext(RenderContext<N, E> renderContext) {
     this.renderContext = renderContext;
+    invalidateCachedLayer();
   }
 
   private void addSpatialAnnotations(Spatial spatial, Color color) {
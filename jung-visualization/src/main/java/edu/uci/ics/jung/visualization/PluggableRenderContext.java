@@ -34,7 +34,7 @@ import javax.swing.CellRendererPane;
 import javax.swing.Icon;
 import javax.swing.JComponent;
 
-public class PluggableRenderContext<N, E> implements RenderContext<N, E> {
+public class PluggableRenderContext<N, E> implements RenderContext<N, E>, Cloneable {
 
   protected float arrowPlacementTolerance = 1;
   protected Predicate<N> nodeIncludePredicate = n -> true;
@@ -61,6 +61,16 @@ public class PluggableRenderContext<N, E> implements RenderContext<N, E> {
   protected Shape edgeArrow;
   protected boolean renderEdgeArrow;
 
+  // the scales of the layout and view transforms below which elements are drawn with less detail
+  private static final float NODE_DETAIL_SCALE = 0.2f;
+  private static final float EDGE_DETAIL_SCALE = 0.2f;
+  private static final float LABEL_DETAIL_SCALE = 0.25f;
+  private static final float ARROW_DETAIL_SCALE = 0.3f;
+  protected float nodeDetailScale = NODE_DETAIL_SCALE;
+  protected float edgeDetailScale = EDGE_DETAIL_SCALE;
+  protected float labelDetailScale = LABEL_DETAIL_SCALE;
+  protected float arrowDetailScale = ARROW_DETAIL_SCALE;
+
   protected Predicate<E> edgeIncludePredicate = n -> true;
   protected Function<? super E, Font> edgeFontFunction = n -> new Font("Helvetica", Font.PLAIN, 12);
 
@@ -119,6 +129,41 @@ public class PluggableRenderContext<N, E> implements RenderContext<N, E> {
     }
   }
 
+  /**
+   * Returns a copy of this RenderContext for rendering on another thread. The copy shares the
+   * functions, predicates, picked states and pick support of this RenderContext, but has its own
+   * CellRendererPane and, if this RenderContext uses the default label renderers, its own label
+   * renderers, as those are components that are configured for each label. The copy has no graphics
+   * context or screen device, which must be set before rendering, and it shares the
+   * MultiLayerTransformer of this RenderContext until another is set.
+   *
+   * @return a copy of this RenderContext
+   */
+  @SuppressWarnings("unchecked")
+  public PluggableRenderContext<N, E> copy() {
+    PluggableRenderContext<N, E> copy;
+    try {
+      copy = (PluggableRenderContext<N, E>) super.clone();
+    } catch (CloneNotSupportedException e) {
+      throw new AssertionError(e);
+    }
+    copy.rendererPane = new CellRendererPane();
+    copy.graphicsContext = null;
+    copy.screenDevice = null;
+    if (nodeLabelRenderer.getClass() == DefaultNodeLabelRenderer.class) {
+      copy.nodeLabelRenderer =
+          new DefaultNodeLabelRenderer(
+              ((DefaultNodeLabelRenderer) nodeLabelRenderer).getPickedNodeLabelColor());
+    }
+    if (edgeLabelRenderer.getClass() == DefaultEdgeLabelRenderer.class) {
+      DefaultEdgeLabelRenderer renderer = (DefaultEdgeLabelRenderer) edgeLabelRenderer;
+      copy.edgeLabelRenderer =
+          new DefaultEdgeLabelRenderer(
+              renderer.getPickedEdgeLabelColor(), renderer.isRotateEdgeLabels());
+    }
+    return copy;
+  }
+
   /** @return the nodeShapeFunction */
   public Function<? super N, Shape> getNodeShapeFunction() {
     return nodeShapeFunction;
@@ -171,6 +216,38 @@ public class PluggableRenderContext<N, E> implements RenderContext<N, E> {
     this.renderEdgeArrow = render;
   }
 
+  public float getNodeDetailScale() {
+    return nodeDetailScale;
+  }
+
+  public void setNodeDetailScale(float nodeDetailScale) {
+    this.nodeDetailScale = nodeDetailScale;
+  }
+
+  public float getEdgeDetailScale() {
+    return edgeDetailScale;
+  }
+
+  public void setEdgeDetailScale(float edgeDetailScale) {
+    this.edgeDetailScale = edgeDetailScale;
+  }
+
+  public float getLabelDetailScale() {
+    return labelDetailScale;
+  }
+
+  public void setLabelDetailScale(float labelDetailScale) {
+    this.labelDetailScale = labelDetailScale;
+  }
+
+  public float getArrowDetailScale() {
+    return arrowDetailScale;
+  }
+
+  public void setArrowDetailScale(float arrowDetailScale) {
+    this.arrowDetailScale = arrowDetailScale;
+  }
+
   public Function<? super E, Font> getEdgeFontFunction() {
     return edgeFontFunction;
   }
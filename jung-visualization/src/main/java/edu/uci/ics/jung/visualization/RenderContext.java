@@ -56,6 +56,52 @@ public interface RenderContext<N, E> {
 
   void setRenderEdgeArrow(boolean render);
 
+  /**
+   * @return the overall scale of the layout and view transforms below which nodes are drawn as
+   *     rectangles of their bounds, at least one pixel in size, filled in batches by fill paint; 0
+   *     by default, which always draws nodes in full
+   */
+  default float getNodeDetailScale() {
+    return 0;
+  }
+
+  /** Sets the node detail scale; ignored by default. */
+  default void setNodeDetailScale(float nodeDetailScale) {}
+
+  /**
+   * @return the overall scale of the layout and view transforms below which edges are drawn as
+   *     straight lines, one pixel wide, in batches by draw paint; 0 by default, which always draws
+   *     edges in full
+   */
+  default float getEdgeDetailScale() {
+    return 0;
+  }
+
+  /** Sets the edge detail scale; ignored by default. */
+  default void setEdgeDetailScale(float edgeDetailScale) {}
+
+  /**
+   * @return the overall scale of the layout and view transforms below which node and edge labels
+   *     are not drawn; 0 by default, which always draws labels
+   */
+  default float getLabelDetailScale() {
+    return 0;
+  }
+
+  /** Sets the label detail scale; ignored by default. */
+  default void setLabelDetailScale(float labelDetailScale) {}
+
+  /**
+   * @return the scale of the graphics transform below which edge arrows are not drawn; 0.3 by
+   *     default
+   */
+  default float getArrowDetailScale() {
+    return 0.3f;
+  }
+
+  /** Sets the arrow detail scale; ignored by default. */
+  default void setArrowDetailScale(float arrowDetailScale) {}
+
   Function<? super E, Font> getEdgeFontFunction();
 
   void setEdgeFontFunction(Function<? super E, Font> edgeFontFunction);
@@ -9,21 +9,44 @@
  */
 package edu.uci.ics.jung.visualization;
 
+import com.google.common.base.Preconditions;
 import com.google.common.graph.Network;
 import edu.uci.ics.jung.layout.algorithms.LayoutAlgorithm;
+import edu.uci.ics.jung.visualization.MultiLayerTransformer.Layer;
+import edu.uci.ics.jung.visualization.renderers.BasicRenderer;
+import edu.uci.ics.jung.visualization.spatial.Spatial;
+import edu.uci.ics.jung.visualization.transform.MutableAffineTransformer;
+import edu.uci.ics.jung.visualization.transform.shape.GraphicsDecorator;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.Image;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Point2D;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import javax.swing.JPanel;
 
 /**
  * A class that could be used on the server side of a thin-client application. It creates the jung
  * visualization, then produces an image of it.
  *
+ * <p>Images are rendered in square tiles, on the threads of a <code>ForkJoinPool</code> (by default
+ * the common pool). The nodes and edges of each tile are selected with the node and edge Spatial
+ * structures, and each tile is drawn with its own Graphics2D and its own copy of the RenderContext,
+ * so that neither the transforms nor the graphics context of this server are changed, and images
+ * may be requested from several threads at once. The pre- and post-render Paintables are painted
+ * over the whole image on the calling thread.
+ *
  * @author tom
  * @param <N> the node type
  * @param <E> the edge type
@@ -31,8 +54,21 @@ import java.util.Map;
 @SuppressWarnings("serial")
 public class VisualizationImageServer<N, E> extends BasicVisualizationServer<N, E> {
 
+  /** The default width and height of a tile, in pixels. */
+  public static final int DEFAULT_TILE_SIZE = 256;
+
+  /**
+   * The default margin, in pixels, around a tile within which nodes and edges are drawn in it, so
+   * that the parts of shapes and labels that cross into the tile are not lost.
+   */
+  public static final int DEFAULT_TILE_MARGIN = 64;
+
   Map<RenderingHints.Key, Object> renderingHints = new HashMap<RenderingHints.Key, Object>();
 
+  private int tileSize = DEFAULT_TILE_SIZE;
+  private int tileMargin = DEFAULT_TILE_MARGIN;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
   /**
    * Creates a new instance with the specified layout and preferred layoutSize.
    *
@@ -47,29 +83,269 @@ public class VisualizationImageServer<N, E> extends BasicVisualizationServer<N,
     addNotify();
   }
 
+  /** @param tileSize the width and height of the tiles in which images are rendered */
+  public void setTileSize(int tileSize) {
+    Preconditions.checkArgument(tileSize >= 1, "tile size must be positive");
+    this.tileSize = tileSize;
+  }
+
+  /**
+   * @param tileMargin the margin around each tile, in pixels, within which the nodes and edges are
+   *     drawn in that tile; it should be at least the distance that a shape or label may extend
+   *     beyond the bounds of its node or edge
+   */
+  public void setTileMargin(int tileMargin) {
+    Preconditions.checkArgument(tileMargin >= 0, "tile margin must be non-negative");
+    this.tileMargin = tileMargin;
+  }
+
+  /** @param pool the pool on which the tiles are rendered */
+  public void setForkJoinPool(ForkJoinPool pool) {
+    this.pool = Preconditions.checkNotNull(pool, "pool");
+  }
+
+  /**
+   * Renders an image the size of this server, in which the view is scaled about {@code center} by
+   * the ratio of the size of this server to {@code d}.
+   *
+   * @param center the point about which to scale the view
+   * @param d the size of the view to fit into the image
+   * @return the image
+   */
   public Image getImage(Point2D center, Dimension d) {
     int width = getWidth();
     int height = getHeight();
 
     float scalex = (float) width / d.width;
     float scaley = (float) height / d.height;
-    try {
-      renderContext
-          .getMultiLayerTransformer()
-          .getTransformer(MultiLayerTransformer.Layer.VIEW)
-          .scale(scalex, scaley, center);
-
-      BufferedImage bi = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-      Graphics2D graphics = bi.createGraphics();
-      graphics.setRenderingHints(renderingHints);
-      paint(graphics);
-      graphics.dispose();
-      return bi;
-    } finally {
-      renderContext
-          .getMultiLayerTransformer()
-          .getTransformer(MultiLayerTransformer.Layer.VIEW)
-          .setToIdentity();
+    MutableAffineTransformer viewTransformer =
+        new MutableAffineTransformer(
+            new AffineTransform(
+                renderContext
+                    .getMultiLayerTransformer()
+                    .getTransformer(Layer.VIEW)
+                    .getTransform()));
+    viewTransformer.scale(scalex, scaley, center);
+    return getImage(new Dimension(width, height), viewTransformer.getTransform());
+  }
+
+  /**
+   * Renders an image of the specified size, in which the view transform is {@code viewTransform}
+   * rather than the VIEW transform of this server. The layout transform of this server is used as
+   * it is when this method is called; a lens in either transform is not applied.
+   *
+   * @param size the size of the image
+   * @param viewTransform the transform from view coordinates to image coordinates
+   * @return the image
+   */
+  public BufferedImage getImage(Dimension size, AffineTransform viewTransform) {
+    BufferedImage image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+    AffineTransform layoutTransform =
+        new AffineTransform(
+            renderContext.getMultiLayerTransformer().getTransformer(Layer.LAYOUT).getTransform());
+    AffineTransform imageViewTransform = new AffineTransform(viewTransform);
+
+    Graphics2D graphics = image.createGraphics();
+    graphics.setRenderingHints(renderingHints);
+    graphics.setColor(getBackground());
+    graphics.fillRect(0, 0, size.width, size.height);
+    paint(preRenderers, graphics, imageViewTransform);
+
+    List<Rectangle> tiles = new ArrayList<>();
+    for (int y = 0; y < size.height; y += tileSize) {
+      for (int x = 0; x < size.width; x += tileSize) {
+        tiles.add(
+            new Rectangle(
+                x, y, Math.min(tileSize, size.width - x), Math.min(tileSize, size.height - y)));
+      }
+    }
+    TileRenderer tileRenderer = new TileRenderer(image, layoutTransform, imageViewTransform);
+    if (!tiles.isEmpty()) {
+      pool.invoke(new TileTask(tileRenderer, tiles, 0, tiles.size()));
+    }
+
+    paint(postRenderers, graphics, imageViewTransform);
+    graphics.dispose();
+    return image;
+  }
+
+  private void paint(List<Paintable> paintables, Graphics2D graphics, AffineTransform transform) {
+    AffineTransform oldXform = graphics.getTransform();
+    for (Paintable paintable : paintables) {
+      if (paintable.useTransform()) {
+        AffineTransform newXform = new AffineTransform(oldXform);
+        newXform.concatenate(transform);
+        graphics.setTransform(newXform);
+      }
+      paintable.paint(graphics);
+      graphics.setTransform(oldXform);
+    }
+  }
+
+  /**
+   * Draws the nodes and edges of the tiles of one image. The elements of each tile are drawn in the
+   * order of the network, so that overlapping elements are stacked alike in adjacent tiles.
+   */
+  private class TileRenderer {
+    final BufferedImage image;
+    final AffineTransform layoutTransform;
+    final AffineTransform viewTransform;
+    final Network<N, E> network = model.getNetwork();
+    // the order of the nodes and edges in the network; only needed if the elements of each tile
+    // are selected by a Spatial, and so not already in that order
+    final Map<N, Integer> nodeOrder = new HashMap<>();
+    final Map<E, Integer> edgeOrder = new HashMap<>();
+
+    TileRenderer(
+        BufferedImage image, AffineTransform layoutTransform, AffineTransform viewTransform) {
+      this.image = image;
+      this.layoutTransform = layoutTransform;
+      this.viewTransform = viewTransform;
+      if (nodeSpatial != null) {
+        for (N node : network.nodes()) {
+          nodeOrder.put(node, nodeOrder.size());
+        }
+      }
+      if (edgeSpatial != null) {
+        for (E edge : network.edges()) {
+          edgeOrder.put(edge, edgeOrder.size());
+        }
+      }
+    }
+
+    void render(Rectangle tile) {
+      BasicTransformer transformer = new BasicTransformer();
+      transformer.setTransformer(
+          Layer.LAYOUT, new MutableAffineTransformer(new AffineTransform(layoutTransform)));
+      transformer.setTransformer(
+          Layer.VIEW, new MutableAffineTransformer(new AffineTransform(viewTransform)));
+      Shape area =
+          transformer.inverseTransform(
+              new Rectangle(
+                  tile.x - tileMargin,
+                  tile.y - tileMargin,
+                  tile.width + 2 * tileMargin,
+                  tile.height + 2 * tileMargin));
+
+      Graphics2D graphics =
+          image.getSubimage(tile.x, tile.y, tile.width, tile.height).createGraphics();
+      try {
+        graphics.setRenderingHints(renderingHints);
+        AffineTransform xform = AffineTransform.getTranslateInstance(-tile.x, -tile.y);
+        xform.concatenate(viewTransform);
+        graphics.setTransform(xform);
+        List<N> nodes = select(nodeSpatial, area, nodeOrder);
+        List<E> edges = select(edgeSpatial, area, edgeOrder);
+        if (nodes == null) {
+          nodes = new ArrayList<>(network.nodes());
+        }
+        if (edges == null) {
+          edges = new ArrayList<>(network.edges());
+        }
+        if (renderContext instanceof PluggableRenderContext) {
+          PluggableRenderContext<N, E> context =
+              ((PluggableRenderContext<N, E>) renderContext).copy();
+          context.setMultiLayerTransformer(transformer);
+          context.setGraphicsContext(new GraphicsDecorator(graphics));
+          context.setScreenDevice(screenDevice());
+          render(context, nodes, edges);
+        } else {
+          // a RenderContext that cannot be copied is lent to one tile at a time
+          synchronized (renderContext) {
+            MultiLayerTransformer oldTransformer = renderContext.getMultiLayerTransformer();
+            GraphicsDecorator oldGraphicsContext = renderContext.getGraphicsContext();
+            try {
+              renderContext.setMultiLayerTransformer(transformer);
+              renderContext.setGraphicsContext(new GraphicsDecorator(graphics));
+              render(renderContext, nodes, edges);
+            } finally {
+              renderContext.setMultiLayerTransformer(oldTransformer);
+              renderContext.setGraphicsContext(oldGraphicsContext);
+            }
+          }
+        }
+      } catch (ConcurrentModificationException ex) {
+        // as in BasicRenderer, the network or layout changed while rendering; the tile is left
+        // incomplete
+        log.info("got {} while rendering tile {}", ex, tile);
+      } finally {
+        graphics.dispose();
+      }
+    }
+
+    /**
+     * @return the elements whose bounds intersect {@code area} in the order of the network, or null
+     *     if there is no Spatial to select them
+     */
+    private <T> List<T> select(Spatial<T> spatial, Shape area, Map<T, Integer> order) {
+      if (spatial == null) {
+        return null;
+      }
+      List<T> elements = new ArrayList<>();
+      Collection<T> visible = spatial.getVisibleElements(area);
+      for (T element : visible) {
+        if (order.containsKey(element)) {
+          elements.add(element);
+        }
+      }
+      elements.sort((a, b) -> Integer.compare(order.get(a), order.get(b)));
+      return elements;
+    }
+
+    private void render(RenderContext<N, E> context, List<N> nodes, List<E> edges) {
+      if (renderer instanceof BasicRenderer) {
+        ((BasicRenderer<N, E>) renderer).renderElements(context, model, nodes, edges);
+        return;
+      }
+      for (E edge : edges) {
+        renderer.renderEdge(context, model, edge);
+        renderer.renderEdgeLabel(context, model, edge);
+      }
+      for (N node : nodes) {
+        renderer.renderNode(context, model, node);
+        renderer.renderNodeLabel(context, model, node);
+      }
+    }
+
+    /**
+     * @return a component that stands in for this server as the screen device of a copy of the
+     *     RenderContext, with the same colors, font and size, so that the labels are drawn as they
+     *     would be on this server without adding the copy's CellRendererPane to this server
+     */
+    private JPanel screenDevice() {
+      JPanel screenDevice = new JPanel(null);
+      screenDevice.setBackground(getBackground());
+      screenDevice.setForeground(getForeground());
+      screenDevice.setFont(getFont());
+      screenDevice.setSize(getSize());
+      return screenDevice;
+    }
+  }
+
+  /** renders a range of tiles, splitting it in half until one tile remains */
+  private class TileTask extends RecursiveAction {
+    private final TileRenderer tileRenderer;
+    private final List<Rectangle> tiles;
+    private final int from;
+    private final int to;
+
+    TileTask(TileRenderer tileRenderer, List<Rectangle> tiles, int from, int to) {
+      this.tileRenderer = tileRenderer;
+      this.tiles = tiles;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        tileRenderer.render(tiles.get(from));
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(
+          new TileTask(tileRenderer, tiles, from, middle),
+          new TileTask(tileRenderer, tiles, middle, to));
     }
   }
 }
@@ -299,7 +299,10 @@ public class PickingGraphMousePlugin<N, E> extends AbstractGraphMousePlugin
       if (node != null) {
         e.consume();
       }
-      vv.repaint();
+      // the layout events of the moved nodes repaint the view, if the layout model fires them
+      if (node == null || !vv.getModel().getLayoutModel().getChangeSupport().isFireEvents()) {
+        vv.repaint();
+      }
     }
   }
 
@@ -32,7 +32,9 @@ import java.util.function.Function;
  * An interface for decorators that return a <code>Shape</code> for a specified edge.
  *
  * <p>All edge shapes must be defined so that their endpoints are at (0,0) and (1,0). They will be
- * scaled, rotated and translated into position by the PluggableRenderer.
+ * scaled, rotated and translated into position by the PluggableRenderer. Shapes that depend on the
+ * edge are created for each call rather than shared, so that edges may be rendered on several
+ * threads at once.
  *
  * @author Joshua O'Madadhain
  * @author Tom Nelson
@@ -40,11 +42,7 @@ import java.util.function.Function;
  */
 public class EdgeShape<E> {
   private static final Line2D LINE = new Line2D.Float(0.0f, 0.0f, 1.0f, 0.0f);
-  private static final GeneralPath BENT_LINE = new GeneralPath();
-  private static final QuadCurve2D QUAD_CURVE = new QuadCurve2D.Float();
-  private static final CubicCurve2D CUBIC_CURVE = new CubicCurve2D.Float();
   private static final Ellipse2D ELLIPSE = new Ellipse2D.Float(-.5f, -.5f, 1, 1);
-  private static final Rectangle2D BOX = new Rectangle2D.Float();
   private static final GeneralPath BOW_TIE = new GeneralPath(GeneralPath.WIND_EVEN_ODD);
 
   private static GeneralPath triangle;
@@ -109,8 +107,8 @@ public class EdgeShape<E> {
     }
 
     /**
-     * Get the shape for this edge, returning either the shared instance or, in the case of
-     * self-loop edges, the Loop shared instance.
+     * Get the shape for this edge, returning either a new instance or, in the case of self-loop
+     * edges, the shape of the Loop shared instance.
      */
     public Shape apply(Context<Network<N, E>, E> context) {
       Network graph = context.graph;
@@ -121,11 +119,11 @@ public class EdgeShape<E> {
 
       int index = getIndex(context, edgeIndexFunction);
       float controlY = control_offset_increment + control_offset_increment * index;
-      BENT_LINE.reset();
-      BENT_LINE.moveTo(0.0f, 0.0f);
-      BENT_LINE.lineTo(0.5f, controlY);
-      BENT_LINE.lineTo(1.0f, 1.0f);
-      return BENT_LINE;
+      GeneralPath bentLine = new GeneralPath();
+      bentLine.moveTo(0.0f, 0.0f);
+      bentLine.lineTo(0.5f, controlY);
+      bentLine.lineTo(1.0f, 1.0f);
+      return bentLine;
     }
   }
 
@@ -138,8 +136,8 @@ public class EdgeShape<E> {
     }
 
     /**
-     * Get the shape for this edge, returning either the shared instance or, in the case of
-     * self-loop edges, the Loop shared instance.
+     * Get the shape for this edge, returning either a new instance or, in the case of self-loop
+     * edges, the shape of the Loop shared instance.
      */
     public Shape apply(Context<Network<N, E>, E> context) {
       Network graph = context.graph;
@@ -151,8 +149,7 @@ public class EdgeShape<E> {
       int index = getIndex(context, edgeIndexFunction);
 
       float controlY = control_offset_increment + control_offset_increment * index;
-      QUAD_CURVE.setCurve(0.0f, 0.0f, 0.5f, controlY, 1.0f, 0.0f);
-      return QUAD_CURVE;
+      return new QuadCurve2D.Float(0.0f, 0.0f, 0.5f, controlY, 1.0f, 0.0f);
     }
   }
 
@@ -167,8 +164,8 @@ public class EdgeShape<E> {
     }
 
     /**
-     * Get the shape for this edge, returning either the shared instance or, in the case of
-     * self-loop edges, the Loop shared instance.
+     * Get the shape for this edge, returning either a new instance or, in the case of self-loop
+     * edges, the shape of the Loop shared instance.
      */
     public Shape apply(Context<Network<N, E>, E> context) {
       Network graph = context.graph;
@@ -180,8 +177,7 @@ public class EdgeShape<E> {
       int index = getIndex(context, edgeIndexFunction);
 
       float controlY = control_offset_increment + control_offset_increment * index;
-      CUBIC_CURVE.setCurve(0.0f, 0.0f, 0.33f, 2 * controlY, .66f, -controlY, 1.0f, 0.0f);
-      return CUBIC_CURVE;
+      return new CubicCurve2D.Float(0.0f, 0.0f, 0.33f, 2 * controlY, .66f, -controlY, 1.0f, 0.0f);
     }
   }
 
@@ -218,7 +214,7 @@ public class EdgeShape<E> {
     public Shape apply(Context<Network<N, E>, E> context) {
       Network graph = context.graph;
       E e = context.element;
-      return buildFrame(ELLIPSE, getIndex(context, edgeIndexFunction));
+      return buildFrame(new Ellipse2D.Float(), getIndex(context, edgeIndexFunction));
     }
   }
 
@@ -257,7 +253,7 @@ public class EdgeShape<E> {
     public Shape apply(Context<Network<N, E>, E> context) {
       Network graph = context.graph;
       E e = context.element;
-      return buildFrame(BOX, getIndex(context, edgeIndexFunction));
+      return buildFrame(new Rectangle2D.Float(), getIndex(context, edgeIndexFunction));
     }
   }
 
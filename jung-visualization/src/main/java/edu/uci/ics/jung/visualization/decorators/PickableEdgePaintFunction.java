@@ -39,6 +39,21 @@ public class PickableEdgePaintFunction<E> implements Function<E, Paint> {
     this.picked_paint = Preconditions.checkNotNull(picked_paint);
   }
 
+  /** @return the source of the picked state of the edges */
+  public PickedInfo<E> getPickedInfo() {
+    return pi;
+  }
+
+  /** @return the <code>Paint</code> used to draw edge shapes */
+  public Paint getDrawPaint() {
+    return draw_paint;
+  }
+
+  /** @return the <code>Paint</code> used to draw picked edge shapes */
+  public Paint getPickedPaint() {
+    return picked_paint;
+  }
+
   /** */
   public Paint apply(E e) {
     if (pi.isPicked(e)) {
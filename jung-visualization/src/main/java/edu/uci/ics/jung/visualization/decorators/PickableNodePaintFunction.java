@@ -37,6 +37,21 @@ public class PickableNodePaintFunction<N> implements Function<N, Paint> {
     this.picked_paint = Preconditions.checkNotNull(picked_paint);
   }
 
+  /** @return the source of the picked state of the nodes */
+  public PickedInfo<N> getPickedInfo() {
+    return pi;
+  }
+
+  /** @return the <code>Paint</code> used to fill node shapes */
+  public Paint getFillPaint() {
+    return fill_paint;
+  }
+
+  /** @return the <code>Paint</code> used to fill picked node shapes */
+  public Paint getPickedPaint() {
+    return picked_paint;
+  }
+
   public Paint apply(N v) {
     return pi.isPicked(v) ? picked_paint : fill_paint;
   }
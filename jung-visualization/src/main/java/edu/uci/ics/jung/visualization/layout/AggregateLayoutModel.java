@@ -15,9 +15,11 @@ import com.google.common.graph.Graph;
 import edu.uci.ics.jung.layout.algorithms.LayoutAlgorithm;
 import edu.uci.ics.jung.layout.model.LayoutModel;
 import edu.uci.ics.jung.layout.model.Point;
+import edu.uci.ics.jung.layout.util.RelaxPolicy;
 import java.awt.geom.AffineTransform;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -119,6 +121,16 @@ public class AggregateLayoutModel<N> implements LayoutModel<N> {
     return delegate.isRelaxing();
   }
 
+  @Override
+  public void setRelaxerExecutor(Executor executor) {
+    delegate.setRelaxerExecutor(executor);
+  }
+
+  @Override
+  public void setRelaxPolicy(RelaxPolicy relaxPolicy) {
+    delegate.setRelaxPolicy(relaxPolicy);
+  }
+
   @Override
   public CompletableFuture getTheFuture() {
     return delegate.getTheFuture();
@@ -53,6 +53,9 @@ public class BasicEdgeLabelRenderer<N, E> implements Renderer.EdgeLabel<N, E> {
     if (label == null || label.length() == 0) {
       return;
     }
+    if (!renderContext.getEdgeIncludePredicate().test(e)) {
+      return;
+    }
 
     // don't draw edge if either incident node is not drawn
     EndpointPair<N> endpoints = visualizationModel.getNetwork().incidentNodes(e);
@@ -211,7 +211,8 @@ public class BasicEdgeRenderer<N, E> implements Renderer.Edge<N, E> {
     float scalex = (float) g.getTransform().getScaleX();
     float scaley = (float) g.getTransform().getScaleY();
     // see if arrows are too small to bother drawing
-    if (scalex < .3 || scaley < .3) {
+    float arrowDetailScale = renderContext.getArrowDetailScale();
+    if (scalex < arrowDetailScale || scaley < arrowDetailScale) {
       return;
     }
 
@@ -7,12 +7,27 @@
  */
 package edu.uci.ics.jung.visualization.renderers;
 
+import com.google.common.graph.EndpointPair;
 import com.google.common.graph.Network;
+import edu.uci.ics.jung.layout.model.LayoutModel;
+import edu.uci.ics.jung.layout.model.Point;
+import edu.uci.ics.jung.visualization.MultiLayerTransformer;
+import edu.uci.ics.jung.visualization.MultiLayerTransformer.Layer;
 import edu.uci.ics.jung.visualization.RenderContext;
 import edu.uci.ics.jung.visualization.VisualizationModel;
 import edu.uci.ics.jung.visualization.VisualizationServer;
 import edu.uci.ics.jung.visualization.spatial.Spatial;
+import edu.uci.ics.jung.visualization.transform.shape.GraphicsDecorator;
+import java.awt.BasicStroke;
+import java.awt.Paint;
+import java.awt.Stroke;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
 import java.util.ConcurrentModificationException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,11 +37,17 @@ import org.slf4j.LoggerFactory;
  * in the renderNode and renderEdge methods, which are called in the render loop of the
  * VisualizationViewer.
  *
+ * <p>When the overall scale of the layout and view transforms is below the detail scales of the
+ * RenderContext, the elements are drawn with less detail: edges as straight lines and nodes as
+ * rectangles, each batched into one path per paint, and labels and arrows not at all.
+ *
  * @author Tom Nelson
  */
 public class BasicRenderer<N, E> implements Renderer<N, E> {
 
   private static final Logger log = LoggerFactory.getLogger(BasicRenderer.class);
+  // the thinnest line that can be drawn, whatever the transform
+  private static final Stroke THIN_STROKE = new BasicStroke(0f);
   protected Node<N, E> nodeRenderer = new BasicNodeRenderer<N, E>();
   protected NodeLabel<N, E> nodeLabelRenderer = new BasicNodeLabelRenderer<N, E>();
   protected Renderer.Edge<N, E> edgeRenderer = new BasicEdgeRenderer<N, E>();
@@ -64,56 +85,225 @@ public class BasicRenderer<N, E> implements Renderer<N, E> {
       return;
     }
 
+    Network<N, E> network = visualizationModel.getNetwork();
+    // paint all the edges
+    log.trace("the visibleEdges are {}", visibleEdges);
+    renderEdges(renderContext, visualizationModel, visibleEdges, network.edges()::contains);
+
+    // paint all the nodes
+    log.trace("the visibleNodes are {}", visibleNodes);
+    renderNodes(renderContext, visualizationModel, visibleNodes);
+  }
+
+  @Override
+  public void render(
+      RenderContext<N, E> renderContext, VisualizationModel<N, E> visualizationModel) {
+    Network<N, E> network = visualizationModel.getNetwork();
+    renderElements(renderContext, visualizationModel, network.nodes(), network.edges());
+  }
+
+  /**
+   * Renders {@code edges} and then {@code nodes}, in the order given, with the level of detail for
+   * the overall scale of the layout and view transforms.
+   *
+   * @param renderContext the context in which to render
+   * @param visualizationModel the model of the network and its layout
+   * @param nodes the nodes to render
+   * @param edges the edges to render
+   */
+  public void renderElements(
+      RenderContext<N, E> renderContext,
+      VisualizationModel<N, E> visualizationModel,
+      Iterable<N> nodes,
+      Iterable<E> edges) {
+    renderEdges(renderContext, visualizationModel, edges, e -> true);
+    renderNodes(renderContext, visualizationModel, nodes);
+  }
+
+  /**
+   * Paints the edges that satisfy {@code edgePredicate}, as straight lines if the overall scale is
+   * below the edge detail scale of the RenderContext, and their labels unless it is below the label
+   * detail scale.
+   */
+  private void renderEdges(
+      RenderContext<N, E> renderContext,
+      VisualizationModel<N, E> visualizationModel,
+      Iterable<E> edges,
+      Predicate<E> edgePredicate) {
+    double scale = getScale(renderContext);
+    boolean labels = scale >= renderContext.getLabelDetailScale();
     try {
-      Network<N, E> network = visualizationModel.getNetwork();
-      // paint all the edges
-      log.trace("the visibleEdges are {}", visibleEdges);
-      for (E e : visibleEdges) {
-        if (network.edges().contains(e)) {
-          renderEdge(renderContext, visualizationModel, e);
-          renderEdgeLabel(renderContext, visualizationModel, e);
+      if (scale < renderContext.getEdgeDetailScale()) {
+        renderStraightEdges(renderContext, visualizationModel, edges, edgePredicate);
+        if (labels) {
+          for (E e : edges) {
+            if (edgePredicate.test(e)) {
+              renderEdgeLabel(renderContext, visualizationModel, e);
+            }
+          }
+        }
+      } else {
+        for (E e : edges) {
+          if (edgePredicate.test(e)) {
+            renderEdge(renderContext, visualizationModel, e);
+            if (labels) {
+              renderEdgeLabel(renderContext, visualizationModel, e);
+            }
+          }
         }
       }
     } catch (ConcurrentModificationException cme) {
       renderContext.getScreenDevice().repaint();
     }
+  }
 
-    // paint all the nodes
+  /**
+   * Paints the nodes, as rectangles if the overall scale is below the node detail scale of the
+   * RenderContext, and their labels unless it is below the label detail scale.
+   */
+  private void renderNodes(
+      RenderContext<N, E> renderContext,
+      VisualizationModel<N, E> visualizationModel,
+      Iterable<N> nodes) {
+    double scale = getScale(renderContext);
+    boolean labels = scale >= renderContext.getLabelDetailScale();
     try {
-      log.trace("the visibleNodes are {}", visibleNodes);
-
-      for (N v : visibleNodes) {
-        renderNode(renderContext, visualizationModel, v);
-        renderNodeLabel(renderContext, visualizationModel, v);
+      if (scale < renderContext.getNodeDetailScale()) {
+        renderNodeBounds(renderContext, visualizationModel, nodes, getViewScale(renderContext));
+        if (labels) {
+          for (N v : nodes) {
+            renderNodeLabel(renderContext, visualizationModel, v);
+          }
+        }
+      } else {
+        for (N v : nodes) {
+          renderNode(renderContext, visualizationModel, v);
+          if (labels) {
+            renderNodeLabel(renderContext, visualizationModel, v);
+          }
+        }
       }
     } catch (ConcurrentModificationException cme) {
       renderContext.getScreenDevice().repaint();
     }
   }
 
-  @Override
-  public void render(
-      RenderContext<N, E> renderContext, VisualizationModel<N, E> visualizationModel) {
+  /**
+   * Draws the edges that satisfy {@code edgePredicate} as straight lines between their endpoints,
+   * without arrows, appending the lines of all edges with the same draw paint to one path so that
+   * each paint is drawn once. Self-loops are not drawn.
+   */
+  protected void renderStraightEdges(
+      RenderContext<N, E> renderContext,
+      VisualizationModel<N, E> visualizationModel,
+      Iterable<E> edges,
+      Predicate<E> edgePredicate) {
     Network<N, E> network = visualizationModel.getNetwork();
-    // paint all the edges
-    try {
-      for (E e : network.edges()) {
-        renderEdge(renderContext, visualizationModel, e);
-        renderEdgeLabel(renderContext, visualizationModel, e);
+    LayoutModel<N> layoutModel = visualizationModel.getLayoutModel();
+    MultiLayerTransformer multiLayerTransformer = renderContext.getMultiLayerTransformer();
+    Predicate<E> edgeIncludePredicate = renderContext.getEdgeIncludePredicate();
+    Predicate<N> nodeIncludePredicate = renderContext.getNodeIncludePredicate();
+    Map<Paint, GeneralPath> paths = new LinkedHashMap<>();
+    for (E e : edges) {
+      if (!edgePredicate.test(e) || !edgeIncludePredicate.test(e)) {
+        continue;
       }
-    } catch (ConcurrentModificationException cme) {
-      renderContext.getScreenDevice().repaint();
+      EndpointPair<N> endpoints = network.incidentNodes(e);
+      N u = endpoints.nodeU();
+      N v = endpoints.nodeV();
+      if (u.equals(v) || !nodeIncludePredicate.test(u) || !nodeIncludePredicate.test(v)) {
+        continue;
+      }
+      Paint paint = renderContext.getEdgeDrawPaintFunction().apply(e);
+      if (paint == null) {
+        continue;
+      }
+      Point p1 = layoutModel.apply(u);
+      Point p2 = layoutModel.apply(v);
+      Point2D p2d1 = multiLayerTransformer.transform(Layer.LAYOUT, new Point2D.Double(p1.x, p1.y));
+      Point2D p2d2 = multiLayerTransformer.transform(Layer.LAYOUT, new Point2D.Double(p2.x, p2.y));
+      GeneralPath path = paths.computeIfAbsent(paint, k -> new GeneralPath());
+      path.moveTo(p2d1.getX(), p2d1.getY());
+      path.lineTo(p2d2.getX(), p2d2.getY());
     }
 
-    // paint all the nodes
-    try {
-      for (N v : network.nodes()) {
-        renderNode(renderContext, visualizationModel, v);
-        renderNodeLabel(renderContext, visualizationModel, v);
+    GraphicsDecorator g = renderContext.getGraphicsContext();
+    Paint oldPaint = g.getPaint();
+    Stroke oldStroke = g.getStroke();
+    g.setStroke(THIN_STROKE);
+    for (Map.Entry<Paint, GeneralPath> entry : paths.entrySet()) {
+      g.setPaint(entry.getKey());
+      g.draw(entry.getValue());
+    }
+    g.setStroke(oldStroke);
+    g.setPaint(oldPaint);
+  }
+
+  /**
+   * Fills the bounds of the shapes of the nodes, at least one pixel wide and high at {@code scale}
+   * (the scale of the view transform, which alone scales the node shapes), without outlines or
+   * icons, appending the rectangles of all nodes with the same fill paint (or draw paint, for nodes
+   * with no fill paint) to one path so that each paint is filled once.
+   */
+  protected void renderNodeBounds(
+      RenderContext<N, E> renderContext,
+      VisualizationModel<N, E> visualizationModel,
+      Iterable<N> nodes,
+      double scale) {
+    LayoutModel<N> layoutModel = visualizationModel.getLayoutModel();
+    MultiLayerTransformer multiLayerTransformer = renderContext.getMultiLayerTransformer();
+    Predicate<N> nodeIncludePredicate = renderContext.getNodeIncludePredicate();
+    double minSize = 1 / scale;
+    Map<Paint, GeneralPath> paths = new LinkedHashMap<>();
+    for (N v : nodes) {
+      if (!nodeIncludePredicate.test(v)) {
+        continue;
       }
-    } catch (ConcurrentModificationException cme) {
-      renderContext.getScreenDevice().repaint();
+      Paint paint = renderContext.getNodeFillPaintFunction().apply(v);
+      if (paint == null) {
+        paint = renderContext.getNodeDrawPaintFunction().apply(v);
+        if (paint == null) {
+          continue;
+        }
+      }
+      Point p = layoutModel.apply(v);
+      Point2D p2d = multiLayerTransformer.transform(Layer.LAYOUT, new Point2D.Double(p.x, p.y));
+      Rectangle2D bounds = renderContext.getNodeShapeFunction().apply(v).getBounds2D();
+      double width = Math.max(bounds.getWidth(), minSize);
+      double height = Math.max(bounds.getHeight(), minSize);
+      paths
+          .computeIfAbsent(paint, k -> new GeneralPath())
+          .append(
+              new Rectangle2D.Double(
+                  p2d.getX() + bounds.getCenterX() - width / 2,
+                  p2d.getY() + bounds.getCenterY() - height / 2,
+                  width,
+                  height),
+              false);
+    }
+
+    GraphicsDecorator g = renderContext.getGraphicsContext();
+    Paint oldPaint = g.getPaint();
+    for (Map.Entry<Paint, GeneralPath> entry : paths.entrySet()) {
+      g.setPaint(entry.getKey());
+      g.fill(entry.getValue());
     }
+    g.setPaint(oldPaint);
+  }
+
+  /**
+   * @return the overall scale of the layout and view transforms of the RenderContext, by which the
+   *     distances between nodes are scaled
+   */
+  private static double getScale(RenderContext<?, ?> renderContext) {
+    MultiLayerTransformer multiLayerTransformer = renderContext.getMultiLayerTransformer();
+    return multiLayerTransformer.getTransformer(Layer.LAYOUT).getScale()
+        * multiLayerTransformer.getTransformer(Layer.VIEW).getScale();
+  }
+
+  /** @return the overall scale of the view transform of the RenderContext */
+  private static double getViewScale(RenderContext<?, ?> renderContext) {
+    return renderContext.getMultiLayerTransformer().getTransformer(Layer.VIEW).getScale();
   }
 
   public void renderNode(
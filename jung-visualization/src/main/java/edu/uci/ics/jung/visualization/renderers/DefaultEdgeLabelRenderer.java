@@ -52,6 +52,11 @@ public class DefaultEdgeLabelRenderer extends JLabel implements EdgeLabelRendere
     setBorder(noFocusBorder);
   }
 
+  /** @return the color used for rendering the labels of picked edges */
+  public Color getPickedEdgeLabelColor() {
+    return pickedEdgeLabelColor;
+  }
+
   /** @return Returns the rotateEdgeLabels. */
   public boolean isRotateEdgeLabels() {
     return rotateEdgeLabels;
@@ -44,6 +44,11 @@ public class DefaultNodeLabelRenderer extends JLabel implements NodeLabelRendere
     setBorder(noFocusBorder);
   }
 
+  /** @return the color used for rendering the labels of picked nodes */
+  public Color getPickedNodeLabelColor() {
+    return pickedNodeLabelColor;
+  }
+
   /**
    * Overrides <code>JComponent.setForeground</code> to assign the unselected-foreground color to
    * the specified color.
@@ -1,6 +1,8 @@
 package edu.uci.ics.jung.visualization.spatial;
 
 import com.google.common.collect.EvictingQueue;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Queues;
 import edu.uci.ics.jung.layout.model.LayoutModel;
 import edu.uci.ics.jung.layout.model.Point;
 import edu.uci.ics.jung.layout.util.RadiusNetworkNodeAccessor;
@@ -23,7 +25,8 @@ public abstract class AbstractSpatial<T, NT> implements Spatial<T> {
 
   protected Rectangle2D rectangle;
 
-  protected Collection<Shape> pickShapes = EvictingQueue.create(4);
+  /** the last few shapes that were queried, for debugging; synchronized, as queries may overlap */
+  protected Collection<Shape> pickShapes = Queues.synchronizedQueue(EvictingQueue.create(4));
 
   /** a memoization of the grid rectangles used for rendering as Paintables for debugging */
   protected List<Shape> gridCache;
@@ -43,7 +46,9 @@ public abstract class AbstractSpatial<T, NT> implements Spatial<T> {
   }
 
   public Collection<Shape> getPickShapes() {
-    return pickShapes;
+    synchronized (pickShapes) {
+      return ImmutableList.copyOf(pickShapes);
+    }
   }
 
   @Override
@@ -7,6 +7,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import edu.uci.ics.jung.layout.model.LayoutModel;
 import edu.uci.ics.jung.layout.model.Point;
+import edu.uci.ics.jung.layout.util.LayoutBatchEvent;
 import edu.uci.ics.jung.layout.util.LayoutChangeListener;
 import edu.uci.ics.jung.layout.util.LayoutEvent;
 import edu.uci.ics.jung.layout.util.LayoutNetworkEvent;
@@ -552,6 +553,44 @@ public class SpatialQuadTree<N> extends AbstractSpatial<N, N>
     this.update(evt.getNode(), evt.getLocation());
   }
 
+  /**
+   * Update the structure for all of the moved nodes at once: the bounds are grown to hold all of
+   * the new locations, and the tree is rebuilt at most once, if any node moved out of its cell.
+   */
+  @Override
+  public void layoutChanged(LayoutBatchEvent<N> evt) {
+    if (!isActive()) {
+      return;
+    }
+    gridCache = null;
+    boolean rebuild = false;
+    for (Point location : evt.getLocations().values()) {
+      if (!this.getLayoutArea().contains(location.x, location.y)) {
+        this.setBounds(this.getUnion(this.getLayoutArea(), location.x, location.y));
+        rebuild = true;
+      }
+    }
+    if (!rebuild) {
+      for (Map.Entry<N, Point> entry : evt.getLocations().entrySet()) {
+        Point location = entry.getValue();
+        Spatial locationContainingLeaf = getContainingQuadTreeLeaf(location.x, location.y);
+        if (locationContainingLeaf != null
+            && !locationContainingLeaf.equals(getContainingQuadTreeLeaf(entry.getKey()))) {
+          rebuild = true;
+          break;
+        }
+      }
+    }
+    if (rebuild) {
+      log.trace("time to recalculate for {} moved nodes", evt.size());
+      this.recalculate(layoutModel.getGraph().nodes());
+    } else {
+      for (N node : evt.getNodes()) {
+        this.insert(node);
+      }
+    }
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
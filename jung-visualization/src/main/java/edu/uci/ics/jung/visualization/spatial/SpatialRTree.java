@@ -6,6 +6,7 @@ import com.google.common.graph.EndpointPair;
 import com.google.common.graph.Network;
 import edu.uci.ics.jung.layout.model.LayoutModel;
 import edu.uci.ics.jung.layout.model.Point;
+import edu.uci.ics.jung.layout.util.LayoutBatchEvent;
 import edu.uci.ics.jung.layout.util.LayoutChangeListener;
 import edu.uci.ics.jung.layout.util.LayoutEvent;
 import edu.uci.ics.jung.layout.util.LayoutNetworkEvent;
@@ -26,6 +27,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -306,6 +308,25 @@ public abstract class SpatialRTree<T, NT> extends AbstractSpatial<T, NT> impleme
     public void layoutChanged(LayoutNetworkEvent<N> evt) {
       update(evt.getNode(), evt.getLocation());
     }
+
+    /**
+     * update the moved nodes together; when at least half of the nodes have moved, rebuilding the
+     * tree is cheaper than moving each one
+     */
+    @Override
+    public void layoutChanged(LayoutBatchEvent<N> evt) {
+      gridCache = null;
+      if (!isActive()) {
+        return;
+      }
+      if (2 * evt.size() >= layoutModel.getGraph().nodes().size()) {
+        recalculate();
+      } else {
+        for (Map.Entry<N, Point> entry : evt.getLocations().entrySet()) {
+          update(entry.getKey(), entry.getValue());
+        }
+      }
+    }
   }
 
   public static class Edges<E, N> extends SpatialRTree<E, N>
@@ -425,6 +446,33 @@ public abstract class SpatialRTree<T, NT> extends AbstractSpatial<T, NT> impleme
       }
     }
 
+    /**
+     * update each edge incident to the moved nodes once, even when both of its endpoints moved;
+     * when at least half of the edges are affected, the tree is rebuilt instead
+     */
+    @Override
+    public void layoutChanged(LayoutBatchEvent<N> evt) {
+      gridCache = null;
+      if (!isActive()) {
+        return;
+      }
+      Network<N, E> network = visualizationModel.getNetwork();
+      Set<E> edges = Sets.newLinkedHashSet();
+      for (N node : evt.getNodes()) {
+        if (network.nodes().contains(node)) {
+          edges.addAll(network.incidentEdges(node));
+        }
+      }
+      if (2 * edges.size() >= network.edges().size()) {
+        recalculate();
+      } else {
+        for (E edge : edges) {
+          N node = network.incidentNodes(edge).nodeU();
+          update(edge, layoutModel.apply(node));
+        }
+      }
+    }
+
     /**
      * get the element that is closest to the passed point
      *
@@ -13,8 +13,8 @@ package edu.uci.ics.jung.visualization.util;
 
 import com.google.common.graph.EndpointPair;
 import com.google.common.graph.Network;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A class which creates and maintains indices for parallel edges. Parallel edges are defined here
@@ -28,7 +28,7 @@ import java.util.Map;
  * @author Tom Nelson
  */
 public class ParallelEdgeIndexFunction<N, E> implements EdgeIndexFunction<N, E> {
-  protected Map<E, Integer> edge_index = new HashMap<>();
+  protected Map<E, Integer> edge_index = new ConcurrentHashMap<>();
 
   public int getIndex(Context<Network<N, E>, E> context) {
     Network<N, E> network = context.graph;
@@ -2,9 +2,18 @@ package edu.uci.ics.jung.visualization;
 
 import com.google.common.graph.Network;
 import com.google.common.graph.NetworkBuilder;
+import edu.uci.ics.jung.graph.util.TestGraphs;
 import edu.uci.ics.jung.layout.algorithms.CircleLayoutAlgorithm;
+import edu.uci.ics.jung.layout.model.Point;
+import edu.uci.ics.jung.layout.util.LayoutEvent;
+import edu.uci.ics.jung.visualization.MultiLayerTransformer.Layer;
 import edu.uci.ics.jung.visualization.picking.PickedState;
+import edu.uci.ics.jung.visualization.renderers.BasicRenderer;
+import edu.uci.ics.jung.visualization.spatial.Spatial;
+import edu.uci.ics.jung.visualization.transform.shape.MagnifyShapeTransformer;
 import java.awt.*;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
 import junit.framework.TestCase;
 
 public class BasicVisualizationServerTest extends TestCase {
@@ -23,4 +32,242 @@ public class BasicVisualizationServerTest extends TestCase {
     PickedState<Object> pickedNodeState = server.getRenderContext().getPickedNodeState();
     assertNotNull(pickedNodeState);
   }
+
+  public void testLayerCachingMatchesDirectRendering() {
+    BasicVisualizationServer<String, Number> server = createDemoServer();
+    BufferedImage direct = render(server);
+    server.setLayerCaching(true);
+    BufferedImage cached = render(server);
+    for (int y = 0; y < direct.getHeight(); y++) {
+      for (int x = 0; x < direct.getWidth(); x++) {
+        assertEquals(direct.getRGB(x, y), cached.getRGB(x, y));
+      }
+    }
+  }
+
+  public void testLayerCachingRedrawsOnlyWhenInvalid() {
+    BasicVisualizationServer<String, Number> server = createDemoServer();
+    CountingRenderer<String, Number> renderer = new CountingRenderer<>();
+    server.setRenderer(renderer);
+    server.setLayerCaching(true);
+    render(server);
+    render(server);
+    assertEquals(1, renderer.renders);
+
+    // picking a node, and moving it once it is left out of the cached layer, redraws only it
+    String node = server.getModel().getNetwork().nodes().iterator().next();
+    server.getPickedNodeState().pick(node, true);
+    render(server);
+    assertEquals(1, renderer.renders);
+    moveNode(server, node);
+    render(server);
+    assertEquals(2, renderer.renders);
+    moveNode(server, node);
+    render(server);
+    assertEquals(2, renderer.renders);
+
+    // moving a node that is not picked, or changing the view, redraws the cached layer
+    server.getPickedNodeState().pick(node, false);
+    String other = server.getModel().getNetwork().nodes().stream().skip(1).findFirst().get();
+    moveNode(server, other);
+    render(server);
+    assertEquals(3, renderer.renders);
+    server
+        .getRenderContext()
+        .getMultiLayerTransformer()
+        .getTransformer(Layer.VIEW)
+        .scale(0.5, 0.5, new Point2D.Double());
+    render(server);
+    assertEquals(4, renderer.renders);
+  }
+
+  public void testLayerCachingBypassedByLens() {
+    BasicVisualizationServer<String, Number> server = createDemoServer();
+    CountingRenderer<String, Number> renderer = new CountingRenderer<>();
+    server.setRenderer(renderer);
+    server.setLayerCaching(true);
+    MultiLayerTransformer multiLayerTransformer =
+        server.getRenderContext().getMultiLayerTransformer();
+    multiLayerTransformer.setTransformer(
+        Layer.VIEW,
+        new MagnifyShapeTransformer(
+            new Dimension(400, 400), multiLayerTransformer.getTransformer(Layer.VIEW)));
+    render(server);
+    render(server);
+    assertEquals(2, renderer.renders);
+  }
+
+  public void testDirtyRegionRepaint() {
+    RecordingServer server = new RecordingServer();
+    Network<String, Number> network = server.getModel().getNetwork();
+    String node =
+        network
+            .nodes()
+            .stream()
+            .min((a, b) -> Integer.compare(network.degree(a), network.degree(b)))
+            .get();
+    Rectangle view = new Rectangle(0, 0, 400, 400);
+
+    // without dirty region repaint, a move repaints the whole view
+    moveNode(server, node);
+    assertEquals(view, server.repainted);
+
+    // the first move of a node that was not picked repaints the whole view, the next only its region
+    server.setDirtyRegionRepaint(true);
+    moveNode(server, node);
+    assertEquals(view, server.repainted);
+    Point2D before = toView(server, node);
+    moveNode(server, node);
+    Point2D after = toView(server, node);
+    assertRegion(server.repainted, view, before, after);
+
+    // picking another node repaints its region, and its first move then repaints only a region
+    String other = network.adjacentNodes(node).iterator().next();
+    server.getPickedNodeState().pick(other, true);
+    assertRegion(server.repainted, view, toView(server, other), toView(server, other));
+    before = toView(server, other);
+    moveNode(server, other);
+    assertRegion(server.repainted, view, before, toView(server, other));
+  }
+
+  public void testBackgroundRendering() throws Exception {
+    BasicVisualizationServer<String, Number> server = createDemoServer();
+    server.getPickedNodeState().pick("c1", true);
+    BufferedImage direct = render(server);
+    server.setBackgroundRendering(true);
+    paint(server);
+    awaitFrame(server);
+    BufferedImage framed = paint(server);
+    // the frame is rendered on a transparent image and then drawn over the background, so the
+    // antialiasing of some pixels differs slightly from rendering over the background directly
+    int differences = 0;
+    int foreground = 0;
+    int background = server.getBackground().getRGB();
+    for (int y = 0; y < direct.getHeight(); y++) {
+      for (int x = 0; x < direct.getWidth(); x++) {
+        if (channelDifference(direct.getRGB(x, y), framed.getRGB(x, y)) > 32) {
+          differences++;
+        }
+        if (framed.getRGB(x, y) != background) {
+          foreground++;
+        }
+      }
+    }
+    assertTrue(differences <= 10);
+    assertTrue(foreground > 1000);
+
+    // repainting does not make the frame out of date, but moving or picking a node does
+    server.repaint();
+    assertTrue(server.isFrameCurrent());
+    moveNode(server, "c1");
+    assertFalse(server.isFrameCurrent());
+    paint(server);
+    awaitFrame(server);
+    server.getPickedNodeState().pick("c1", false);
+    assertFalse(server.isFrameCurrent());
+    paint(server);
+    awaitFrame(server);
+    server.setBackgroundRendering(false);
+    assertFalse(server.isFrameCurrent());
+  }
+
+  private static void assertRegion(
+      Rectangle region, Rectangle view, Point2D before, Point2D after) {
+    assertFalse(region.contains(view));
+    assertTrue(region.contains(before));
+    assertTrue(region.contains(after));
+  }
+
+  private static Point2D toView(BasicVisualizationServer<String, Number> server, String node) {
+    Point p = server.getModel().getLayoutModel().apply(node);
+    return server.getRenderContext().getMultiLayerTransformer().transform(p.x, p.y);
+  }
+
+  private static BasicVisualizationServer<String, Number> createDemoServer() {
+    BasicVisualizationServer<String, Number> server =
+        new BasicVisualizationServer<>(
+            TestGraphs.getDemoGraph(), new CircleLayoutAlgorithm<>(), new Dimension(400, 400));
+    server.setSize(400, 400);
+    server.getRenderContext().setNodeLabelFunction(Object::toString);
+    // the layout events are delivered by moveNode rather than later on the event dispatch thread
+    server.getModel().removeLayoutChangeListener(server.layoutEventCoalescer);
+    return server;
+  }
+
+  private static BufferedImage render(BasicVisualizationServer<?, ?> server) {
+    BufferedImage image = new BufferedImage(400, 400, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g2d = image.createGraphics();
+    server.renderGraph(g2d);
+    g2d.dispose();
+    return image;
+  }
+
+  private static BufferedImage paint(BasicVisualizationServer<?, ?> server) {
+    BufferedImage image = new BufferedImage(400, 400, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g2d = image.createGraphics();
+    server.paintComponent(g2d);
+    g2d.dispose();
+    return image;
+  }
+
+  private static void awaitFrame(BasicVisualizationServer<?, ?> server) throws Exception {
+    for (int i = 0; i < 1000 && !server.isFrameCurrent(); i++) {
+      Thread.sleep(10);
+    }
+    // the frame is handed over by a task on the event dispatch thread, which must have finished
+    EventQueue.invokeAndWait(() -> {});
+    assertTrue(server.isFrameCurrent());
+  }
+
+  private static int channelDifference(int rgb1, int rgb2) {
+    int difference = 0;
+    for (int shift = 0; shift < 24; shift += 8) {
+      difference =
+          Math.max(difference, Math.abs(((rgb1 >> shift) & 0xff) - ((rgb2 >> shift) & 0xff)));
+    }
+    return difference;
+  }
+
+  private static void moveNode(BasicVisualizationServer<String, Number> server, String node) {
+    Point p = server.getModel().getLayoutModel().apply(node);
+    Point moved = Point.of(p.x + 10, p.y + 10);
+    server.getModel().getLayoutModel().set(node, moved);
+    // as delivered once per frame by the LayoutEventCoalescer
+    server.layoutChanged(new LayoutEvent<>(node, moved));
+  }
+
+  /** records the last region to be repainted */
+  private static class RecordingServer extends BasicVisualizationServer<String, Number> {
+    Rectangle repainted;
+
+    RecordingServer() {
+      super(TestGraphs.getDemoGraph(), new CircleLayoutAlgorithm<>(), new Dimension(400, 400));
+      setSize(400, 400);
+      getRenderContext().setNodeLabelFunction(Object::toString);
+      getRenderContext().setEdgeLabelFunction(Object::toString);
+      // the layout events are delivered by moveNode rather than later on the event dispatch thread
+      getModel().removeLayoutChangeListener(layoutEventCoalescer);
+    }
+
+    @Override
+    public void repaint(long tm, int x, int y, int width, int height) {
+      repainted = new Rectangle(x, y, width, height);
+      super.repaint(tm, x, y, width, height);
+    }
+  }
+
+  /** counts the renderings of the whole network */
+  private static class CountingRenderer<N, E> extends BasicRenderer<N, E> {
+    int renders;
+
+    @Override
+    public void render(
+        RenderContext<N, E> renderContext,
+        VisualizationModel<N, E> visualizationModel,
+        Spatial<N> nodeSpatial,
+        Spatial<E> edgeSpatial) {
+      renders++;
+      super.render(renderContext, visualizationModel, nodeSpatial, edgeSpatial);
+    }
+  }
 }
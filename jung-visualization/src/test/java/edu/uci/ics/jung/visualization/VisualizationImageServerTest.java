@@ -0,0 +1,131 @@
+package edu.uci.ics.jung.visualization;
+
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.graph.util.TestGraphs;
+import edu.uci.ics.jung.layout.algorithms.CircleLayoutAlgorithm;
+import edu.uci.ics.jung.visualization.MultiLayerTransformer.Layer;
+import java.awt.Dimension;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the tiled images of a VisualizationImageServer match an image drawn as a single tile,
+ * that concurrent requests produce the same images as serial ones, and that rendering leaves the
+ * transforms of the server unchanged.
+ */
+public class VisualizationImageServerTest {
+
+  private static final Dimension SIZE = new Dimension(400, 300);
+
+  private VisualizationImageServer<String, Number> server;
+
+  @Before
+  public void setup() {
+    Network<String, Number> network = TestGraphs.getDemoGraph();
+    server = new VisualizationImageServer<>(network, new CircleLayoutAlgorithm<>(), SIZE);
+    server.getRenderContext().setNodeLabelFunction(Object::toString);
+    server.getRenderContext().setEdgeLabelFunction(Object::toString);
+  }
+
+  @Test
+  public void testTilesMatchSingleTile() {
+    AffineTransform viewTransform = AffineTransform.getScaleInstance(0.8, 0.7);
+    server.setTileSize(Math.max(SIZE.width, SIZE.height));
+    BufferedImage single = server.getImage(SIZE, viewTransform);
+    server.setTileSize(37);
+    BufferedImage tiled = server.getImage(SIZE, viewTransform);
+    // the tiles are offset from the image by whole pixels, but as the offset is applied before
+    // rasterization, the antialiasing of some edge pixels differs slightly; a missing or extra
+    // element would change many pixels by much more
+    int differences = 0;
+    for (int y = 0; y < SIZE.height; y++) {
+      for (int x = 0; x < SIZE.width; x++) {
+        if (channelDifference(single.getRGB(x, y), tiled.getRGB(x, y)) > 32) {
+          differences++;
+        }
+      }
+    }
+    Assert.assertTrue(differences <= 10);
+    Assert.assertTrue(countForegroundPixels(tiled) > 1000);
+  }
+
+  @Test
+  public void testTransformsUnchanged() {
+    MultiLayerTransformer transformer = server.getRenderContext().getMultiLayerTransformer();
+    transformer.getTransformer(Layer.VIEW).scale(1.5, 1.5, new Point2D.Double());
+    AffineTransform view =
+        new AffineTransform(transformer.getTransformer(Layer.VIEW).getTransform());
+    AffineTransform layout =
+        new AffineTransform(transformer.getTransformer(Layer.LAYOUT).getTransform());
+
+    server.getImage(new Point2D.Double(200, 150), new Dimension(800, 600));
+    Assert.assertEquals(view, transformer.getTransformer(Layer.VIEW).getTransform());
+    Assert.assertEquals(layout, transformer.getTransformer(Layer.LAYOUT).getTransform());
+    Assert.assertNull(server.getRenderContext().getGraphicsContext());
+  }
+
+  @Test
+  public void testConcurrentImages() throws Exception {
+    server.setTileSize(64);
+    List<AffineTransform> transforms = new ArrayList<>();
+    List<BufferedImage> expected = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      AffineTransform transform = AffineTransform.getScaleInstance(0.5 + i * 0.25, 0.5 + i * 0.25);
+      transforms.add(transform);
+      expected.add(server.getImage(SIZE, transform));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<BufferedImage>> images = new ArrayList<>();
+      for (AffineTransform transform : transforms) {
+        images.add(executor.submit(() -> server.getImage(SIZE, transform)));
+      }
+      for (int i = 0; i < transforms.size(); i++) {
+        assertSameImage(expected.get(i), images.get(i).get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static void assertSameImage(BufferedImage expected, BufferedImage actual) {
+    Assert.assertEquals(expected.getWidth(), actual.getWidth());
+    Assert.assertEquals(expected.getHeight(), actual.getHeight());
+    for (int y = 0; y < expected.getHeight(); y++) {
+      for (int x = 0; x < expected.getWidth(); x++) {
+        Assert.assertEquals("pixel at " + x + ", " + y, expected.getRGB(x, y), actual.getRGB(x, y));
+      }
+    }
+  }
+
+  private static int channelDifference(int rgb1, int rgb2) {
+    int difference = 0;
+    for (int shift = 0; shift < 24; shift += 8) {
+      difference =
+          Math.max(difference, Math.abs(((rgb1 >> shift) & 0xff) - ((rgb2 >> shift) & 0xff)));
+    }
+    return difference;
+  }
+
+  private int countForegroundPixels(BufferedImage image) {
+    int background = server.getBackground().getRGB();
+    int count = 0;
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int x = 0; x < image.getWidth(); x++) {
+        if (image.getRGB(x, y) != background) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+}
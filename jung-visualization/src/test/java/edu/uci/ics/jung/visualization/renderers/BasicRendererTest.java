@@ -0,0 +1,160 @@
+package edu.uci.ics.jung.visualization.renderers;
+
+import com.google.common.graph.Network;
+import edu.uci.ics.jung.graph.util.TestGraphs;
+import edu.uci.ics.jung.layout.algorithms.CircleLayoutAlgorithm;
+import edu.uci.ics.jung.visualization.MultiLayerTransformer.Layer;
+import edu.uci.ics.jung.visualization.RenderContext;
+import edu.uci.ics.jung.visualization.VisualizationImageServer;
+import edu.uci.ics.jung.visualization.transform.shape.GraphicsDecorator;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import javax.swing.CellRendererPane;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that BasicRenderer draws nodes and edges in batches, and no labels, when the overall scale
+ * of the layout and view transforms is below the detail scales of the RenderContext.
+ */
+public class BasicRendererTest {
+
+  private VisualizationImageServer<String, Number> server;
+  private RenderContext<String, Number> renderContext;
+  private CountingGraphics graphics;
+  private BufferedImage image;
+
+  @Before
+  public void setup() {
+    Network<String, Number> network = TestGraphs.getDemoGraph();
+    server =
+        new VisualizationImageServer<>(
+            network, new CircleLayoutAlgorithm<>(), new Dimension(400, 400));
+    renderContext = server.getRenderContext();
+    renderContext.setScreenDevice(server);
+    renderContext.setNodeLabelFunction(Object::toString);
+    renderContext.setEdgeLabelFunction(Object::toString);
+    renderContext.setNodeFillPaintFunction(n -> n.equals("c1") ? Color.BLUE : Color.RED);
+    image = new BufferedImage(400, 400, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g2d = image.createGraphics();
+    graphics = new CountingGraphics(g2d);
+    renderContext.setGraphicsContext(graphics);
+  }
+
+  @Test
+  public void testFullDetail() {
+    render(1.0);
+    Network<String, Number> network = server.getModel().getNetwork();
+    Assert.assertTrue(graphics.fills >= network.nodes().size());
+    Assert.assertTrue(graphics.draws >= network.nodes().size() + network.edges().size());
+    Assert.assertTrue(graphics.labels > 0);
+  }
+
+  @Test
+  public void testLevelOfDetail() {
+    render(0.1);
+    // one fill for each of the two node fill paints, one draw for the edge draw paint
+    Assert.assertEquals(2, graphics.fills);
+    Assert.assertEquals(1, graphics.draws);
+    Assert.assertEquals(0, graphics.labels);
+    Assert.assertTrue(countForegroundPixels() > 0);
+  }
+
+  @Test
+  public void testLayoutScale() {
+    renderContext
+        .getMultiLayerTransformer()
+        .getTransformer(Layer.LAYOUT)
+        .setScale(0.1, 0.1, new Point2D.Double());
+    render(1.0);
+    Assert.assertEquals(2, graphics.fills);
+    Assert.assertEquals(1, graphics.draws);
+    Assert.assertEquals(0, graphics.labels);
+  }
+
+  @Test
+  public void testLabelsOnly() {
+    renderContext.setNodeDetailScale(0);
+    renderContext.setEdgeDetailScale(0);
+    render(0.1);
+    Assert.assertTrue(graphics.fills >= server.getModel().getNetwork().nodes().size());
+    Assert.assertEquals(0, graphics.labels);
+
+    renderContext.setLabelDetailScale(0);
+    render(0.1);
+    Assert.assertTrue(graphics.labels > 0);
+  }
+
+  @Test
+  public void testIncludePredicates() {
+    renderContext.setNodeIncludePredicate(n -> false);
+    render(0.1);
+    Assert.assertEquals(0, graphics.fills);
+    Assert.assertEquals(0, countForegroundPixels());
+  }
+
+  private void render(double scale) {
+    graphics.fills = 0;
+    graphics.draws = 0;
+    graphics.labels = 0;
+    renderContext
+        .getMultiLayerTransformer()
+        .getTransformer(Layer.VIEW)
+        .setScale(scale, scale, new Point2D.Double());
+    server.getRenderer().render(renderContext, server.getModel());
+  }
+
+  private int countForegroundPixels() {
+    int count = 0;
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int x = 0; x < image.getWidth(); x++) {
+        if (image.getRGB(x, y) != 0) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  /** counts the shapes and labels drawn on a Graphics2D */
+  private static class CountingGraphics extends GraphicsDecorator {
+    int fills;
+    int draws;
+    int labels;
+
+    CountingGraphics(Graphics2D delegate) {
+      super(delegate);
+    }
+
+    @Override
+    public void fill(Shape s) {
+      fills++;
+      super.fill(s);
+    }
+
+    @Override
+    public void draw(Shape s) {
+      draws++;
+      super.draw(s);
+    }
+
+    @Override
+    public void draw(
+        Component c,
+        CellRendererPane rendererPane,
+        int x,
+        int y,
+        int w,
+        int h,
+        boolean shouldValidate) {
+      labels++;
+      super.draw(c, rendererPane, x, y, w, h, shouldValidate);
+    }
+  }
+}